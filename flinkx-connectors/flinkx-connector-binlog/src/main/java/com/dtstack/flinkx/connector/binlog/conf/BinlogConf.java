@@ -50,6 +50,15 @@ public class BinlogConf extends FlinkxCommonConf {
 
     public int bufferSize = 256;
 
+    /** 解析线程和task线程之间队列的最大条数，队列满时阻塞binlog解析 */
+    public int queueSize = 4096;
+
+    /** 解析binlog事件并转换成RowData的线程数，大于1时并行解码并按binlog顺序输出 */
+    public int decodeThreadSize = 1;
+
+    /** 是否按表和主键的hash把数据分发到下游的各个并行度，同一主键的数据顺序不变 */
+    public boolean partitionByKey;
+
     public boolean pavingData = true;
 
     public List<String> table;
@@ -154,6 +163,30 @@ public class BinlogConf extends FlinkxCommonConf {
         this.bufferSize = bufferSize;
     }
 
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public int getDecodeThreadSize() {
+        return decodeThreadSize;
+    }
+
+    public void setDecodeThreadSize(int decodeThreadSize) {
+        this.decodeThreadSize = decodeThreadSize;
+    }
+
+    public boolean isPartitionByKey() {
+        return partitionByKey;
+    }
+
+    public void setPartitionByKey(boolean partitionByKey) {
+        this.partitionByKey = partitionByKey;
+    }
+
     public boolean isPavingData() {
         return pavingData;
     }
@@ -263,6 +296,9 @@ public class BinlogConf extends FlinkxCommonConf {
                 ", filter='" + filter + '\'' +
                 ", period=" + period +
                 ", bufferSize=" + bufferSize +
+                ", queueSize=" + queueSize +
+                ", decodeThreadSize=" + decodeThreadSize +
+                ", partitionByKey=" + partitionByKey +
                 ", pavingData=" + pavingData +
                 ", table=" + table +
                 ", slaveId=" + slaveId +
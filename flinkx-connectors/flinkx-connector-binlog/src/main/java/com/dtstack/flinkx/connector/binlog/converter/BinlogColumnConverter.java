@@ -92,7 +92,7 @@ public class BinlogColumnConverter extends AbstractCDCRowConverter<BinlogEventRo
                 size = 7;
             }
 
-            ColumnRowData columnRowData = new ColumnRowData(size);
+            ColumnRowData columnRowData = new KeyedColumnRowData(size, keyHash(key, rowData));
             columnRowData.addField(new StringColumn(schema));
             columnRowData.addHeader(SCHEMA);
             columnRowData.addField(new StringColumn(table));
@@ -148,6 +148,26 @@ public class BinlogColumnConverter extends AbstractCDCRowConverter<BinlogEventRo
         return result;
     }
 
+    /**
+     * 表名和主键值的hash，insert、update取after中的主键，delete取before中的主键，没有主键时只用表名
+     * @param table schema.table
+     * @param rowData canal数据
+     * @return hash
+     */
+    static int keyHash(String table, CanalEntry.RowData rowData) {
+        List<CanalEntry.Column> columns = rowData.getAfterColumnsList();
+        if (CollectionUtils.isEmpty(columns)) {
+            columns = rowData.getBeforeColumnsList();
+        }
+        int hash = table.hashCode();
+        for (CanalEntry.Column column : columns) {
+            if (column.getIsKey()) {
+                hash = 31 * hash + (column.getIsNull() ? 0 : column.getValue().hashCode());
+            }
+        }
+        return hash;
+    }
+
     /**
      * 解析CanalEntry.Column
      * @param converters
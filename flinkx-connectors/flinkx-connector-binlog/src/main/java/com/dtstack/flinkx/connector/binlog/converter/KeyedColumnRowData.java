@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.connector.binlog.converter;
+
+import org.apache.flink.types.RowKind;
+
+import com.dtstack.flinkx.element.ColumnRowData;
+
+/**
+ * 带有表名和主键hash的ColumnRowData，用于source之后按主键分发数据。
+ *
+ * <p>keyHash只在source所在的task中有效，经过网络传输后不会保留。
+ */
+public class KeyedColumnRowData extends ColumnRowData {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int keyHash;
+
+    public KeyedColumnRowData(int arity, int keyHash) {
+        super(arity);
+        this.keyHash = keyHash;
+    }
+
+    public KeyedColumnRowData(RowKind kind, int arity, int keyHash) {
+        super(kind, arity);
+        this.keyHash = keyHash;
+    }
+
+    public int getKeyHash() {
+        return keyHash;
+    }
+
+    @Override
+    public KeyedColumnRowData copy() {
+        KeyedColumnRowData copy = new KeyedColumnRowData(getRowKind(), getArity(), keyHash);
+        for (int i = 0; i < getArity(); i++) {
+            copy.addField(copyColumn(getField(i)));
+        }
+        copyHeader(copy);
+        return copy;
+    }
+}
@@ -175,7 +175,13 @@ public class BinlogInputFormat extends BaseRichInputFormat {
     @Override
     protected RowData nextRecordInternal(RowData row) {
         if (binlogEventSink != null) {
-            return binlogEventSink.takeRowDataFromQueue();
+            RowData rowData = binlogEventSink.takeRowDataFromQueue();
+            // gtid模式下位点由canal的LogPositionManager维护
+            EntryPosition emitted = binlogEventSink.getEmittedPosition();
+            if (emitted != null && !binlogConf.isGTIDMode()) {
+                entryPosition = emitted;
+            }
+            return rowData;
         }
         LOG.warn("binlog park start");
         LockSupport.park(this);
@@ -190,6 +196,9 @@ public class BinlogInputFormat extends BaseRichInputFormat {
             controller = null;
             LOG.info("binlog closeInternal..., entryPosition:{}", formatState != null ? formatState.getState() : null);
         }
+        if (binlogEventSink != null) {
+            binlogEventSink.close();
+        }
     }
 
     /**
@@ -21,24 +21,37 @@ import org.apache.flink.table.data.RowData;
 
 import com.alibaba.otter.canal.common.AbstractCanalLifeCycle;
 import com.alibaba.otter.canal.protocol.CanalEntry;
+import com.alibaba.otter.canal.protocol.position.EntryPosition;
 import com.alibaba.otter.canal.sink.exception.CanalSinkException;
 import com.dtstack.flinkx.connector.binlog.inputformat.BinlogInputFormat;
 import com.dtstack.flinkx.converter.AbstractCDCRowConverter;
 import com.dtstack.flinkx.element.ErrorMsgRowData;
-import com.dtstack.flinkx.exception.WriteRecordException;
+import com.dtstack.flinkx.source.PositionedEventQueue;
 import com.dtstack.flinkx.util.ExceptionUtil;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.protobuf.InvalidProtocolBufferException;
 import org.apache.commons.collections.CollectionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.InetSocketAddress;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 /**
+ * 接收canal解析出的binlog事件，转换成RowData后放入队列。
+ *
+ * <p>decodeThreadSize大于1时，canal线程把一批事件(一个事务，大事务按canal的缓冲区大小分批)提交给解码线程池，
+ * protobuf解析和数据转换在线程池中并行执行，canal线程按提交顺序取出结果放入队列，所以队列中数据的顺序和binlog一致，位点仍然准确。
+ * 一批事件全部放入队列后sink才返回，解析失败时和串行解码一样返回false。
+ *
  * @author toutian
  */
 public class BinlogEventSink extends AbstractCanalLifeCycle implements com.alibaba.otter.canal.sink.CanalEventSink<List<CanalEntry.Entry>> {
@@ -46,80 +59,164 @@ public class BinlogEventSink extends AbstractCanalLifeCycle implements com.aliba
     private static final Logger LOG = LoggerFactory.getLogger(BinlogEventSink.class);
 
     private final BinlogInputFormat format;
-    private final LinkedBlockingDeque<RowData> queue;
+    private final PositionedEventQueue<EntryPosition> queue;
     private final AbstractCDCRowConverter rowConverter;
+    /** 当前事务开始的位置，事务中的数据从这里恢复 */
+    private EntryPosition transactionPosition;
+
+    /** 并行解码时的线程池，串行解码时为null */
+    private ExecutorService decodeExecutor;
 
     public BinlogEventSink(BinlogInputFormat format) {
         this.format = format;
-        this.queue = new LinkedBlockingDeque<>();
+        this.queue = new PositionedEventQueue<>(format.getBinlogConf().getQueueSize());
         this.rowConverter = format.getRowConverter();
+
+        int decodeThreadSize = format.getBinlogConf().getDecodeThreadSize();
+        if (decodeThreadSize > 1) {
+            decodeExecutor = Executors.newFixedThreadPool(
+                    decodeThreadSize,
+                    new ThreadFactoryBuilder().setNameFormat("binlog-decode-%d").setDaemon(true).build());
+        }
     }
 
     @Override
     public boolean sink(List<CanalEntry.Entry> entries, InetSocketAddress inetSocketAddress, String s) throws CanalSinkException {
-        for (CanalEntry.Entry entry : entries) {
-            CanalEntry.EntryType entryType = entry.getEntryType();
-            if (entryType != CanalEntry.EntryType.ROWDATA) {
-                continue;
-            }
-            CanalEntry.RowChange rowChange = null;
-            try {
-                rowChange = CanalEntry.RowChange.parseFrom(entry.getStoreValue());
-            } catch (InvalidProtocolBufferException e) {
-                LOG.error("parser data[{}] error:{}", entry, ExceptionUtil.getErrorMessage(e));
+        if (decodeExecutor != null) {
+            return sinkParallel(entries);
+        }
+        try {
+            for (CanalEntry.Entry entry : entries) {
+                CanalEntry.EntryType entryType = entry.getEntryType();
+                if (entryType == CanalEntry.EntryType.TRANSACTIONBEGIN) {
+                    transactionPosition = buildPosition(entry.getHeader());
+                } else if (entryType == CanalEntry.EntryType.TRANSACTIONEND) {
+                    emit(endTransaction(entry));
+                } else if (entryType == CanalEntry.EntryType.ROWDATA) {
+                    DecodedEntry decoded = decode(entry, rowPosition(entry));
+                    if (decoded == null) {
+                        return false;
+                    }
+                    emit(decoded);
+                }
             }
+        } catch (InterruptedException e) {
+            LOG.warn("BinlogEventSink interrupted while putting data into queue");
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return true;
+    }
 
-            if(rowChange == null) {
-                return false;
+    /**
+     * 把这一批事件提交给解码线程池，再按顺序等待解码结果放入队列。
+     * 全部放入队列后才返回，解析失败时和串行解码一样返回false，canal从上一批之后的位置重新读取
+     */
+    private boolean sinkParallel(List<CanalEntry.Entry> entries) {
+        List<Future<DecodedEntry>> decoding = new ArrayList<>(entries.size());
+        for (CanalEntry.Entry entry : entries) {
+            CanalEntry.EntryType entryType = entry.getEntryType();
+            if (entryType == CanalEntry.EntryType.TRANSACTIONBEGIN) {
+                transactionPosition = buildPosition(entry.getHeader());
+            } else if (entryType == CanalEntry.EntryType.TRANSACTIONEND) {
+                decoding.add(CompletableFuture.completedFuture(endTransaction(entry)));
+            } else if (entryType == CanalEntry.EntryType.ROWDATA) {
+                EntryPosition position = rowPosition(entry);
+                decoding.add(decodeExecutor.submit(() -> decode(entry, position)));
             }
+        }
 
-            CanalEntry.Header header = entry.getHeader();
-            String schema = header.getSchemaName();
-            String table = header.getTableName();
-            long executeTime = header.getExecuteTime();
-            try {
-                processRowChange(rowChange, schema, table, executeTime);
-            } catch (WriteRecordException e) {
-                // todo 脏数据记录
-                if (LOG.isTraceEnabled()) {
-                    LOG.trace("write error rowData, rowData = {}, e = {}", e.getRowData().toString(), ExceptionUtil.getErrorMessage(e));
+        int index = 0;
+        try {
+            for (; index < decoding.size(); index++) {
+                DecodedEntry decoded = decoding.get(index).get();
+                if (decoded == null) {
+                    return false;
                 }
+                emit(decoded);
+            }
+        } catch (InterruptedException e) {
+            LOG.warn("BinlogEventSink interrupted while putting data into queue");
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            // decode只会抛出unchecked异常，和串行解码一样交给canal处理
+            Throwable cause = e.getCause();
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new RuntimeException(cause);
+        } finally {
+            for (; index < decoding.size(); index++) {
+                decoding.get(index).cancel(true);
             }
         }
         return true;
     }
 
+    /** 事务结束后从结束位置恢复，不再重复读取该事务 */
+    private DecodedEntry endTransaction(CanalEntry.Entry entry) {
+        transactionPosition = null;
+        return new DecodedEntry(Collections.emptyList(), buildPosition(entry.getHeader()));
+    }
+
+    private EntryPosition rowPosition(CanalEntry.Entry entry) {
+        return transactionPosition != null ? transactionPosition : buildPosition(entry.getHeader());
+    }
+
+    private EntryPosition buildPosition(CanalEntry.Header header) {
+        return new EntryPosition(header.getLogfileName(), header.getLogfileOffset(), header.getExecuteTime());
+    }
+
     /**
-     * 处理RowData数据
-     * @param rowChange 解析后的RowData数据
-     * @param schema  schema
-     * @param table table
-     * @param executeTime   变更数据的执行时间
+     * 解析并转换一条ROWDATA事件，可以在多个线程中同时调用
+     * @param entry canal事件
+     * @param position 从该位置恢复时能重新读到这条数据
+     * @return 事件无法解析时返回null
      */
     @SuppressWarnings("unchecked")
-    private void processRowChange(CanalEntry.RowChange rowChange, String schema, String table, long executeTime) throws WriteRecordException {
+    private DecodedEntry decode(CanalEntry.Entry entry, EntryPosition position) {
+        CanalEntry.RowChange rowChange;
+        try {
+            rowChange = CanalEntry.RowChange.parseFrom(entry.getStoreValue());
+        } catch (InvalidProtocolBufferException e) {
+            LOG.error("parser data[{}] error:{}", entry, ExceptionUtil.getErrorMessage(e));
+            return null;
+        }
+
         String eventType = rowChange.getEventType().toString();
         List<String> categories = format.getCategories();
-        if(CollectionUtils.isNotEmpty(categories) && !categories.contains(eventType)) {
-            return;
-        }
-        BinlogEventRow binlogEventRow = new BinlogEventRow(rowChange, schema, table, executeTime);
-        LinkedList<RowData> rowDatalist = null;
-        try{
-            rowDatalist = rowConverter.toInternal(binlogEventRow);
-        }catch (Exception e){
-            throw new WriteRecordException("", e, 0, binlogEventRow);
+        if (CollectionUtils.isNotEmpty(categories) && !categories.contains(eventType)) {
+            return new DecodedEntry(Collections.emptyList(), position);
         }
-        RowData rowData = null;
+        CanalEntry.Header header = entry.getHeader();
+        BinlogEventRow binlogEventRow = new BinlogEventRow(rowChange, header.getSchemaName(), header.getTableName(), header.getExecuteTime());
         try {
-            while (rowDatalist != null && (rowData = rowDatalist.poll()) != null){
-                queue.put(rowData);
+            List<RowData> rows = rowConverter.toInternal(binlogEventRow);
+            return new DecodedEntry(rows == null ? Collections.emptyList() : rows, position);
+        } catch (Exception e) {
+            // todo 脏数据记录
+            if (LOG.isTraceEnabled()) {
+                LOG.trace("write error rowData, rowData = {}, e = {}", binlogEventRow, ExceptionUtil.getErrorMessage(e));
             }
-        }catch (InterruptedException e){
-            LOG.error("put rowData[{}] into queue interrupted error:{}", rowData, ExceptionUtil.getErrorMessage(e));
+            return new DecodedEntry(Collections.emptyList(), position);
         }
     }
 
+    /**
+     * 把解码结果放入队列，没有数据时只推进位置
+     * @param decoded 解码结果
+     * @throws InterruptedException 队列满时等待被中断
+     */
+    private void emit(DecodedEntry decoded) throws InterruptedException {
+        if (decoded.rows.isEmpty()) {
+            queue.putPosition(decoded.position);
+            return;
+        }
+        for (RowData rowData : decoded.rows) {
+            queue.put(rowData, decoded.position);
+        }
+    }
 
     /**
      * 从队列中获取RowData数据，对于异常情况需要把异常抛出并停止任务
@@ -139,20 +236,49 @@ public class BinlogEventSink extends AbstractCanalLifeCycle implements com.aliba
         return rowData;
     }
 
+    /**
+     * 最后一条从队列中取出的数据的位置
+     * @return
+     */
+    public EntryPosition getEmittedPosition() {
+        return queue.getEmittedPosition();
+    }
+
     /**
      * 处理异常数据
      * @param rowData
      */
     public void processErrorMsgRowData(ErrorMsgRowData rowData) {
         try {
-            queue.put(rowData);
+            queue.put(rowData, null);
         } catch (InterruptedException e) {
             LOG.error("processErrorMsgRowData interrupted rowData:{} error:{}", rowData, ExceptionUtil.getErrorMessage(e));
         }
     }
 
+    /**
+     * 停止解码线程，canal解析器停止后调用
+     */
+    public void close() {
+        if (decodeExecutor != null) {
+            decodeExecutor.shutdownNow();
+        }
+        queue.clear();
+    }
+
     @Override
     public void interrupt() {
         LOG.warn("BinlogEventSink is interrupted");
     }
+
+    /** 一条binlog事件解码后的数据和位置 */
+    private static class DecodedEntry {
+        private final List<RowData> rows;
+        private final EntryPosition position;
+
+        DecodedEntry(List<RowData> rows, EntryPosition position) {
+            this.rows = rows;
+            this.position = position;
+        }
+    }
 }
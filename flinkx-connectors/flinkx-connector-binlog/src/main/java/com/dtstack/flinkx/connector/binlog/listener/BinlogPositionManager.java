@@ -45,7 +45,10 @@ public class BinlogPositionManager extends AbstractLogPositionManager {
 
     @Override
     public void persistLogPosition(String destination, LogPosition logPosition) throws CanalParseException {
-        format.setEntryPosition(logPosition.getPostion());
+        // 非gtid模式下checkpoint记录最后一条发送到下游的数据的位置，而不是canal已解析到的位置
+        if (format.getBinlogConf().isGTIDMode()) {
+            format.setEntryPosition(logPosition.getPostion());
+        }
         logPositionCache.put(destination, logPosition);
     }
 
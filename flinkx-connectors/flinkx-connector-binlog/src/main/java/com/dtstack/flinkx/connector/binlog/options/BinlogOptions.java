@@ -100,6 +100,18 @@ public class BinlogOptions {
                     .defaultValue(256)
                     .withDescription("MySQL Binlog bufferSize.");
 
+    public static final ConfigOption<Integer> QUEUE_SIZE =
+            ConfigOptions.key("queueSize")
+                    .intType()
+                    .defaultValue(4096)
+                    .withDescription("MySQL Binlog queueSize.");
+
+    public static final ConfigOption<Integer> DECODE_THREAD_SIZE =
+            ConfigOptions.key("decodeThreadSize")
+                    .intType()
+                    .defaultValue(1)
+                    .withDescription("MySQL Binlog decodeThreadSize.");
+
     public static final ConfigOption<String> TABLE =
             ConfigOptions.key("table")
                     .stringType()
@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.connector.binlog.source;
+
+import org.apache.flink.api.common.functions.Partitioner;
+import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.util.MathUtils;
+
+import com.dtstack.flinkx.connector.binlog.converter.KeyedColumnRowData;
+
+/**
+ * 按表名和主键的hash把binlog数据分发到下游的并行度，同一主键的数据总是发往同一个下游，顺序不变。
+ *
+ * <p>不是{@link KeyedColumnRowData}的数据没有主键信息，全部发往同一个下游，
+ * 所以使用BinlogRowConverter的transformer任务不支持按主键分发。
+ */
+public class BinlogKeyPartitioner implements Partitioner<Integer> {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public int partition(Integer keyHash, int numPartitions) {
+        return (MathUtils.murmurHash(keyHash) & Integer.MAX_VALUE) % numPartitions;
+    }
+
+    /** 取出{@link KeyedColumnRowData}中的主键hash */
+    public static class KeyHashSelector implements KeySelector<RowData, Integer> {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public Integer getKey(RowData rowData) {
+            return rowData instanceof KeyedColumnRowData
+                    ? ((KeyedColumnRowData) rowData).getKeyHash()
+                    : 0;
+        }
+    }
+}
@@ -51,6 +51,16 @@ public class BinlogSourceFactory extends SourceFactory {
                         JsonUtil.toJson(config.getReader().getParameter()), BinlogConf.class);
         binlogConf.setColumn(config.getReader().getFieldList());
         super.initFlinkxCommonConf(binlogConf);
+        if (binlogConf.isPartitionByKey()) {
+            if (config.getSpeed().isRebalance()) {
+                throw new IllegalArgumentException(
+                        "partitionByKey can't be used with speed.rebalance, rebalance breaks the order of rows with the same key");
+            }
+            if (!useAbstractBaseColumn) {
+                throw new UnsupportedOperationException(
+                        "partitionByKey not support transform, the primary key of rows is unknown after transformSql");
+            }
+        }
     }
 
     @Override
@@ -76,6 +86,19 @@ public class BinlogSourceFactory extends SourceFactory {
         return createInput(builder.finish());
     }
 
+    /**
+     * 只有一个并行度读取binlog，按主键分发后下游的所有并行度都能分担处理。
+     * 需要在source设置并行度之后调用，createSource()中分区会使返回值不再是DataStreamSource
+     */
+    @Override
+    public DataStream<RowData> partitionSource(DataStream<RowData> dataStream) {
+        if (!binlogConf.isPartitionByKey()) {
+            return dataStream;
+        }
+        return dataStream.partitionCustom(
+                new BinlogKeyPartitioner(), new BinlogKeyPartitioner.KeyHashSelector());
+    }
+
     @Override
     public RawTypeConverter getRawTypeConverter() {
         return MysqlBinlogRawTypeConverter::apply;
@@ -76,6 +76,8 @@ public class BinlogDynamicTableFactory implements DynamicTableSourceFactory {
         options.add(BinlogOptions.ENABLE_TSDB);
         options.add(BinlogOptions.PERIOD);
         options.add(BinlogOptions.BUFFER_SIZE);
+        options.add(BinlogOptions.QUEUE_SIZE);
+        options.add(BinlogOptions.DECODE_THREAD_SIZE);
         options.add(BinlogOptions.PARALLEL);
         options.add(BinlogOptions.PARALLEL_THREAD_SIZE);
         options.add(BinlogOptions.IS_GTID_MODE);
@@ -127,6 +129,8 @@ public class BinlogDynamicTableFactory implements DynamicTableSourceFactory {
         binlogConf.setFilter(config.get(BinlogOptions.FILTER));
         binlogConf.setPeriod(config.get(BinlogOptions.PERIOD));
         binlogConf.setBufferSize(config.get(BinlogOptions.BUFFER_SIZE));
+        binlogConf.setQueueSize(config.get(BinlogOptions.QUEUE_SIZE));
+        binlogConf.setDecodeThreadSize(config.get(BinlogOptions.DECODE_THREAD_SIZE));
         binlogConf.setPavingData(true);
         binlogConf.setTable(Arrays.asList(config.get(BinlogOptions.TABLE).split(ConstantValue.COMMA_SYMBOL)));
         binlogConf.setConnectionCharset(config.get(BinlogOptions.CONNECTION_CHARSET));
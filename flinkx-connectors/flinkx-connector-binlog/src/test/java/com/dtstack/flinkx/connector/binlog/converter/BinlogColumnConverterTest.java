@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.connector.binlog.converter;
+
+import com.alibaba.otter.canal.protocol.CanalEntry;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BinlogColumnConverterTest {
+
+    private static final String TABLE = "db.user";
+
+    @Test
+    public void testKeyHashOnlyDependsOnPrimaryKey() {
+        CanalEntry.RowData first =
+                CanalEntry.RowData.newBuilder()
+                        .addAfterColumns(column("id", "1", true))
+                        .addAfterColumns(column("name", "a", false))
+                        .build();
+        CanalEntry.RowData second =
+                CanalEntry.RowData.newBuilder()
+                        .addAfterColumns(column("id", "1", true))
+                        .addAfterColumns(column("name", "b", false))
+                        .build();
+        CanalEntry.RowData other =
+                CanalEntry.RowData.newBuilder()
+                        .addAfterColumns(column("id", "2", true))
+                        .addAfterColumns(column("name", "a", false))
+                        .build();
+
+        Assert.assertEquals(
+                BinlogColumnConverter.keyHash(TABLE, first),
+                BinlogColumnConverter.keyHash(TABLE, second));
+        Assert.assertNotEquals(
+                BinlogColumnConverter.keyHash(TABLE, first),
+                BinlogColumnConverter.keyHash(TABLE, other));
+        Assert.assertNotEquals(
+                BinlogColumnConverter.keyHash(TABLE, first),
+                BinlogColumnConverter.keyHash("db.order", first));
+    }
+
+    @Test
+    public void testDeleteUsesBeforeImage() {
+        CanalEntry.RowData insert =
+                CanalEntry.RowData.newBuilder()
+                        .addAfterColumns(column("id", "1", true))
+                        .addAfterColumns(column("name", "a", false))
+                        .build();
+        CanalEntry.RowData delete =
+                CanalEntry.RowData.newBuilder()
+                        .addBeforeColumns(column("id", "1", true))
+                        .addBeforeColumns(column("name", "a", false))
+                        .build();
+
+        Assert.assertEquals(
+                BinlogColumnConverter.keyHash(TABLE, insert),
+                BinlogColumnConverter.keyHash(TABLE, delete));
+    }
+
+    @Test
+    public void testTableWithoutPrimaryKey() {
+        CanalEntry.RowData rowData =
+                CanalEntry.RowData.newBuilder()
+                        .addAfterColumns(column("name", "a", false))
+                        .build();
+
+        Assert.assertEquals(TABLE.hashCode(), BinlogColumnConverter.keyHash(TABLE, rowData));
+    }
+
+    private static CanalEntry.Column column(String name, String value, boolean isKey) {
+        return CanalEntry.Column.newBuilder()
+                .setName(name)
+                .setValue(value)
+                .setIsKey(isKey)
+                .setIsNull(false)
+                .build();
+    }
+}
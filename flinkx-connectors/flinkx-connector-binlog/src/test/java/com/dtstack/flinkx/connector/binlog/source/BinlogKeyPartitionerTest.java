@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.connector.binlog.source;
+
+import org.apache.flink.table.data.GenericRowData;
+
+import com.dtstack.flinkx.connector.binlog.converter.KeyedColumnRowData;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+public class BinlogKeyPartitionerTest {
+
+    private final BinlogKeyPartitioner partitioner = new BinlogKeyPartitioner();
+    private final BinlogKeyPartitioner.KeyHashSelector selector =
+            new BinlogKeyPartitioner.KeyHashSelector();
+
+    @Test
+    public void testSameKeySamePartition() {
+        int numPartitions = 4;
+        Set<Integer> used = new HashSet<>();
+        for (int keyHash = -1000; keyHash < 1000; keyHash++) {
+            int partition = partitioner.partition(keyHash, numPartitions);
+            Assert.assertTrue(partition >= 0 && partition < numPartitions);
+            Assert.assertEquals(partition, partitioner.partition(keyHash, numPartitions));
+            used.add(partition);
+        }
+        Assert.assertEquals(numPartitions, used.size());
+    }
+
+    @Test
+    public void testMinValueHash() {
+        int partition = partitioner.partition(Integer.MIN_VALUE, 3);
+        Assert.assertTrue(partition >= 0 && partition < 3);
+    }
+
+    @Test
+    public void testSelectKeyHash() throws Exception {
+        Assert.assertEquals(Integer.valueOf(42), selector.getKey(new KeyedColumnRowData(1, 42)));
+        Assert.assertEquals(
+                Integer.valueOf(42), selector.getKey(new KeyedColumnRowData(1, 42).copy()));
+        Assert.assertEquals(Integer.valueOf(0), selector.getKey(GenericRowData.of(1)));
+    }
+}
@@ -35,4 +35,10 @@ public class DtElasticsearchOptions {
     public static final ConfigOption<Integer> ACTION_TIMEOUT_OPTION = ConfigOptions
             .key("action-timeout").intType().defaultValue(5000).withDescription("timeout when interaction with es.");
 
+    public static final ConfigOption<Integer> BULK_FLUSH_CONCURRENT_REQUESTS_OPTION =
+            ConfigOptions.key("bulk-flush.concurrent-requests")
+                    .intType()
+                    .defaultValue(2)
+                    .withDescription("Number of bulk requests written concurrently, requests on the same document are always written in order.");
+
 }
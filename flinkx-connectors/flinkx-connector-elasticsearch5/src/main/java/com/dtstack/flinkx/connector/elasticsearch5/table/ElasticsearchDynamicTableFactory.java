@@ -40,6 +40,7 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static com.dtstack.flinkx.connector.elasticsearch5.options.DtElasticsearchOptions.ACTION_TIMEOUT_OPTION;
+import static com.dtstack.flinkx.connector.elasticsearch5.options.DtElasticsearchOptions.BULK_FLUSH_CONCURRENT_REQUESTS_OPTION;
 import static com.dtstack.flinkx.connector.elasticsearch5.options.DtElasticsearchOptions.CLUSTER_OPTION;
 import static com.dtstack.flinkx.connector.elasticsearch5.utils.ElasticsearchConstants.IDENTIFIER;
 import static com.dtstack.flinkx.lookup.options.LookupOptions.LOOKUP_ASYNCTIMEOUT;
@@ -91,6 +92,7 @@ public class ElasticsearchDynamicTableFactory implements DynamicTableSourceFacto
                     BULK_FLUSH_BACKOFF_TYPE_OPTION,
                     BULK_FLUSH_BACKOFF_MAX_RETRIES_OPTION,
                     BULK_FLUSH_BACKOFF_DELAY_OPTION,
+                    BULK_FLUSH_CONCURRENT_REQUESTS_OPTION,
                     CONNECTION_MAX_RETRY_TIMEOUT_OPTION,
                     CONNECTION_PATH_PREFIX,
                     FORMAT_OPTION,
@@ -166,6 +168,13 @@ public class ElasticsearchDynamicTableFactory implements DynamicTableSourceFacto
         elasticsearchConf.setIndex(readableConfig.get(INDEX_OPTION));
         elasticsearchConf.setType(readableConfig.get(DOCUMENT_TYPE_OPTION));
         elasticsearchConf.setKeyDelimiter(readableConfig.get(KEY_DELIMITER_OPTION));
+        elasticsearchConf.setBulkMaxBytes(readableConfig.get(BULK_FLASH_MAX_SIZE_OPTION).getBytes());
+        elasticsearchConf.setBulkConcurrentRequests(readableConfig.get(BULK_FLUSH_CONCURRENT_REQUESTS_OPTION));
+        readableConfig.getOptional(BULK_FLUSH_BACKOFF_MAX_RETRIES_OPTION).ifPresent(elasticsearchConf::setBulkMaxRetries);
+        readableConfig.getOptional(BULK_FLUSH_BACKOFF_TYPE_OPTION)
+                .ifPresent(type -> elasticsearchConf.setBulkBackoffType(type.name()));
+        readableConfig.getOptional(BULK_FLUSH_BACKOFF_DELAY_OPTION)
+                .ifPresent(delay -> elasticsearchConf.setBulkBackoffDelay(delay.toMillis()));
         elasticsearchConf.setCluster(readableConfig.get(CLUSTER_OPTION));
         elasticsearchConf.setActionTimeout(readableConfig.get(ACTION_TIMEOUT_OPTION));
         String username = readableConfig.get(USERNAME_OPTION);
@@ -72,6 +72,22 @@ public class ElasticsearchRequestHelper {
         return new IndexRequest(index, type).source(dataMap);
     }
 
+    /**
+     * create Elasticsearch IndexRequest with document id.
+     * @param index
+     * @param type
+     * @param id
+     * @param dataMap
+     * @return
+     */
+    public static IndexRequest createIndexRequest(
+            String index,
+            String type,
+            String id,
+            Map<String, Object> dataMap) {
+        return new IndexRequest(index, type, id).source(dataMap);
+    }
+
     /**
      * create Elasticsearch DeleteRequest.
      * @param index
@@ -27,6 +27,7 @@ import com.dtstack.flinkx.connector.es.utils.EsUtil;
 import com.dtstack.flinkx.converter.AbstractRowConverter;
 import com.dtstack.flinkx.enums.ECacheContentType;
 import com.dtstack.flinkx.lookup.AbstractLruTableFunction;
+import com.dtstack.flinkx.lookup.cache.CacheKey;
 import com.dtstack.flinkx.lookup.cache.CacheMissVal;
 import com.dtstack.flinkx.lookup.cache.CacheObj;
 import com.dtstack.flinkx.lookup.conf.LookupConf;
@@ -81,7 +82,7 @@ public class EsLruTableFunction extends AbstractLruTableFunction {
 
     @Override
     public void handleAsyncInvoke(CompletableFuture<Collection<RowData>> future, Object... keys) throws Exception {
-        String cacheKey = buildCacheKey(keys);
+        CacheKey cacheKey = buildCacheKey(keys);
         SearchRequest searchRequest = buildSearchRequest(keys);
         rhlClient.searchAsync(searchRequest, new ActionListener<SearchResponse>() {
             @Override
@@ -102,7 +102,7 @@ public class EsDynamicTableSource implements ScanTableSource, LookupTableSource,
         }
 
         final RowType rowType = (RowType) physicalSchema.toRowDataType().getLogicalType();
-        if (lookupConf.getCache().equalsIgnoreCase(CacheType.LRU.toString())) {
+        if (CacheType.isAsync(lookupConf.getCache())) {
             return ParallelAsyncTableFunctionProvider.of(
                     new EsLruTableFunction(
                             elasticsearchConf,
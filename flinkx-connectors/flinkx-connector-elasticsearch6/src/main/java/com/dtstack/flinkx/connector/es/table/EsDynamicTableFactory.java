@@ -39,11 +39,14 @@ import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static com.dtstack.flinkx.connector.es.options.DtEsOptions.BULK_FLUSH_CONCURRENT_REQUESTS_OPTION;
 import static com.dtstack.flinkx.connector.es.options.DtEsOptions.DT_BULK_FLUSH_MAX_ACTIONS_OPTION;
 import static com.dtstack.flinkx.connector.es.utils.EsConstants.IDENTIFIER;
 import static com.dtstack.flinkx.lookup.options.LookupOptions.LOOKUP_ASYNCTIMEOUT;
 import static com.dtstack.flinkx.lookup.options.LookupOptions.LOOKUP_CACHE_MAX_ROWS;
+import static com.dtstack.flinkx.lookup.options.LookupOptions.LOOKUP_CACHE_OFF_HEAP;
 import static com.dtstack.flinkx.lookup.options.LookupOptions.LOOKUP_CACHE_PERIOD;
+import static com.dtstack.flinkx.lookup.options.LookupOptions.LOOKUP_CACHE_REFRESH_AFTER_WRITE;
 import static com.dtstack.flinkx.lookup.options.LookupOptions.LOOKUP_CACHE_TTL;
 import static com.dtstack.flinkx.lookup.options.LookupOptions.LOOKUP_CACHE_TYPE;
 import static com.dtstack.flinkx.lookup.options.LookupOptions.LOOKUP_ERRORLIMIT;
@@ -89,6 +92,7 @@ public class EsDynamicTableFactory implements DynamicTableSourceFactory, Dynamic
                     BULK_FLUSH_BACKOFF_TYPE_OPTION,
                     BULK_FLUSH_BACKOFF_MAX_RETRIES_OPTION,
                     BULK_FLUSH_BACKOFF_DELAY_OPTION,
+                    BULK_FLUSH_CONCURRENT_REQUESTS_OPTION,
                     CONNECTION_MAX_RETRY_TIMEOUT_OPTION,
                     CONNECTION_PATH_PREFIX,
                     FORMAT_OPTION,
@@ -97,6 +101,8 @@ public class EsDynamicTableFactory implements DynamicTableSourceFactory, Dynamic
                     LOOKUP_CACHE_PERIOD,
                     LOOKUP_CACHE_MAX_ROWS,
                     LOOKUP_CACHE_TTL,
+                    LOOKUP_CACHE_REFRESH_AFTER_WRITE,
+                    LOOKUP_CACHE_OFF_HEAP,
                     LOOKUP_CACHE_TYPE,
                     LOOKUP_MAX_RETRIES,
                     LOOKUP_ERRORLIMIT,
@@ -164,6 +170,13 @@ public class EsDynamicTableFactory implements DynamicTableSourceFactory, Dynamic
         elasticsearchConf.setIndex(readableConfig.get(INDEX_OPTION));
         elasticsearchConf.setType(readableConfig.get(DOCUMENT_TYPE_OPTION));
         elasticsearchConf.setKeyDelimiter(readableConfig.get(KEY_DELIMITER_OPTION));
+        elasticsearchConf.setBulkMaxBytes(readableConfig.get(BULK_FLASH_MAX_SIZE_OPTION).getBytes());
+        elasticsearchConf.setBulkConcurrentRequests(readableConfig.get(BULK_FLUSH_CONCURRENT_REQUESTS_OPTION));
+        readableConfig.getOptional(BULK_FLUSH_BACKOFF_MAX_RETRIES_OPTION).ifPresent(elasticsearchConf::setBulkMaxRetries);
+        readableConfig.getOptional(BULK_FLUSH_BACKOFF_TYPE_OPTION)
+                .ifPresent(type -> elasticsearchConf.setBulkBackoffType(type.name()));
+        readableConfig.getOptional(BULK_FLUSH_BACKOFF_DELAY_OPTION)
+                .ifPresent(delay -> elasticsearchConf.setBulkBackoffDelay(delay.toMillis()));
         elasticsearchConf.setBatchSize(readableConfig.get(DT_BULK_FLUSH_MAX_ACTIONS_OPTION));
         String username = readableConfig.get(USERNAME_OPTION);
         String password = readableConfig.get(PASSWORD_OPTION);
@@ -188,6 +201,8 @@ public class EsDynamicTableFactory implements DynamicTableSourceFactory, Dynamic
                 .setPeriod(readableConfig.get(LOOKUP_CACHE_PERIOD))
                 .setCacheSize(readableConfig.get(LOOKUP_CACHE_MAX_ROWS))
                 .setCacheTtl(readableConfig.get(LOOKUP_CACHE_TTL))
+                .setCacheRefreshAfterWrite(readableConfig.get(LOOKUP_CACHE_REFRESH_AFTER_WRITE))
+                .setCacheOffHeap(readableConfig.get(LOOKUP_CACHE_OFF_HEAP))
                 .setCache(readableConfig.get(LOOKUP_CACHE_TYPE))
                 .setMaxRetryTimes(readableConfig.get(LOOKUP_MAX_RETRIES))
                 .setErrorLimit(readableConfig.get(LOOKUP_ERRORLIMIT))
@@ -74,6 +74,22 @@ public class EsRequestHelper {
         return new IndexRequest(index, docType).source(dataMap);
     }
 
+    /**
+     * create Elasticsearch IndexRequest with document id.
+     * @param index
+     * @param docType
+     * @param id
+     * @param dataMap
+     * @return
+     */
+    public static IndexRequest createIndexRequest(
+            String index,
+            String docType,
+            String id,
+            Map<String, Object> dataMap) {
+        return new IndexRequest(index, docType, id).source(dataMap);
+    }
+
     /**
      * create Elasticsearch DeleteRequest.
      * @param index
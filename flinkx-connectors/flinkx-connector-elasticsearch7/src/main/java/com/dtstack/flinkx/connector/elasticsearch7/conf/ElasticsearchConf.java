@@ -71,6 +71,31 @@ public class ElasticsearchConf extends FlinkxCommonConf implements Serializable
 
     private String keyDelimiter = "_";
 
+    /**
+     * max bytes of each bulk request
+     */
+    private long bulkMaxBytes = 2 * 1024 * 1024L;
+
+    /**
+     * number of bulk requests written concurrently
+     */
+    private int bulkConcurrentRequests = 2;
+
+    /**
+     * max retries of the items rejected by es
+     */
+    private int bulkMaxRetries = 3;
+
+    /**
+     * backoff type of retries: DISABLED, CONSTANT or EXPONENTIAL
+     */
+    private String bulkBackoffType = "EXPONENTIAL";
+
+    /**
+     * delay before the first retry in milliseconds, doubled on each retry when bulkBackoffType is EXPONENTIAL
+     */
+    private long bulkBackoffDelay = 100L;
+
     public List<String> getHosts() {
         return hosts;
     }
@@ -134,4 +159,44 @@ public class ElasticsearchConf extends FlinkxCommonConf implements Serializable
     public void setKeyDelimiter(String keyDelimiter) {
         this.keyDelimiter = keyDelimiter;
     }
+
+    public long getBulkMaxBytes() {
+        return bulkMaxBytes;
+    }
+
+    public void setBulkMaxBytes(long bulkMaxBytes) {
+        this.bulkMaxBytes = bulkMaxBytes;
+    }
+
+    public int getBulkConcurrentRequests() {
+        return bulkConcurrentRequests;
+    }
+
+    public void setBulkConcurrentRequests(int bulkConcurrentRequests) {
+        this.bulkConcurrentRequests = bulkConcurrentRequests;
+    }
+
+    public int getBulkMaxRetries() {
+        return bulkMaxRetries;
+    }
+
+    public void setBulkMaxRetries(int bulkMaxRetries) {
+        this.bulkMaxRetries = bulkMaxRetries;
+    }
+
+    public String getBulkBackoffType() {
+        return bulkBackoffType;
+    }
+
+    public void setBulkBackoffType(String bulkBackoffType) {
+        this.bulkBackoffType = bulkBackoffType;
+    }
+
+    public long getBulkBackoffDelay() {
+        return bulkBackoffDelay;
+    }
+
+    public void setBulkBackoffDelay(long bulkBackoffDelay) {
+        this.bulkBackoffDelay = bulkBackoffDelay;
+    }
 }
@@ -18,7 +18,7 @@
 
 package com.dtstack.flinkx.connector.elasticsearch7.lookup;
 
-import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
 
 import com.dtstack.flinkx.connector.elasticsearch7.conf.ElasticsearchConf;
 import com.dtstack.flinkx.connector.elasticsearch7.utils.ElasticsearchRequestHelper;
@@ -35,8 +35,6 @@ import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -65,9 +63,6 @@ public class ElasticsearchAllTableFunction extends AbstractAllTableFunction {
 
     @Override
     protected void loadData(Object cacheRef) {
-        Map<String, List<Map<String, Object>>> tmpCache =
-                (Map<String, List<Map<String, Object>>>) cacheRef;
-
         rhlClient = ElasticsearchUtil.createClient(elasticsearchConf);
         SearchRequest requestBuilder = buildSearchRequest();
 
@@ -77,15 +72,10 @@ public class ElasticsearchAllTableFunction extends AbstractAllTableFunction {
             searchResponse = rhlClient.search(requestBuilder, RequestOptions.DEFAULT);
             searchHits = searchResponse.getHits().getHits();
             for(SearchHit searchHit : searchHits) {
-                Map<String,Object> oneRow = new HashMap<>();
                 Map<String, Object> source = searchHit.getSourceAsMap();;
                 try {
-                    GenericRowData rowData = (GenericRowData) rowConverter.toInternal(source);
-                    for (int i = 0; i < fieldsName.length; i++) {
-                        Object object = rowData.getField(i);
-                        oneRow.put(fieldsName[i].trim(), object);
-                    }
-                    buildCache(oneRow, tmpCache);
+                    RowData rowData = rowConverter.toInternal(source);
+                    buildCache(rowData, cacheRef);
                 } catch (Exception e) {
                     LOG.error("error:{} \n  data:{}", e.getMessage(), source);
                 }
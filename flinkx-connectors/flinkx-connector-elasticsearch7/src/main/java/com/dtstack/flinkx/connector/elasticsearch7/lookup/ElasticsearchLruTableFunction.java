@@ -29,6 +29,7 @@ import com.dtstack.flinkx.connector.elasticsearch7.utils.ElasticsearchRequestHel
 import com.dtstack.flinkx.connector.elasticsearch7.utils.ElasticsearchUtil;
 import com.dtstack.flinkx.converter.AbstractRowConverter;
 import com.dtstack.flinkx.lookup.AbstractLruTableFunction;
+import com.dtstack.flinkx.lookup.cache.CacheKey;
 import com.dtstack.flinkx.lookup.cache.CacheMissVal;
 import com.dtstack.flinkx.lookup.conf.LookupConf;
 import com.google.common.collect.Lists;
@@ -83,7 +84,7 @@ public class ElasticsearchLruTableFunction extends AbstractLruTableFunction {
 
     @Override
     public void handleAsyncInvoke(CompletableFuture<Collection<RowData>> future, Object... keys) throws Exception {
-        String cacheKey = buildCacheKey(keys);
+        CacheKey cacheKey = buildCacheKey(keys);
         SearchRequest searchRequest = buildSearchRequest(keys);
         rhlClient.searchAsync(searchRequest, RequestOptions.DEFAULT, new ActionListener<SearchResponse>() {
             @Override
@@ -17,4 +17,10 @@ public class DtElasticsearchOptions {
                     .defaultValue(1000)
                     .withDescription("Maximum number of actions to buffer for each bulk request.");
 
+    public static final ConfigOption<Integer> BULK_FLUSH_CONCURRENT_REQUESTS_OPTION =
+            ConfigOptions.key("bulk-flush.concurrent-requests")
+                    .intType()
+                    .defaultValue(2)
+                    .withDescription("Number of bulk requests written concurrently, requests on the same document are always written in order.");
+
 }
@@ -5,9 +5,12 @@ import com.dtstack.flinkx.connector.elasticsearch7.utils.ElasticsearchRequestHel
 import com.dtstack.flinkx.connector.elasticsearch7.utils.ElasticsearchUtil;
 import com.dtstack.flinkx.exception.WriteRecordException;
 import com.dtstack.flinkx.outputformat.BaseRichOutputFormat;
+import com.dtstack.flinkx.sink.BulkPipeline;
 
 import org.apache.flink.table.data.RowData;
 
+import org.elasticsearch.ExceptionsHelper;
+import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.DocWriteRequest;
 import org.elasticsearch.action.bulk.BulkItemResponse;
 import org.elasticsearch.action.bulk.BulkRequest;
@@ -19,7 +22,11 @@ import org.elasticsearch.client.RequestOptions;
 import org.elasticsearch.client.RestHighLevelClient;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 /**
@@ -30,6 +37,11 @@ import java.util.Map;
  */
 public class ElasticsearchOutputFormat extends BaseRichOutputFormat {
 
+    /**
+     * bytes of the action line of each request in bulk body
+     */
+    private static final long REQUEST_OVERHEAD = 50;
+
     /**
      * Elasticsearch Configuration
      */
@@ -40,7 +52,7 @@ public class ElasticsearchOutputFormat extends BaseRichOutputFormat {
      */
     private transient RestHighLevelClient rhlClient;
 
-    private transient BulkRequest bulkRequest;
+    private transient BulkPipeline<DocWriteRequest> bulkPipeline;
 
     @Override
     protected void writeSingleRecordInternal(RowData rowData) throws WriteRecordException {
@@ -72,56 +84,152 @@ public class ElasticsearchOutputFormat extends BaseRichOutputFormat {
 
     @Override
     protected void writeMultipleRecordsInternal() throws Exception {
-        bulkRequest = new BulkRequest();
-        DocWriteRequest docWriteRequest;
-        for (RowData rowData : rows) {
-            switch (rowData.getRowKind()) {
-                case INSERT:
-                case UPDATE_AFTER:
-                    docWriteRequest = processUpsert(rowData);
-                    bulkRequest.add(docWriteRequest);
-                    break;
-                case DELETE:
-                case UPDATE_BEFORE:
-                    docWriteRequest = processDelete(rowData);
-                    bulkRequest.add(docWriteRequest);
-                    break;
-                default:
-                    throw new RuntimeException("Unsupported row kind.");
+        // 先转换整批数据再加入管道，转换失败时父类二分重试这一批数据不会重复写出
+        List<BulkAction> actions = new ArrayList<>(rows.size());
+        if (elasticsearchConf.getIds() == null || elasticsearchConf.getIds().size() == 0) {
+            for (RowData rowData : rows) {
+                switch (rowData.getRowKind()) {
+                    case INSERT:
+                    case UPDATE_AFTER:
+                        actions.add(new BulkAction(null, rowData, processUpsert(rowData)));
+                        break;
+                    case DELETE:
+                    case UPDATE_BEFORE:
+                        actions.add(new BulkAction(null, rowData, processDelete(rowData)));
+                        break;
+                    default:
+                        throw new RuntimeException("Unsupported row kind.");
+                }
             }
+        } else {
+            // 同一个文档只保留批次中的最后一次操作，UPDATE_BEFORE后面紧跟同一文档的UPDATE_AFTER时不再单独删除。
+            // 被合并的操作中有删除时用index整体替换文档，和先删除再upsert的结果相同
+            Map<String, BulkAction> latest = new LinkedHashMap<>(rows.size() * 2);
+            for (RowData rowData : rows) {
+                Map<String, Object> message = toMessage(rowData);
+                String key = ElasticsearchUtil.generateDocId(elasticsearchConf.getIds(),
+                        message,
+                        elasticsearchConf.getKeyDelimiter());
+                BulkAction previous = latest.remove(key);
+                boolean deleted = previous != null && previous.deleted;
+                DocWriteRequest docWriteRequest;
+                switch (rowData.getRowKind()) {
+                    case INSERT:
+                    case UPDATE_AFTER:
+                        docWriteRequest = deleted
+                                ? ElasticsearchRequestHelper.createIndexRequest(elasticsearchConf.getIndex(), key, message)
+                                : ElasticsearchRequestHelper.createUpdateRequest(elasticsearchConf.getIndex(), key, message);
+                        break;
+                    case DELETE:
+                    case UPDATE_BEFORE:
+                        docWriteRequest = ElasticsearchRequestHelper.createDeleteRequest(elasticsearchConf.getIndex(), key);
+                        deleted = true;
+                        break;
+                    default:
+                        throw new RuntimeException("Unsupported row kind.");
+                }
+                latest.put(key, new BulkAction(key, rowData, docWriteRequest, deleted));
+            }
+            actions.addAll(latest.values());
+        }
 
+        for (BulkAction action : actions) {
+            bulkPipeline.add(action.key, action.request, action.rowData, estimateSize(action.request));
         }
-        BulkResponse response = rhlClient.bulk(bulkRequest, RequestOptions.DEFAULT);
-        if (response.hasFailures()) {
-            processFailResponse(response);
+        bulkPipeline.dispatch();
+    }
+
+    @Override
+    protected void waitForPendingWrites() {
+        if (bulkPipeline != null) {
+            bulkPipeline.flush();
+        }
+    }
+
+    private void sendBulk(List<DocWriteRequest> requests, BulkPipeline.BulkCallback callback) {
+        BulkRequest bulkRequest = new BulkRequest();
+        for (DocWriteRequest request : requests) {
+            bulkRequest.add(request);
         }
+        rhlClient.bulkAsync(bulkRequest, RequestOptions.DEFAULT, new ActionListener<BulkResponse>() {
+            @Override
+            public void onResponse(BulkResponse response) {
+                callback.onResponse(getItemFailures(response));
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                callback.onFailure(ExceptionsHelper.status(e).getStatus(), e);
+            }
+        });
     }
 
-    private void processFailResponse(BulkResponse response) {
+    private BulkPipeline.ItemFailure[] getItemFailures(BulkResponse response) {
+        if (!response.hasFailures()) {
+            return null;
+        }
         BulkItemResponse[] itemResponses = response.getItems();
-        WriteRecordException exception;
+        BulkPipeline.ItemFailure[] failures = new BulkPipeline.ItemFailure[itemResponses.length];
         for (int i = 0; i < itemResponses.length; i++) {
-            if(itemResponses[i].isFailed()){
-                if (dirtyDataManager != null){
-                    exception = new WriteRecordException(itemResponses[i].getFailureMessage()
-                            ,itemResponses[i].getFailure().getCause());
-                    dirtyDataManager.writeData(rows.get(i), exception);
-                }
+            if (itemResponses[i].isFailed()) {
+                failures[i] = new BulkPipeline.ItemFailure(
+                        itemResponses[i].status().getStatus(),
+                        itemResponses[i].getFailureMessage(),
+                        itemResponses[i].getFailure().getCause());
+            }
+        }
+        return failures;
+    }
 
-                if (errCounter != null) {
-                    errCounter.add(1);
-                }
+    private void processFailure(RowData rowData, String message, Throwable cause) {
+        if (dirtyDataManager != null) {
+            dirtyDataManager.writeData(rowData, new WriteRecordException(message, cause));
+        }
+
+        if (errCounter != null) {
+            errCounter.add(1);
+        }
+    }
+
+    /**
+     * estimate the size of request in bulk body, same as BulkRequest
+     */
+    private static long estimateSize(DocWriteRequest request) {
+        long size = REQUEST_OVERHEAD;
+        if (request instanceof IndexRequest) {
+            size += ((IndexRequest) request).source().length();
+        } else if (request instanceof UpdateRequest) {
+            UpdateRequest updateRequest = (UpdateRequest) request;
+            if (updateRequest.doc() != null) {
+                size += updateRequest.doc().source().length();
+            }
+            if (updateRequest.upsertRequest() != null) {
+                size += updateRequest.upsertRequest().source().length();
             }
         }
+        return size;
     }
 
     @Override
     protected void openInternal(int taskNumber, int numTasks) throws IOException {
         rhlClient = ElasticsearchUtil.createClient(elasticsearchConf);
+        bulkPipeline = new BulkPipeline<>(
+                this::sendBulk,
+                this::processFailure,
+                elasticsearchConf.getBulkConcurrentRequests(),
+                Math.max(1, batchSize),
+                elasticsearchConf.getBulkMaxBytes(),
+                elasticsearchConf.getBulkMaxRetries(),
+                BulkPipeline.BackoffType.valueOf(elasticsearchConf.getBulkBackoffType().toUpperCase(Locale.ENGLISH)),
+                elasticsearchConf.getBulkBackoffDelay(),
+                0);
     }
 
     @Override
     protected void closeInternal() throws IOException {
+        if (bulkPipeline != null) {
+            bulkPipeline.close();
+        }
         if (rhlClient != null) {
             rhlClient.close();
         }
@@ -135,8 +243,12 @@ public class ElasticsearchOutputFormat extends BaseRichOutputFormat {
         this.elasticsearchConf = elasticsearchConf;
     }
 
+    private Map<String, Object> toMessage(RowData rowData) throws Exception {
+        return (Map<String, Object>) rowConverter.toExternal(rowData, new HashMap<String, Object>());
+    }
+
     private DocWriteRequest processUpsert(RowData rowData) throws Exception{
-        Map<String, Object> message = (Map<String, Object>) rowConverter.toExternal(rowData, new HashMap<String, Object>());
+        Map<String, Object> message = toMessage(rowData);
 
         if (elasticsearchConf.getIds() == null || elasticsearchConf.getIds().size() == 0) {
             IndexRequest indexRequest = ElasticsearchRequestHelper.createIndexRequest(
@@ -158,7 +270,7 @@ public class ElasticsearchOutputFormat extends BaseRichOutputFormat {
     }
 
     private DeleteRequest processDelete(RowData rowData) throws Exception {
-        Map<String, Object> message = (Map<String, Object>) rowConverter.toExternal(rowData, new HashMap<String, Object>());
+        Map<String, Object> message = toMessage(rowData);
 
         final String key = ElasticsearchUtil.generateDocId(elasticsearchConf.getIds(),
                 message,
@@ -169,4 +281,23 @@ public class ElasticsearchOutputFormat extends BaseRichOutputFormat {
         );
         return deleteRequest;
     }
+
+    private static class BulkAction {
+        private final String key;
+        private final RowData rowData;
+        private final DocWriteRequest request;
+        /** 合并到这次操作的操作中是否删除过文档 */
+        private final boolean deleted;
+
+        private BulkAction(String key, RowData rowData, DocWriteRequest request) {
+            this(key, rowData, request, false);
+        }
+
+        private BulkAction(String key, RowData rowData, DocWriteRequest request, boolean deleted) {
+            this.key = key;
+            this.rowData = rowData;
+            this.request = request;
+            this.deleted = deleted;
+        }
+    }
 }
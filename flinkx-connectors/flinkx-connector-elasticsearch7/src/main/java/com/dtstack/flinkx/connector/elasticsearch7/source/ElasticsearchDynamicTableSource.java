@@ -109,7 +109,7 @@ public class ElasticsearchDynamicTableSource implements ScanTableSource, LookupT
         }
 
         final RowType rowType = (RowType) physicalSchema.toRowDataType().getLogicalType();
-        if (lookupConf.getCache().equalsIgnoreCase(CacheType.LRU.toString())) {
+        if (CacheType.isAsync(lookupConf.getCache())) {
             return ParallelAsyncTableFunctionProvider.of(
                     new ElasticsearchLruTableFunction(
                             elasticsearchConf,
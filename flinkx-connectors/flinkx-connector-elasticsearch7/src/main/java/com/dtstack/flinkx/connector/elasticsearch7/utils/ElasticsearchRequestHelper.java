@@ -69,6 +69,20 @@ public class ElasticsearchRequestHelper {
         return new IndexRequest(index).source(dataMap);
     }
 
+    /**
+     * create Elasticsearch IndexRequest with document id.
+     * @param index
+     * @param key
+     * @param dataMap
+     * @return
+     */
+    public static IndexRequest createIndexRequest(
+            String index,
+            String key,
+            Map<String, Object> dataMap) {
+        return new IndexRequest(index).id(key).source(dataMap);
+    }
+
     /**
      * create Elasticsearch DeleteRequest.
      * @param index
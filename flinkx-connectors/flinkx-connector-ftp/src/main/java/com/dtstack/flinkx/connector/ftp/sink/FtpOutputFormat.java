@@ -30,11 +30,11 @@ import org.apache.flink.table.data.RowData;
 import com.dtstack.flinkx.exception.WriteRecordException;
 import com.dtstack.flinkx.outputformat.BaseFileOutputFormat;
 import com.dtstack.flinkx.util.ExceptionUtil;
+import com.google.common.io.CountingOutputStream;
 
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
-import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.util.ArrayList;
 import java.util.List;
@@ -60,7 +60,8 @@ public class FtpOutputFormat extends BaseFileOutputFormat {
 
     private transient BufferedWriter writer;
 
-    private transient OutputStream os;
+    /** 统计写出的字节数，不需要再向ftp服务器查询文件大小 */
+    private transient CountingOutputStream os;
 
     @Override
     protected void openSource() {
@@ -98,7 +99,7 @@ public class FtpOutputFormat extends BaseFileOutputFormat {
         }
         String currentBlockTmpPath = tmpPath + File.separatorChar + currentFileName;
         try{
-            os = ftpHandler.getOutputStream(currentBlockTmpPath);
+            os = new CountingOutputStream(ftpHandler.getOutputStream(currentBlockTmpPath));
             writer = new BufferedWriter(new OutputStreamWriter(os, ftpConfig.getEncoding()));
             LOG.info("subtask:[{}] create block file:{}", taskNumber, currentBlockTmpPath);
         } catch (IOException e){
@@ -215,12 +216,7 @@ public class FtpOutputFormat extends BaseFileOutputFormat {
 
     @Override
     protected long getCurrentFileSize() {
-        String path = tmpPath + File.separatorChar + currentFileName;
-        try {
-            return ftpHandler.getFileSize(path);
-        }catch (IOException e){
-            throw new FlinkxRuntimeException("can't get file size from ftp, file = " + path, e);
-        }
+        return os == null ? 0 : os.getCount();
     }
 
     @Override
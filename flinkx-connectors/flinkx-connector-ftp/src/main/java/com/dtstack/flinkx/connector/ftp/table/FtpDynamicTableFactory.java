@@ -99,6 +99,9 @@ public class FtpDynamicTableFactory implements DynamicTableSourceFactory, Dynami
         ftpConfig.setPassword(config.get(FtpOptions.PASSWORD));
 
         ftpConfig.setEncoding(config.get(FtpOptions.ENCODING));
+        ftpConfig.setMaxFileSize(config.get(FtpOptions.MAX_FILE_SIZE));
+        ftpConfig.setMaxFileRows(config.get(FtpOptions.MAX_FILE_ROWS));
+        ftpConfig.setRolloverInterval(config.get(FtpOptions.ROLLOVER_INTERVAL));
 
         if (config.get(FtpOptions.TIMEOUT) != null) {
             ftpConfig.setTimeout(config.get(FtpOptions.TIMEOUT));
@@ -140,6 +143,8 @@ public class FtpDynamicTableFactory implements DynamicTableSourceFactory, Dynami
         options.add(FtpOptions.TIMEOUT);
         options.add(FtpOptions.ENCODING);
         options.add(FtpOptions.MAX_FILE_SIZE);
+        options.add(FtpOptions.MAX_FILE_ROWS);
+        options.add(FtpOptions.ROLLOVER_INTERVAL);
         options.add(FtpOptions.FORMAT);
         return options;
     }
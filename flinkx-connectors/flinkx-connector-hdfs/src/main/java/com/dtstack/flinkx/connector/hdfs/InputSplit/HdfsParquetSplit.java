@@ -17,8 +17,9 @@
  */
 package com.dtstack.flinkx.connector.hdfs.InputSplit;
 
-import org.apache.flink.core.io.InputSplit;
+import com.dtstack.flinkx.inputformat.SplittableInputSplit;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -27,14 +28,20 @@ import java.util.List;
  *
  * @author tudou
  */
-public class HdfsParquetSplit implements InputSplit {
+public class HdfsParquetSplit implements SplittableInputSplit {
     private static final long serialVersionUID = 1L;
     private final int splitNumber;
     private final List<String> paths;
+    private final String splitId;
 
     public HdfsParquetSplit(int splitNumber, List<String> paths) {
+        this(splitNumber, paths, String.valueOf(splitNumber));
+    }
+
+    public HdfsParquetSplit(int splitNumber, List<String> paths, String splitId) {
         this.splitNumber = splitNumber;
         this.paths = paths;
+        this.splitId = splitId;
     }
 
     @Override
@@ -45,4 +52,32 @@ public class HdfsParquetSplit implements InputSplit {
     public List<String> getPaths() {
         return paths;
     }
+
+    @Override
+    public String getSplitId() {
+        return splitId;
+    }
+
+    /**
+     * 以文件数作为分片大小
+     */
+    @Override
+    public long getEstimatedSize() {
+        return paths.size();
+    }
+
+    /**
+     * 将文件列表分成前后两半
+     */
+    @Override
+    public SplittableInputSplit[] split() {
+        if (paths.size() < 2) {
+            return null;
+        }
+        int half = paths.size() / 2;
+        return new SplittableInputSplit[] {
+            new HdfsParquetSplit(splitNumber, new ArrayList<>(paths.subList(0, half)), SplittableInputSplit.childSplitId(splitId, 0)),
+            new HdfsParquetSplit(splitNumber, new ArrayList<>(paths.subList(half, paths.size())), SplittableInputSplit.childSplitId(splitId, 1))
+        };
+    }
 }
@@ -17,9 +17,7 @@
  */
 package com.dtstack.flinkx.connector.hdfs.InputSplit;
 
-import org.apache.flink.core.io.InputSplit;
-
-import org.apache.hadoop.fs.Path;
+import com.dtstack.flinkx.inputformat.SplittableInputSplit;
 import org.apache.hadoop.mapred.FileSplit;
 
 import java.io.ByteArrayInputStream;
@@ -34,13 +32,26 @@ import java.io.IOException;
  *
  * @author tudou
  */
-public class HdfsTextInputSplit  implements InputSplit {
+public class HdfsTextInputSplit  implements SplittableInputSplit {
     private static final long serialVersionUID = 1L;
+    /** 切分时每个子分片的最小字节数 */
+    private static final long MIN_SPLIT_LENGTH = 1024 * 1024;
     int splitNumber;
     byte[] textSplitData;
+    private final String splitId;
+    private final long length;
+    /** 压缩文件不能按字节位置切分 */
+    private final boolean splittable;
 
     public HdfsTextInputSplit(org.apache.hadoop.mapred.InputSplit split, int splitNumber) throws IOException {
+        this(split, splitNumber, String.valueOf(splitNumber), false);
+    }
+
+    public HdfsTextInputSplit(org.apache.hadoop.mapred.InputSplit split, int splitNumber, String splitId, boolean splittable) throws IOException {
         this.splitNumber = splitNumber;
+        this.splitId = splitId;
+        this.length = split.getLength();
+        this.splittable = splittable;
         ByteArrayOutputStream stream = new ByteArrayOutputStream();
         DataOutputStream dos = new DataOutputStream(stream);
         split.write(dos);
@@ -59,6 +70,38 @@ public class HdfsTextInputSplit  implements InputSplit {
         return split;
     }
 
+    @Override
+    public String getSplitId() {
+        return splitId;
+    }
+
+    @Override
+    public long getEstimatedSize() {
+        return length;
+    }
+
+    /**
+     * 按字节位置从中间切分，LineRecordReader会跳过起始位置所在的不完整行，并读完结束位置所在的行
+     */
+    @Override
+    public SplittableInputSplit[] split() {
+        if (!splittable || length < 2 * MIN_SPLIT_LENGTH) {
+            return null;
+        }
+        try {
+            FileSplit fileSplit = (FileSplit) getTextSplit();
+            long half = length / 2;
+            FileSplit first = new FileSplit(fileSplit.getPath(), fileSplit.getStart(), half, fileSplit.getLocations());
+            FileSplit second = new FileSplit(fileSplit.getPath(), fileSplit.getStart() + half, length - half, fileSplit.getLocations());
+            return new SplittableInputSplit[] {
+                new HdfsTextInputSplit(first, splitNumber, SplittableInputSplit.childSplitId(splitId, 0), true),
+                new HdfsTextInputSplit(second, splitNumber, SplittableInputSplit.childSplitId(splitId, 1), true)
+            };
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
     @Override
     public int getSplitNumber() {
         return splitNumber;
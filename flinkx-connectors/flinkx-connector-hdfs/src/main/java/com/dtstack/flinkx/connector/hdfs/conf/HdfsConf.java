@@ -37,9 +37,19 @@ public class HdfsConf extends BaseFileConf {
     /** hadoop高可用相关配置 **/
     private Map<String, Object> hadoopConfig = new HashMap<>(16);
     private String filterRegex = "";
+    /** 读取parquet文件时的过滤条件，如 id > 10 and name = 'a' **/
+    private String where;
     private String fieldDelimiter = "\001";
     private int rowGroupSize = ParquetWriter.DEFAULT_BLOCK_SIZE;
     private boolean enableDictionary = true;
+    /** orc stripe大小 **/
+    private long orcStripeSize = 64L * 1024 * 1024;
+    /** orc压缩块大小 **/
+    private int orcBufferSize = 256 * 1024;
+    /** orc行索引间隔 **/
+    private int orcRowIndexStride = 10000;
+    /** 不同值个数占比超过该阈值时orc字符串列不使用字典编码 **/
+    private float orcDictionaryKeySizeThreshold = 0.8F;
     private List<String> fullColumnName;
     private List<String> fullColumnType;
 
@@ -75,6 +85,14 @@ public class HdfsConf extends BaseFileConf {
         this.filterRegex = filterRegex;
     }
 
+    public String getWhere() {
+        return where;
+    }
+
+    public void setWhere(String where) {
+        this.where = where;
+    }
+
     public String getFieldDelimiter() {
         return fieldDelimiter;
     }
@@ -99,6 +117,38 @@ public class HdfsConf extends BaseFileConf {
         this.enableDictionary = enableDictionary;
     }
 
+    public long getOrcStripeSize() {
+        return orcStripeSize;
+    }
+
+    public void setOrcStripeSize(long orcStripeSize) {
+        this.orcStripeSize = orcStripeSize;
+    }
+
+    public int getOrcBufferSize() {
+        return orcBufferSize;
+    }
+
+    public void setOrcBufferSize(int orcBufferSize) {
+        this.orcBufferSize = orcBufferSize;
+    }
+
+    public int getOrcRowIndexStride() {
+        return orcRowIndexStride;
+    }
+
+    public void setOrcRowIndexStride(int orcRowIndexStride) {
+        this.orcRowIndexStride = orcRowIndexStride;
+    }
+
+    public float getOrcDictionaryKeySizeThreshold() {
+        return orcDictionaryKeySizeThreshold;
+    }
+
+    public void setOrcDictionaryKeySizeThreshold(float orcDictionaryKeySizeThreshold) {
+        this.orcDictionaryKeySizeThreshold = orcDictionaryKeySizeThreshold;
+    }
+
     public List<String> getFullColumnName() {
         return fullColumnName;
     }
@@ -122,9 +172,14 @@ public class HdfsConf extends BaseFileConf {
                 ", fileType='" + fileType + '\'' +
                 ", hadoopConfig=" + hadoopConfig +
                 ", filterRegex='" + filterRegex + '\'' +
+                ", where='" + where + '\'' +
                 ", fieldDelimiter='" + fieldDelimiter + '\'' +
                 ", rowGroupSize=" + rowGroupSize +
                 ", enableDictionary=" + enableDictionary +
+                ", orcStripeSize=" + orcStripeSize +
+                ", orcBufferSize=" + orcBufferSize +
+                ", orcRowIndexStride=" + orcRowIndexStride +
+                ", orcDictionaryKeySizeThreshold=" + orcDictionaryKeySizeThreshold +
                 ", fullColumnName=" + fullColumnName +
                 ", fullColumnType=" + fullColumnType +
                 '}';
@@ -26,9 +26,15 @@ import com.dtstack.flinkx.converter.AbstractRowConverter;
 import com.dtstack.flinkx.converter.IDeserializationConverter;
 import com.dtstack.flinkx.converter.ISerializationConverter;
 import com.dtstack.flinkx.element.AbstractBaseColumn;
+import com.dtstack.flinkx.element.ArrayColumnRowData;
 import com.dtstack.flinkx.element.column.BigDecimalColumn;
 import com.dtstack.flinkx.element.column.BooleanColumn;
 import com.dtstack.flinkx.element.column.BytesColumn;
+import com.dtstack.flinkx.element.column.DateColumn;
+import com.dtstack.flinkx.element.column.DoubleColumn;
+import com.dtstack.flinkx.element.column.FloatColumn;
+import com.dtstack.flinkx.element.column.IntColumn;
+import com.dtstack.flinkx.element.column.LongColumn;
 import com.dtstack.flinkx.element.column.StringColumn;
 import com.dtstack.flinkx.element.column.TimestampColumn;
 import com.dtstack.flinkx.exception.WriteRecordException;
@@ -74,11 +80,11 @@ public class HdfsOrcColumnConverter extends AbstractRowConverter<RowData, RowDat
     @Override
     @SuppressWarnings("unchecked")
     public RowData toInternal(RowData input) throws Exception {
-        GenericRowData row = new GenericRowData(input.getArity());
+        ArrayColumnRowData row = new ArrayColumnRowData(input.getArity());
         if(input instanceof GenericRowData){
             GenericRowData genericRowData = (GenericRowData) input;
             for (int i = 0; i < input.getArity(); i++) {
-                row.setField(i, toInternalConverters[i].deserialize(genericRowData.getField(i)));
+                row.setField(i, (AbstractBaseColumn) toInternalConverters[i].deserialize(genericRowData.getField(i)));
             }
         }else{
             throw new FlinkxRuntimeException("Error RowData type, RowData:[" + input + "] should be instance of GenericRowData.");
@@ -119,17 +125,17 @@ public class HdfsOrcColumnConverter extends AbstractRowConverter<RowData, RowDat
             case "BOOLEAN":
                 return (IDeserializationConverter<Boolean, AbstractBaseColumn>) BooleanColumn::new;
             case "TINYINT":
-                return (IDeserializationConverter<Byte, AbstractBaseColumn>) val -> new BigDecimalColumn(val.toString());
+                return (IDeserializationConverter<Byte, AbstractBaseColumn>) IntColumn::new;
             case "SMALLINT":
-                return (IDeserializationConverter<Short, AbstractBaseColumn>) val -> new BigDecimalColumn(val.toString());
+                return (IDeserializationConverter<Short, AbstractBaseColumn>) IntColumn::new;
             case "INT":
-                return (IDeserializationConverter<Integer, AbstractBaseColumn>) BigDecimalColumn::new;
+                return (IDeserializationConverter<Integer, AbstractBaseColumn>) IntColumn::new;
             case "BIGINT":
-                return (IDeserializationConverter<Long, AbstractBaseColumn>) BigDecimalColumn::new;
+                return (IDeserializationConverter<Long, AbstractBaseColumn>) LongColumn::new;
             case "FLOAT":
-                return (IDeserializationConverter<Float, AbstractBaseColumn>) BigDecimalColumn::new;
+                return (IDeserializationConverter<Float, AbstractBaseColumn>) FloatColumn::new;
             case "DOUBLE":
-                return (IDeserializationConverter<Double, AbstractBaseColumn>) BigDecimalColumn::new;
+                return (IDeserializationConverter<Double, AbstractBaseColumn>) DoubleColumn::new;
             case "DECIMAL":
                 return (IDeserializationConverter<BigDecimal, AbstractBaseColumn>) BigDecimalColumn::new;
             case "STRING":
@@ -139,7 +145,7 @@ public class HdfsOrcColumnConverter extends AbstractRowConverter<RowData, RowDat
             case "TIMESTAMP":
                 return (IDeserializationConverter<Timestamp, AbstractBaseColumn>) TimestampColumn::new;
             case "DATE":
-                return (IDeserializationConverter<Date, AbstractBaseColumn>) val -> new TimestampColumn(val.getTime());
+                return (IDeserializationConverter<Date, AbstractBaseColumn>) DateColumn::new;
             case "BINARY":
                 return (IDeserializationConverter<byte[], AbstractBaseColumn>) BytesColumn::new;
             case "ARRAY":
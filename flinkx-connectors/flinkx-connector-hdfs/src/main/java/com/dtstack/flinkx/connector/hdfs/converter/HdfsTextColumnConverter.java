@@ -26,8 +26,10 @@ import com.dtstack.flinkx.converter.AbstractRowConverter;
 import com.dtstack.flinkx.converter.IDeserializationConverter;
 import com.dtstack.flinkx.converter.ISerializationConverter;
 import com.dtstack.flinkx.element.AbstractBaseColumn;
+import com.dtstack.flinkx.element.ArrayColumnRowData;
 import com.dtstack.flinkx.element.column.BigDecimalColumn;
 import com.dtstack.flinkx.element.column.BooleanColumn;
+import com.dtstack.flinkx.element.column.DateColumn;
 import com.dtstack.flinkx.element.column.StringColumn;
 import com.dtstack.flinkx.element.column.TimestampColumn;
 import com.dtstack.flinkx.throwable.FlinkxRuntimeException;
@@ -64,11 +66,11 @@ public class HdfsTextColumnConverter extends AbstractRowConverter<RowData, RowDa
     @Override
     @SuppressWarnings("unchecked")
     public RowData toInternal(RowData input) throws Exception {
-        GenericRowData row = new GenericRowData(input.getArity());
+        ArrayColumnRowData row = new ArrayColumnRowData(input.getArity());
         if(input instanceof GenericRowData){
             GenericRowData genericRowData = (GenericRowData) input;
             for (int i = 0; i < input.getArity(); i++) {
-                row.setField(i, toInternalConverters[i].deserialize(genericRowData.getField(i)));
+                row.setField(i, (AbstractBaseColumn) toInternalConverters[i].deserialize(genericRowData.getField(i)));
             }
         }else{
             throw new FlinkxRuntimeException("Error RowData type, RowData:[" + input + "] should be instance of GenericRowData.");
@@ -120,8 +122,9 @@ public class HdfsTextColumnConverter extends AbstractRowConverter<RowData, RowDa
             case "CHAR":
                 return (IDeserializationConverter<String, AbstractBaseColumn>) StringColumn::new;
             case "TIMESTAMP":
-            case "DATE":
                 return (IDeserializationConverter<String, AbstractBaseColumn>)val -> new TimestampColumn(DateUtil.getTimestampFromStr(val));
+            case "DATE":
+                return (IDeserializationConverter<String, AbstractBaseColumn>)val -> new DateColumn(DateUtil.getTimestampFromStr(val));
             case "BINARY":
             case "ARRAY":
             case "MAP":
@@ -62,6 +62,30 @@ public class HdfsOptions extends BaseFileOptions {
                     .defaultValue(true)
                     .withDescription("enable dictionary");
 
+    public static final ConfigOption<Long> ORC_STRIPE_SIZE =
+            ConfigOptions.key("orcStripeSize")
+                    .longType()
+                    .defaultValue(64L * 1024 * 1024)
+                    .withDescription("orc stripe size in bytes");
+
+    public static final ConfigOption<Integer> ORC_BUFFER_SIZE =
+            ConfigOptions.key("orcBufferSize")
+                    .intType()
+                    .defaultValue(256 * 1024)
+                    .withDescription("orc compression buffer size in bytes");
+
+    public static final ConfigOption<Integer> ORC_ROW_INDEX_STRIDE =
+            ConfigOptions.key("orcRowIndexStride")
+                    .intType()
+                    .defaultValue(10000)
+                    .withDescription("number of rows between orc index entries");
+
+    public static final ConfigOption<Float> ORC_DICTIONARY_KEY_SIZE_THRESHOLD =
+            ConfigOptions.key("orcDictionaryKeySizeThreshold")
+                    .floatType()
+                    .defaultValue(0.8F)
+                    .withDescription("orc string columns fall back to direct encoding when distinct keys / non-null rows exceeds this threshold");
+
     public static Map<String, Object> getHadoopConfig(Map<String, String> tableOptions) {
         Map<String, Object> hadoopConfig = new HashMap<>();
         if (hasHadoopConfig(tableOptions)) {
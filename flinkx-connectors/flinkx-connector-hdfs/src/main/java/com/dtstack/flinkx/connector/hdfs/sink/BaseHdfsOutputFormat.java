@@ -20,24 +20,35 @@ package com.dtstack.flinkx.connector.hdfs.sink;
 import com.dtstack.flinkx.conf.FieldConf;
 import com.dtstack.flinkx.connector.hdfs.conf.HdfsConf;
 import com.dtstack.flinkx.connector.hdfs.enums.CompressType;
-import com.dtstack.flinkx.constants.ConstantValue;
 import com.dtstack.flinkx.outputformat.BaseFileOutputFormat;
+import com.dtstack.flinkx.restore.FormatState;
+import com.dtstack.flinkx.sink.WriteMode;
 import com.dtstack.flinkx.throwable.FlinkxRuntimeException;
 import com.dtstack.flinkx.util.ColumnTypeUtil;
 import com.dtstack.flinkx.util.FileSystemUtil;
 import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataOutputStream;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
-import org.apache.hadoop.fs.FileUtil;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.fs.PathFilter;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 /**
@@ -47,6 +58,9 @@ import java.util.stream.Collectors;
  */
 public abstract class BaseHdfsOutputFormat extends BaseFileOutputFormat {
 
+    /** 待提交文件清单所在目录，位于.data下，每个checkpoint一个清单文件 */
+    protected static final String MANIFEST_DIR_NAME = ".manifest";
+
     protected FileSystem fs;
     protected HdfsConf hdfsConf;
 
@@ -55,11 +69,17 @@ public abstract class BaseHdfsOutputFormat extends BaseFileOutputFormat {
     protected Configuration conf;
     protected transient Map<String, ColumnTypeUtil.DecimalInfo> decimalColInfo;
     protected CompressType compressType;
+    /** checkpoint id -> 该checkpoint待提交的文件名 */
+    protected transient TreeMap<Long, List<String>> pendingManifests;
+    /** 外部传入、多个writer共用的FileSystem，由传入方关闭 */
+    protected transient FileSystem sharedFs;
+    /** 为true时不开启自己的定时任务，由外部调用triggerTimer() */
+    protected boolean timerDisabled;
 
     @Override
     protected void openInternal(int taskNumber, int numTasks) throws IOException {
-        // 这里休眠一段时间是为了避免reader和writer或者多个任务在同一个taskManager里同时认证kerberos
-        if (FileSystemUtil.isOpenKerberos(hdfsConf.getHadoopConfig())) {
+        // 这里休眠一段时间是为了避免reader和writer或者多个任务在同一个taskManager里同时认证kerberos，共用的FileSystem已经认证过
+        if (sharedFs == null && FileSystemUtil.isOpenKerberos(hdfsConf.getHadoopConfig())) {
             try {
                 Thread.sleep(5000L + (long) (10000 * Math.random()));
             } catch (Exception e) {
@@ -67,6 +87,153 @@ public abstract class BaseHdfsOutputFormat extends BaseFileOutputFormat {
             }
         }
         super.openInternal(taskNumber, numTasks);
+        pendingManifests = new TreeMap<>();
+        recoverManifests();
+    }
+
+    /**
+     * 续跑时处理上次运行留下的清单：恢复点及之前checkpoint的清单已经生效，重新提交其中的文件；
+     * 之后的清单对应的数据会重新写入，删除清单和其中的文件。还没有记入清单的临时文件同样在恢复点之后写入，
+     * 也要删除，否则会被下一次checkpoint当作待提交文件。提交和删除都可以重复执行。
+     * 没有恢复时由子任务0丢弃initializeGlobal保留下来的清单。
+     */
+    protected void recoverManifests() {
+        if (!restored) {
+            if (taskNumber == 0) {
+                discardStaleManifests();
+            }
+            return;
+        }
+        if (formatState == null || formatState.getJobId() == null) {
+            return;
+        }
+        String prefix = formatState.getJobId() + "_" + taskNumber + "_";
+        long restoredCheckpointId = formatState.getCheckpointId();
+        Path manifestDir = new Path(tmpPath, MANIFEST_DIR_NAME);
+        try {
+            if (!fs.exists(new Path(tmpPath))) {
+                return;
+            }
+            FileStatus[] manifests = fs.exists(manifestDir)
+                    ? fs.listStatus(manifestDir, path -> parseManifestCheckpointId(path.getName(), prefix) != null)
+                    : new FileStatus[0];
+            Arrays.sort(manifests, Comparator.comparing(status -> parseManifestCheckpointId(status.getPath().getName(), prefix)));
+            for (FileStatus manifest : manifests) {
+                long checkpointId = parseManifestCheckpointId(manifest.getPath().getName(), prefix);
+                List<String> fileNames = readManifest(manifest.getPath());
+                if (checkpointId <= restoredCheckpointId) {
+                    LOG.info("replay manifest:{}, files:{}", manifest.getPath(), fileNames);
+                    commitFiles(fileNames);
+                } else {
+                    LOG.info("discard manifest:{}, files:{}", manifest.getPath(), fileNames);
+                    for (String fileName : fileNames) {
+                        fs.delete(new Path(tmpPath, fileName), false);
+                    }
+                }
+                fs.delete(manifest.getPath(), false);
+            }
+            for (FileStatus dataFile : fs.listStatus(new Path(tmpPath), path -> path.getName().startsWith(prefix))) {
+                LOG.info("discard uncommitted temp file:{}", dataFile.getPath());
+                fs.delete(dataFile.getPath(), false);
+            }
+        } catch (IOException e) {
+            throw new FlinkxRuntimeException("can't recover manifests in dir: " + manifestDir, e);
+        }
+    }
+
+    /**
+     * 任务没有从checkpoint恢复，其他任务留下的清单都不会再提交，删除清单和其中的文件。
+     * initializeGlobal因为这些清单没有清空目录，覆盖模式下在这里删除数据目录中已有的文件。
+     * 子任务0打开之前其他子任务不会完成checkpoint，这时清单中只有上次运行的文件
+     */
+    private void discardStaleManifests() {
+        Path manifestDir = new Path(tmpPath, MANIFEST_DIR_NAME);
+        String prefix = jobId + "_";
+        try {
+            if (!fs.exists(manifestDir)) {
+                return;
+            }
+            FileStatus[] manifests = fs.listStatus(manifestDir, path -> !path.getName().startsWith(prefix));
+            if (manifests.length == 0) {
+                return;
+            }
+            for (FileStatus manifest : manifests) {
+                List<String> fileNames = readManifest(manifest.getPath());
+                LOG.info("discard manifest:{} of a run that is not restored, files:{}", manifest.getPath(), fileNames);
+                for (String fileName : fileNames) {
+                    fs.delete(new Path(tmpPath, fileName), false);
+                }
+                fs.delete(manifest.getPath(), false);
+            }
+            if (WriteMode.OVERWRITE.name().equalsIgnoreCase(hdfsConf.getWriteMode())) {
+                for (FileStatus dataFile : fs.listStatus(new Path(outputFilePath), path -> !TMP_DIR_NAME.equals(path.getName()))) {
+                    LOG.info("overwrite mode, delete:{}", dataFile.getPath());
+                    fs.delete(dataFile.getPath(), true);
+                }
+            }
+        } catch (IOException e) {
+            throw new FlinkxRuntimeException("can't discard manifests in dir: " + manifestDir, e);
+        }
+    }
+
+    /**
+     * 不打开writer，只按恢复的状态重新提交或丢弃清单中的文件。HiveOutputFormat恢复后没有新数据写入的分区使用
+     * @param state 分区writer在恢复点的状态
+     * @param taskNumber 子任务序号
+     */
+    public void recover(FormatState state, int taskNumber) {
+        this.formatState = state;
+        this.taskNumber = taskNumber;
+        this.restored = true;
+        initVariableFields();
+        recoverManifests();
+    }
+
+    /**
+     * 临时目录是否存在，writer初始化输出目录时创建，任务结束时才删除
+     */
+    public boolean hasTmpDataDir() {
+        try {
+            return fs.exists(new Path(tmpPath));
+        } catch (IOException e) {
+            throw new FlinkxRuntimeException("can't check temp directory: " + tmpPath, e);
+        }
+    }
+
+    @Override
+    protected boolean hasPendingManifests() {
+        try {
+            if (fs == null) {
+                openSource();
+            }
+            Path manifestDir = new Path(tmpPath, MANIFEST_DIR_NAME);
+            return fs.exists(manifestDir) && fs.listStatus(manifestDir).length > 0;
+        } catch (IOException e) {
+            throw new FlinkxRuntimeException("can't list manifests in dir: " + tmpPath, e);
+        }
+    }
+
+    @Override
+    protected void deleteUnlistedTmpDataFiles() {
+        Path manifestDir = new Path(tmpPath, MANIFEST_DIR_NAME);
+        try {
+            Set<String> listedFiles = new HashSet<>();
+            for (FileStatus manifest : fs.listStatus(manifestDir)) {
+                listedFiles.addAll(readManifest(manifest.getPath()));
+            }
+            // hive在子任务上初始化分区，不能删除本次任务其他子任务正在写的文件
+            String runningPrefix = jobId + "_";
+            FileStatus[] dataFiles = fs.listStatus(new Path(tmpPath),
+                    path -> !MANIFEST_DIR_NAME.equals(path.getName())
+                            && !listedFiles.contains(path.getName())
+                            && (jobId == null || !path.getName().startsWith(runningPrefix)));
+            for (FileStatus dataFile : dataFiles) {
+                LOG.info("delete temp file:{} not in any manifest", dataFile.getPath());
+                fs.delete(dataFile.getPath(), false);
+            }
+        } catch (IOException e) {
+            throw new FlinkxRuntimeException("can't delete temp files in dir: " + tmpPath, e);
+        }
     }
 
     @Override
@@ -120,7 +287,7 @@ public abstract class BaseHdfsOutputFormat extends BaseFileOutputFormat {
     protected void openSource(){
         try {
             conf = FileSystemUtil.getConfiguration(hdfsConf.getHadoopConfig(), hdfsConf.getDefaultFS());
-            fs = FileSystemUtil.getFileSystem(hdfsConf.getHadoopConfig(), hdfsConf.getDefaultFS());
+            fs = sharedFs != null ? sharedFs : FileSystemUtil.getFileSystem(hdfsConf.getHadoopConfig(), hdfsConf.getDefaultFS());
         } catch (Exception e) {
             throw new FlinkxRuntimeException("can't init fileSystem", e);
         }
@@ -131,40 +298,42 @@ public abstract class BaseHdfsOutputFormat extends BaseFileOutputFormat {
         return compressType.getSuffix();
     }
 
-    @Override
-    protected long getCurrentFileSize(){
-        String path = tmpPath + File.separatorChar + currentFileName;
-        try {
-            if(hdfsConf.getMaxFileSize() > ConstantValue.STORE_SIZE_G){
-                return fs.getFileStatus(new Path(path)).getLen();
-            }else{
-                return fs.open(new Path(path)).available();
-            }
-        }catch (IOException e){
-            throw new FlinkxRuntimeException("can't get file size from hdfs, file = " + path, e);
-        }
-    }
-
+    /**
+     * 不再复制文件，只把本次checkpoint新完成的临时文件记入清单，checkpoint完成后再重命名到数据目录
+     */
     @Override
     protected List<String> copyTmpDataFileToDir() {
-        String filePrefix = jobId + "_" + taskNumber;
-        PathFilter pathFilter = path -> path.getName().startsWith(filePrefix);
-        Path dir = new Path(outputFilePath);
-        Path tmpDir = new Path(tmpPath);
-        String currentFilePath = "";
-        List<String> copyList = new ArrayList<>();
+        String filePrefix = jobId + "_" + taskNumber + "_";
+        Set<String> pendingFiles = new HashSet<>();
+        pendingManifests.values().forEach(pendingFiles::addAll);
+        PathFilter pathFilter = path -> path.getName().startsWith(filePrefix) && !pendingFiles.contains(path.getName());
+        Path manifest = getManifestPath(snapshotCheckpointId);
+        List<String> fileNames = new ArrayList<>();
         try {
-            FileStatus[] dataFiles = fs.listStatus(tmpDir, pathFilter);
-            for (FileStatus dataFile : dataFiles) {
-                currentFilePath = dataFile.getPath().getName();
-                FileUtil.copy(fs, dataFile.getPath(), fs, dir, false, conf);
-                copyList.add(currentFilePath);
-                LOG.info("copy temp file:{} to dir:{}", currentFilePath, dir);
+            if (!fs.exists(new Path(tmpPath))) {
+                return fileNames;
+            }
+            for (FileStatus dataFile : fs.listStatus(new Path(tmpPath), pathFilter)) {
+                fileNames.add(dataFile.getPath().getName());
             }
+            if (fileNames.isEmpty()) {
+                return fileNames;
+            }
+            // 先写临时文件再重命名，保证清单要么完整要么不存在
+            Path tmpManifest = new Path(manifest.getParent(), manifest.getName() + ".tmp");
+            try (FSDataOutputStream out = fs.create(tmpManifest, true)) {
+                out.write(String.join("\n", fileNames).getBytes(StandardCharsets.UTF_8));
+            }
+            fs.delete(manifest, false);
+            if (!fs.rename(tmpManifest, manifest)) {
+                throw new IOException("rename " + tmpManifest + " to " + manifest + " failed");
+            }
+            pendingManifests.put(snapshotCheckpointId, fileNames);
+            LOG.info("write manifest:{}, files:{}", manifest, fileNames);
         }catch (Exception e){
-            throw new FlinkxRuntimeException(String.format("can't copy temp file:[%s] to dir:[%s]", currentFilePath, outputFilePath), e);
+            throw new FlinkxRuntimeException(String.format("can't write manifest:[%s]", manifest), e);
         }
-        return copyList;
+        return fileNames;
     }
 
     @Override
@@ -182,6 +351,81 @@ public abstract class BaseHdfsOutputFormat extends BaseFileOutputFormat {
         }
     }
 
+    /**
+     * checkpoint完成，重命名该checkpoint及之前清单中的文件到数据目录
+     */
+    @Override
+    public void commit(long checkpointId) {
+        SortedMap<Long, List<String>> committable = pendingManifests.headMap(checkpointId, true);
+        for (Map.Entry<Long, List<String>> entry : committable.entrySet()) {
+            Path manifest = getManifestPath(entry.getKey());
+            try {
+                commitFiles(entry.getValue());
+                fs.delete(manifest, false);
+            } catch (IOException e) {
+                throw new FlinkxRuntimeException(String.format("can't commit manifest:[%s]", manifest), e);
+            }
+        }
+        committable.clear();
+        preCommitFilePathList.clear();
+    }
+
+    /**
+     * checkpoint失败，删除清单，其中的文件会记入下一次checkpoint的清单
+     */
+    @Override
+    public void rollback(long checkpointId) {
+        if (pendingManifests.remove(checkpointId) == null) {
+            return;
+        }
+        Path manifest = getManifestPath(checkpointId);
+        try {
+            fs.delete(manifest, false);
+        } catch (IOException e) {
+            throw new FlinkxRuntimeException(String.format("can't delete manifest:[%s]", manifest), e);
+        }
+        preCommitFilePathList.clear();
+    }
+
+    /**
+     * 把临时目录中的文件重命名到数据目录，已经提交过的文件直接跳过
+     */
+    protected void commitFiles(List<String> fileNames) throws IOException {
+        for (String fileName : fileNames) {
+            Path tmpFile = new Path(tmpPath, fileName);
+            Path dataFile = new Path(outputFilePath, fileName);
+            if (fs.exists(tmpFile)) {
+                if (!fs.rename(tmpFile, dataFile)) {
+                    throw new IOException("rename " + tmpFile + " to " + dataFile + " failed");
+                }
+                LOG.info("move temp file:{} to dir:{}", fileName, outputFilePath);
+            } else if (!fs.exists(dataFile)) {
+                LOG.warn("file:{} in manifest not found in dir:{} or dir:{}", fileName, tmpPath, outputFilePath);
+            }
+        }
+    }
+
+    private Path getManifestPath(long checkpointId) {
+        return new Path(tmpPath + File.separatorChar + MANIFEST_DIR_NAME, jobId + "_" + taskNumber + "_" + checkpointId);
+    }
+
+    private Long parseManifestCheckpointId(String manifestName, String prefix) {
+        if (!manifestName.startsWith(prefix)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(manifestName.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private List<String> readManifest(Path manifest) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(fs.open(manifest), StandardCharsets.UTF_8))) {
+            return reader.lines().filter(StringUtils::isNotBlank).collect(Collectors.toList());
+        }
+    }
+
     @Override
     protected void moveAllTmpDataFileToDir() {
         if(fs == null){
@@ -192,10 +436,13 @@ public abstract class BaseHdfsOutputFormat extends BaseFileOutputFormat {
             Path dir = new Path(outputFilePath);
             Path tmpDir = new Path(tmpPath);
 
-            FileStatus[] dataFiles = fs.listStatus(tmpDir);
+            FileStatus[] dataFiles = fs.listStatus(tmpDir, path -> !MANIFEST_DIR_NAME.equals(path.getName()));
             for (FileStatus dataFile : dataFiles) {
                 currentFilePath = dataFile.getPath().getName();
-                fs.rename(dataFile.getPath(), dir);
+                // 重命名失败时保留临时目录，不能删除还没有移走的文件
+                if (!fs.rename(dataFile.getPath(), new Path(dir, dataFile.getPath().getName()))) {
+                    throw new IOException("rename " + dataFile.getPath() + " to dir " + dir + " failed");
+                }
                 LOG.info("move temp file:{} to dir:{}", dataFile.getPath(), dir);
             }
             fs.delete(tmpDir, true);
@@ -204,11 +451,27 @@ public abstract class BaseHdfsOutputFormat extends BaseFileOutputFormat {
         }
     }
 
+    /**
+     * 关闭当前文件、定时任务和FileSystem，不提交临时目录中的文件。
+     * HiveOutputFormat释放文件都已提交的分区时使用，close()还会关闭与其他分区共享的脏数据管理器
+     */
+    public synchronized void release() {
+        if (scheduledFuture != null) {
+            scheduledFuture.cancel(false);
+            scheduler.shutdown();
+        }
+        closed = true;
+        flushData();
+        closeSource();
+    }
+
     @Override
     protected void closeSource() {
         try {
             if (fs != null) {
-                fs.close();
+                if (fs != sharedFs) {
+                    fs.close();
+                }
                 fs = null;
             }
         }catch (IOException e){
@@ -216,6 +479,14 @@ public abstract class BaseHdfsOutputFormat extends BaseFileOutputFormat {
         }
     }
 
+    /**
+     * 当前文件在内存中缓冲的数据大小估算值，供HiveOutputFormat控制同时打开的writer占用的内存。
+     * 列式文件在写完一个stripe/row group前数据都在内存中
+     */
+    public long getBufferedBytes() {
+        return getInputBytesOfCurrentBlock();
+    }
+
     @Override
     public float getDeviation(){
         return compressType.getDeviation();
@@ -246,6 +517,28 @@ public abstract class BaseHdfsOutputFormat extends BaseFileOutputFormat {
         }
     }
 
+    @Override
+    protected long getTimingInterval() {
+        return timerDisabled ? 0 : super.getTimingInterval();
+    }
+
+    /**
+     * 执行一次定时任务，关闭了自己的定时任务时由外部定时调用
+     */
+    public synchronized void triggerTimer() {
+        if (!closed) {
+            onTimer();
+        }
+    }
+
+    public void setSharedFs(FileSystem sharedFs) {
+        this.sharedFs = sharedFs;
+    }
+
+    public void setTimerDisabled(boolean timerDisabled) {
+        this.timerDisabled = timerDisabled;
+    }
+
     public HdfsConf getHdfsConf() {
         return hdfsConf;
     }
@@ -30,30 +30,22 @@ import com.dtstack.flinkx.exception.WriteRecordException;
 import com.dtstack.flinkx.throwable.FlinkxRuntimeException;
 import com.dtstack.flinkx.util.ColumnTypeUtil;
 import com.dtstack.flinkx.util.ExceptionUtil;
-import com.dtstack.flinkx.util.FileSystemUtil;
-import com.dtstack.flinkx.util.ReflectionUtils;
 import com.google.common.collect.Maps;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hive.common.type.HiveDecimal;
+import org.apache.hadoop.hive.conf.HiveConf;
+import org.apache.hadoop.hive.ql.io.orc.CompressionKind;
 import org.apache.hadoop.hive.ql.io.orc.OrcFile;
-import org.apache.hadoop.hive.ql.io.orc.OrcSerde;
+import org.apache.hadoop.hive.ql.io.orc.Writer;
 import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
 import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorFactory;
 import org.apache.hadoop.hive.serde2.objectinspector.StructObjectInspector;
-import org.apache.hadoop.io.NullWritable;
-import org.apache.hadoop.io.compress.BZip2Codec;
-import org.apache.hadoop.io.compress.DefaultCodec;
-import org.apache.hadoop.io.compress.GzipCodec;
-import org.apache.hadoop.io.compress.Lz4Codec;
-import org.apache.hadoop.io.compress.SnappyCodec;
-import org.apache.hadoop.mapred.FileOutputFormat;
-import org.apache.hadoop.mapred.JobConf;
-import org.apache.hadoop.mapred.RecordWriter;
-import org.apache.hadoop.mapred.Reporter;
 
 import java.io.File;
 import java.io.IOException;
-import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -66,41 +58,16 @@ import java.util.stream.Collectors;
 public class HdfsOrcOutputFormat extends BaseHdfsOutputFormat {
 
     private static final ColumnTypeUtil.DecimalInfo ORC_DEFAULT_DECIMAL_INFO = new ColumnTypeUtil.DecimalInfo(HiveDecimal.SYSTEM_DEFAULT_PRECISION, HiveDecimal.SYSTEM_DEFAULT_SCALE);
-    private RecordWriter recordWriter;
-    private OrcSerde orcSerde;
+    private Writer writer;
     private StructObjectInspector inspector;
-    private FileOutputFormat outputFormat;
-    private JobConf jobConf;
+    private OrcFile.WriterOptions writerOptions;
+    /** 复用的行数组，writer.addRow会立即把数据写入各列的编码缓冲区，因此可以在行之间复用 */
+    private transient Object[] row;
 
     @Override
-    @SuppressWarnings("unchecked")
     protected void openSource(){
         super.openSource();
 
-        orcSerde = new OrcSerde();
-        outputFormat = new org.apache.hadoop.hive.ql.io.orc.OrcOutputFormat();
-        jobConf = new JobConf(conf);
-
-
-        Class codecClass;
-        switch (compressType){
-            case ORC_SNAPPY:
-                codecClass = SnappyCodec.class;
-                break;
-            case ORC_BZIP:
-                codecClass = BZip2Codec.class;
-                break;
-            case ORC_GZIP:
-                codecClass = GzipCodec.class;
-                break;
-            case ORC_LZ4:
-                codecClass = Lz4Codec.class;
-                break;
-            default:
-                codecClass = DefaultCodec.class;
-        }
-        FileOutputFormat.setOutputCompressorClass(jobConf, codecClass);
-
         int size = hdfsConf.getColumn().size();
         decimalColInfo = Maps.newHashMapWithExpectedSize(size);
         List<ObjectInspector> structFieldObjectInspectors = new ArrayList<>();
@@ -121,25 +88,59 @@ public class HdfsOrcOutputFormat extends BaseHdfsOutputFormat {
             ((HdfsOrcColumnConverter)rowConverter).setColumnNameList(hdfsConf.getColumn().stream().map(FieldConf::getName).collect(Collectors.toList()));
         }
         this.inspector = ObjectInspectorFactory.getStandardStructObjectInspector(fullColumnNameList, structFieldObjectInspectors);
+        this.row = new Object[size];
+
+        // 字典阈值由WriterImpl从Configuration中读取
+        Configuration orcConf = new Configuration(conf);
+        float dictionaryKeySizeThreshold = hdfsConf.isEnableDictionary() ? hdfsConf.getOrcDictionaryKeySizeThreshold() : 0F;
+        orcConf.setFloat(HiveConf.ConfVars.HIVE_ORC_DICTIONARY_KEY_SIZE_THRESHOLD.varname, dictionaryKeySizeThreshold);
+        // 直接指定fs，开启kerberos时writer不会在ugi之外再初始化一个fs
+        writerOptions = OrcFile.writerOptions(orcConf)
+                .fileSystem(fs)
+                .inspector(inspector)
+                .stripeSize(hdfsConf.getOrcStripeSize())
+                .bufferSize(hdfsConf.getOrcBufferSize())
+                .rowIndexStride(hdfsConf.getOrcRowIndexStride());
+        CompressionKind compressionKind = getCompressionKind();
+        if (compressionKind != null) {
+            writerOptions.compress(compressionKind);
+        }
+    }
+
+    /**
+     * hive 1.1.1的orc只支持ZLIB、SNAPPY、LZO，其余压缩类型沿用hive.exec.orc.default.compress的配置
+     */
+    private CompressionKind getCompressionKind() {
+        switch (compressType){
+            case ORC_SNAPPY:
+                return CompressionKind.SNAPPY;
+            case ORC_GZIP:
+                return CompressionKind.ZLIB;
+            case ORC_BZIP:
+            case ORC_LZ4:
+                LOG.warn("orc file doesn't support compress type [{}], use [{}] instead", compressType.getType(), conf.get(HiveConf.ConfVars.HIVE_ORC_DEFAULT_COMPRESS.varname, HiveConf.ConfVars.HIVE_ORC_DEFAULT_COMPRESS.defaultStrVal));
+                return null;
+            default:
+                return null;
+        }
     }
 
     @Override
     protected void nextBlock(){
         super.nextBlock();
 
-        if (recordWriter != null){
+        if (writer != null){
             return;
         }
 
         try {
             String currentBlockTmpPath = tmpPath + File.separatorChar + currentFileName;
-            recordWriter = outputFormat.getRecordWriter(null, jobConf, currentBlockTmpPath, Reporter.NULL);
+            writer = OrcFile.createWriter(new Path(currentBlockTmpPath), writerOptions);
             currentFileIndex++;
 
-            setFs();
             LOG.info("nextBlock:Current block writer record:" + rowsOfCurrentBlock);
             LOG.info("Current block file name:" + currentBlockTmpPath);
-        } catch (IOException | IllegalAccessException e){
+        } catch (IOException e){
             throw new FlinkxRuntimeException(HdfsUtil.parseErrorMsg(null, ExceptionUtil.getErrorMessage(e)), e);
         }
     }
@@ -149,9 +150,15 @@ public class HdfsOrcOutputFormat extends BaseHdfsOutputFormat {
         LOG.info("Close current orc record writer, write data size:[{}]", SizeUnitType.readableFileSize(bytesWriteCounter.getLocalValue()));
 
         try {
-            if (recordWriter != null){
-                recordWriter.close(Reporter.NULL);
-                recordWriter = null;
+            if (writer != null){
+                long inputBytes = getInputBytesOfCurrentBlock();
+                writer.close();
+                writer = null;
+                // 每个文件写完后只查询一次大小，用于学习压缩比
+                Path currentBlockPath = new Path(tmpPath + File.separatorChar + currentFileName);
+                if (fs.exists(currentBlockPath)) {
+                    updateDeviation(inputBytes, fs.getFileStatus(currentBlockPath).getLen());
+                }
             }
         } catch (IOException e) {
             throw new FlinkxRuntimeException(HdfsUtil.parseErrorMsg("error to flush stream.", ExceptionUtil.getErrorMessage(e)), e);
@@ -161,20 +168,22 @@ public class HdfsOrcOutputFormat extends BaseHdfsOutputFormat {
     @Override
     @SuppressWarnings("unchecked")
     public void writeSingleRecordToFile(RowData rowData) throws WriteRecordException {
-        if (recordWriter == null){
+        if (writer == null){
             nextBlock();
         }
 
-        Object[] data = new Object[hdfsConf.getColumn().size()];
+        if (rowData.getArity() < row.length) {
+            Arrays.fill(row, null);
+        }
         try {
-            data = (Object[])rowConverter.toExternal(rowData, data);
+            rowConverter.toExternal(rowData, row);
         } catch (Exception e) {
             String errorMessage = HdfsUtil.parseErrorMsg(String.format("writer hdfs error，rowData:{%s}", rowData), ExceptionUtil.getErrorMessage(e));
             throw new WriteRecordException(errorMessage, e, -1, rowData);
         }
 
         try {
-            this.recordWriter.write(NullWritable.get(), this.orcSerde.serialize(data, this.inspector));
+            this.writer.addRow(row);
             rowsOfCurrentBlock++;
             lastRow = rowData;
         } catch(IOException e) {
@@ -186,10 +195,10 @@ public class HdfsOrcOutputFormat extends BaseHdfsOutputFormat {
     protected void closeSource() {
         try {
             LOG.info("close:Current block writer record:" + rowsOfCurrentBlock);
-            RecordWriter rw = this.recordWriter;
-            if(rw != null) {
-                rw.close(Reporter.NULL);
-                this.recordWriter = null;
+            Writer w = this.writer;
+            if(w != null) {
+                w.close();
+                this.writer = null;
             }
         }catch (IOException e){
             throw new FlinkxRuntimeException("close stream error.", e);
@@ -198,25 +207,24 @@ public class HdfsOrcOutputFormat extends BaseHdfsOutputFormat {
         }
     }
 
-    @Override
-    public CompressType getCompressType() {
-        return CompressType.getByTypeAndFileType(hdfsConf.getCompress(), FileType.ORC.name());
-    }
-
     /**
-     * 数据源开启kerberos时
-     * 如果这里不通过反射对 writerOptions 赋值fs，则在recordWriter.writer时 会初始化一个fs 此fs不在ugi里获取的
-     * 导致开启了kerberos的数据源在checkpoint时进行 recordWriter.close() 操作，会出现kerberos认证错误
-     * @throws IllegalAccessException
+     * orc writer在stripe写满前不会写出数据，用写入数据量乘以学习到的压缩比估算文件大小
      */
-    private void setFs() throws IllegalAccessException {
-        if(FileSystemUtil.isOpenKerberos(hdfsConf.getHadoopConfig())){
-            Field declaredField = ReflectionUtils.getDeclaredField(recordWriter, "options");
-            assert declaredField != null;
-            declaredField.setAccessible(true);
-            OrcFile.WriterOptions writerOptions = (OrcFile.WriterOptions) declaredField.get(recordWriter);
-            writerOptions.fileSystem(fs);
-            declaredField.setAccessible(false);
+    @Override
+    protected long getCurrentFileSize() {
+        if (writer == null) {
+            return 0;
         }
+        return (long) (getInputBytesOfCurrentBlock() * getCurrentDeviation());
+    }
+
+    @Override
+    public long getBufferedBytes() {
+        return Math.min(getInputBytesOfCurrentBlock(), hdfsConf.getOrcStripeSize());
+    }
+
+    @Override
+    public CompressType getCompressType() {
+        return CompressType.getByTypeAndFileType(hdfsConf.getCompress(), FileType.ORC.name());
     }
 }
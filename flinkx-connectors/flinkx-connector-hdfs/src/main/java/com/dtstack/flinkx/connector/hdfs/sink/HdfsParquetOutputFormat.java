@@ -192,6 +192,19 @@ public class HdfsParquetOutputFormat extends BaseHdfsOutputFormat {
         }
     }
 
+    /**
+     * 已经写出的row group加上内存中缓存的page大小
+     */
+    @Override
+    protected long getCurrentFileSize() {
+        return writer == null ? 0 : writer.getDataSize();
+    }
+
+    @Override
+    public long getBufferedBytes() {
+        return Math.min(getInputBytesOfCurrentBlock(), hdfsConf.getRowGroupSize());
+    }
+
     @Override
     public CompressType getCompressType() {
         return CompressType.getByTypeAndFileType(hdfsConf.getCompress(), FileType.PARQUET.name());
@@ -29,6 +29,7 @@ import com.dtstack.flinkx.throwable.FlinkxRuntimeException;
 import com.dtstack.flinkx.util.ExceptionUtil;
 import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
 import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.apache.hadoop.fs.FSDataOutputStream;
 import org.apache.hadoop.fs.Path;
 
 import java.io.File;
@@ -45,6 +46,8 @@ public class HdfsTextOutputFormat extends BaseHdfsOutputFormat {
 
     private static final int NEWLINE = 10;
     private transient OutputStream stream;
+    /** 文件系统的输出流，getPos()即已经写出的字节数（压缩后） */
+    private transient FSDataOutputStream fileStream;
 
     @Override
     protected void nextBlock(){
@@ -58,14 +61,14 @@ public class HdfsTextOutputFormat extends BaseHdfsOutputFormat {
             String currentBlockTmpPath = tmpPath + File.separatorChar + currentFileName;
             Path p  = new Path(currentBlockTmpPath);
 
+            fileStream = fs.create(p);
             if(CompressType.TEXT_NONE.equals(compressType)){
-                stream = fs.create(p);
+                stream = fileStream;
             } else {
-                p = new Path(currentBlockTmpPath);
                 if (compressType == CompressType.TEXT_GZIP){
-                    stream = new GzipCompressorOutputStream(fs.create(p));
+                    stream = new GzipCompressorOutputStream(fileStream);
                 } else if(compressType == CompressType.TEXT_BZIP2){
-                    stream = new BZip2CompressorOutputStream(fs.create(p));
+                    stream = new BZip2CompressorOutputStream(fileStream);
                 }
             }
             currentFileIndex++;
@@ -84,6 +87,7 @@ public class HdfsTextOutputFormat extends BaseHdfsOutputFormat {
                 stream.flush();
                 stream.close();
                 stream = null;
+                fileStream = null;
             }
         } catch (IOException e) {
             throw new FlinkxRuntimeException(HdfsUtil.parseErrorMsg("error to flush stream.", ExceptionUtil.getErrorMessage(e)), e);
@@ -129,6 +133,7 @@ public class HdfsTextOutputFormat extends BaseHdfsOutputFormat {
             if(outputStream != null) {
                 outputStream.flush();
                 this.stream = null;
+                this.fileStream = null;
                 outputStream.close();
             }
         }catch (IOException e){
@@ -138,6 +143,26 @@ public class HdfsTextOutputFormat extends BaseHdfsOutputFormat {
         }
     }
 
+    @Override
+    protected long getCurrentFileSize() {
+        if (fileStream == null) {
+            return 0;
+        }
+        try {
+            return fileStream.getPos();
+        } catch (IOException e) {
+            throw new FlinkxRuntimeException("can't get position of file: " + currentFileName, e);
+        }
+    }
+
+    /**
+     * text文件直接写入输出流，不在内存中缓冲
+     */
+    @Override
+    public long getBufferedBytes() {
+        return 0;
+    }
+
     @Override
     public CompressType getCompressType() {
         return CompressType.getByTypeAndFileType(hdfsConf.getCompress(), FileType.TEXT.name());
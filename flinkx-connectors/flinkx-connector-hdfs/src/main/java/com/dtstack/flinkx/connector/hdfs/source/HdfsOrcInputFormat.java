@@ -66,7 +66,7 @@ public class HdfsOrcInputFormat extends BaseHdfsInputFormat {
         super.initHadoopJobConf();
         org.apache.hadoop.mapred.FileInputFormat.setInputPaths(hadoopJobConf, hdfsConf.getPath());
         org.apache.hadoop.mapred.FileInputFormat.setInputPathFilter(hadoopJobConf, HdfsPathFilter.class);
-        org.apache.hadoop.mapred.InputSplit[] splits = new OrcInputFormat().getSplits(hadoopJobConf, minNumSplits);
+        org.apache.hadoop.mapred.InputSplit[] splits = new OrcInputFormat().getSplits(hadoopJobConf, minNumSplits * getSplitFactor());
 
         if (splits != null) {
             List<HdfsOrcInputSplit> list = new ArrayList<>(splits.length);
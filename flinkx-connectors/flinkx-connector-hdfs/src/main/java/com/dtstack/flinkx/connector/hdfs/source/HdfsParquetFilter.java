@@ -0,0 +1,305 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.connector.hdfs.source;
+
+import com.dtstack.flinkx.throwable.FlinkxRuntimeException;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.filter2.predicate.Operators;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.OriginalType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 读取parquet文件时的简单过滤条件，形如 id >= 10 and name = 'a'，只支持and连接的"列 操作符 常量"。
+ * 条件中能够映射到parquet列类型的部分会转换为FilterPredicate，利用row group的统计信息跳过不满足条件的row group，
+ * 读出的每一行仍会用全部条件过滤一次
+ */
+public class HdfsParquetFilter implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Pattern CONDITION_PATTERN = Pattern.compile("^\\s*([\\w$]+)\\s*(=|!=|<>|>=|<=|>|<)\\s*(.+?)\\s*$");
+
+    private final List<Condition> conditions;
+
+    private HdfsParquetFilter(List<Condition> conditions) {
+        this.conditions = conditions;
+    }
+
+    /**
+     * 解析过滤条件
+     * @param where 过滤条件
+     * @return 过滤条件为空时返回null
+     */
+    public static HdfsParquetFilter parse(String where) {
+        if (StringUtils.isBlank(where)) {
+            return null;
+        }
+        List<Condition> conditions = new ArrayList<>();
+        for (String expression : splitByAnd(where)) {
+            Matcher matcher = CONDITION_PATTERN.matcher(expression);
+            if (!matcher.matches()) {
+                throw new FlinkxRuntimeException("unsupported parquet filter condition: " + expression);
+            }
+            conditions.add(new Condition(matcher.group(1), Operator.of(matcher.group(2)), parseLiteral(matcher.group(3))));
+        }
+        return new HdfsParquetFilter(conditions);
+    }
+
+    /**
+     * 条件中用到的列名
+     */
+    public List<String> getColumnNames() {
+        List<String> names = new ArrayList<>(conditions.size());
+        for (Condition condition : conditions) {
+            names.add(condition.column);
+        }
+        return names;
+    }
+
+    /**
+     * 转换为parquet的FilterPredicate，只包含能下推到row group统计信息的条件
+     * @param schema parquet文件schema
+     * @return 没有可下推的条件时返回null
+     */
+    public FilterPredicate toPredicate(MessageType schema) {
+        FilterPredicate predicate = null;
+        for (Condition condition : conditions) {
+            Type field = findField(schema, condition.column);
+            if (field == null || !field.isPrimitive() || field.isRepetition(Type.Repetition.REPEATED)) {
+                continue;
+            }
+            FilterPredicate current = condition.toPredicate(field.asPrimitiveType());
+            if (current != null) {
+                predicate = predicate == null ? current : FilterApi.and(predicate, current);
+            }
+        }
+        return predicate;
+    }
+
+    /**
+     * 过滤一行数据
+     * @param values 条件中各列的值，顺序与{@link #getColumnNames()}一致
+     */
+    public boolean test(Object[] values) {
+        for (int i = 0; i < conditions.size(); i++) {
+            if (!conditions.get(i).test(values[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 忽略大小写查找列
+     */
+    public static Type findField(MessageType schema, String name) {
+        for (Type field : schema.getFields()) {
+            if (field.getName().equalsIgnoreCase(name)) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    private static List<String> splitByAnd(String where) {
+        List<String> expressions = new ArrayList<>();
+        String lower = where.toLowerCase(Locale.ENGLISH);
+        boolean inQuote = false;
+        int start = 0;
+        for (int i = 0; i < where.length(); i++) {
+            char c = where.charAt(i);
+            if (c == '\'') {
+                inQuote = !inQuote;
+            } else if (!inQuote
+                    && Character.isWhitespace(c)
+                    && lower.startsWith("and", i + 1)
+                    && i + 4 < where.length()
+                    && Character.isWhitespace(where.charAt(i + 4))) {
+                expressions.add(where.substring(start, i));
+                start = i + 4;
+                i += 3;
+            }
+        }
+        expressions.add(where.substring(start));
+        return expressions;
+    }
+
+    private static Object parseLiteral(String literal) {
+        if (literal.length() >= 2 && literal.startsWith("'") && literal.endsWith("'")) {
+            return literal.substring(1, literal.length() - 1);
+        }
+        if ("true".equalsIgnoreCase(literal) || "false".equalsIgnoreCase(literal)) {
+            return Boolean.valueOf(literal);
+        }
+        try {
+            return new BigDecimal(literal);
+        } catch (NumberFormatException e) {
+            throw new FlinkxRuntimeException("unsupported parquet filter literal: " + literal, e);
+        }
+    }
+
+    enum Operator {
+        EQ, NOT_EQ, LT, LT_EQ, GT, GT_EQ;
+
+        static Operator of(String symbol) {
+            switch (symbol) {
+                case "=": return EQ;
+                case "!=":
+                case "<>": return NOT_EQ;
+                case "<": return LT;
+                case "<=": return LT_EQ;
+                case ">": return GT;
+                default: return GT_EQ;
+            }
+        }
+
+        boolean accept(int compareResult) {
+            switch (this) {
+                case EQ: return compareResult == 0;
+                case NOT_EQ: return compareResult != 0;
+                case LT: return compareResult < 0;
+                case LT_EQ: return compareResult <= 0;
+                case GT: return compareResult > 0;
+                default: return compareResult >= 0;
+            }
+        }
+    }
+
+    static class Condition implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String column;
+        private final Operator operator;
+        private final Object literal;
+
+        Condition(String column, Operator operator, Object literal) {
+            this.column = column;
+            this.operator = operator;
+            this.literal = literal;
+        }
+
+        /**
+         * 与sql语义一致，null值不满足任何条件
+         */
+        boolean test(Object value) {
+            if (value == null) {
+                return false;
+            }
+            if (literal instanceof BigDecimal) {
+                if (!(value instanceof Number)) {
+                    return false;
+                }
+                BigDecimal decimal = value instanceof BigDecimal ? (BigDecimal) value : new BigDecimal(value.toString());
+                return operator.accept(decimal.compareTo((BigDecimal) literal));
+            }
+            if (literal instanceof Boolean) {
+                if (!(value instanceof Boolean) || (operator != Operator.EQ && operator != Operator.NOT_EQ)) {
+                    return false;
+                }
+                return operator.accept(value.equals(literal) ? 0 : 1);
+            }
+            if (value instanceof byte[]) {
+                return false;
+            }
+            return operator.accept(value.toString().compareTo((String) literal));
+        }
+
+        FilterPredicate toPredicate(PrimitiveType field) {
+            OriginalType originalType = field.getOriginalType();
+            String name = field.getName();
+            switch (field.getPrimitiveTypeName()) {
+                case INT32:
+                    if (!isPlainInteger(originalType) || !isIntegral(literal, Integer.MIN_VALUE, Integer.MAX_VALUE)) {
+                        return null;
+                    }
+                    return compare(FilterApi.intColumn(name), ((BigDecimal) literal).intValueExact());
+                case INT64:
+                    if (!isPlainInteger(originalType) || !isIntegral(literal, Long.MIN_VALUE, Long.MAX_VALUE)) {
+                        return null;
+                    }
+                    return compare(FilterApi.longColumn(name), ((BigDecimal) literal).longValueExact());
+                case FLOAT:
+                    return literal instanceof BigDecimal ? compare(FilterApi.floatColumn(name), ((BigDecimal) literal).floatValue()) : null;
+                case DOUBLE:
+                    return literal instanceof BigDecimal ? compare(FilterApi.doubleColumn(name), ((BigDecimal) literal).doubleValue()) : null;
+                case BINARY:
+                    if (!(literal instanceof String) || originalType != OriginalType.UTF8) {
+                        return null;
+                    }
+                    return compare(FilterApi.binaryColumn(name), Binary.fromString((String) literal));
+                case BOOLEAN:
+                    if (!(literal instanceof Boolean)) {
+                        return null;
+                    }
+                    Operators.BooleanColumn column = FilterApi.booleanColumn(name);
+                    if (operator == Operator.EQ) {
+                        return FilterApi.eq(column, (Boolean) literal);
+                    } else if (operator == Operator.NOT_EQ) {
+                        return FilterApi.notEq(column, (Boolean) literal);
+                    }
+                    return null;
+                default:
+                    // decimal、timestamp(int96)等类型的统计信息无法直接与常量比较，只在行级别过滤
+                    return null;
+            }
+        }
+
+        private <T extends Comparable<T>, C extends Operators.Column<T> & Operators.SupportsLtGt> FilterPredicate compare(C column, T value) {
+            switch (operator) {
+                case EQ: return FilterApi.eq(column, value);
+                case NOT_EQ: return FilterApi.notEq(column, value);
+                case LT: return FilterApi.lt(column, value);
+                case LT_EQ: return FilterApi.ltEq(column, value);
+                case GT: return FilterApi.gt(column, value);
+                default: return FilterApi.gtEq(column, value);
+            }
+        }
+
+        private static boolean isIntegral(Object literal, long min, long max) {
+            if (!(literal instanceof BigDecimal)) {
+                return false;
+            }
+            BigDecimal decimal = (BigDecimal) literal;
+            return (decimal.signum() == 0 || decimal.stripTrailingZeros().scale() <= 0)
+                    && decimal.compareTo(BigDecimal.valueOf(min)) >= 0
+                    && decimal.compareTo(BigDecimal.valueOf(max)) <= 0;
+        }
+
+        private static boolean isPlainInteger(OriginalType originalType) {
+            return originalType == null
+                    || originalType == OriginalType.INT_8
+                    || originalType == OriginalType.INT_16
+                    || originalType == OriginalType.INT_32
+                    || originalType == OriginalType.INT_64;
+        }
+    }
+}
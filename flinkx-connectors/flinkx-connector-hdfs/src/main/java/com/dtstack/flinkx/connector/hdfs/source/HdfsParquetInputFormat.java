@@ -18,8 +18,22 @@
 package com.dtstack.flinkx.connector.hdfs.source;
 
 import org.apache.flink.core.io.InputSplit;
+import org.apache.flink.formats.parquet.vector.ParquetColumnarRowSplitReader;
+import org.apache.flink.table.data.ColumnarRowData;
 import org.apache.flink.table.data.GenericRowData;
 import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.vector.VectorizedColumnBatch;
+import org.apache.flink.table.types.logical.BigIntType;
+import org.apache.flink.table.types.logical.BooleanType;
+import org.apache.flink.table.types.logical.DateType;
+import org.apache.flink.table.types.logical.DecimalType;
+import org.apache.flink.table.types.logical.DoubleType;
+import org.apache.flink.table.types.logical.FloatType;
+import org.apache.flink.table.types.logical.IntType;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.TimestampType;
+import org.apache.flink.table.types.logical.VarBinaryType;
+import org.apache.flink.table.types.logical.VarCharType;
 
 import com.dtstack.flinkx.conf.FieldConf;
 import com.dtstack.flinkx.connector.hdfs.InputSplit.HdfsParquetSplit;
@@ -29,34 +43,40 @@ import com.dtstack.flinkx.exception.ReadRecordException;
 import com.dtstack.flinkx.throwable.FlinkxRuntimeException;
 import com.dtstack.flinkx.util.FileSystemUtil;
 import com.google.common.collect.Lists;
-import com.google.common.primitives.Ints;
-import com.google.common.primitives.Longs;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.fs.PathFilter;
 import org.apache.hadoop.mapred.InputFormat;
-import parquet.example.data.Group;
-import parquet.hadoop.ParquetReader;
-import parquet.hadoop.example.GroupReadSupport;
-import parquet.io.api.Binary;
-import parquet.schema.DecimalMetadata;
-import parquet.schema.PrimitiveType;
-import parquet.schema.Type;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.filter2.compat.RowGroupFilter;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.format.converter.ParquetMetadataConverter;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.schema.DecimalMetadata;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.OriginalType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
 
 import java.io.IOException;
-import java.math.BigDecimal;
-import java.math.BigInteger;
 import java.security.PrivilegedAction;
-import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Locale;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
 
 /**
+ * 按列批量解码parquet文件，只读取配置的列，并根据过滤条件跳过不满足条件的row group
+ *
  * Date: 2021/06/08
  * Company: www.dtstack.com
  *
@@ -64,18 +84,28 @@ import java.util.concurrent.TimeUnit;
  */
 public class HdfsParquetInputFormat extends BaseHdfsInputFormat {
 
-    private static final int JULIAN_EPOCH_OFFSET_DAYS = 2440588;
-    private static final long MILLIS_IN_DAY = TimeUnit.DAYS.toMillis(1);
-    private static final long NANOS_PER_MILLISECOND = TimeUnit.MILLISECONDS.toNanos(1);
-    private static final int TIMESTAMP_BINARY_LENGTH = 12;
+    /** 每批解码的行数 */
+    private static final int BATCH_SIZE = 2048;
 
-    private transient Group currentLine;
-    private transient ParquetReader<Group> currentFileReader;
+    private transient ParquetColumnarRowSplitReader currentFileReader;
+    private transient ColumnarRowData currentLine;
     private transient List<String> fullColNames;
-    private transient List<String> fullColTypes;
     private transient List<String> currentSplitFilePaths;
     private transient int currentFileIndex = 0;
 
+    private transient HdfsParquetFilter parquetFilter;
+    private transient Path currentFilePath;
+    /** 当前文件中待读取的row group区间，每个区间为[start, end) */
+    private transient Deque<long[]> currentFileRanges;
+    /** 当前文件中需要读取的列 */
+    private transient String[] selectedFieldNames;
+    private transient LogicalType[] selectedFieldTypes;
+    /** 输出的每一列在selectedFieldNames中的位置，-1表示文件中没有该列 */
+    private transient int[] columnPositions;
+    /** 过滤条件的每一列在selectedFieldNames中的位置 */
+    private transient int[] filterPositions;
+    private transient Object[] filterValues;
+
     private static List<String> getAllPartitionPath(String tableLocation, FileSystem fs, PathFilter pathFilter) throws IOException {
         List<String> pathList = Lists.newArrayList();
         Path inputPath = new Path(tableLocation);
@@ -105,8 +135,8 @@ public class HdfsParquetInputFormat extends BaseHdfsInputFormat {
         }
 
         if(allFilePaths.size() > 0){
-            HdfsParquetSplit[] splits = new HdfsParquetSplit[minNumSplits];
-            for (int i = 0; i < minNumSplits; i++) {
+            HdfsParquetSplit[] splits = new HdfsParquetSplit[minNumSplits * getSplitFactor()];
+            for (int i = 0; i < splits.length; i++) {
                 splits[i] = new HdfsParquetSplit(i, new ArrayList<>());
             }
 
@@ -133,82 +163,259 @@ public class HdfsParquetInputFormat extends BaseHdfsInputFormat {
     @Override
     protected void openInternal(InputSplit inputSplit) {
         currentSplitFilePaths = ((HdfsParquetSplit)inputSplit).getPaths();
+        currentFileRanges = new ArrayDeque<>();
+        parquetFilter = HdfsParquetFilter.parse(hdfsConf.getWhere());
     }
 
     private boolean nextLine() throws IOException{
-        if (currentFileReader == null && currentFileIndex <= currentSplitFilePaths.size()-1){
-            if (openKerberos) {
-                ugi.doAs((PrivilegedAction<Object>) () -> {
-                    try {
-                        nextFile();
-                        return null;
-                    } catch (IOException e) {
-                        throw new FlinkxRuntimeException(e);
-                    }
-                });
-            } else {
-                nextFile();
+        while (true) {
+            if (currentFileReader == null && !openNextReader()) {
+                return false;
+            }
+
+            if (currentFileReader.reachedEnd()) {
+                currentFileReader.close();
+                currentFileReader = null;
+                continue;
+            }
+
+            currentLine = currentFileReader.nextRecord();
+            if (parquetFilter == null || acceptCurrentLine()) {
+                return true;
             }
         }
+    }
 
-        if (currentFileReader == null){
-            return false;
+    /**
+     * 打开下一段需要读取的row group，当前文件读完时打开下一个文件。
+     * 开启kerberos时只在打开文件时调用一次doAs，读取数据时复用已经打开的流
+     * @return 没有可读的数据时返回false
+     */
+    private boolean openNextReader() {
+        while (currentFileRanges.isEmpty()) {
+            if (currentFileIndex > currentSplitFilePaths.size() - 1) {
+                return false;
+            }
+            runWithUgi(this::nextFile);
         }
 
+        long[] range = currentFileRanges.poll();
+        runWithUgi(() -> currentFileReader = new ParquetColumnarRowSplitReader(
+                false,
+                true,
+                hadoopJobConf,
+                selectedFieldTypes,
+                selectedFieldNames,
+                VectorizedColumnBatch::new,
+                BATCH_SIZE,
+                currentFilePath,
+                range[0],
+                range[1] - range[0]));
+        return true;
+    }
+
+    private void runWithUgi(IoAction action) {
         if (openKerberos) {
-            currentLine = ugi.doAs((PrivilegedAction<Group>) () -> {
+            ugi.doAs((PrivilegedAction<Object>) () -> {
                 try {
-                    return currentFileReader.read();
+                    action.run();
+                    return null;
                 } catch (IOException e) {
                     throw new FlinkxRuntimeException(e);
                 }
             });
         } else {
-            currentLine = currentFileReader.read();
+            try {
+                action.run();
+            } catch (IOException e) {
+                throw new FlinkxRuntimeException(e);
+            }
         }
+    }
 
-        if (fullColNames == null && currentLine != null){
+    /**
+     * open next hdfs file for reading
+     * @throws IOException
+     */
+    private void nextFile() throws IOException{
+        Path path = new Path(currentSplitFilePaths.get(currentFileIndex));
+        currentFileIndex++;
+        findCurrentPartition(path);
+
+        ParquetMetadata footer = ParquetFileReader.readFooter(hadoopJobConf, path, ParquetMetadataConverter.NO_FILTER);
+        MessageType schema = footer.getFileMetaData().getSchema();
+        if (fullColNames == null) {
             fullColNames = new ArrayList<>();
-            fullColTypes = new ArrayList<>();
-            List<Type> types = currentLine.getType().getFields();
-            for (Type type : types) {
+            for (Type type : schema.getFields()) {
                 fullColNames.add(type.getName().toUpperCase());
-                fullColTypes.add(getTypeName(type.asPrimitiveType().getPrimitiveTypeName().getMethod));
             }
+        }
 
-            for (FieldConf fieldConf : hdfsConf.getColumn()) {
-                String name = fieldConf.getName();
-                if(StringUtils.isNotBlank(name)){
-                    name = name.toUpperCase();
-                    if(fullColNames.contains(name)){
-                        fieldConf.setIndex(fullColNames.indexOf(name));
-                    } else {
-                        fieldConf.setIndex(-1);
-                    }
+        selectFields(schema);
+        currentFilePath = path;
+        currentFileRanges = selectRowGroups(footer.getBlocks(), schema);
+    }
+
+    /**
+     * 计算当前文件需要读取的列：配置的列与过滤条件中的列
+     */
+    private void selectFields(MessageType schema) {
+        Map<String, LogicalType> selectedFields = new LinkedHashMap<>();
+        List<FieldConf> fieldConfList = hdfsConf.getColumn();
+        if (isReadAllColumns()) {
+            columnPositions = new int[fullColNames.size()];
+            for (int i = 0; i < fullColNames.size(); i++) {
+                columnPositions[i] = selectField(schema, fullColNames.get(i), null, selectedFields);
+            }
+        } else {
+            columnPositions = new int[fieldConfList.size()];
+            for (int i = 0; i < fieldConfList.size(); i++) {
+                FieldConf fieldConf = fieldConfList.get(i);
+                if (fieldConf.getValue() != null) {
+                    columnPositions[i] = -1;
+                } else {
+                    columnPositions[i] = selectField(findField(schema, fieldConf), fieldConf.getType(), selectedFields);
                 }
             }
         }
 
-        if (currentLine == null){
-            currentFileReader = null;
-            nextLine();
+        if (parquetFilter != null) {
+            List<String> filterColumns = parquetFilter.getColumnNames();
+            filterPositions = new int[filterColumns.size()];
+            filterValues = new Object[filterColumns.size()];
+            for (int i = 0; i < filterColumns.size(); i++) {
+                filterPositions[i] = selectField(schema, filterColumns.get(i), null, selectedFields);
+            }
         }
 
-        return currentLine != null;
+        // 需要至少读取一列才能知道行数
+        if (selectedFields.isEmpty()) {
+            for (Type field : schema.getFields()) {
+                if (selectField(schema, field.getName(), null, selectedFields) >= 0) {
+                    break;
+                }
+            }
+        }
+
+        selectedFieldNames = selectedFields.keySet().toArray(new String[0]);
+        selectedFieldTypes = selectedFields.values().toArray(new LogicalType[0]);
     }
 
     /**
-     * open next hdfs file for reading
-     * @throws IOException
+     * 按名称查找配置的列，名称为空或文件中没有这一列时按index查找。
+     * 没有配置index时FieldConf.getFieldList会按列的顺序填充，所以名称优先
      */
-    private void nextFile() throws IOException{
-        Path path = new Path(currentSplitFilePaths.get(currentFileIndex));
-        findCurrentPartition(path);
-        ParquetReader.Builder<Group> reader = ParquetReader
-                .builder(new GroupReadSupport(), path)
-                .withConf(hadoopJobConf);
-        currentFileReader = reader.build();
-        currentFileIndex++;
+    static Type findField(MessageType schema, FieldConf fieldConf) {
+        Type field = null;
+        if (StringUtils.isNotBlank(fieldConf.getName())) {
+            field = HdfsParquetFilter.findField(schema, fieldConf.getName());
+        }
+        Integer index = fieldConf.getIndex();
+        if (field == null && index != null && index >= 0 && index < schema.getFieldCount()) {
+            field = schema.getType(index);
+        }
+        return field;
+    }
+
+    private int selectField(MessageType schema, String name, String columnType, Map<String, LogicalType> selectedFields) {
+        return selectField(HdfsParquetFilter.findField(schema, name), columnType, selectedFields);
+    }
+
+    private int selectField(Type field, String columnType, Map<String, LogicalType> selectedFields) {
+        if (field == null || !field.isPrimitive() || field.isRepetition(Type.Repetition.REPEATED)) {
+            return -1;
+        }
+        if (!selectedFields.containsKey(field.getName())) {
+            LogicalType logicalType = toLogicalType(field.asPrimitiveType(), columnType);
+            if (logicalType == null) {
+                LOG.warn("unsupported parquet column:{}, type:{}, file:{}", field.getName(), field, currentSplitFilePaths.get(currentFileIndex - 1));
+                return -1;
+            }
+            selectedFields.put(field.getName(), logicalType);
+        }
+        int position = 0;
+        for (String selectedName : selectedFields.keySet()) {
+            if (selectedName.equals(field.getName())) {
+                return position;
+            }
+            position++;
+        }
+        return -1;
+    }
+
+    /**
+     * 根据parquet的物理类型确定读取时使用的类型
+     * @param field parquet列
+     * @param columnType 配置的列类型，为binary时以byte[]读取binary列
+     * @return 不支持的类型返回null
+     */
+    private LogicalType toLogicalType(PrimitiveType field, String columnType) {
+        OriginalType originalType = field.getOriginalType();
+        if (originalType == OriginalType.DECIMAL) {
+            DecimalMetadata decimalMetadata = field.getDecimalMetadata();
+            return new DecimalType(decimalMetadata.getPrecision(), decimalMetadata.getScale());
+        }
+        switch (field.getPrimitiveTypeName()) {
+            case BOOLEAN:
+                return new BooleanType();
+            case INT32:
+                return originalType == OriginalType.DATE ? new DateType() : new IntType();
+            case INT64:
+                return new BigIntType();
+            case INT96:
+                return new TimestampType(9);
+            case FLOAT:
+                return new FloatType();
+            case DOUBLE:
+                return new DoubleType();
+            case BINARY:
+                if (columnType != null && ColumnType.BINARY == ColumnType.fromString(columnType)) {
+                    return new VarBinaryType(VarBinaryType.MAX_LENGTH);
+                }
+                return new VarCharType(VarCharType.MAX_LENGTH);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * 用row group的统计信息过滤掉不满足条件的row group，并把相邻的row group合并为一个读取区间
+     */
+    private Deque<long[]> selectRowGroups(List<BlockMetaData> blocks, MessageType schema) {
+        List<BlockMetaData> selectedBlocks = blocks;
+        if (parquetFilter != null) {
+            FilterPredicate predicate = parquetFilter.toPredicate(schema);
+            if (predicate != null) {
+                selectedBlocks = RowGroupFilter.filterRowGroups(FilterCompat.get(predicate), blocks, schema);
+                LOG.info("file:{}, filter:{}, row groups:{}, selected row groups:{}", currentSplitFilePaths.get(currentFileIndex - 1), predicate, blocks.size(), selectedBlocks.size());
+            }
+        }
+
+        Deque<long[]> ranges = new ArrayDeque<>();
+        long[] range = null;
+        int selectedIndex = 0;
+        for (BlockMetaData block : blocks) {
+            if (selectedIndex < selectedBlocks.size() && selectedBlocks.get(selectedIndex) == block) {
+                selectedIndex++;
+                long end = block.getStartingPos() + block.getCompressedSize();
+                if (range == null) {
+                    range = new long[]{block.getStartingPos(), end};
+                    ranges.add(range);
+                } else {
+                    range[1] = end;
+                }
+            } else {
+                range = null;
+            }
+        }
+        return ranges;
+    }
+
+    private boolean acceptCurrentLine() {
+        for (int i = 0; i < filterPositions.length; i++) {
+            filterValues[i] = getData(filterPositions[i]);
+        }
+        return parquetFilter.test(filterValues);
     }
 
     @Override
@@ -216,23 +423,20 @@ public class HdfsParquetInputFormat extends BaseHdfsInputFormat {
     public RowData nextRecordInternal(RowData rowData) throws ReadRecordException {
         List<FieldConf> fieldConfList = hdfsConf.getColumn();
         GenericRowData genericRowData;
-        if (fieldConfList.size() == 1 && ConstantValue.STAR_SYMBOL.equals(fieldConfList.get(0).getName())){
+        if (isReadAllColumns()){
             genericRowData = new GenericRowData(fullColNames.size());
             for (int i = 0; i < fullColNames.size(); i++) {
-                Object obj = getData(currentLine, fullColTypes.get(i), i);
-                genericRowData.setField(i, obj);
+                genericRowData.setField(i, getData(columnPositions[i]));
             }
         } else {
             genericRowData = new GenericRowData(fieldConfList.size());
             for (int i = 0; i < fieldConfList.size(); i++) {
                 FieldConf fieldConf = fieldConfList.get(i);
-                Object obj = null;
+                Object obj;
                 if(fieldConf.getValue() != null){
                     obj = fieldConf.getValue();
-                }else if(fieldConf.getIndex() != null && fieldConf.getIndex() < fullColNames.size()){
-                    if(currentLine.getFieldRepetitionCount(fieldConf.getIndex()) > 0){
-                        obj = getData(currentLine, fieldConf.getType(), fieldConf.getIndex());
-                    }
+                }else{
+                    obj = getData(columnPositions[i]);
                 }
 
                 genericRowData.setField(i, obj);
@@ -251,63 +455,45 @@ public class HdfsParquetInputFormat extends BaseHdfsInputFormat {
         return !nextLine();
     }
 
-    public Object getData(Group currentLine, String type, int index){
-        Object data = null;
-        ColumnType columnType = ColumnType.fromString(type);
+    private boolean isReadAllColumns() {
+        List<FieldConf> fieldConfList = hdfsConf.getColumn();
+        return fieldConfList.size() == 1 && ConstantValue.STAR_SYMBOL.equals(fieldConfList.get(0).getName());
+    }
 
-        try{
-            if (index == -1){
-                return null;
-            }
+    /**
+     * 读取当前行中的一列，转换为与列类型对应的java对象
+     * @param position 列在selectedFieldNames中的位置
+     */
+    private Object getData(int position){
+        if (position < 0 || currentLine.isNullAt(position)) {
+            return null;
+        }
 
-            Type colSchemaType = currentLine.getType().getType(index);
-            switch (columnType.name().toLowerCase(Locale.ENGLISH)){
-                case "tinyint" :
-                case "smallint" :
-                case "int" : data = currentLine.getInteger(index,0);break;
-                case "bigint" : data = currentLine.getLong(index,0);break;
-                case "float" : data = currentLine.getFloat(index,0);break;
-                case "double" : data = currentLine.getDouble(index,0);break;
-                case "binary" :
-                    Binary binaryData = currentLine.getBinary(index, 0);
-                    data = binaryData.getBytes();
-                    break;
-                case "char" :
-                case "varchar" :
-                case "string" : data = currentLine.getString(index,0);break;
-                case "boolean" : data = currentLine.getBoolean(index,0);break;
-                case "timestamp" :{
-                    long time = getTimestampMillis(currentLine.getInt96(index,0));
-                    data = new Timestamp(time);
-                    break;
-                }
-                case "decimal" : {
-                    DecimalMetadata dm = ((PrimitiveType) colSchemaType).getDecimalMetadata();
-                    String primitiveTypeName = currentLine.getType().getType(index).asPrimitiveType().getPrimitiveTypeName().name();
-                    if (ColumnType.INT32.name().equals(primitiveTypeName)){
-                        int intVal = currentLine.getInteger(index,0);
-                        data = longToDecimalStr(intVal,dm.getScale());
-                    } else if(ColumnType.INT64.name().equals(primitiveTypeName)){
-                        long longVal = currentLine.getLong(index,0);
-                        data = longToDecimalStr(longVal,dm.getScale());
-                    } else {
-                        Binary binary = currentLine.getBinary(index,0);
-                        data = binaryToDecimalStr(binary,dm.getScale());
-                    }
-                    break;
+        try{
+            LogicalType type = selectedFieldTypes[position];
+            switch (type.getTypeRoot()){
+                case BOOLEAN: return currentLine.getBoolean(position);
+                case INTEGER: return currentLine.getInt(position);
+                case BIGINT: return currentLine.getLong(position);
+                case FLOAT: return currentLine.getFloat(position);
+                case DOUBLE: return currentLine.getDouble(position);
+                case DECIMAL: {
+                    DecimalType decimalType = (DecimalType) type;
+                    return currentLine.getDecimal(position, decimalType.getPrecision(), decimalType.getScale()).toBigDecimal();
                 }
-                case "date" : {
-                    String val = currentLine.getValueToString(index,0);
-                    data = new Timestamp(Integer.parseInt(val) * MILLIS_IN_DAY).toString().substring(0,10);
-                    break;
+                case DATE: return LocalDate.ofEpochDay(currentLine.getInt(position)).toString();
+                case TIMESTAMP_WITHOUT_TIME_ZONE: return currentLine.getTimestamp(position, 9).toTimestamp();
+                case VARBINARY: {
+                    // 列向量中的数组会被下一批数据复用
+                    byte[] bytes = currentLine.getBinary(position);
+                    return Arrays.copyOf(bytes, bytes.length);
                 }
-                default: data = currentLine.getValueToString(index,0);break;
+                default: return currentLine.getString(position).toString();
             }
         } catch (Exception e){
-            LOG.error("error to get data from parquet group.", e);
+            LOG.error("error to get data from parquet column:{}.", selectedFieldNames[position], e);
+            return null;
         }
-
-        return data;
     }
 
     @Override
@@ -319,52 +505,17 @@ public class HdfsParquetInputFormat extends BaseHdfsInputFormat {
 
         currentLine = null;
         currentFileIndex = 0;
-    }
-
-    private BigDecimal longToDecimalStr(long value, int scale){
-        BigInteger bi = BigInteger.valueOf(value);
-        return new BigDecimal(bi, scale);
-    }
-
-    private BigDecimal binaryToDecimalStr(Binary binary,int scale){
-        BigInteger bi = new BigInteger(binary.getBytes());
-        return new BigDecimal(bi,scale);
-    }
-
-    private String getTypeName(String method){
-        String typeName;
-        switch (method){
-            case "getBoolean":
-            case "getInteger" : typeName = "int";break;
-            case "getInt96" : typeName = "bigint";break;
-            case "getFloat" : typeName = "float";break;
-            case "getDouble" : typeName = "double";break;
-            case "getBinary" : typeName = "binary";break;
-            default:typeName = "string";
-        }
-
-        return typeName;
-    }
-
-    /**
-     * @param timestampBinary
-     * @return
-     */
-    private long getTimestampMillis(Binary timestampBinary) {
-        if (timestampBinary.length() != TIMESTAMP_BINARY_LENGTH) {
-            return 0;
+        if (currentFileRanges != null) {
+            currentFileRanges.clear();
         }
-
-        byte[] bytes = timestampBinary.getBytes();
-
-        long timeOfDayNanos = Longs.fromBytes(bytes[7], bytes[6], bytes[5], bytes[4], bytes[3], bytes[2], bytes[1], bytes[0]);
-        int julianDay = Ints.fromBytes(bytes[11], bytes[10], bytes[9], bytes[8]);
-
-        return julianDayToMillis(julianDay) + (timeOfDayNanos / NANOS_PER_MILLISECOND);
     }
 
-    private long julianDayToMillis(int julianDay) {
-        return (julianDay - JULIAN_EPOCH_OFFSET_DAYS) * MILLIS_IN_DAY;
+    @FunctionalInterface
+    private interface IoAction {
+        /**
+         * 执行可能抛出IOException的操作
+         * @throws IOException
+         */
+        void run() throws IOException;
     }
-
 }
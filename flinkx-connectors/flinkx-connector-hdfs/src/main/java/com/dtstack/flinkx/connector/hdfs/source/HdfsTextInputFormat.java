@@ -30,6 +30,7 @@ import com.dtstack.flinkx.throwable.FlinkxRuntimeException;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.hadoop.io.LongWritable;
 import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.compress.CompressionCodecFactory;
 import org.apache.hadoop.mapred.FileSplit;
 import org.apache.hadoop.mapred.InputFormat;
 import org.apache.hadoop.mapred.Reporter;
@@ -58,12 +59,14 @@ public class HdfsTextInputFormat extends BaseHdfsInputFormat {
         //是否在MapReduce中递归遍历Input目录
         hadoopJobConf.set("mapreduce.input.fileinputformat.input.dir.recursive","true");
         inputFormat.configure(hadoopJobConf);
-        org.apache.hadoop.mapred.InputSplit[] splits = inputFormat.getSplits(hadoopJobConf, minNumSplits);
+        org.apache.hadoop.mapred.InputSplit[] splits = inputFormat.getSplits(hadoopJobConf, minNumSplits * getSplitFactor());
 
         if(splits != null) {
+            CompressionCodecFactory codecFactory = new CompressionCodecFactory(hadoopJobConf);
             HdfsTextInputSplit[] hdfsTextInputSplits = new HdfsTextInputSplit[splits.length];
             for (int i = 0; i < splits.length; ++i) {
-                hdfsTextInputSplits[i] = new HdfsTextInputSplit(splits[i], i);
+                boolean splittable = codecFactory.getCodec(((FileSplit) splits[i]).getPath()) == null;
+                hdfsTextInputSplits[i] = new HdfsTextInputSplit(splits[i], i, String.valueOf(i), splittable);
             }
             return hdfsTextInputSplits;
         }
@@ -69,10 +69,16 @@ public class HdfsDynamicTableFactory implements DynamicTableSourceFactory, Dynam
         options.add(BaseFileOptions.ENCODING);
         options.add(BaseFileOptions.MAX_FILE_SIZE);
         options.add(BaseFileOptions.NEXT_CHECK_ROWS);
+        options.add(BaseFileOptions.MAX_FILE_ROWS);
+        options.add(BaseFileOptions.ROLLOVER_INTERVAL);
 
         options.add(HdfsOptions.FILTER_REGEX);
         options.add(HdfsOptions.FIELD_DELIMITER);
         options.add(HdfsOptions.ENABLE_DICTIONARY);
+        options.add(HdfsOptions.ORC_STRIPE_SIZE);
+        options.add(HdfsOptions.ORC_BUFFER_SIZE);
+        options.add(HdfsOptions.ORC_ROW_INDEX_STRIDE);
+        options.add(HdfsOptions.ORC_DICTIONARY_KEY_SIZE_THRESHOLD);
         return options;
     }
 
@@ -125,12 +131,18 @@ public class HdfsDynamicTableFactory implements DynamicTableSourceFactory, Dynam
         hdfsConf.setEncoding(config.get(BaseFileOptions.ENCODING));
         hdfsConf.setMaxFileSize(config.get(BaseFileOptions.MAX_FILE_SIZE));
         hdfsConf.setNextCheckRows(config.get(BaseFileOptions.NEXT_CHECK_ROWS));
+        hdfsConf.setMaxFileRows(config.get(BaseFileOptions.MAX_FILE_ROWS));
+        hdfsConf.setRolloverInterval(config.get(BaseFileOptions.ROLLOVER_INTERVAL));
 
         hdfsConf.setDefaultFS(config.get(HdfsOptions.DEFAULT_FS));
         hdfsConf.setFileType(config.get(HdfsOptions.FILE_TYPE));
         hdfsConf.setFilterRegex(config.get(HdfsOptions.FILTER_REGEX));
         hdfsConf.setFieldDelimiter(config.get(HdfsOptions.FIELD_DELIMITER));
         hdfsConf.setEnableDictionary(config.get(HdfsOptions.ENABLE_DICTIONARY));
+        hdfsConf.setOrcStripeSize(config.get(HdfsOptions.ORC_STRIPE_SIZE));
+        hdfsConf.setOrcBufferSize(config.get(HdfsOptions.ORC_BUFFER_SIZE));
+        hdfsConf.setOrcRowIndexStride(config.get(HdfsOptions.ORC_ROW_INDEX_STRIDE));
+        hdfsConf.setOrcDictionaryKeySizeThreshold(config.get(HdfsOptions.ORC_DICTIONARY_KEY_SIZE_THRESHOLD));
 
         return hdfsConf;
     }
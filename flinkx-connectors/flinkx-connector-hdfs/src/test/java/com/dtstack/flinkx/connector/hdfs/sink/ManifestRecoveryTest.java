@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.connector.hdfs.sink;
+
+import com.dtstack.flinkx.conf.FieldConf;
+import com.dtstack.flinkx.connector.hdfs.conf.HdfsConf;
+import com.dtstack.flinkx.restore.FormatState;
+import com.dtstack.flinkx.sink.WriteMode;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.TreeMap;
+
+public class ManifestRecoveryTest {
+
+    private File dir;
+    private File tmpDir;
+    private File manifestDir;
+
+    @Before
+    public void setup() throws Exception {
+        dir = Files.createTempDirectory("hdfs-sink").toFile();
+        tmpDir = new File(dir, ".data");
+        manifestDir = new File(tmpDir, ".manifest");
+        Assert.assertTrue(manifestDir.mkdirs());
+        // 上次运行(job1)在checkpoint 5预提交了一个文件，之后又写了一个文件
+        touch(new File(tmpDir, "job1_0_0"));
+        touch(new File(tmpDir, "job1_0_1"));
+        Files.write(new File(manifestDir, "job1_0_5").toPath(), "job1_0_0".getBytes(StandardCharsets.UTF_8));
+        touch(new File(dir, "old"));
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        deleteRecursively(dir);
+    }
+
+    @Test
+    public void testRestore() {
+        TestFormat master = new TestFormat(WriteMode.OVERWRITE, null);
+        master.initializeGlobal(1);
+        Assert.assertTrue(new File(manifestDir, "job1_0_5").exists());
+        Assert.assertTrue(new File(tmpDir, "job1_0_0").exists());
+        Assert.assertFalse(new File(tmpDir, "job1_0_1").exists());
+        Assert.assertTrue(new File(dir, "old").exists());
+
+        FormatState state = new FormatState(0, null);
+        state.setJobId("job1");
+        state.setCheckpointId(5);
+        TestFormat task = new TestFormat(WriteMode.OVERWRITE, "job2");
+        task.restore(true, state);
+        task.recoverManifests();
+
+        Assert.assertTrue(new File(dir, "job1_0_0").exists());
+        Assert.assertTrue(new File(dir, "old").exists());
+        Assert.assertFalse(new File(tmpDir, "job1_0_0").exists());
+        Assert.assertFalse(new File(manifestDir, "job1_0_5").exists());
+    }
+
+    @Test
+    public void testFreshStart() {
+        TestFormat master = new TestFormat(WriteMode.OVERWRITE, null);
+        master.initializeGlobal(1);
+
+        TestFormat task = new TestFormat(WriteMode.OVERWRITE, "job2");
+        task.restore(false, null);
+        task.recoverManifests();
+
+        Assert.assertFalse(new File(manifestDir, "job1_0_5").exists());
+        Assert.assertFalse(new File(tmpDir, "job1_0_0").exists());
+        Assert.assertFalse(new File(dir, "job1_0_0").exists());
+        Assert.assertFalse(new File(dir, "old").exists());
+        Assert.assertTrue(tmpDir.exists());
+    }
+
+    @Test
+    public void testFreshStartWithoutManifest() throws Exception {
+        Files.delete(new File(manifestDir, "job1_0_5").toPath());
+        TestFormat master = new TestFormat(WriteMode.APPEND, null);
+        master.initializeGlobal(1);
+
+        Assert.assertFalse(new File(tmpDir, "job1_0_0").exists());
+        Assert.assertFalse(new File(tmpDir, "job1_0_1").exists());
+        Assert.assertTrue(new File(dir, "old").exists());
+    }
+
+    private void touch(File file) throws Exception {
+        Files.write(file.toPath(), "1".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void deleteRecursively(File file) throws Exception {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        Files.deleteIfExists(file.toPath());
+    }
+
+    private class TestFormat extends HdfsTextOutputFormat {
+
+        TestFormat(WriteMode writeMode, String jobId) {
+            HdfsConf conf = new HdfsConf();
+            conf.setPath(dir.getAbsolutePath());
+            conf.setDefaultFS("file:///");
+            conf.setHadoopConfig(new HashMap<>());
+            conf.setWriteMode(writeMode.getMode());
+            FieldConf field = new FieldConf();
+            field.setName("id");
+            field.setType("string");
+            conf.setColumn(Collections.singletonList(field));
+            setHdfsConf(conf);
+            setBaseFileConf(conf);
+            this.jobId = jobId;
+        }
+
+        void restore(boolean restored, FormatState state) {
+            setRestored(restored);
+            this.formatState = state;
+            this.taskNumber = 0;
+            this.pendingManifests = new TreeMap<>();
+            initVariableFields();
+        }
+    }
+}
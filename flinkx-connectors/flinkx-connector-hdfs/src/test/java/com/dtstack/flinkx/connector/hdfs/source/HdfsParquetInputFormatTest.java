@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.connector.hdfs.source;
+
+import com.dtstack.flinkx.conf.FieldConf;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HdfsParquetInputFormatTest {
+
+    private final MessageType schema = MessageTypeParser.parseMessageType(
+            "message m { optional int32 id; optional binary name (UTF8); optional int64 ts; }");
+
+    @Test
+    public void testFindFieldByName() {
+        // 名称和index指向不同的列时以名称为准
+        Assert.assertEquals("name", HdfsParquetInputFormat.findField(schema, field("NAME", 2)).getName());
+        Assert.assertEquals("ts", HdfsParquetInputFormat.findField(schema, field("ts", null)).getName());
+    }
+
+    @Test
+    public void testFindFieldByIndex() {
+        Assert.assertEquals("ts", HdfsParquetInputFormat.findField(schema, field(null, 2)).getName());
+        Assert.assertEquals("id", HdfsParquetInputFormat.findField(schema, field("col_0", 0)).getName());
+    }
+
+    @Test
+    public void testFieldNotFound() {
+        Assert.assertNull(HdfsParquetInputFormat.findField(schema, field("col_3", 3)));
+        Assert.assertNull(HdfsParquetInputFormat.findField(schema, field(null, -1)));
+        Assert.assertNull(HdfsParquetInputFormat.findField(schema, field("col", null)));
+    }
+
+    private FieldConf field(String name, Integer index) {
+        FieldConf fieldConf = new FieldConf();
+        fieldConf.setName(name);
+        fieldConf.setIndex(index);
+        return fieldConf;
+    }
+}
@@ -45,6 +45,14 @@ public class HiveConf extends HdfsConf {
     private Map<String, TableInfo> tableInfos = new HashMap<>();
     private String tableName;
     private boolean autoCreateTable;
+    /** 按该字段的时间计算分区，为空时使用处理时间 */
+    private String eventTimeColumn;
+    /** 同时打开的分区writer数量上限 */
+    private int maxOpenWriters = 16;
+    /** writer空闲超过该时间(ms)后关闭，小于等于0时不关闭 */
+    private long writerIdleTimeout = 10 * 60 * 1000L;
+    /** 所有打开的writer在内存中缓冲的数据大小上限(byte) */
+    private long writerMemoryBudget = 256 * 1024 * 1024L;
 
     public String getJdbcUrl() {
         return jdbcUrl;
@@ -150,6 +158,38 @@ public class HiveConf extends HdfsConf {
         this.autoCreateTable = autoCreateTable;
     }
 
+    public String getEventTimeColumn() {
+        return eventTimeColumn;
+    }
+
+    public void setEventTimeColumn(String eventTimeColumn) {
+        this.eventTimeColumn = eventTimeColumn;
+    }
+
+    public int getMaxOpenWriters() {
+        return maxOpenWriters;
+    }
+
+    public void setMaxOpenWriters(int maxOpenWriters) {
+        this.maxOpenWriters = maxOpenWriters;
+    }
+
+    public long getWriterIdleTimeout() {
+        return writerIdleTimeout;
+    }
+
+    public void setWriterIdleTimeout(long writerIdleTimeout) {
+        this.writerIdleTimeout = writerIdleTimeout;
+    }
+
+    public long getWriterMemoryBudget() {
+        return writerMemoryBudget;
+    }
+
+    public void setWriterMemoryBudget(long writerMemoryBudget) {
+        this.writerMemoryBudget = writerMemoryBudget;
+    }
+
     @Override
     public String toString() {
         return "HiveConf{" +
@@ -166,6 +206,10 @@ public class HiveConf extends HdfsConf {
                 ", tableInfos=" + tableInfos +
                 ", tableName='" + tableName + '\'' +
                 ", autoCreateTable=" + autoCreateTable +
+                ", eventTimeColumn='" + eventTimeColumn + '\'' +
+                ", maxOpenWriters=" + maxOpenWriters +
+                ", writerIdleTimeout=" + writerIdleTimeout +
+                ", writerMemoryBudget=" + writerMemoryBudget +
                 '}';
     }
 }
@@ -33,9 +33,12 @@ public class HiveFormatState implements Serializable {
 
     private static final long serialVersionUID = 1L;
     private Map<String, FormatState> formatStateMap;
+    /** 分区在文件系统上的路径，key为hiveTablePath，恢复时不用查询元数据就能提交分区的文件 */
+    private Map<String, String> pathMap;
 
-    public HiveFormatState(Map<String, FormatState> formatStateMap) {
+    public HiveFormatState(Map<String, FormatState> formatStateMap, Map<String, String> pathMap) {
         this.formatStateMap = formatStateMap;
+        this.pathMap = pathMap;
     }
 
     public Map<String, FormatState> getFormatStateMap() {
@@ -46,6 +49,14 @@ public class HiveFormatState implements Serializable {
         this.formatStateMap = formatStateMap;
     }
 
+    public Map<String, String> getPathMap() {
+        return pathMap;
+    }
+
+    public void setPathMap(Map<String, String> pathMap) {
+        this.pathMap = pathMap;
+    }
+
     @Override
     public String toString() {
         return JsonUtil.toJson(formatStateMap);
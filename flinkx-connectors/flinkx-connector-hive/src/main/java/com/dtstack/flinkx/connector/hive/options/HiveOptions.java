@@ -65,4 +65,27 @@ public class HiveOptions extends HdfsOptions {
                     .defaultValue("pt")
                     .withDescription("Partition field name");
 
+    public static final ConfigOption<String> EVENT_TIME_COLUMN =
+            ConfigOptions.key("eventTimeColumn")
+                    .stringType()
+                    .noDefaultValue()
+                    .withDescription("The partition is calculated from the time of this column. If it is not set, the server time of the current task is used.");
+
+    public static final ConfigOption<Integer> MAX_OPEN_WRITERS =
+            ConfigOptions.key("maxOpenWriters")
+                    .intType()
+                    .defaultValue(16)
+                    .withDescription("The maximum number of partition writers opened at the same time, the least recently used writer will be closed.");
+
+    public static final ConfigOption<Long> WRITER_IDLE_TIMEOUT =
+            ConfigOptions.key("writerIdleTimeout")
+                    .longType()
+                    .defaultValue(10 * 60 * 1000L)
+                    .withDescription("The partition writer that has not written data for this time(ms) will be closed, less than or equal to 0 means never.");
+
+    public static final ConfigOption<Long> WRITER_MEMORY_BUDGET =
+            ConfigOptions.key("writerMemoryBudget")
+                    .longType()
+                    .defaultValue(256 * 1024 * 1024L)
+                    .withDescription("The maximum bytes buffered in memory by all opened partition writers.");
 }
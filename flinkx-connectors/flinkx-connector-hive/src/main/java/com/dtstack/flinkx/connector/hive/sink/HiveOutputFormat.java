@@ -18,12 +18,15 @@
 package com.dtstack.flinkx.connector.hive.sink;
 
 import org.apache.flink.streaming.api.CheckpointingMode;
+import org.apache.flink.table.data.GenericRowData;
 import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.StringData;
+import org.apache.flink.table.data.TimestampData;
 import org.apache.flink.types.RowKind;
 
 import com.dtstack.flinkx.conf.FieldConf;
-import com.dtstack.flinkx.connector.hdfs.conf.HdfsConf;
 import com.dtstack.flinkx.connector.hdfs.converter.HdfsRawTypeConverter;
+import com.dtstack.flinkx.connector.hdfs.enums.FileType;
 import com.dtstack.flinkx.connector.hdfs.sink.BaseHdfsOutputFormat;
 import com.dtstack.flinkx.connector.hdfs.sink.HdfsOutputFormatBuilder;
 import com.dtstack.flinkx.connector.hdfs.util.HdfsUtil;
@@ -41,20 +44,26 @@ import com.dtstack.flinkx.element.column.NullColumn;
 import com.dtstack.flinkx.outputformat.BaseRichOutputFormat;
 import com.dtstack.flinkx.restore.FormatState;
 import com.dtstack.flinkx.throwable.FlinkxRuntimeException;
+import com.dtstack.flinkx.util.DateUtil;
+import com.dtstack.flinkx.util.FileSystemUtil;
 import com.dtstack.flinkx.util.GsonUtil;
-import jdk.nashorn.internal.ir.debug.ObjectSizeCalculator;
+import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.MapUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.tuple.Pair;
+import org.apache.hadoop.fs.FileSystem;
 
 import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.TimeZone;
 
 /**
@@ -74,8 +83,32 @@ public class HiveOutputFormat extends BaseRichOutputFormat {
     private SimpleDateFormat partitionFormat;
 
     private Map<String, TableInfo> tableCacheMap;
-    private Map<String, Pair<String, BaseHdfsOutputFormat>> outputFormatMap;
-    private Map<String, FormatState> formatStateMap;
+    /** 每张表写入字段的字段名，按顺序从map或带字段名的ColumnRowData中取值，key为tableName */
+    private Map<String, String[]> columnNamePlanMap;
+    /** 已创建的分区，key为hiveTablePath */
+    private Set<String> partitionCache;
+    /** 按(表, 分区)打开的writer，key为hiveTablePath，按访问顺序排列，最久未写入的在最前面 */
+    private LinkedHashMap<String, BaseHdfsOutputFormat> outputFormatMap;
+    /**
+     * 被淘汰的writer，当前文件已经关闭，但临时目录中的文件还没有提交，key为hiveTablePath。
+     * 参与的checkpoint完成后释放；未开启checkpoint时保留到任务结束，由finalizeGlobal提交
+     */
+    private Map<String, BaseHdfsOutputFormat> evictedOutputFormatMap;
+    /** 被淘汰的writer最近一次checkpoint的状态，key为hiveTablePath */
+    private Map<String, FormatState> evictedFormatStateMap;
+    /**
+     * 各分区writer用过的最大文件序号。分区的状态在释放后不再保留，重新打开时从这个序号之后开始，
+     * 避免和分区中已经提交的文件重名
+     */
+    private int maxFileIndex = -1;
+    /** 恢复点所属的jobId，恢复后第一次打开的分区用它清理恢复点之后写入的文件 */
+    private String restoredJobId;
+    private long restoredCheckpointId;
+    /** 所有分区writer共用的FileSystem，hadoop的FileSystem缓存是关闭的，每个writer各自打开开销很大 */
+    private transient FileSystem fs;
+    /** eventTimeColumn在字段列表中的下标，RowData不带字段名时使用 */
+    private int eventTimeIndex = -1;
+    private long rowsSinceLastEvictCheck;
 
     @Override
     public void configure(org.apache.flink.configuration.Configuration parameters) {
@@ -84,8 +117,11 @@ public class HiveOutputFormat extends BaseRichOutputFormat {
 
         partitionFormat = getPartitionFormat();
         tableCacheMap = new HashMap<>(16);
-        outputFormatMap = new HashMap<>(16);
-        formatStateMap = new HashMap<>(16);
+        columnNamePlanMap = new HashMap<>(16);
+        partitionCache = new HashSet<>(16);
+        outputFormatMap = new LinkedHashMap<>(16, 0.75f, true);
+        evictedOutputFormatMap = new HashMap<>(16);
+        evictedFormatStateMap = new HashMap<>(16);
     }
 
     @Override
@@ -99,9 +135,18 @@ public class HiveOutputFormat extends BaseRichOutputFormat {
         this.taskNumber = taskNumber;
         this.numTasks = numTasks;
 
-        if (null != formatState && null != formatState.getState()) {
-            HiveFormatState hiveFormatState = (HiveFormatState)formatState.getState();
-            formatStateMap.putAll(hiveFormatState.getFormatStateMap());
+        try {
+            fs = FileSystemUtil.getFileSystem(hiveConf.getHadoopConfig(), hiveConf.getDefaultFS());
+        } catch (Exception e) {
+            throw new FlinkxRuntimeException("can't init fileSystem", e);
+        }
+        if (null != formatState) {
+            restoredJobId = formatState.getJobId();
+            restoredCheckpointId = formatState.getCheckpointId();
+            maxFileIndex = formatState.getFileIndex();
+            if (null != formatState.getState()) {
+                recoverPartitions((HiveFormatState) formatState.getState());
+            }
         }
 
         connectionInfo = new ConnectionInfo();
@@ -109,10 +154,12 @@ public class HiveOutputFormat extends BaseRichOutputFormat {
         connectionInfo.setUsername(hiveConf.getUsername());
         connectionInfo.setPassword(hiveConf.getPassword());
         connectionInfo.setHiveConf(hiveConf.getHadoopConfig());
+        initEventTimeIndex();
         primaryCreateTable();
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public synchronized void writeRecord(RowData rowData) {
         if(RowKind.INSERT != rowData.getRowKind()){
             throw new FlinkxRuntimeException("Hive connector doesn't support update/delete!");
@@ -124,8 +171,8 @@ public class HiveOutputFormat extends BaseRichOutputFormat {
             ColumnRowData columnRowData = (ColumnRowData) rowData;
             AbstractBaseColumn baseColumn = (columnRowData).getField(0);
             if(baseColumn instanceof MapColumn){
-                //from kafka
-                dataMap = GsonUtil.GSON.fromJson(baseColumn.asString(), GsonUtil.gsonMapTypeToken);
+                //from kafka, MapColumn中就是反序列化后的map，直接使用
+                dataMap = (Map<String, Object>) baseColumn.getData();
                 if(hasAnalyticalRules){
                     tableName = PathConverterUtil.regexByRules(dataMap, hiveConf.getAnalyticalRules(), hiveConf.getDistributeTableMapping());
                 }
@@ -136,26 +183,23 @@ public class HiveOutputFormat extends BaseRichOutputFormat {
             }
         }
 
-        Pair<BaseHdfsOutputFormat, TableInfo> formatPair = getHdfsOutputFormat(tableName, rowData, dataMap);
+        BaseHdfsOutputFormat hdfsOutputFormat = getHdfsOutputFormat(tableName, rowData, dataMap);
 
         try {
-            BaseHdfsOutputFormat hdfsOutputFormat = formatPair.getLeft();
-            HdfsConf hdfsConf = hdfsOutputFormat.getHdfsConf();
-            List<FieldConf> fieldConfList = hdfsConf.getColumn();
+            String[] columnNames = columnNamePlanMap.get(tableName);
             RowData forwardRowData = null;
             if(dataMap != null){
-                ColumnRowData result = new ColumnRowData(fieldConfList.size());
-                for (FieldConf fieldConf : fieldConfList) {
-                    Object data = dataMap.get(fieldConf.getName());
-                    result.addField(HiveUtil.parseDataFromMap(data));
+                ColumnRowData result = new ColumnRowData(columnNames.length);
+                for (String columnName : columnNames) {
+                    result.addField(HiveUtil.parseDataFromMap(dataMap.get(columnName)));
                 }
                 forwardRowData = result;
             }else if (rowData instanceof ColumnRowData) {
                 ColumnRowData columnRowData = (ColumnRowData) rowData;
                 if (columnRowData.getHeaders() != null) {
-                    ColumnRowData result = new ColumnRowData(fieldConfList.size());
-                    for (FieldConf fieldConf : fieldConfList) {
-                        AbstractBaseColumn baseColumn = columnRowData.getField(fieldConf.getName());
+                    ColumnRowData result = new ColumnRowData(columnNames.length);
+                    for (String columnName : columnNames) {
+                        AbstractBaseColumn baseColumn = columnRowData.getField(columnName);
                         if(baseColumn != null){
                             result.addField(baseColumn);
                         }else{
@@ -180,7 +224,10 @@ public class HiveOutputFormat extends BaseRichOutputFormat {
         updateDuration();
         numWriteCounter.add(1);
         rowsOfCurrentTransaction++;
-        bytesWriteCounter.add(ObjectSizeCalculator.getObjectSize(rowData));
+        bytesWriteCounter.add(rowSizeEstimator.estimate(rowData));
+        if (++rowsSinceLastEvictCheck >= hiveConf.getNextCheckRows()) {
+            evictOutputFormat();
+        }
     }
 
     @Override
@@ -193,13 +240,19 @@ public class HiveOutputFormat extends BaseRichOutputFormat {
         throw new FlinkxRuntimeException("method[writeMultipleRecordsInternal] in HiveOutputFormat should not be invoked, this is code error.");
     }
 
+    /**
+     * 只保存打开的和被淘汰还没有提交的writer的状态，已经释放的分区没有待提交的文件，不需要保存
+     */
     @Override
     public synchronized FormatState getFormatState() throws Exception {
-        formatStateMap.clear();
-        for (Map.Entry<String, Pair<String, BaseHdfsOutputFormat>> next : outputFormatMap.entrySet()) {
-            BaseHdfsOutputFormat format = next.getValue().getRight();
-            FormatState formatState = format.getFormatState();
-            formatStateMap.put(format.getFormatId(), formatState);
+        Map<String, FormatState> stateMap = new HashMap<>(outputFormatMap.size() + evictedOutputFormatMap.size());
+        Map<String, String> pathMap = new HashMap<>(outputFormatMap.size() + evictedOutputFormatMap.size());
+        for (BaseHdfsOutputFormat format : outputFormatMap.values()) {
+            putFormatState(format, stateMap, pathMap);
+        }
+        for (BaseHdfsOutputFormat format : evictedOutputFormatMap.values()) {
+            FormatState evictedState = putFormatState(format, stateMap, pathMap);
+            evictedFormatStateMap.put(format.getFormatId(), evictedState);
         }
 
         //set metric after preCommit
@@ -207,75 +260,263 @@ public class HiveOutputFormat extends BaseRichOutputFormat {
         rowsOfCurrentTransaction = 0;
         formatState.setNumberWrite(snapshotWriteCounter.getLocalValue());
         formatState.setMetric(outputMetric.getMetricCounters());
-        formatState.setState(new HiveFormatState(formatStateMap));
+        formatState.setJobId(jobId);
+        formatState.setFileIndex(maxFileIndex);
+        formatState.setState(new HiveFormatState(stateMap, pathMap));
         flushEnable.compareAndSet(true, false);
         return formatState;
     }
 
+    private FormatState putFormatState(BaseHdfsOutputFormat format, Map<String, FormatState> stateMap, Map<String, String> pathMap) throws Exception {
+        FormatState state = format.getFormatState(snapshotCheckpointId);
+        stateMap.put(format.getFormatId(), state);
+        pathMap.put(format.getFormatId(), format.getHdfsConf().getPath());
+        maxFileIndex = Math.max(maxFileIndex, state.getFileIndex());
+        return state;
+    }
+
+    /**
+     * 提交所有writer的文件，被淘汰后参与过这次及之前checkpoint的writer已经没有待提交的文件，释放它们，不再保留状态
+     */
     @Override
     public void commit(long checkpointId) {
-        for (Map.Entry<String, Pair<String, BaseHdfsOutputFormat>> next : outputFormatMap.entrySet()) {
-            BaseHdfsOutputFormat format = next.getValue().getRight();
+        for (BaseHdfsOutputFormat format : outputFormatMap.values()) {
             format.commit(checkpointId);
         }
+        Iterator<Map.Entry<String, BaseHdfsOutputFormat>> iterator = evictedOutputFormatMap.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, BaseHdfsOutputFormat> entry = iterator.next();
+            BaseHdfsOutputFormat format = entry.getValue();
+            format.commit(checkpointId);
+            FormatState evictedState = evictedFormatStateMap.get(entry.getKey());
+            if (evictedState != null && evictedState.getCheckpointId() <= checkpointId) {
+                LOG.info("release outputFormat of {}, checkpointId = {}", entry.getKey(), checkpointId);
+                format.release();
+                evictedFormatStateMap.remove(entry.getKey());
+                iterator.remove();
+            }
+        }
     }
 
     @Override
     public void rollback(long checkpointId) {
-        for (Map.Entry<String, Pair<String, BaseHdfsOutputFormat>> next : outputFormatMap.entrySet()) {
-            BaseHdfsOutputFormat format = next.getValue().getRight();
+        for (BaseHdfsOutputFormat format : outputFormatMap.values()) {
+            format.rollback(checkpointId);
+        }
+        for (BaseHdfsOutputFormat format : evictedOutputFormatMap.values()) {
             format.rollback(checkpointId);
         }
     }
 
     @Override
     public void closeInternal() {
-        for (Map.Entry<String, Pair<String, BaseHdfsOutputFormat>> entry : outputFormatMap.entrySet()) {
+        for (Map.Entry<String, BaseHdfsOutputFormat> entry : outputFormatMap.entrySet()) {
+            closeHdfsOutputFormat(entry.getKey(), entry.getValue());
+        }
+        outputFormatMap.clear();
+        for (Map.Entry<String, BaseHdfsOutputFormat> entry : evictedOutputFormatMap.entrySet()) {
+            closeHdfsOutputFormat(entry.getKey(), entry.getValue());
+        }
+        evictedOutputFormatMap.clear();
+        evictedFormatStateMap.clear();
+        if (fs != null) {
             try {
-                BaseHdfsOutputFormat format = entry.getValue().getRight();
-                format.finalizeGlobal(numTasks);
-                format.close();
+                fs.close();
             } catch (IOException e) {
-                LOG.warn("close {} outputFormat error", entry.getKey(), e);
+                LOG.warn("close fileSystem error", e);
             }
+            fs = null;
         }
     }
 
-    private Pair<BaseHdfsOutputFormat, TableInfo> getHdfsOutputFormat(String tableName, RowData rowData, Map<String, Object> event) {
-        String partitionValue = partitionFormat.format(new Date());
+    /**
+     * 分区writer不开启各自的定时任务，由这里统一检查文件是否需要滚动
+     */
+    @Override
+    protected long getTimingInterval() {
+        if (hiveConf.getRolloverInterval() > 0 || hiveConf.getMaxFileSize() > 0) {
+            return flushIntervalMills;
+        }
+        return 0;
+    }
+
+    @Override
+    protected void onTimer() {
+        for (BaseHdfsOutputFormat format : outputFormatMap.values()) {
+            format.triggerTimer();
+        }
+    }
+
+    /**
+     * 恢复时立即重新提交各分区在恢复点之前预提交的文件，丢弃之后写入的文件。
+     * 不能等分区有新数据写入时再处理，恢复后不再写入的分区的数据会一直不可见
+     */
+    private void recoverPartitions(HiveFormatState hiveFormatState) {
+        Map<String, String> pathMap = hiveFormatState.getPathMap();
+        for (Map.Entry<String, FormatState> entry : hiveFormatState.getFormatStateMap().entrySet()) {
+            FormatState state = entry.getValue();
+            maxFileIndex = Math.max(maxFileIndex, state.getFileIndex());
+            String path = pathMap == null ? null : pathMap.get(entry.getKey());
+            if (path == null) {
+                LOG.warn("no path of {} in the restored state, skip recovering it", entry.getKey());
+                continue;
+            }
+            LOG.info("recover {}, path = {}, state = {}", entry.getKey(), path, state);
+            // 恢复只重命名和删除文件，与文件格式无关
+            HiveConf copyHiveConf = copyHiveConf(path);
+            copyHiveConf.setFileType(FileType.TEXT.name());
+            copyHiveConf.setCompress(null);
+            copyHiveConf.setColumn(new ArrayList<>());
+            HdfsOutputFormatBuilder builder = new HdfsOutputFormatBuilder(copyHiveConf.getFileType());
+            builder.setHdfsConf(copyHiveConf);
+            BaseHdfsOutputFormat outputFormat = (BaseHdfsOutputFormat) builder.finish();
+            outputFormat.setFormatId(entry.getKey());
+            outputFormat.setSharedFs(fs);
+            outputFormat.recover(state, taskNumber);
+        }
+    }
+
+    private BaseHdfsOutputFormat getHdfsOutputFormat(String tableName, RowData rowData, Map<String, Object> event) {
+        String partitionValue = partitionFormat.format(getPartitionTime(rowData, event));
         String partitionPath = String.format(HiveUtil.PARTITION_TEMPLATE, hiveConf.getPartition(), partitionValue);
         String hiveTablePath = tableName + ConstantValue.SINGLE_SLASH_SYMBOL + partitionPath;
 
-        Pair<String, BaseHdfsOutputFormat> formatPair = outputFormatMap.get(tableName);
-        BaseHdfsOutputFormat outputFormat = null;
-        if(formatPair != null && StringUtils.equals(formatPair.getLeft(), partitionPath)){
-            outputFormat = formatPair.getRight();
-        }
-        TableInfo tableInfo = checkCreateTable(tableName, rowData, event);
+        BaseHdfsOutputFormat outputFormat = outputFormatMap.get(hiveTablePath);
         if (outputFormat == null) {
-            HiveUtil.createPartition(tableInfo, partitionPath, connectionInfo);
-            String path = tableInfo.getPath() + ConstantValue.SINGLE_SLASH_SYMBOL + partitionPath;
-
-            outputFormat = createHdfsOutputFormat(tableInfo, path, hiveTablePath, rowData instanceof ColumnRowData);
-            if(formatPair != null){
-                try {
-                    BaseHdfsOutputFormat format = formatPair.getRight();
-                    format.finalizeGlobal(numTasks);
-                    format.close();
-                } catch (IOException e) {
-                    LOG.warn("close {} outputFormat error", hiveTablePath, e);
+            outputFormat = evictedOutputFormatMap.remove(hiveTablePath);
+            evictedFormatStateMap.remove(hiveTablePath);
+            if (outputFormat == null) {
+                TableInfo tableInfo = checkCreateTable(tableName, rowData, event);
+                boolean firstOpen = !partitionCache.contains(hiveTablePath);
+                if (firstOpen) {
+                    createPartition(tableInfo, partitionPath);
+                    partitionCache.add(hiveTablePath);
                 }
+                String path = tableInfo.getPath() + ConstantValue.SINGLE_SLASH_SYMBOL + partitionPath;
+
+                outputFormat = createHdfsOutputFormat(tableInfo, path, hiveTablePath, rowData instanceof ColumnRowData, firstOpen);
+                columnNamePlanMap.computeIfAbsent(tableName, k -> tableInfo.getColumnNameList().toArray(new String[0]));
+            }
+            outputFormatMap.put(hiveTablePath, outputFormat);
+            evictOutputFormat();
+        }
+        return outputFormat;
+    }
+
+    /**
+     * 按最近最少使用的顺序淘汰writer，直到打开的writer数量、缓冲的数据大小都在限制内，且没有空闲超时的writer。
+     * 最近一次写入的writer不会被淘汰。淘汰只关闭当前文件，文件在checkpoint完成后提交
+     */
+    private void evictOutputFormat() {
+        rowsSinceLastEvictCheck = 0;
+        long now = System.currentTimeMillis();
+        long bufferedBytes = 0;
+        for (BaseHdfsOutputFormat format : outputFormatMap.values()) {
+            bufferedBytes += format.getBufferedBytes();
+        }
+
+        Iterator<Map.Entry<String, BaseHdfsOutputFormat>> iterator = outputFormatMap.entrySet().iterator();
+        while (outputFormatMap.size() > 1 && iterator.hasNext()) {
+            Map.Entry<String, BaseHdfsOutputFormat> entry = iterator.next();
+            BaseHdfsOutputFormat format = entry.getValue();
+            boolean tooManyWriters = outputFormatMap.size() > hiveConf.getMaxOpenWriters();
+            boolean overBudget = bufferedBytes > hiveConf.getWriterMemoryBudget();
+            boolean idle = hiveConf.getWriterIdleTimeout() > 0 && now - format.getLastWriteTime() > hiveConf.getWriterIdleTimeout();
+            if (!tooManyWriters && !overBudget && !idle) {
+                break;
             }
-            outputFormatMap.put(tableName, Pair.of(partitionPath, outputFormat));
+            LOG.info("evict outputFormat of {}, openWriters = {}, bufferedBytes = {}, idle = {}", entry.getKey(), outputFormatMap.size(), bufferedBytes, idle);
+            bufferedBytes -= format.getBufferedBytes();
+            iterator.remove();
+            format.flushData();
+            evictedOutputFormatMap.put(entry.getKey(), format);
         }
-        return Pair.of(outputFormat, tableInfo);
     }
 
-    private BaseHdfsOutputFormat createHdfsOutputFormat(TableInfo tableInfo, String path, String hiveTablePath, boolean useAbstractBaseColumn) {
+    private void closeHdfsOutputFormat(String hiveTablePath, BaseHdfsOutputFormat format) {
+        try {
+            format.finalizeGlobal(numTasks);
+            format.close();
+        } catch (IOException e) {
+            LOG.warn("close {} outputFormat error", hiveTablePath, e);
+        }
+    }
+
+    /**
+     * 获取计算分区用的时间，未配置eventTimeColumn或字段值为空、无法解析时使用当前时间
+     */
+    private Date getPartitionTime(RowData rowData, Map<String, Object> event) {
+        if (StringUtils.isBlank(hiveConf.getEventTimeColumn())) {
+            return new Date();
+        }
+        Object value = null;
+        if (event != null) {
+            value = event.get(hiveConf.getEventTimeColumn());
+        } else if (rowData instanceof ColumnRowData) {
+            ColumnRowData columnRowData = (ColumnRowData) rowData;
+            AbstractBaseColumn baseColumn = null;
+            if (columnRowData.getHeaders() != null) {
+                baseColumn = columnRowData.getField(hiveConf.getEventTimeColumn());
+            } else if (eventTimeIndex >= 0 && eventTimeIndex < columnRowData.getArity()) {
+                baseColumn = columnRowData.getField(eventTimeIndex);
+            }
+            if (baseColumn != null && !(baseColumn instanceof NullColumn)) {
+                value = baseColumn.asTimestamp();
+            }
+        } else if (rowData instanceof GenericRowData && eventTimeIndex >= 0 && eventTimeIndex < rowData.getArity()) {
+            value = ((GenericRowData) rowData).getField(eventTimeIndex);
+        }
+
+        try {
+            if (value instanceof TimestampData) {
+                value = ((TimestampData) value).toTimestamp();
+            } else if (value instanceof StringData) {
+                value = value.toString();
+            } else if (value instanceof Number) {
+                value = ((Number) value).longValue();
+            }
+            Date date = DateUtil.columnToTimestamp(value, null);
+            if (date != null) {
+                return date;
+            }
+        } catch (Exception e) {
+            if (numWriteCounter.getLocalValue() % LOG_PRINT_INTERNAL == 0) {
+                LOG.warn("can't parse eventTimeColumn[{}] value: {}, use current time instead", hiveConf.getEventTimeColumn(), value, e);
+            }
+        }
+        return new Date();
+    }
+
+    /**
+     * RowData不带字段名时按hiveConf.getColumn()，sql模式下按唯一一张表的字段计算eventTimeColumn的下标
+     */
+    private void initEventTimeIndex() {
+        if (StringUtils.isBlank(hiveConf.getEventTimeColumn())) {
+            return;
+        }
+        List<String> columnNameList = new ArrayList<>();
+        if (CollectionUtils.isNotEmpty(hiveConf.getColumn())) {
+            for (FieldConf fieldConf : hiveConf.getColumn()) {
+                columnNameList.add(fieldConf.getName());
+            }
+        } else if (hiveConf.getTableInfos().size() == 1) {
+            columnNameList = hiveConf.getTableInfos().values().iterator().next().getColumnNameList();
+        }
+        for (int i = 0; i < columnNameList.size(); i++) {
+            if (hiveConf.getEventTimeColumn().equalsIgnoreCase(columnNameList.get(i))) {
+                eventTimeIndex = i;
+                return;
+            }
+        }
+    }
+
+    /**
+     * @param firstOpen 本次运行第一次打开这个分区
+     */
+    private BaseHdfsOutputFormat createHdfsOutputFormat(TableInfo tableInfo, String path, String hiveTablePath, boolean useAbstractBaseColumn, boolean firstOpen) {
         try {
             HdfsOutputFormatBuilder builder = new HdfsOutputFormatBuilder(hiveConf.getFileType());
-            HiveConf copyHiveConf = GsonUtil.GSON.fromJson(GsonUtil.GSON.toJson(hiveConf), HiveConf.class);
-            copyHiveConf.setPath(path);
+            HiveConf copyHiveConf = copyHiveConf(path);
             List<String> columnNameList = tableInfo.getColumnNameList();
             List<String> columnTypeList = tableInfo.getColumnTypeList();
             List<FieldConf> fieldConfList = new ArrayList<>(columnNameList.size());
@@ -304,10 +545,24 @@ public class HiveOutputFormat extends BaseRichOutputFormat {
             outputFormat.setDirtyDataManager(dirtyDataManager);
             outputFormat.setErrorLimiter(errorLimiter);
             outputFormat.setRuntimeContext(getRuntimeContext());
-            outputFormat.setRestoreState(formatStateMap.get(hiveTablePath));
+            outputFormat.setRestored(restored);
+            outputFormat.setSharedFs(fs);
+            outputFormat.setTimerDisabled(true);
+            outputFormat.setCurrentFileIndex(maxFileIndex + 1);
+            if (firstOpen && restored && restoredJobId != null) {
+                // 分区在恢复点之后才打开过，丢弃当时写入的临时文件和清单
+                FormatState restoreState = new FormatState(taskNumber, null);
+                restoreState.setJobId(restoredJobId);
+                restoreState.setCheckpointId(restoredCheckpointId);
+                outputFormat.setRestoreState(restoreState);
+            }
             outputFormat.configure(parameters);
             outputFormat.open(taskNumber, numTasks);
-            outputFormat.initializeGlobal(numTasks);
+            // 再次初始化会删除已提交的数据(覆盖模式)或未提交的临时文件。恢复后第一次打开的分区临时目录还在，
+            // 说明恢复前已经初始化过，临时目录在任务结束时才删除
+            if (firstOpen && (!restored || !outputFormat.hasTmpDataDir())) {
+                outputFormat.initializeGlobal(numTasks);
+            }
 
             return outputFormat;
         } catch (Exception e) {
@@ -317,6 +572,16 @@ public class HiveOutputFormat extends BaseRichOutputFormat {
     }
 
 
+    private HiveConf copyHiveConf(String path) {
+        HiveConf copyHiveConf = GsonUtil.GSON.fromJson(GsonUtil.GSON.toJson(hiveConf), HiveConf.class);
+        copyHiveConf.setPath(path);
+        return copyHiveConf;
+    }
+
+    void createPartition(TableInfo tableInfo, String partitionPath) {
+        HiveUtil.createPartition(tableInfo, partitionPath, connectionInfo);
+    }
+
     /**
      * 预先建表
      * 只适用于analyticalRules参数为schema和table的情况
@@ -333,7 +598,7 @@ public class HiveOutputFormat extends BaseRichOutputFormat {
         }
     }
 
-    private TableInfo checkCreateTable(String tablePath, RowData rowData, Map<String, Object> event) {
+    TableInfo checkCreateTable(String tablePath, RowData rowData, Map<String, Object> event) {
         TableInfo tableInfo = tableCacheMap.get(tablePath);
         if (tableInfo == null) {
             LOG.info("tablePath:{}, rowData:{}, even:{}", tablePath, rowData, event);
@@ -79,15 +79,25 @@ public class HiveDynamicTableFactory implements DynamicTableSinkFactory {
         options.add(BaseFileOptions.ENCODING);
         options.add(BaseFileOptions.MAX_FILE_SIZE);
         options.add(BaseFileOptions.NEXT_CHECK_ROWS);
+        options.add(BaseFileOptions.MAX_FILE_ROWS);
+        options.add(BaseFileOptions.ROLLOVER_INTERVAL);
 
         options.add(HdfsOptions.FILTER_REGEX);
         options.add(HdfsOptions.FIELD_DELIMITER);
         options.add(HdfsOptions.ENABLE_DICTIONARY);
+        options.add(HdfsOptions.ORC_STRIPE_SIZE);
+        options.add(HdfsOptions.ORC_BUFFER_SIZE);
+        options.add(HdfsOptions.ORC_ROW_INDEX_STRIDE);
+        options.add(HdfsOptions.ORC_DICTIONARY_KEY_SIZE_THRESHOLD);
 
         options.add(HiveOptions.USERNAME);
         options.add(HiveOptions.PASSWORD);
         options.add(HiveOptions.PARTITION_TYPE);
         options.add(HiveOptions.PARTITION);
+        options.add(HiveOptions.EVENT_TIME_COLUMN);
+        options.add(HiveOptions.MAX_OPEN_WRITERS);
+        options.add(HiveOptions.WRITER_IDLE_TIMEOUT);
+        options.add(HiveOptions.WRITER_MEMORY_BUDGET);
 
         return options;
     }
@@ -119,18 +129,28 @@ public class HiveDynamicTableFactory implements DynamicTableSinkFactory {
         hiveConf.setEncoding(config.get(BaseFileOptions.ENCODING));
         hiveConf.setMaxFileSize(config.get(BaseFileOptions.MAX_FILE_SIZE));
         hiveConf.setNextCheckRows(config.get(BaseFileOptions.NEXT_CHECK_ROWS));
+        hiveConf.setMaxFileRows(config.get(BaseFileOptions.MAX_FILE_ROWS));
+        hiveConf.setRolloverInterval(config.get(BaseFileOptions.ROLLOVER_INTERVAL));
 
         hiveConf.setDefaultFS(config.get(HdfsOptions.DEFAULT_FS));
         hiveConf.setFileType(config.get(HdfsOptions.FILE_TYPE));
         hiveConf.setFilterRegex(config.get(HdfsOptions.FILTER_REGEX));
         hiveConf.setFieldDelimiter(config.get(HdfsOptions.FIELD_DELIMITER));
         hiveConf.setEnableDictionary(config.get(HdfsOptions.ENABLE_DICTIONARY));
+        hiveConf.setOrcStripeSize(config.get(HdfsOptions.ORC_STRIPE_SIZE));
+        hiveConf.setOrcBufferSize(config.get(HdfsOptions.ORC_BUFFER_SIZE));
+        hiveConf.setOrcRowIndexStride(config.get(HdfsOptions.ORC_ROW_INDEX_STRIDE));
+        hiveConf.setOrcDictionaryKeySizeThreshold(config.get(HdfsOptions.ORC_DICTIONARY_KEY_SIZE_THRESHOLD));
 
         hiveConf.setJdbcUrl(config.get(HiveOptions.JDBC_URL));
         hiveConf.setUsername(config.get(HiveOptions.USERNAME));
         hiveConf.setPassword(config.get(HiveOptions.PASSWORD));
         hiveConf.setPartitionType(config.get(HiveOptions.PARTITION_TYPE));
         hiveConf.setPartition(config.get(HiveOptions.PARTITION));
+        hiveConf.setEventTimeColumn(config.get(HiveOptions.EVENT_TIME_COLUMN));
+        hiveConf.setMaxOpenWriters(config.get(HiveOptions.MAX_OPEN_WRITERS));
+        hiveConf.setWriterIdleTimeout(config.get(HiveOptions.WRITER_IDLE_TIMEOUT));
+        hiveConf.setWriterMemoryBudget(config.get(HiveOptions.WRITER_MEMORY_BUDGET));
 
         return hiveConf;
     }
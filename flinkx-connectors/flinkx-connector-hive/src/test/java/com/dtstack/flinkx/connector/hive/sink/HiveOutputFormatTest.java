@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.connector.hive.sink;
+
+import org.apache.flink.api.common.accumulators.LongCounter;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.metrics.groups.UnregisteredMetricsGroup;
+import org.apache.flink.streaming.api.CheckpointingMode;
+import org.apache.flink.streaming.api.operators.StreamingRuntimeContext;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.StringData;
+
+import com.dtstack.flinkx.conf.FieldConf;
+import com.dtstack.flinkx.connector.hive.conf.HiveConf;
+import com.dtstack.flinkx.connector.hive.entity.HiveFormatState;
+import com.dtstack.flinkx.connector.hive.entity.TableInfo;
+import com.dtstack.flinkx.constants.Metrics;
+import com.dtstack.flinkx.restore.FormatState;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.RawLocalFileSystem;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.File;
+import java.net.URI;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class HiveOutputFormatTest {
+
+    private static final long DAY1 = 1609502400000L;
+    private static final long DAY2 = 1609588800000L;
+
+    private File dir;
+    private String partition1;
+    private String partition2;
+
+    @Before
+    public void setup() throws Exception {
+        dir = Files.createTempDirectory("hive-sink").toFile();
+        SimpleDateFormat format = new SimpleDateFormat("yyyyMMdd");
+        partition1 = "pt=" + format.format(DAY1);
+        partition2 = "pt=" + format.format(DAY2);
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        deleteRecursively(dir);
+    }
+
+    @Test
+    public void testEvictAndRelease() throws Exception {
+        TestHiveOutputFormat format = open(false, null);
+        format.writeRecord(row(DAY1));
+        format.writeRecord(row(DAY2));
+
+        Assert.assertEquals(2, partitionsOf(format.getFormatState(1)).size());
+        format.commit(1);
+        Assert.assertEquals(1, dataFiles(partition1).length);
+        Assert.assertEquals(1, dataFiles(partition2).length);
+        // 淘汰的分区提交后释放，不再保存状态
+        Assert.assertEquals(Collections.singleton("t/" + partition2), partitionsOf(format.getFormatState(2)).keySet());
+
+        format.writeRecord(row(DAY1));
+        format.getFormatState(3);
+        format.commit(3);
+        // 重新打开的分区不再初始化，新文件也不会和已提交的文件重名
+        Assert.assertEquals(2, dataFiles(partition1).length);
+    }
+
+    @Test
+    public void testRestoreEvictedPartition() throws Exception {
+        TestHiveOutputFormat format = open(false, null);
+        format.writeRecord(row(DAY1));
+        format.writeRecord(row(DAY2));
+        FormatState state = format.getFormatState(1);
+        // checkpoint完成前任务失败，分区中还没有数据文件
+        Assert.assertEquals(0, dataFiles(partition1).length);
+        Assert.assertEquals(0, dataFiles(partition2).length);
+
+        TestHiveOutputFormat restored = open(true, state);
+        // 恢复后没有新数据的分区也要提交
+        Assert.assertEquals(1, dataFiles(partition1).length);
+        Assert.assertEquals(1, dataFiles(partition2).length);
+        Assert.assertEquals(0, new File(dir, "t/" + partition1 + "/.data/.manifest").list().length);
+        Assert.assertTrue(partitionsOf(restored.getFormatState(2)).isEmpty());
+    }
+
+    private TestHiveOutputFormat open(boolean restored, FormatState state) throws Exception {
+        HiveConf hiveConf = new HiveConf();
+        hiveConf.setDefaultFS("hdfs://localhost");
+        Map<String, Object> hadoopConfig = new HashMap<>();
+        hadoopConfig.put("fs.hdfs.impl", LocalHdfsFileSystem.class.getName());
+        hiveConf.setHadoopConfig(hadoopConfig);
+        hiveConf.setFileType("text");
+        hiveConf.setTableName("t");
+        hiveConf.setEventTimeColumn("ts");
+        hiveConf.setMaxOpenWriters(1);
+        hiveConf.setColumn(Arrays.asList(field("id", "string"), field("ts", "bigint")));
+
+        TestHiveOutputFormat format = new TestHiveOutputFormat();
+        format.setHiveConf(hiveConf);
+        format.setConfig(hiveConf);
+        format.setRuntimeContext(mockContext());
+        format.setRestored(restored);
+        format.setRestoreState(state);
+        format.configure(new Configuration());
+        format.open(0, 1);
+        return format;
+    }
+
+    private StreamingRuntimeContext mockContext() {
+        StreamingRuntimeContext context = Mockito.mock(StreamingRuntimeContext.class);
+        Mockito.when(context.isCheckpointingEnabled()).thenReturn(true);
+        Mockito.when(context.getCheckpointMode()).thenReturn(CheckpointingMode.EXACTLY_ONCE);
+        Mockito.when(context.getLongCounter(Mockito.anyString())).thenAnswer(invocation -> new LongCounter());
+        Mockito.when(context.getMetricGroup()).thenReturn(new UnregisteredMetricsGroup() {
+            @Override
+            public Map<String, String> getAllVariables() {
+                return Collections.singletonMap(Metrics.JOB_ID, "job1");
+            }
+        });
+        return context;
+    }
+
+    private RowData row(long time) {
+        return GenericRowData.of(StringData.fromString("a"), time);
+    }
+
+    private FieldConf field(String name, String type) {
+        FieldConf fieldConf = new FieldConf();
+        fieldConf.setName(name);
+        fieldConf.setType(type);
+        return fieldConf;
+    }
+
+    private Map<String, FormatState> partitionsOf(FormatState state) {
+        return ((HiveFormatState) state.getState()).getFormatStateMap();
+    }
+
+    private File[] dataFiles(String partition) {
+        File[] files = new File(dir, "t/" + partition).listFiles(file -> file.isFile() && !file.getName().startsWith("."));
+        return files == null ? new File[0] : files;
+    }
+
+    private void deleteRecursively(File file) throws Exception {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        Files.deleteIfExists(file.toPath());
+    }
+
+    private class TestHiveOutputFormat extends HiveOutputFormat {
+
+        TestHiveOutputFormat() {
+            this.initAccumulatorAndDirty = false;
+        }
+
+        @Override
+        TableInfo checkCreateTable(String tablePath, RowData rowData, Map<String, Object> event) {
+            TableInfo tableInfo = new TableInfo(2);
+            tableInfo.addColumnAndType("id", "string");
+            tableInfo.addColumnAndType("ts", "bigint");
+            tableInfo.setTablePath(tablePath);
+            tableInfo.setPath(new File(dir, tablePath).getAbsolutePath());
+            return tableInfo;
+        }
+
+        @Override
+        void createPartition(TableInfo tableInfo, String partitionPath) {
+        }
+    }
+
+    /**
+     * 用本地文件系统模拟hdfs，HdfsOutputFormatBuilder要求defaultFS以hdfs://开头
+     */
+    public static class LocalHdfsFileSystem extends RawLocalFileSystem {
+
+        @Override
+        public URI getUri() {
+            return URI.create("hdfs://localhost");
+        }
+
+        @Override
+        protected void checkPath(Path path) {
+        }
+    }
+}
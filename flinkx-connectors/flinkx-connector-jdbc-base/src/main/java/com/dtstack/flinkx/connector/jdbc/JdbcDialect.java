@@ -35,6 +35,7 @@ import org.apache.commons.lang3.StringUtils;
 import java.io.Serializable;
 import java.sql.ResultSet;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -238,6 +239,46 @@ public interface JdbcDialect extends Serializable {
                 + (conditionFields.length > 0 ? " WHERE " + fieldExpressions : "");
     }
 
+    /**
+     * Get select fields statement matching any of keyCount keys, used by batched lookup joins. The
+     * parameters are the condition values of each key in turn.
+     */
+    default String getSelectFromStatementByKeys(
+            String schema,
+            String tableName,
+            String[] selectFields,
+            String[] conditionFields,
+            int keyCount) {
+        String selectExpressions =
+                Arrays.stream(selectFields)
+                        .map(this::quoteIdentifier)
+                        .collect(Collectors.joining(", "));
+        return "SELECT "
+                + selectExpressions
+                + " FROM "
+                + buildTableInfoWithSchema(schema, tableName)
+                + " WHERE "
+                + getKeysInCondition(conditionFields, keyCount);
+    }
+
+    /** Get the condition matching any of keyCount keys. Default use (k1, k2) IN ((?, ?), ...). */
+    default String getKeysInCondition(String[] conditionFields, int keyCount) {
+        String columns;
+        String values;
+        if (conditionFields.length == 1) {
+            columns = quoteIdentifier(conditionFields[0]);
+            values = "?";
+        } else {
+            columns =
+                    Arrays.stream(conditionFields)
+                            .map(this::quoteIdentifier)
+                            .collect(Collectors.joining(", ", "(", ")"));
+            values = String.join(", ", Collections.nCopies(conditionFields.length, "?"));
+            values = "(" + values + ")";
+        }
+        return columns + " IN (" + String.join(", ", Collections.nCopies(keyCount, values)) + ")";
+    }
+
     /** Get select fields statement by condition fields. Default use SELECT. */
     default String getSelectFromStatement(
             String schemaName,
@@ -30,6 +30,10 @@ import java.util.Map;
 public class JdbcLookupConf extends LookupConf {
     /** vertx pool size */
     protected int asyncPoolSize = 5;
+    /** 一次批量查询的最大key个数，1表示不合并查询 */
+    protected int batchSize = 1;
+    /** key等待合并查询的最长时间，单位毫秒 */
+    protected long batchLinger = 5L;
 
     public Map<String, Object> getDruidConf() {
         return druidConf;
@@ -45,6 +49,24 @@ public class JdbcLookupConf extends LookupConf {
         return this;
     }
 
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public JdbcLookupConf setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    public long getBatchLinger() {
+        return batchLinger;
+    }
+
+    public JdbcLookupConf setBatchLinger(long batchLinger) {
+        this.batchLinger = batchLinger;
+        return this;
+    }
+
     public JdbcLookupConf setDruidConf(Map<String, Object> druidConf) {
         this.druidConf = druidConf;
         return this;
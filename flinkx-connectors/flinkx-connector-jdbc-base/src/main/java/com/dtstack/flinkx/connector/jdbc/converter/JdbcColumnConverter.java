@@ -27,11 +27,18 @@ import com.dtstack.flinkx.converter.AbstractRowConverter;
 import com.dtstack.flinkx.converter.IDeserializationConverter;
 import com.dtstack.flinkx.converter.ISerializationConverter;
 import com.dtstack.flinkx.element.AbstractBaseColumn;
+import com.dtstack.flinkx.element.ArrayColumnRowData;
 import com.dtstack.flinkx.element.ColumnRowData;
 import com.dtstack.flinkx.element.column.BigDecimalColumn;
 import com.dtstack.flinkx.element.column.BooleanColumn;
 import com.dtstack.flinkx.element.column.BytesColumn;
+import com.dtstack.flinkx.element.column.DateColumn;
+import com.dtstack.flinkx.element.column.DoubleColumn;
+import com.dtstack.flinkx.element.column.FloatColumn;
+import com.dtstack.flinkx.element.column.IntColumn;
+import com.dtstack.flinkx.element.column.LongColumn;
 import com.dtstack.flinkx.element.column.StringColumn;
+import com.dtstack.flinkx.element.column.TimeColumn;
 import com.dtstack.flinkx.element.column.TimestampColumn;
 import com.dtstack.flinkx.util.DateUtil;
 import io.vertx.core.json.JsonArray;
@@ -40,6 +47,7 @@ import java.math.BigDecimal;
 import java.sql.Date;
 import java.sql.ResultSet;
 import java.sql.Time;
+import java.sql.Timestamp;
 
 /** Base class for all converters that convert between JDBC object and Flink internal object. */
 public class JdbcColumnConverter
@@ -62,7 +70,7 @@ public class JdbcColumnConverter
     protected ISerializationConverter<FieldNamedPreparedStatement> wrapIntoNullableExternalConverter(
             ISerializationConverter serializationConverter, LogicalType type) {
         return (val, index, statement) -> {
-            if (((ColumnRowData) val).getField(index) == null) {
+            if (val.isNullAt(index)) {
                 statement.setObject(index, null);
             } else {
                 serializationConverter.serialize(val, index, statement);
@@ -72,10 +80,10 @@ public class JdbcColumnConverter
 
     @Override
     public RowData toInternal(ResultSet resultSet) throws Exception {
-        ColumnRowData data = new ColumnRowData(toInternalConverters.length);
+        ArrayColumnRowData data = new ArrayColumnRowData(toInternalConverters.length);
         for (int i = 0; i < toInternalConverters.length; i++) {
             Object field = resultSet.getObject(i + 1);
-            data.addField((AbstractBaseColumn) toInternalConverters[i].deserialize(field));
+            data.setField(i, (AbstractBaseColumn) toInternalConverters[i].deserialize(field));
         }
         return data;
     }
@@ -95,27 +103,45 @@ public class JdbcColumnConverter
             case BOOLEAN:
                 return val -> new BooleanColumn(Boolean.parseBoolean(val.toString()));
             case TINYINT:
-                return val -> new BigDecimalColumn(((Integer) val).byteValue());
+                return val -> new IntColumn(((Integer) val).byteValue());
             case SMALLINT:
             case INTEGER:
-                return val -> new BigDecimalColumn((Integer) val);
+                return val -> new IntColumn((Integer) val);
             case FLOAT:
-                return val -> new BigDecimalColumn((Float) val);
+                return val -> new FloatColumn((Float) val);
             case DOUBLE:
-                return val -> new BigDecimalColumn((Double) val);
+                return val -> new DoubleColumn((Double) val);
             case BIGINT:
-                return val -> new BigDecimalColumn((Long) val);
+                return val -> new LongColumn((Long) val);
             case DECIMAL:
                 return val -> new BigDecimalColumn((BigDecimal) val);
             case CHAR:
             case VARCHAR:
                 return val -> new StringColumn((String) val);
             case INTERVAL_YEAR_MONTH:
+                return val -> new TimestampColumn(DateUtil.getTimestampFromStr(val.toString()));
             case DATE:
+                return val -> {
+                    if (val instanceof java.util.Date) {
+                        return new DateColumn((java.util.Date) val);
+                    }
+                    return new DateColumn(DateUtil.getTimestampFromStr(val.toString()));
+                };
             case TIME_WITHOUT_TIME_ZONE:
+                return val -> {
+                    if (val instanceof java.util.Date) {
+                        return new TimeColumn((java.util.Date) val);
+                    }
+                    return new TimeColumn(DateUtil.getTimestampFromStr(val.toString()));
+                };
             case TIMESTAMP_WITH_TIME_ZONE:
             case TIMESTAMP_WITHOUT_TIME_ZONE:
-                return val -> new TimestampColumn(DateUtil.getTimestampFromStr(val.toString()));
+                return val -> {
+                    if (val instanceof Timestamp) {
+                        return new TimestampColumn((Timestamp) val);
+                    }
+                    return new TimestampColumn(DateUtil.getTimestampFromStr(val.toString()));
+                };
             case BINARY:
             case VARBINARY:
                 return val -> new BytesColumn((byte[]) val);
@@ -136,19 +162,15 @@ public class JdbcColumnConverter
                 return (val, index, statement) -> statement.setByte(index, val.getByte(index));
             case SMALLINT:
             case INTEGER:
-                return (val, index, statement) ->
-                        statement.setInt(index, ((ColumnRowData) val).getField(index).asInt());
+                return (val, index, statement) -> statement.setInt(index, val.getInt(index));
             case FLOAT:
-                return (val, index, statement) ->
-                        statement.setFloat(index, ((ColumnRowData) val).getField(index).asFloat());
+                return (val, index, statement) -> statement.setFloat(index, val.getFloat(index));
             case DOUBLE:
                 return (val, index, statement) ->
-                        statement.setDouble(
-                                index, ((ColumnRowData) val).getField(index).asDouble());
+                        statement.setDouble(index, val.getDouble(index));
 
             case BIGINT:
-                return (val, index, statement) ->
-                        statement.setLong(index, ((ColumnRowData) val).getField(index).asLong());
+                return (val, index, statement) -> statement.setLong(index, val.getLong(index));
             case DECIMAL:
                 return (val, index, statement) ->
                         statement.setBigDecimal(
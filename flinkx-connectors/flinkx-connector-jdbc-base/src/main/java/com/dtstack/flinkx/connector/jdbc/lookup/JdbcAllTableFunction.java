@@ -1,7 +1,7 @@
 package com.dtstack.flinkx.connector.jdbc.lookup;
 
 import org.apache.flink.annotation.Internal;
-import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
 import org.apache.flink.table.types.logical.RowType;
 
 import com.dtstack.flinkx.connector.jdbc.JdbcDialect;
@@ -16,9 +16,6 @@ import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
 
 /**
  * A lookup function for {@link }.
@@ -54,12 +51,11 @@ public class JdbcAllTableFunction extends AbstractAllTableFunction {
 
     @Override
     protected void loadData(Object cacheRef) {
-        Map<String, List<Map<String, Object>>> tmpCache = (Map<String, List<Map<String, Object>>>) cacheRef;
         Connection connection = null;
 
         try {
             connection = JdbcUtil.getConnection(jdbcConf,jdbcDialect);
-            queryAndFillData(tmpCache, connection);
+            queryAndFillData(cacheRef, connection);
         } catch (Exception e) {
             LOG.error("", e);
             throw new RuntimeException(e);
@@ -83,7 +79,7 @@ public class JdbcAllTableFunction extends AbstractAllTableFunction {
      * @throws SQLException
      */
     private void queryAndFillData(
-            Map<String, List<Map<String, Object>>> tmpCache,
+            Object tmpCache,
             Connection connection) throws SQLException {
         //load data from table
         Statement statement = connection.createStatement();
@@ -91,15 +87,10 @@ public class JdbcAllTableFunction extends AbstractAllTableFunction {
         ResultSet resultSet = statement.executeQuery(query);
 
         while (resultSet.next()) {
-            Map<String, Object> oneRow = new HashMap<>();
             // 防止一条数据有问题，后面数据无法加载
             try {
-                GenericRowData rowData = (GenericRowData) rowConverter.toInternal(resultSet);
-                for (int i = 0; i < fieldsName.length; i++) {
-                    Object object = rowData.getField(i);
-                    oneRow.put(fieldsName[i].trim(), object);
-                }
-                buildCache(oneRow, tmpCache);
+                RowData rowData = rowConverter.toInternal(resultSet);
+                buildCache(rowData, tmpCache);
             } catch (Exception e) {
                 LOG.error("", e);
             }
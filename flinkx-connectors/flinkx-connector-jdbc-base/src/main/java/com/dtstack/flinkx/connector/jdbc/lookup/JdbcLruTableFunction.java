@@ -28,6 +28,7 @@ import com.dtstack.flinkx.connector.jdbc.conf.JdbcLookupConf;
 import com.dtstack.flinkx.enums.ECacheContentType;
 import com.dtstack.flinkx.factory.DTThreadFactory;
 import com.dtstack.flinkx.lookup.AbstractLruTableFunction;
+import com.dtstack.flinkx.lookup.cache.CacheKey;
 import com.dtstack.flinkx.lookup.cache.CacheMissVal;
 import com.dtstack.flinkx.lookup.cache.CacheObj;
 import com.dtstack.flinkx.lookup.conf.LookupConf;
@@ -51,10 +52,13 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -96,6 +100,22 @@ public class JdbcLruTableFunction extends AbstractLruTableFunction {
     private final JdbcConf jdbcConf;
     /** vertx async pool size */
     protected int asyncPoolSize;
+    /** 查询字段 */
+    private final String[] fieldNames;
+    /** 关联字段 */
+    private final String[] keyNames;
+    /** 维表字段类型 */
+    private final RowType rowType;
+    /** 一次批量查询的最大key个数 */
+    private final int batchSize;
+    /** key等待合并查询的最长时间 */
+    private final long batchLinger;
+    /** 按key个数缓存的批量查询sql */
+    private transient Map<Integer, String> batchQueries;
+    /** 从查询结果中取出关联字段 */
+    private transient RowData.FieldGetter[] keyGetters;
+    /** 合并等待查询的请求 */
+    private transient LookupBatcher<LookupRequest> batcher;
 
     public JdbcLruTableFunction(
             JdbcConf jdbcConf,
@@ -108,6 +128,11 @@ public class JdbcLruTableFunction extends AbstractLruTableFunction {
         this.jdbcConf = jdbcConf;
         this.jdbcDialect = jdbcDialect;
         this.asyncPoolSize = ((JdbcLookupConf) lookupConf).getAsyncPoolSize();
+        this.batchSize = ((JdbcLookupConf) lookupConf).getBatchSize();
+        this.batchLinger = ((JdbcLookupConf) lookupConf).getBatchLinger();
+        this.fieldNames = fieldNames;
+        this.keyNames = keyNames;
+        this.rowType = rowType;
         this.query = jdbcDialect.getSelectFromStatement(
                 jdbcConf.getSchema(),
                 jdbcConf.getTable(),
@@ -143,9 +168,24 @@ public class JdbcLruTableFunction extends AbstractLruTableFunction {
                 new LinkedBlockingQueue<>(MAX_TASK_QUEUE_SIZE.defaultValue()),
                 new DTThreadFactory("rdbAsyncExec"),
                 new ThreadPoolExecutor.CallerRunsPolicy());
+
+        if (batchSize > 1) {
+            initBatch();
+        }
         LOG.info("async dim table JdbcOptions info: {} ", jdbcConf.toString());
     }
 
+    private void initBatch() {
+        List<String> fieldList = Arrays.asList(fieldNames);
+        keyGetters = new RowData.FieldGetter[keyNames.length];
+        for (int i = 0; i < keyNames.length; i++) {
+            int index = fieldList.indexOf(keyNames[i]);
+            keyGetters[i] = RowData.createFieldGetter(rowType.getTypeAt(index), index);
+        }
+        batchQueries = new ConcurrentHashMap<>();
+        batcher = new LookupBatcher<>(batchSize, batchLinger, this::queryBatch);
+    }
+
     @Override
     public void handleAsyncInvoke(CompletableFuture<Collection<RowData>> future, Object... keys) throws Exception {
         AtomicLong networkLogCounter = new AtomicLong(0L);
@@ -157,11 +197,131 @@ public class JdbcLruTableFunction extends AbstractLruTableFunction {
             Thread.sleep(100);
         }
 
-        executor.execute(() -> connectWithRetry(
-                future,
-                rdbSqlClient,
-                Stream.of(keys)
-                        .map(this::convertDataType).toArray(Object[]::new)));
+        Object[] params = Stream.of(keys).map(this::convertDataType).toArray(Object[]::new);
+        if (batchSize > 1) {
+            batcher.add(new LookupRequest(buildCacheKey(keys), params, future));
+            return;
+        }
+        executor.execute(() -> connectWithRetry(future, rdbSqlClient, params));
+    }
+
+    /**
+     * 相同key的请求只查询一次，所有key用一条IN语句查询
+     *
+     * @param batch 批次内的请求
+     */
+    private void queryBatch(List<LookupRequest> batch) {
+        Map<CacheKey, List<LookupRequest>> requests = new LinkedHashMap<>();
+        for (LookupRequest request : batch) {
+            requests.computeIfAbsent(request.cacheKey, k -> new ArrayList<>(1)).add(request);
+        }
+        JsonArray params = new JsonArray();
+        for (List<LookupRequest> sameKey : requests.values()) {
+            for (Object param : sameKey.get(0).params) {
+                params.add(param);
+            }
+        }
+        String sql = batchQueries.computeIfAbsent(
+                requests.size(),
+                keyCount -> jdbcDialect.getSelectFromStatementByKeys(
+                        jdbcConf.getSchema(),
+                        jdbcConf.getTable(),
+                        fieldNames,
+                        keyNames,
+                        keyCount));
+        queryBatchWithRetry(sql, params, requests, new AtomicLong(0));
+    }
+
+    private void queryBatchWithRetry(
+            String sql,
+            JsonArray params,
+            Map<CacheKey, List<LookupRequest>> requests,
+            AtomicLong failCounter) {
+        rdbSqlClient.getConnection(conn -> {
+            if (conn.failed()) {
+                connectionStatus.set(false);
+                LOG.error(String.format("getConnection error, retry ... current time [%s]", failCounter.get()), conn.cause());
+                if (failCounter.incrementAndGet() >= lookupConf.getMaxRetryTimes()) {
+                    NoRestartException exception = new NoRestartException(conn.cause());
+                    requests.values().forEach(
+                            sameKey -> sameKey.forEach(
+                                    request -> request.future.completeExceptionally(exception)));
+                } else {
+                    // 不阻塞线程，由vertx定时重试
+                    vertx.setTimer(
+                            TimeUnit.SECONDS.toMillis(ThreadUtil.DEFAULT_SLEEP_TIME),
+                            id -> queryBatchWithRetry(sql, params, requests, failCounter));
+                }
+                return;
+            }
+            connectionStatus.set(true);
+            SQLConnection connection = conn.result();
+            connection.queryWithParams(sql, params, rs -> {
+                try {
+                    if (rs.failed()) {
+                        LOG.error(
+                                String.format(
+                                        "\nget data with sql [%s],data [%s] failed! \ncause: [%s]",
+                                        sql,
+                                        params,
+                                        rs.cause().getMessage()));
+                        requests.values().forEach(
+                                sameKey -> sameKey.forEach(
+                                        request -> dealFillDataError(request.future, rs.cause())));
+                        return;
+                    }
+                    dispatchBatchResult(rs.result().getResults(), requests);
+                } finally {
+                    connection.close(done -> {
+                        if (done.failed()) {
+                            LOG.error("sql connection close failed! ", done.cause());
+                        }
+                    });
+                }
+            });
+        });
+    }
+
+    /**
+     * 按关联字段的值把查询结果分发给各个请求
+     *
+     * @param lines 查询结果
+     * @param requests 按key分组的请求
+     */
+    private void dispatchBatchResult(
+            List<JsonArray> lines, Map<CacheKey, List<LookupRequest>> requests) {
+        Map<CacheKey, List<RowData>> rowsByKey = new HashMap<>();
+        Map<CacheKey, List<JsonArray>> linesByKey = new HashMap<>();
+        for (JsonArray line : lines) {
+            try {
+                RowData row = fillData(line);
+                Object[] keyValues = new Object[keyGetters.length];
+                for (int i = 0; i < keyGetters.length; i++) {
+                    keyValues[i] = keyGetters[i].getFieldOrNull(row);
+                }
+                CacheKey cacheKey = buildCacheKey(keyValues);
+                rowsByKey.computeIfAbsent(cacheKey, k -> new ArrayList<>()).add(row);
+                if (openCache()) {
+                    linesByKey.computeIfAbsent(cacheKey, k -> new ArrayList<>()).add(line);
+                }
+            } catch (Exception e) {
+                LOG.error("error:{} \n sql:{} \n data:{}", e.getMessage(), jdbcConf.getQuerySql(), line);
+            }
+        }
+
+        for (Map.Entry<CacheKey, List<LookupRequest>> entry : requests.entrySet()) {
+            CacheKey cacheKey = entry.getKey();
+            List<RowData> rowList = rowsByKey.get(cacheKey);
+            if (rowList == null) {
+                dealCacheData(cacheKey, CacheMissVal.getMissKeyObj());
+                entry.getValue().forEach(request -> dealMissKey(request.future));
+            } else {
+                dealCacheData(
+                        cacheKey,
+                        CacheObj.buildCacheObj(ECacheContentType.MultiLine, linesByKey.get(cacheKey)));
+                entry.getValue().forEach(request -> request.future.complete(rowList));
+            }
+        }
     }
 
     private Object convertDataType(Object val) {
@@ -311,7 +471,7 @@ public class JdbcLruTableFunction extends AbstractLruTableFunction {
             SQLConnection connection,
             CompletableFuture<Collection<RowData>> future,
             Object... keys) {
-        String cacheKey = buildCacheKey(keys);
+        CacheKey cacheKey = buildCacheKey(keys);
         JsonArray params = new JsonArray();
         Stream.of(keys).forEach(params::add);
         connection.queryWithParams(query, params, rs -> {
@@ -380,6 +540,10 @@ public class JdbcLruTableFunction extends AbstractLruTableFunction {
         if (executor != null) {
             executor.shutdown();
         }
+
+        if (batcher != null) {
+            batcher.close();
+        }
         // 关闭异步连接vertx事件循环线程，因为vertx使用的是非守护线程
         if (Objects.nonNull(vertx)) {
             vertx.close(done -> {
@@ -407,4 +571,20 @@ public class JdbcLruTableFunction extends AbstractLruTableFunction {
 
         return clientConfig;
     }
+
+    /** 等待批量查询的请求 */
+    private static class LookupRequest {
+        private final CacheKey cacheKey;
+        private final Object[] params;
+        private final CompletableFuture<Collection<RowData>> future;
+
+        private LookupRequest(
+                CacheKey cacheKey,
+                Object[] params,
+                CompletableFuture<Collection<RowData>> future) {
+            this.cacheKey = cacheKey;
+            this.params = params;
+            this.future = future;
+        }
+    }
 }
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.flinkx.connector.jdbc.lookup;
+
+import com.dtstack.flinkx.factory.DTThreadFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 合并维表查询请求，批次满了立即交给consumer，否则第一个请求加入后最多等待linger毫秒
+ *
+ * @param <T> 请求类型
+ */
+class LookupBatcher<T> {
+
+    private final int batchSize;
+    private final long linger;
+    private final Consumer<List<T>> consumer;
+    private final ScheduledExecutorService scheduler;
+
+    private final Object lock = new Object();
+    /** 等待合并的请求，由lock保护 */
+    private List<T> buffer;
+    /** 每次取出批次时加一，用于忽略过期的定时刷新，由lock保护 */
+    private long generation;
+
+    LookupBatcher(int batchSize, long linger, Consumer<List<T>> consumer) {
+        this.batchSize = batchSize;
+        this.linger = linger;
+        this.consumer = consumer;
+        this.buffer = new ArrayList<>(batchSize);
+        this.scheduler = new ScheduledThreadPoolExecutor(1, new DTThreadFactory("rdbBatchLookup"));
+    }
+
+    /**
+     * 加入一个请求，批次满了在调用线程中交给consumer
+     *
+     * @param request 请求
+     */
+    void add(T request) {
+        List<T> batch = null;
+        synchronized (lock) {
+            buffer.add(request);
+            if (buffer.size() >= batchSize) {
+                batch = drain();
+            } else if (buffer.size() == 1) {
+                long current = generation;
+                scheduler.schedule(() -> flush(current), linger, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (batch != null) {
+            consumer.accept(batch);
+        }
+    }
+
+    void close() {
+        scheduler.shutdown();
+    }
+
+    private void flush(long expectedGeneration) {
+        List<T> batch;
+        synchronized (lock) {
+            if (expectedGeneration != generation || buffer.isEmpty()) {
+                return;
+            }
+            batch = drain();
+        }
+        consumer.accept(batch);
+    }
+
+    private List<T> drain() {
+        List<T> batch = buffer;
+        buffer = new ArrayList<>(batchSize);
+        generation++;
+        return batch;
+    }
+}
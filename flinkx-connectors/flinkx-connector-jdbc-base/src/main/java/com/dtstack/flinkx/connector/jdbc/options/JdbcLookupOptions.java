@@ -43,6 +43,20 @@ public class JdbcLookupOptions extends LookupOptions {
                     .defaultValue(5)
                     .withDescription("all lookup type period time.");
 
+    public static final ConfigOption<Integer> LOOKUP_BATCH_SIZE =
+            ConfigOptions.key("lookup.batch-size")
+                    .intType()
+                    .defaultValue(1)
+                    .withDescription(
+                            "the max number of lookup keys queried together in one IN query, 1 disables batching.");
+
+    public static final ConfigOption<Long> LOOKUP_BATCH_LINGER =
+            ConfigOptions.key("lookup.batch-linger")
+                    .longType()
+                    .defaultValue(5L)
+                    .withDescription(
+                            "the max time in milliseconds a lookup key waits for the batch to fill up.");
+
     public static final ConfigOption<Integer> MAX_TASK_QUEUE_SIZE =
             ConfigOptions.key("MAX_TASK_QUEUE_SIZE")
                     .intType()
@@ -31,6 +31,7 @@ import com.dtstack.flinkx.enums.ColumnType;
 import com.dtstack.flinkx.enums.EWriteMode;
 import com.dtstack.flinkx.exception.WriteRecordException;
 import com.dtstack.flinkx.outputformat.BaseRichOutputFormat;
+import com.dtstack.flinkx.throwable.FlinkxRuntimeException;
 import com.dtstack.flinkx.util.DateUtil;
 import com.dtstack.flinkx.util.ExceptionUtil;
 import com.dtstack.flinkx.util.GsonUtil;
@@ -43,6 +44,7 @@ import org.slf4j.LoggerFactory;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Savepoint;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -69,7 +71,11 @@ public class JdbcOutputFormat extends BaseRichOutputFormat {
 
     protected transient Connection dbConn;
     protected transient FieldNamedPreparedStatement fieldNamedPreparedStatement;
-
+    /**
+     * EXACTLY_ONCE时用savepoint隔离每次写出，写出失败只回滚到savepoint，同一checkpoint中已写出的数据不受影响；
+     * 数据库不支持savepoint或回滚到savepoint失败时为false，批量写出失败后不再二分恢复
+     */
+    protected transient boolean useSavepoint;
 
 
     @Override
@@ -88,6 +94,10 @@ public class JdbcOutputFormat extends BaseRichOutputFormat {
             dbConn = getConnection();
             //默认关闭事务自动提交，手动控制事务
             dbConn.setAutoCommit(false);
+            if (isExactlyOnce()) {
+                useSavepoint = dbConn.getMetaData().supportsSavepoints();
+                LOG.info("EXACTLY_ONCE mode, useSavepoint = {}", useSavepoint);
+            }
             initColumnList();
             if (!EWriteMode.INSERT.name().equalsIgnoreCase(jdbcConf.getMode())) {
                 List<String> updateKey = jdbcConf.getUpdateKey();
@@ -162,12 +172,19 @@ public class JdbcOutputFormat extends BaseRichOutputFormat {
     @Override
     protected void writeSingleRecordInternal(RowData row) throws WriteRecordException {
         int index = 0;
+        Savepoint savepoint = null;
         try {
+            savepoint = setSavepoint();
             fieldNamedPreparedStatement = (FieldNamedPreparedStatement) rowConverter.toExternal(row, this.fieldNamedPreparedStatement);
             fieldNamedPreparedStatement.execute();
-            JdbcUtil.commit(dbConn);
+            if (savepoint != null) {
+                rowsOfCurrentTransaction++;
+                releaseSavepoint(savepoint);
+            } else {
+                JdbcUtil.commit(dbConn);
+            }
         } catch (Exception e) {
-            JdbcUtil.rollBack(dbConn);
+            rollBack(savepoint);
             processWriteException(e, index, row);
         }
     }
@@ -179,6 +196,7 @@ public class JdbcOutputFormat extends BaseRichOutputFormat {
 
     @Override
     protected void writeMultipleRecordsInternal() throws Exception {
+        Savepoint savepoint = setSavepoint();
         try {
             for (RowData row : rows) {
                 fieldNamedPreparedStatement = (FieldNamedPreparedStatement) rowConverter.toExternal(row, this.fieldNamedPreparedStatement);
@@ -187,8 +205,9 @@ public class JdbcOutputFormat extends BaseRichOutputFormat {
             }
             fieldNamedPreparedStatement.executeBatch();
             // 开启了cp，但是并没有使用2pc方式让下游数据可见
-            if (checkpointEnabled && CheckpointingMode.EXACTLY_ONCE == checkpointMode) {
+            if (isExactlyOnce()) {
                 rowsOfCurrentTransaction += rows.size();
+                releaseSavepoint(savepoint);
             } else {
                 //手动提交事务
                 JdbcUtil.commit(dbConn);
@@ -198,7 +217,7 @@ public class JdbcOutputFormat extends BaseRichOutputFormat {
                     rows.size(),
                     rows.size() > 0 ? GsonUtil.GSON.toJson(rows.get(0)) : "null",
                     e);
-            JdbcUtil.rollBack(dbConn);
+            rollBack(savepoint);
             throw e;
         } finally {
             //执行完后清空batch
@@ -206,6 +225,54 @@ public class JdbcOutputFormat extends BaseRichOutputFormat {
         }
     }
 
+    @Override
+    protected boolean canRecoverBatch() {
+        // 没有savepoint时回滚会丢掉同一事务中之前写出的数据
+        return !isExactlyOnce() || useSavepoint;
+    }
+
+    /**
+     * 开启了cp并且使用EXACTLY_ONCE，数据在checkpoint完成时才提交
+     */
+    protected boolean isExactlyOnce() {
+        return checkpointEnabled && CheckpointingMode.EXACTLY_ONCE == checkpointMode;
+    }
+
+    /**
+     * EXACTLY_ONCE并且数据库支持时在写出前设置savepoint
+     * @return 没有使用savepoint时返回null
+     */
+    private Savepoint setSavepoint() throws SQLException {
+        return isExactlyOnce() && useSavepoint ? dbConn.setSavepoint() : null;
+    }
+
+    private void releaseSavepoint(Savepoint savepoint) {
+        try {
+            dbConn.releaseSavepoint(savepoint);
+        } catch (SQLException e) {
+            // 部分数据库不支持释放savepoint，事务提交时会一起释放
+            LOG.debug("release savepoint failed, e = {}", ExceptionUtil.getErrorMessage(e));
+        }
+    }
+
+    /**
+     * 写出失败时回滚，有savepoint时只回滚到savepoint
+     * @param savepoint 写出前设置的savepoint，可以为null
+     */
+    private void rollBack(Savepoint savepoint) {
+        if (savepoint == null) {
+            JdbcUtil.rollBack(dbConn);
+            return;
+        }
+        try {
+            dbConn.rollback(savepoint);
+        } catch (SQLException e) {
+            // 事务状态未知，不再二分恢复，任务失败后从checkpoint恢复
+            useSavepoint = false;
+            throw new FlinkxRuntimeException("rollback to savepoint failed", e);
+        }
+    }
+
     @Override
     public void preCommit() throws Exception{
         if (jdbcConf.getRestoreColumnIndex() > -1) {
@@ -85,7 +85,7 @@ public class JdbcDynamicTableSource
         // 通过该参数得到类型转换器，将数据库中的字段转成对应的类型
         final RowType rowType = (RowType) physicalSchema.toRowDataType().getLogicalType();
 
-        if (lookupConf.getCache().equalsIgnoreCase(CacheType.LRU.toString())) {
+        if (CacheType.isAsync(lookupConf.getCache())) {
             return ParallelAsyncTableFunctionProvider.of(
                     new JdbcLruTableFunction(
                             jdbcConf,
@@ -76,6 +76,8 @@ public class JdbcInputFormat extends BaseRichInputFormat {
 
     public static final long serialVersionUID = 1L;
     protected static final int resultSetConcurrency = ResultSet.CONCUR_READ_ONLY;
+    /** 非0号通道等待增量字段最大值的最长时间，单位秒 */
+    private static final int MAX_VALUE_WAIT_TIMES = 300;
     protected static int resultSetType = ResultSet.TYPE_FORWARD_ONLY;
 
     protected JdbcConf jdbcConf;
@@ -130,12 +132,14 @@ public class JdbcInputFormat extends BaseRichInputFormat {
         JdbcInputSplit[] splits;
 
         //间隔轮训 & 增量同步不支持分片
+        //分片时每个通道创建splitFactor个分片，由AdaptiveInputSplitAssigner动态分配
+        int splitFactor = getSplitFactor();
         if (!jdbcConf.isIncrement() && jdbcConf.isSplitByKey() && jdbcConf.getSplitStrategy().equalsIgnoreCase("range")) {
-            splits = createSplitsInternalBySplitRange(minNumSplits);
+            splits = createSplitsInternalBySplitRange(minNumSplits * splitFactor);
         }else{
-            splits = new JdbcInputSplit[minNumSplits];
-            for (int i = 0; i < minNumSplits; i++) {
-                splits[i] = new JdbcInputSplit(i, numPartitions, i, jdbcConf.getStartLocation(), null, null, null);
+            splits = new JdbcInputSplit[minNumSplits * splitFactor];
+            for (int i = 0; i < splits.length; i++) {
+                splits[i] = new JdbcInputSplit(i, numPartitions * splitFactor, i, jdbcConf.getStartLocation(), null, null, null);
             }
         }
 
@@ -241,6 +245,21 @@ public class JdbcInputFormat extends BaseRichInputFormat {
         return formatState;
     }
 
+    /**
+     * 增量同步时恢复的位置依赖分片的顺序和归属，不使用AdaptiveInputSplitAssigner，仍然静态分配分片
+     */
+    @Override
+    protected int getSplitFactor() {
+        return !jdbcConf.isIncrement() && jdbcConf.isSplitByKey() ? super.getSplitFactor() : 1;
+    }
+
+    @Override
+    public void markSplitCompleted(InputSplit inputSplit) {
+        super.markSplitCompleted(inputSplit);
+        // 下一个分片读到数据之前不能用上一个分片的位置作为state
+        lastRow = null;
+    }
+
     @Override
     public void closeInternal() {
         JdbcUtil.closeDbResources(resultSet, statement, dbConn, true);
@@ -303,12 +322,37 @@ public class JdbcInputFormat extends BaseRichInputFormat {
             maxValueAccumulator = new StringAccumulator();
             maxValueAccumulator.add(maxValue);
             getRuntimeContext().addAccumulator(Metrics.MAX_VALUE, maxValueAccumulator);
+            //通过全局聚合发布给其他通道
+            accumulatorCollector.publishStringValue(Metrics.MAX_VALUE, StringUtils.defaultString(maxValue));
         } else {
-            maxValue = String.valueOf(accumulatorCollector.getAccumulatorValue(Metrics.MAX_VALUE, true));
+            maxValue = waitForMaxValue();
         }
 
         ((JdbcInputSplit) inputSplit).setEndLocation(maxValue);
     }
+    /**
+     * 等待0号通道发布增量字段的最大值
+     *
+     * @return
+     */
+    private String waitForMaxValue() {
+        String maxValue = accumulatorCollector.getStringValue(Metrics.MAX_VALUE, true);
+        for (int i = 0; maxValue == null && i < MAX_VALUE_WAIT_TIMES; i++) {
+            try {
+                TimeUnit.SECONDS.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new FlinkxRuntimeException("interrupted while waiting for the max value", e);
+            }
+            maxValue = accumulatorCollector.getStringValue(Metrics.MAX_VALUE, true);
+        }
+        if (maxValue == null) {
+            throw new FlinkxRuntimeException("can not get the max value from channel 0 in " + MAX_VALUE_WAIT_TIMES + " seconds");
+        }
+        //0号通道未查询到最大值时发布的是空字符串
+        return StringUtils.defaultIfEmpty(maxValue, null);
+    }
+
     /**
      * 从数据库中查询增量字段的最大值
      *
@@ -20,12 +20,17 @@ package com.dtstack.flinkx.connector.jdbc.source;
 
 import org.apache.flink.core.io.GenericInputSplit;
 
+import com.dtstack.flinkx.inputformat.SplittableInputSplit;
+import org.apache.commons.lang3.StringUtils;
+
+import java.math.BigInteger;
+
 /**
  * @author jiangbo
  * @explanation
  * @date 2019/3/6
  */
-public class JdbcInputSplit extends GenericInputSplit {
+public class JdbcInputSplit extends GenericInputSplit implements SplittableInputSplit {
 
     private int mod;
 
@@ -39,6 +44,9 @@ public class JdbcInputSplit extends GenericInputSplit {
     /** 分片endLocation **/
     private String endLocationOfSplit;
 
+    /** 分片id，切分出的子分片为父分片id加序号 **/
+    private String splitId;
+
     /**
      * Creates a generic input split with the given split number.
      *
@@ -46,7 +54,12 @@ public class JdbcInputSplit extends GenericInputSplit {
      * @param totalNumberOfPartitions The total number of the splits (partitions).
      */
     public JdbcInputSplit(int partitionNumber, int totalNumberOfPartitions, int mod, String startLocation, String endLocation,String startLocationOfSplit,String endLocationOfSplit) {
+        this(String.valueOf(partitionNumber), partitionNumber, totalNumberOfPartitions, mod, startLocation, endLocation, startLocationOfSplit, endLocationOfSplit);
+    }
+
+    public JdbcInputSplit(String splitId, int partitionNumber, int totalNumberOfPartitions, int mod, String startLocation, String endLocation,String startLocationOfSplit,String endLocationOfSplit) {
         super(partitionNumber, totalNumberOfPartitions);
+        this.splitId = splitId;
         this.mod = mod;
         this.startLocation = startLocation;
         this.endLocation = endLocation;
@@ -54,6 +67,47 @@ public class JdbcInputSplit extends GenericInputSplit {
         this.endLocationOfSplit = endLocationOfSplit;
     }
 
+    @Override
+    public String getSplitId() {
+        return splitId;
+    }
+
+    /**
+     * range分片为主键跨度，最后一个分片没有上界，返回0
+     */
+    @Override
+    public long getEstimatedSize() {
+        if (!isBoundedRange()) {
+            return 0L;
+        }
+        BigInteger gap = new BigInteger(endLocationOfSplit).subtract(new BigInteger(startLocationOfSplit));
+        return gap.bitLength() < Long.SIZE ? gap.longValue() : Long.MAX_VALUE;
+    }
+
+    /**
+     * range分片按主键跨度从中间切分为[start, mid)和[mid, end)
+     */
+    @Override
+    public SplittableInputSplit[] split() {
+        if (!isBoundedRange()) {
+            return null;
+        }
+        BigInteger start = new BigInteger(startLocationOfSplit);
+        BigInteger end = new BigInteger(endLocationOfSplit);
+        BigInteger mid = start.add(end.subtract(start).shiftRight(1));
+        if (mid.compareTo(start) <= 0) {
+            return null;
+        }
+        return new SplittableInputSplit[] {
+            new JdbcInputSplit(SplittableInputSplit.childSplitId(splitId, 0), getSplitNumber(), getTotalNumberOfSplits(), mod, startLocation, endLocation, startLocationOfSplit, mid.toString()),
+            new JdbcInputSplit(SplittableInputSplit.childSplitId(splitId, 1), getSplitNumber(), getTotalNumberOfSplits(), mod, startLocation, endLocation, mid.toString(), endLocationOfSplit)
+        };
+    }
+
+    private boolean isBoundedRange() {
+        return StringUtils.isNotBlank(startLocationOfSplit) && StringUtils.isNotBlank(endLocationOfSplit);
+    }
+
     public int getMod() {
         return mod;
     }
@@ -97,7 +151,8 @@ public class JdbcInputSplit extends GenericInputSplit {
     @Override
     public String toString() {
         return "JdbcInputSplit{" +
-                "mod=" + mod +
+                "splitId='" + splitId + '\'' +
+                ", mod=" + mod +
                 ", endLocation='" + endLocation + '\'' +
                 ", startLocation='" + startLocation + '\'' +
                 ", startLocationOfSplit='" + startLocationOfSplit + '\'' +
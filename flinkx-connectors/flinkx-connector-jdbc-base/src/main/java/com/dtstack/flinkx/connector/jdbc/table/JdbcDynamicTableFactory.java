@@ -58,6 +58,8 @@ import static com.dtstack.flinkx.connector.jdbc.options.JdbcCommonOptions.TABLE_
 import static com.dtstack.flinkx.connector.jdbc.options.JdbcCommonOptions.URL;
 import static com.dtstack.flinkx.connector.jdbc.options.JdbcCommonOptions.USERNAME;
 import static com.dtstack.flinkx.connector.jdbc.options.JdbcLookupOptions.DRUID_PREFIX;
+import static com.dtstack.flinkx.connector.jdbc.options.JdbcLookupOptions.LOOKUP_BATCH_LINGER;
+import static com.dtstack.flinkx.connector.jdbc.options.JdbcLookupOptions.LOOKUP_BATCH_SIZE;
 import static com.dtstack.flinkx.connector.jdbc.options.JdbcLookupOptions.VERTX_PREFIX;
 import static com.dtstack.flinkx.connector.jdbc.options.JdbcLookupOptions.VERTX_WORKER_POOL_SIZE;
 import static com.dtstack.flinkx.connector.jdbc.options.JdbcLookupOptions.getLibConfMap;
@@ -65,7 +67,9 @@ import static com.dtstack.flinkx.connector.jdbc.options.JdbcSinkOptions.SINK_ALL
 import static com.dtstack.flinkx.connector.jdbc.options.JdbcSinkOptions.SINK_PARALLELISM;
 import static com.dtstack.flinkx.lookup.options.LookupOptions.LOOKUP_ASYNCTIMEOUT;
 import static com.dtstack.flinkx.lookup.options.LookupOptions.LOOKUP_CACHE_MAX_ROWS;
+import static com.dtstack.flinkx.lookup.options.LookupOptions.LOOKUP_CACHE_OFF_HEAP;
 import static com.dtstack.flinkx.lookup.options.LookupOptions.LOOKUP_CACHE_PERIOD;
+import static com.dtstack.flinkx.lookup.options.LookupOptions.LOOKUP_CACHE_REFRESH_AFTER_WRITE;
 import static com.dtstack.flinkx.lookup.options.LookupOptions.LOOKUP_CACHE_TTL;
 import static com.dtstack.flinkx.lookup.options.LookupOptions.LOOKUP_CACHE_TYPE;
 import static com.dtstack.flinkx.lookup.options.LookupOptions.LOOKUP_ERRORLIMIT;
@@ -181,10 +185,14 @@ public abstract class JdbcDynamicTableFactory
         return JdbcLookupConf.build()
                 .setDruidConf(druidConf)
                 .setAsyncPoolSize(readableConfig.get(VERTX_WORKER_POOL_SIZE))
+                .setBatchSize(readableConfig.get(LOOKUP_BATCH_SIZE))
+                .setBatchLinger(readableConfig.get(LOOKUP_BATCH_LINGER))
                 .setTableName(tableName)
                 .setPeriod(readableConfig.get(LOOKUP_CACHE_PERIOD))
                 .setCacheSize(readableConfig.get(LOOKUP_CACHE_MAX_ROWS))
                 .setCacheTtl(readableConfig.get(LOOKUP_CACHE_TTL))
+                .setCacheRefreshAfterWrite(readableConfig.get(LOOKUP_CACHE_REFRESH_AFTER_WRITE))
+                .setCacheOffHeap(readableConfig.get(LOOKUP_CACHE_OFF_HEAP))
                 .setCache(readableConfig.get(LOOKUP_CACHE_TYPE))
                 .setMaxRetryTimes(readableConfig.get(LOOKUP_MAX_RETRIES))
                 .setErrorLimit(readableConfig.get(LOOKUP_ERRORLIMIT))
@@ -262,12 +270,16 @@ public abstract class JdbcDynamicTableFactory
         optionalOptions.add(LOOKUP_CACHE_PERIOD);
         optionalOptions.add(LOOKUP_CACHE_MAX_ROWS);
         optionalOptions.add(LOOKUP_CACHE_TTL);
+        optionalOptions.add(LOOKUP_CACHE_REFRESH_AFTER_WRITE);
+        optionalOptions.add(LOOKUP_CACHE_OFF_HEAP);
         optionalOptions.add(LOOKUP_CACHE_TYPE);
         optionalOptions.add(LOOKUP_MAX_RETRIES);
         optionalOptions.add(LOOKUP_ERRORLIMIT);
         optionalOptions.add(LOOKUP_FETCH_SIZE);
         optionalOptions.add(LOOKUP_ASYNCTIMEOUT);
         optionalOptions.add(LOOKUP_PARALLELISM);
+        optionalOptions.add(LOOKUP_BATCH_SIZE);
+        optionalOptions.add(LOOKUP_BATCH_LINGER);
 
         optionalOptions.add(SINK_BUFFER_FLUSH_MAX_ROWS);
         optionalOptions.add(SINK_BUFFER_FLUSH_INTERVAL);
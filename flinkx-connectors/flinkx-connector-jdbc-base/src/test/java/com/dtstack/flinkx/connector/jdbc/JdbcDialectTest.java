@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.connector.jdbc;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class JdbcDialectTest {
+
+    private final JdbcDialect dialect =
+            new JdbcDialect() {
+                @Override
+                public String dialectName() {
+                    return "test";
+                }
+
+                @Override
+                public boolean canHandle(String url) {
+                    return true;
+                }
+            };
+
+    @Test
+    public void testSelectBySingleColumnKeys() {
+        String sql =
+                dialect.getSelectFromStatementByKeys(
+                        "db", "t", new String[] {"id", "name"}, new String[] {"id"}, 3);
+        Assert.assertEquals(
+                "SELECT \"id\", \"name\" FROM \"db\".\"t\" WHERE \"id\" IN (?, ?, ?)", sql);
+    }
+
+    @Test
+    public void testSelectByCompositeKeys() {
+        String sql =
+                dialect.getSelectFromStatementByKeys(
+                        null, "t", new String[] {"a", "b", "c"}, new String[] {"a", "b"}, 2);
+        Assert.assertEquals(
+                "SELECT \"a\", \"b\", \"c\" FROM \"t\" WHERE (\"a\", \"b\") IN ((?, ?), (?, ?))",
+                sql);
+    }
+}
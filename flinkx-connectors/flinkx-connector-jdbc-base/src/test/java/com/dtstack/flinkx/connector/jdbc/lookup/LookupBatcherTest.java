@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.connector.jdbc.lookup;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class LookupBatcherTest {
+
+    private final BlockingQueue<List<Integer>> batches = new LinkedBlockingQueue<>();
+    private LookupBatcher<Integer> batcher;
+
+    @After
+    public void cleanup() {
+        batcher.close();
+    }
+
+    @Test
+    public void testFlushWhenFull() {
+        batcher = new LookupBatcher<>(3, 60_000L, batches::add);
+        batcher.add(1);
+        batcher.add(2);
+        Assert.assertTrue(batches.isEmpty());
+        batcher.add(3);
+        // 批次满了在调用线程中立即交出
+        Assert.assertEquals(Arrays.asList(1, 2, 3), batches.poll());
+    }
+
+    @Test
+    public void testFlushAfterLinger() throws InterruptedException {
+        batcher = new LookupBatcher<>(100, 20L, batches::add);
+        batcher.add(1);
+        batcher.add(2);
+        Assert.assertEquals(Arrays.asList(1, 2), batches.poll(5, TimeUnit.SECONDS));
+
+        batcher.add(3);
+        Assert.assertEquals(Collections.singletonList(3), batches.poll(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testStaleTimerIgnored() throws InterruptedException {
+        batcher = new LookupBatcher<>(2, 200L, batches::add);
+        batcher.add(1);
+        batcher.add(2);
+        Assert.assertEquals(Arrays.asList(1, 2), batches.poll());
+        Thread.sleep(100L);
+        // 第一个批次的定时刷新不能提前交出后面加入的请求
+        batcher.add(3);
+        Assert.assertNull(batches.poll(150, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(Collections.singletonList(3), batches.poll(5, TimeUnit.SECONDS));
+    }
+}
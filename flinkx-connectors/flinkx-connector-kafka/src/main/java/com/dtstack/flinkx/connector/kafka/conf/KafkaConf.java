@@ -52,6 +52,16 @@ public class KafkaConf extends FlinkxCommonConf {
     private Map<String, String> producerSettings;
     /** 字段映射配置。从reader插件传递到writer插件的的数据只包含其value属性，配置该参数后可将其还原成键值对类型json字符串输出。 */
     private List<String> tableFields;
+    /** sink 组成消息key的字段，为空时key与消息内容相同 */
+    private List<String> keyColumns;
+    /** sink 没有配置keyColumns时消息key是否为null，为true时由kafka按批次选择分区 */
+    private boolean nullKey = false;
+    /** producer batch.size，单个分区一个批次的字节数 */
+    private Integer batchSize;
+    /** producer linger.ms，批次未满时最多等待的时间 */
+    private Long lingerMs;
+    /** producer compression.type，none、gzip、snappy、lz4、zstd */
+    private String compressionType;
 
     public String getCodec() {
         return codec;
@@ -125,6 +135,46 @@ public class KafkaConf extends FlinkxCommonConf {
         this.tableFields = tableFields;
     }
 
+    public List<String> getKeyColumns() {
+        return keyColumns;
+    }
+
+    public void setKeyColumns(List<String> keyColumns) {
+        this.keyColumns = keyColumns;
+    }
+
+    public boolean isNullKey() {
+        return nullKey;
+    }
+
+    public void setNullKey(boolean nullKey) {
+        this.nullKey = nullKey;
+    }
+
+    public Integer getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(Integer batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Long getLingerMs() {
+        return lingerMs;
+    }
+
+    public void setLingerMs(Long lingerMs) {
+        this.lingerMs = lingerMs;
+    }
+
+    public String getCompressionType() {
+        return compressionType;
+    }
+
+    public void setCompressionType(String compressionType) {
+        this.compressionType = compressionType;
+    }
+
     @Override
     public String toString() {
         return "KafkaConf{" +
@@ -137,6 +187,11 @@ public class KafkaConf extends FlinkxCommonConf {
                 ", consumerSettings=" + consumerSettings +
                 ", producerSettings=" + producerSettings +
                 ", tableFields=" + tableFields +
+                ", keyColumns=" + keyColumns +
+                ", nullKey=" + nullKey +
+                ", batchSize=" + batchSize +
+                ", lingerMs=" + lingerMs +
+                ", compressionType='" + compressionType + '\'' +
                 '}';
     }
 }
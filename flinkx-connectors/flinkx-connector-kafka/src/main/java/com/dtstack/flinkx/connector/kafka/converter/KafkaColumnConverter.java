@@ -26,23 +26,33 @@ import com.dtstack.flinkx.converter.AbstractRowConverter;
 import com.dtstack.flinkx.converter.IDeserializationConverter;
 import com.dtstack.flinkx.decoder.IDecode;
 import com.dtstack.flinkx.decoder.JsonDecoder;
+import com.dtstack.flinkx.decoder.ProjectedJsonDecoder;
 import com.dtstack.flinkx.decoder.TextDecoder;
 import com.dtstack.flinkx.element.AbstractBaseColumn;
+import com.dtstack.flinkx.element.ArrayColumnRowData;
 import com.dtstack.flinkx.element.ColumnRowData;
 import com.dtstack.flinkx.element.column.BigDecimalColumn;
 import com.dtstack.flinkx.element.column.BooleanColumn;
+import com.dtstack.flinkx.element.column.DateColumn;
+import com.dtstack.flinkx.element.column.DoubleColumn;
+import com.dtstack.flinkx.element.column.FloatColumn;
+import com.dtstack.flinkx.element.column.IntColumn;
+import com.dtstack.flinkx.element.column.LongColumn;
 import com.dtstack.flinkx.element.column.MapColumn;
 import com.dtstack.flinkx.element.column.StringColumn;
+import com.dtstack.flinkx.element.column.TimeColumn;
 import com.dtstack.flinkx.element.column.TimestampColumn;
 import com.dtstack.flinkx.util.DateUtil;
-import com.dtstack.flinkx.util.MapUtil;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.kafka.clients.producer.ProducerRecord;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -58,17 +68,47 @@ import static com.dtstack.flinkx.connector.kafka.option.KafkaOptions.DEFAULT_COD
 public class KafkaColumnConverter
         extends AbstractRowConverter<String, Object, ProducerRecord, String> {
 
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+    /** 连续写出的json值之间不加分隔符 */
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    static {
+        OBJECT_MAPPER.getFactory().setRootValueSeparator(null);
+    }
+
     /** source kafka msg decode */
     private IDecode decode;
     /** sink json Decoder */
     private JsonDecoder jsonDecoder;
+    /** source json decoder that only parses the configured columns */
+    private ProjectedJsonDecoder projectedDecoder;
+    /** decoded values of the configured columns, reused for every record */
+    private transient Object[] projectedValues;
     /** kafka Conf */
     private final KafkaConf kafkaConf;
+    /** keyColumns在tableFields中的下标，没有配置keyColumns时为null */
+    private int[] keyIndexes;
+    /** sink 复用的输出缓冲区和json generator，不经过中间Map和String直接写出byte[] */
+    private transient ByteArrayBuilder buffer;
+
+    private transient JsonGenerator generator;
 
     public KafkaColumnConverter(KafkaConf kafkaConf) {
         this.kafkaConf = kafkaConf;
 
         this.jsonDecoder = new JsonDecoder();
+        if (CollectionUtils.isNotEmpty(kafkaConf.getKeyColumns())) {
+            List<String> tableFields = kafkaConf.getTableFields();
+            this.keyIndexes = new int[kafkaConf.getKeyColumns().size()];
+            for (int i = 0; i < keyIndexes.length; i++) {
+                String keyColumn = kafkaConf.getKeyColumns().get(i);
+                keyIndexes[i] = tableFields == null ? -1 : tableFields.indexOf(keyColumn);
+                if (tableFields != null && keyIndexes[i] < 0) {
+                    throw new IllegalArgumentException(
+                            "keyColumn [" + keyColumn + "] is not in tableFields " + tableFields);
+                }
+            }
+        }
 
         if (DEFAULT_CODEC.defaultValue().equals(kafkaConf.getCodec())) {
             this.decode = new JsonDecoder();
@@ -88,58 +128,157 @@ public class KafkaColumnConverter
                 toInternalConverters[i] =
                         wrapIntoNullableInternalConverter(createInternalConverter(typeList.get(i)));
             }
+            this.projectedDecoder =
+                    new ProjectedJsonDecoder(
+                            kafkaConf.getColumn().stream()
+                                    .map(FieldConf::getName)
+                                    .collect(Collectors.toList()));
         }
     }
 
     @Override
     public RowData toInternal(String input) throws Exception {
+        if (projectedDecoder != null) {
+            return toInternal(input.getBytes(StandardCharsets.UTF_8));
+        }
+        return decodeToInternal(input);
+    }
+
+    /**
+     * 用decode完整解析消息后按column取值，JsonDecoder解析失败时会记录日志，只保留message字段
+     */
+    private RowData decodeToInternal(String input) throws Exception {
         Map<String, Object> result = decode.decode(input);
         ColumnRowData row;
         if (toInternalConverters == null || toInternalConverters.length == 0) {
             row = new ColumnRowData(1);
             row.addField(new MapColumn(result));
         } else {
-            row = new ColumnRowData(toInternalConverters.length);
+            row = new ArrayColumnRowData(toInternalConverters.length);
             List<FieldConf> column = kafkaConf.getColumn();
             for (int i = 0; i < column.size(); i++) {
                 Object value = result.get(column.get(i).getName());
-                row.addField((AbstractBaseColumn) toInternalConverters[i].deserialize(value));
+                row.setField(i, (AbstractBaseColumn) toInternalConverters[i].deserialize(value));
             }
         }
         return row;
     }
 
+    /**
+     * 直接从kafka消息的byte[]转换，配置了column的json消息只解析用到的字段，不经过String和Map。
+     * ProjectedJsonDecoder只接受标准json，解析失败的消息(包括key没有引号、使用单引号等Gson宽松模式能解析的消息)
+     * 交给JsonDecoder处理，结果与之前一致
+     *
+     * @param input kafka消息
+     * @return RowData
+     * @throws Exception 字段类型转换失败
+     */
+    public RowData toInternal(byte[] input) throws Exception {
+        if (projectedDecoder == null) {
+            return toInternal(new String(input, StandardCharsets.UTF_8));
+        }
+        if (projectedValues == null) {
+            projectedValues = new Object[toInternalConverters.length];
+        }
+        if (!projectedDecoder.decode(input, projectedValues)) {
+            return decodeToInternal(new String(input, StandardCharsets.UTF_8));
+        }
+        ColumnRowData row = new ArrayColumnRowData(toInternalConverters.length);
+        for (int i = 0; i < toInternalConverters.length; i++) {
+            row.setField(
+                    i, (AbstractBaseColumn) toInternalConverters[i].deserialize(projectedValues[i]));
+        }
+        return row;
+    }
+
     @Override
     public ProducerRecord toExternal(RowData rowData, ProducerRecord output) throws Exception {
-        Map<String, Object> map;
         int arity = rowData.getArity();
         ColumnRowData row = (ColumnRowData) rowData;
-
-        if (kafkaConf.getTableFields() != null
-                && kafkaConf.getTableFields().size() >= arity
-                && !(row.getField(0) instanceof MapColumn)) {
-            map = new LinkedHashMap<>((arity << 2) / 3);
-            for (int i = 0; i < arity; i++) {
-                map.put(
-                        kafkaConf.getTableFields().get(i),
-                        org.apache.flink.util.StringUtils.arrayAwareToString(row.getField(i)));
-            }
-        } else {
-            if (arity == 1) {
-                Object obj = row.getField(0);
-                if (obj instanceof MapColumn) {
-                    map = (Map<String, Object>) ((MapColumn) obj).getData();
-                } else if (obj instanceof StringColumn) {
-                    map = jsonDecoder.decode(obj.toString());
+        JsonGenerator generator = getGenerator();
+        byte[] key = null;
+        byte[] value;
+        try {
+            if (kafkaConf.getTableFields() != null
+                    && kafkaConf.getTableFields().size() >= arity
+                    && !(row.getField(0) instanceof MapColumn)) {
+                List<String> tableFields = kafkaConf.getTableFields();
+                generator.writeStartObject();
+                for (int i = 0; i < arity; i++) {
+                    generator.writeStringField(
+                            tableFields.get(i),
+                            org.apache.flink.util.StringUtils.arrayAwareToString(row.getField(i)));
+                }
+                generator.writeEndObject();
+                value = flush(generator);
+                if (keyIndexes != null) {
+                    generator.writeStartObject();
+                    for (int i = 0; i < keyIndexes.length; i++) {
+                        int index = keyIndexes[i];
+                        generator.writeStringField(
+                                kafkaConf.getKeyColumns().get(i),
+                                index >= 0 && index < arity
+                                        ? org.apache.flink.util.StringUtils.arrayAwareToString(
+                                                row.getField(index))
+                                        : null);
+                    }
+                    generator.writeEndObject();
+                    key = flush(generator);
+                }
+            } else {
+                Map<String, Object> map;
+                if (arity == 1) {
+                    Object obj = row.getField(0);
+                    if (obj instanceof MapColumn) {
+                        map = (Map<String, Object>) ((MapColumn) obj).getData();
+                    } else if (obj instanceof StringColumn) {
+                        map = jsonDecoder.decode(obj.toString());
+                    } else {
+                        map = Collections.singletonMap("message", row.toString());
+                    }
                 } else {
                     map = Collections.singletonMap("message", row.toString());
                 }
-            } else {
-                map = Collections.singletonMap("message", row.toString());
+                generator.writeObject(map);
+                value = flush(generator);
+                if (keyIndexes != null) {
+                    generator.writeStartObject();
+                    for (String keyColumn : kafkaConf.getKeyColumns()) {
+                        generator.writeObjectField(keyColumn, map.get(keyColumn));
+                    }
+                    generator.writeEndObject();
+                    key = flush(generator);
+                }
+            }
+        } catch (Exception e) {
+            // 写到一半的generator状态不可用，下一条重新创建
+            this.generator = null;
+            throw e;
+        }
+        if (keyIndexes == null && !kafkaConf.isNullKey()) {
+            // 兼容之前的版本，key与消息内容相同
+            key = value;
+        }
+        return new ProducerRecord<>(kafkaConf.getTopic(), key, value);
+    }
+
+    private JsonGenerator getGenerator() throws IOException {
+        if (generator == null) {
+            if (buffer == null) {
+                buffer = new ByteArrayBuilder(INITIAL_BUFFER_SIZE);
             }
+            buffer.reset();
+            generator = OBJECT_MAPPER.getFactory().createGenerator(buffer);
         }
-        byte[] bytes = MapUtil.writeValueAsString(map).getBytes(StandardCharsets.UTF_8);
-        return new ProducerRecord<>(kafkaConf.getTopic(), bytes, bytes);
+        return generator;
+    }
+
+    /** 取出generator写入的一个json值，缓冲区复用 */
+    private byte[] flush(JsonGenerator generator) throws IOException {
+        generator.flush();
+        byte[] bytes = buffer.toByteArray();
+        buffer.reset();
+        return bytes;
     }
 
     @Override
@@ -147,28 +286,45 @@ public class KafkaColumnConverter
         switch (type.toUpperCase(Locale.ENGLISH)) {
             case "INT":
             case "INTEGER":
-                return val -> new BigDecimalColumn(Integer.parseInt(val.toString()));
+                return val ->
+                        val instanceof Integer
+                                ? new IntColumn((Integer) val)
+                                : new IntColumn(Integer.parseInt(val.toString()));
             case "BOOLEAN":
-                return val -> new BooleanColumn(Boolean.parseBoolean(val.toString()));
+                return val ->
+                        val instanceof Boolean
+                                ? new BooleanColumn((Boolean) val)
+                                : new BooleanColumn(Boolean.parseBoolean(val.toString()));
             case "TINYINT":
-                return val -> new BigDecimalColumn(Byte.parseByte(val.toString()));
+                return val -> new IntColumn(Byte.parseByte(val.toString()));
             case "CHAR":
             case "CHARACTER":
             case "STRING":
                 return val -> new StringColumn(val.toString());
             case "SHORT":
-                return val -> new BigDecimalColumn(Short.parseShort(val.toString()));
+                return val -> new IntColumn(Short.parseShort(val.toString()));
             case "LONG":
             case "BIGINT":
-                return val -> new BigDecimalColumn(Long.parseLong(val.toString()));
+                return val ->
+                        val instanceof Integer || val instanceof Long
+                                ? new LongColumn(((Number) val).longValue())
+                                : new LongColumn(Long.parseLong(val.toString()));
             case "FLOAT":
-                return val -> new BigDecimalColumn(Float.parseFloat(val.toString()));
+                return val -> new FloatColumn(Float.parseFloat(val.toString()));
             case "DOUBLE":
-                return val -> new BigDecimalColumn(Double.parseDouble(val.toString()));
+                return val ->
+                        val instanceof Number
+                                ? new DoubleColumn(((Number) val).doubleValue())
+                                : new DoubleColumn(Double.parseDouble(val.toString()));
             case "DECIMAL":
-                return val -> new BigDecimalColumn(new BigDecimal(val.toString()));
+                return val ->
+                        val instanceof BigDecimal
+                                ? new BigDecimalColumn((BigDecimal) val)
+                                : new BigDecimalColumn(new BigDecimal(val.toString()));
             case "DATE":
+                return val -> new DateColumn(DateUtil.getTimestampFromStr(val.toString()));
             case "TIME":
+                return val -> new TimeColumn(DateUtil.getTimestampFromStr(val.toString()));
             case "DATETIME":
             case "TIMESTAMP":
                 return val -> new TimestampColumn(DateUtil.getTimestampFromStr(val.toString()));
@@ -21,6 +21,7 @@ import org.apache.flink.api.common.serialization.DeserializationSchema;
 import org.apache.flink.table.data.RowData;
 import org.apache.flink.util.Collector;
 
+import com.dtstack.flinkx.connector.kafka.converter.KafkaColumnConverter;
 import com.dtstack.flinkx.connector.kafka.source.Calculate;
 import com.dtstack.flinkx.connector.kafka.source.DynamicKafkaDeserializationSchemaWrapper;
 import com.dtstack.flinkx.converter.AbstractRowConverter;
@@ -67,7 +68,11 @@ public class RowDeserializationSchema extends DynamicKafkaDeserializationSchemaW
     public void deserialize(ConsumerRecord<byte[], byte[]> record, Collector<RowData> collector) throws UnsupportedEncodingException {
         try {
             beforeDeserialize(record);
-            collector.collect(converter.toInternal(new String(record.value(), StandardCharsets.UTF_8)));
+            if (converter instanceof KafkaColumnConverter) {
+                collector.collect(((KafkaColumnConverter) converter).toInternal(record.value()));
+            } else {
+                collector.collect(converter.toInternal(new String(record.value(), StandardCharsets.UTF_8)));
+            }
             numInResolveRecord.inc();
         } catch (Exception e) {
             // todo kafka 比较特殊这里直接对接脏数据即可
@@ -18,16 +18,24 @@
 package com.dtstack.flinkx.connector.kafka.serialization;
 
 import org.apache.flink.api.common.serialization.SerializationSchema;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.MeterView;
+import org.apache.flink.metrics.MetricGroup;
 import org.apache.flink.table.data.RowData;
 
 import com.dtstack.flinkx.connector.kafka.sink.DynamicKafkaSerializationSchema;
 import com.dtstack.flinkx.converter.AbstractRowConverter;
+import com.dtstack.flinkx.metrics.MetricConstant;
 import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * Date: 2021/03/04
  * Company: www.dtstack.com
@@ -42,6 +50,10 @@ public class RowSerializationSchema extends DynamicKafkaSerializationSchema {
     /** kafka converter */
     private final AbstractRowConverter<String, Object, ProducerRecord, String> converter;
 
+    private transient Counter dtNumBytesOut;
+    /** 分区 -> [条数, 字节数]，在producer的发送线程中更新 */
+    private transient Map<Integer, Counter[]> partitionCounters;
+
     public RowSerializationSchema(String topic, AbstractRowConverter converter) {
         super(
                 topic,
@@ -61,15 +73,54 @@ public class RowSerializationSchema extends DynamicKafkaSerializationSchema {
 
     }
 
+    @Override
+    public void initMetric() {
+        super.initMetric();
+        MetricGroup metricGroup = getRuntimeContext().getMetricGroup();
+        dtNumBytesOut = metricGroup.counter(MetricConstant.DT_NUM_BYTES_OUT);
+        metricGroup.meter(MetricConstant.DT_NUM_BYTES_OUT_RATE, new MeterView(dtNumBytesOut, 20));
+        partitionCounters = new ConcurrentHashMap<>();
+    }
+
     @Override
     public ProducerRecord<byte[], byte[]> serialize(RowData element, @Nullable Long timestamp) {
         try {
+            ProducerRecord<byte[], byte[]> record = converter.toExternal(element, null);
             dtNumRecordsOut.inc();
-            return converter.toExternal(element, null);
+            dtNumBytesOut.inc(
+                    record.value().length + (record.key() == null ? 0 : record.key().length));
+            return record;
         } catch (Exception e) {
             // todo kafka比较特殊，这里直接记录脏数据。
             LOG.error(e.getMessage());
         }
         return null;
     }
+
+    /**
+     * 消息发送成功后按实际写入的分区统计，由KafkaProducer在发送回调中调用
+     *
+     * @param metadata 发送结果
+     */
+    public void onSendSuccess(RecordMetadata metadata) {
+        long bytes =
+                Math.max(0, metadata.serializedKeySize())
+                        + Math.max(0, metadata.serializedValueSize());
+        Counter[] counters = partitionCounters.get(metadata.partition());
+        if (counters == null) {
+            MetricGroup group =
+                    getRuntimeContext()
+                            .getMetricGroup()
+                            .addGroup(MetricConstant.DT_TOPIC_GROUP, metadata.topic())
+                            .addGroup(MetricConstant.DT_PARTITION_GROUP, String.valueOf(metadata.partition()));
+            Counter records = group.counter(MetricConstant.DT_NUM_RECORDS_OUT);
+            group.meter(MetricConstant.DT_NUM_RECORDS_OUT_RATE, new MeterView(records, 20));
+            Counter byteCounter = group.counter(MetricConstant.DT_NUM_BYTES_OUT);
+            group.meter(MetricConstant.DT_NUM_BYTES_OUT_RATE, new MeterView(byteCounter, 20));
+            counters = new Counter[] {records, byteCounter};
+            partitionCounters.put(metadata.partition(), counters);
+        }
+        counters[0].inc();
+        counters[1].inc(bytes);
+    }
 }
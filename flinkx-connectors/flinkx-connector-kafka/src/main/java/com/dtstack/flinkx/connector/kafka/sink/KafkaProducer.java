@@ -24,6 +24,9 @@ import org.apache.flink.streaming.connectors.kafka.FlinkKafkaProducer;
 import org.apache.flink.streaming.connectors.kafka.KafkaSerializationSchema;
 import org.apache.flink.table.data.RowData;
 
+import com.dtstack.flinkx.connector.kafka.serialization.RowSerializationSchema;
+import org.apache.kafka.clients.producer.Callback;
+
 import java.util.Properties;
 
 /**
@@ -51,5 +54,17 @@ public class KafkaProducer extends FlinkKafkaProducer<RowData> {
         ((DynamicKafkaSerializationSchema) serializationSchema).setRuntimeContext(runtimeContext);
         ((DynamicKafkaSerializationSchema) serializationSchema).initMetric();
         super.open(configuration);
+        if (serializationSchema instanceof RowSerializationSchema && callback != null) {
+            // 分区由kafka producer确定，分区级别的指标只能在发送回调中按RecordMetadata统计
+            RowSerializationSchema rowSchema = (RowSerializationSchema) serializationSchema;
+            Callback delegate = callback;
+            callback =
+                    (metadata, exception) -> {
+                        if (exception == null && metadata != null) {
+                            rowSchema.onSendSuccess(metadata);
+                        }
+                        delegate.onCompletion(metadata, exception);
+                    };
+        }
     }
 }
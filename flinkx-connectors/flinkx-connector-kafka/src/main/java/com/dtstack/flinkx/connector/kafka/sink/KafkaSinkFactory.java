@@ -35,6 +35,8 @@ import com.dtstack.flinkx.sink.SinkFactory;
 import com.dtstack.flinkx.util.GsonUtil;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.kafka.clients.producer.ProducerConfig;
 
 import java.util.Properties;
 
@@ -69,7 +71,19 @@ public class KafkaSinkFactory extends SinkFactory {
         Preconditions.checkNotNull(sinkName);
 
         Properties props = new Properties();
-        props.putAll(kafkaConf.getProducerSettings());
+        if (kafkaConf.getBatchSize() != null) {
+            props.put(ProducerConfig.BATCH_SIZE_CONFIG, String.valueOf(kafkaConf.getBatchSize()));
+        }
+        if (kafkaConf.getLingerMs() != null) {
+            props.put(ProducerConfig.LINGER_MS_CONFIG, String.valueOf(kafkaConf.getLingerMs()));
+        }
+        if (StringUtils.isNotBlank(kafkaConf.getCompressionType())) {
+            props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, kafkaConf.getCompressionType());
+        }
+        // producerSettings中的原生参数优先
+        if (kafkaConf.getProducerSettings() != null) {
+            props.putAll(kafkaConf.getProducerSettings());
+        }
 
         KafkaProducer kafkaProducer = new KafkaProducer(
                 kafkaConf.getTopic(),
@@ -73,6 +73,7 @@ public class MongodbInputFormat extends BaseRichInputFormat {
 
             // 不使用 collection.countDocuments() 获取总数是因为这个方法在大数据量时超时，导致出现超时异常结束任务
             long docNum = collection.estimatedDocumentCount();
+            minNumSplits = minNumSplits * getSplitFactor();
             if (docNum <= minNumSplits) {
                 splits.add(new MongodbInputSplit(0, (int) docNum));
                 return splits.toArray(new MongodbInputSplit[splits.size()]);
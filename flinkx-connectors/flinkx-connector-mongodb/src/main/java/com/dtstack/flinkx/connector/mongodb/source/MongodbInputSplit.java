@@ -18,22 +18,29 @@
 
 package com.dtstack.flinkx.connector.mongodb.source;
 
-import org.apache.flink.core.io.InputSplit;
+import com.dtstack.flinkx.inputformat.SplittableInputSplit;
 
 /**
  * @author Ada Wong
  * @program flinkx
  * @create 2021/06/24
  */
-public class MongodbInputSplit implements InputSplit {
+public class MongodbInputSplit implements SplittableInputSplit {
 
     private int skip;
 
     private int limit;
 
+    private String splitId;
+
     public MongodbInputSplit(int skip, int limit) {
+        this(skip, limit, String.valueOf(skip));
+    }
+
+    public MongodbInputSplit(int skip, int limit, String splitId) {
         this.skip = skip;
         this.limit = limit;
+        this.splitId = splitId;
     }
 
     public int getSkip() {
@@ -57,8 +64,39 @@ public class MongodbInputSplit implements InputSplit {
         return 0;
     }
 
+    @Override
+    public String getSplitId() {
+        return splitId;
+    }
+
+    @Override
+    public long getEstimatedSize() {
+        return limit;
+    }
+
+    /** 按文档数从中间切分skip/limit */
+    @Override
+    public SplittableInputSplit[] split() {
+        if (limit < 2) {
+            return null;
+        }
+        int half = limit / 2;
+        return new SplittableInputSplit[] {
+            new MongodbInputSplit(skip, half, SplittableInputSplit.childSplitId(splitId, 0)),
+            new MongodbInputSplit(skip + half, limit - half, SplittableInputSplit.childSplitId(splitId, 1))
+        };
+    }
+
     @Override
     public String toString() {
-        return "MongodbInputSplit{" + "skip=" + skip + ", limit=" + limit + '}';
+        return "MongodbInputSplit{"
+                + "splitId='"
+                + splitId
+                + '\''
+                + ", skip="
+                + skip
+                + ", limit="
+                + limit
+                + '}';
     }
 }
@@ -18,7 +18,7 @@
 
 package com.dtstack.flinkx.connector.mongodb.table.lookup;
 
-import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
 import org.apache.flink.table.types.logical.RowType;
 
 import com.dtstack.flinkx.connector.mongodb.MongoClientFactory;
@@ -26,15 +26,12 @@ import com.dtstack.flinkx.connector.mongodb.conf.MongoClientConf;
 import com.dtstack.flinkx.connector.mongodb.converter.MongodbRowConverter;
 import com.dtstack.flinkx.lookup.AbstractAllTableFunction;
 import com.dtstack.flinkx.lookup.conf.LookupConf;
-import com.google.common.collect.Maps;
 import com.mongodb.MongoClient;
 import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoCursor;
 import org.bson.Document;
 
-import java.util.List;
-import java.util.Map;
 
 /**
  * @author Ada Wong
@@ -66,21 +63,12 @@ public class MongoAllTableFunction extends AbstractAllTableFunction {
                         mongoClient,
                         mongoClientConf.getDatabase(),
                         mongoClientConf.getCollection());
-        Map<String, List<Map<String, Object>>> tmpCache =
-                (Map<String, List<Map<String, Object>>>) cacheRef;
-
         FindIterable<Document> findIterable = collection.find().limit(FETCH_SIZE);
         MongoCursor<Document> mongoCursor = findIterable.iterator();
         while (mongoCursor.hasNext()) {
             Document doc = mongoCursor.next();
-            Map<String, Object> row = Maps.newHashMap();
-            GenericRowData rowData =
-                    (GenericRowData) ((MongodbRowConverter) rowConverter).toInternal(doc);
-            for (int i = 0; i < fieldsName.length; i++) {
-                Object object = rowData.getField(i);
-                row.put(fieldsName[i].trim(), object);
-            }
-            buildCache(row, tmpCache);
+            RowData rowData = ((MongodbRowConverter) rowConverter).toInternal(doc);
+            buildCache(rowData, cacheRef);
         }
     }
 }
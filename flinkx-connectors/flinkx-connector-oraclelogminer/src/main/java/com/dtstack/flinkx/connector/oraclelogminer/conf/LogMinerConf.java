@@ -44,6 +44,46 @@ public class LogMinerConf extends FlinkxCommonConf {
      */
     private int fetchSize = 1000;
 
+    /**
+     * 解析线程和task线程之间队列的最大条数，队列满时暂停读取LogMiner
+     */
+    private int queueSize = 4096;
+
+    /**
+     * 解析SQL_REDO并转换成数据的线程数，大于1时并行解析，输出顺序仍与scn一致
+     */
+    private int parseThreadSize = 1;
+
+    /**
+     * 是否只发送已提交事务的数据，数据按事务缓存到提交或回滚，按提交顺序发送
+     */
+    private boolean committedOnly = false;
+
+    /**
+     * committedOnly模式下内存中缓存的未提交事务数据的最大大小，单位MB，超过后把最大的事务写入磁盘
+     */
+    private int transactionBufferSize = 256;
+
+    /**
+     * committedOnly模式下大事务写入磁盘的目录，为空时使用TaskManager的java.io.tmpdir
+     */
+    private String spillPath;
+
+    /**
+     * 每次启动LogMiner解析的scn范围的初始大小，之后根据读取的数据量和耗时调整
+     */
+    private long scnWindowSize = 100000L;
+
+    /**
+     * scn范围的最大值
+     */
+    private long maxScnWindowSize = 10000000L;
+
+    /**
+     * 追赶历史数据时，是否在读取当前范围的同时用另一个连接启动下一个范围的LogMiner
+     */
+    private boolean prefetchWindow = true;
+
     private String listenerTables;
 
     private String timestampFormat = "sql";
@@ -151,6 +191,70 @@ public class LogMinerConf extends FlinkxCommonConf {
         this.listenerTables = listenerTables;
     }
 
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public int getParseThreadSize() {
+        return parseThreadSize;
+    }
+
+    public void setParseThreadSize(int parseThreadSize) {
+        this.parseThreadSize = parseThreadSize;
+    }
+
+    public boolean isCommittedOnly() {
+        return committedOnly;
+    }
+
+    public void setCommittedOnly(boolean committedOnly) {
+        this.committedOnly = committedOnly;
+    }
+
+    public int getTransactionBufferSize() {
+        return transactionBufferSize;
+    }
+
+    public void setTransactionBufferSize(int transactionBufferSize) {
+        this.transactionBufferSize = transactionBufferSize;
+    }
+
+    public String getSpillPath() {
+        return spillPath;
+    }
+
+    public void setSpillPath(String spillPath) {
+        this.spillPath = spillPath;
+    }
+
+    public long getScnWindowSize() {
+        return scnWindowSize;
+    }
+
+    public void setScnWindowSize(long scnWindowSize) {
+        this.scnWindowSize = scnWindowSize;
+    }
+
+    public long getMaxScnWindowSize() {
+        return maxScnWindowSize;
+    }
+
+    public void setMaxScnWindowSize(long maxScnWindowSize) {
+        this.maxScnWindowSize = maxScnWindowSize;
+    }
+
+    public boolean isPrefetchWindow() {
+        return prefetchWindow;
+    }
+
+    public void setPrefetchWindow(boolean prefetchWindow) {
+        this.prefetchWindow = prefetchWindow;
+    }
+
     public int getFetchSize() {
         return fetchSize;
     }
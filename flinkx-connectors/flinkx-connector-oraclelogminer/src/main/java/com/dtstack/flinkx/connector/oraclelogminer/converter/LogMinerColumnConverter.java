@@ -65,7 +65,8 @@ import java.util.stream.Collectors;
 public class LogMinerColumnConverter extends AbstractCDCRowConverter<EventRow, String> {
 
     protected static final String SCN = "scn";
-    protected LogMinerConnection connection;
+    /** 读取线程交换连接时更新，并行解析时由解析线程读取 */
+    protected volatile LogMinerConnection connection;
     //存储表字段
     protected final Map<String, TableMetaData> tableMetaDataCacheMap = new ConcurrentHashMap<>(32);
 
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.flinkx.connector.oraclelogminer.entity;
+
+import java.io.Serializable;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * committedOnly模式下checkpoint记录的位置
+ */
+public class TransactionPosition implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /** 恢复时从这个scn之后开始读取，即最早的未提交事务的第一条数据之前 */
+    private final long scn;
+
+    /** 已经发送到下游的最后一个事务的提交scn，恢复时提交scn小于它的事务不再发送 */
+    private final long commitScn;
+
+    /**
+     * 提交scn等于commitScn且已经发送到下游的事务，同一个scn提交的其他事务恢复时仍然要发送。
+     * 旧版本的checkpoint中没有这个字段，为null时认为提交scn等于commitScn的事务都已经发送过
+     */
+    private final HashSet<String> committedXids;
+
+    public TransactionPosition(long scn, long commitScn, Set<String> committedXids) {
+        this.scn = scn;
+        this.commitScn = commitScn;
+        this.committedXids = committedXids == null ? null : new HashSet<>(committedXids);
+    }
+
+    public long getScn() {
+        return scn;
+    }
+
+    public long getCommitScn() {
+        return commitScn;
+    }
+
+    public Set<String> getCommittedXids() {
+        return committedXids;
+    }
+
+    @Override
+    public String toString() {
+        return "TransactionPosition{" +
+                "scn=" + scn +
+                ", commitScn=" + commitScn +
+                ", committedXids=" + committedXids +
+                '}';
+    }
+}
@@ -21,11 +21,15 @@ package com.dtstack.flinkx.connector.oraclelogminer.inputformat;
 
 import org.apache.flink.core.io.GenericInputSplit;
 import org.apache.flink.core.io.InputSplit;
+import org.apache.flink.metrics.Gauge;
+import org.apache.flink.metrics.MetricGroup;
 import org.apache.flink.table.data.RowData;
 
 import com.dtstack.flinkx.connector.oraclelogminer.conf.LogMinerConf;
+import com.dtstack.flinkx.connector.oraclelogminer.entity.TransactionPosition;
 import com.dtstack.flinkx.connector.oraclelogminer.listener.LogMinerListener;
 import com.dtstack.flinkx.connector.oraclelogminer.listener.PositionManager;
+import com.dtstack.flinkx.constants.Metrics;
 import com.dtstack.flinkx.converter.AbstractCDCRowConverter;
 import com.dtstack.flinkx.inputformat.BaseRichInputFormat;
 import com.dtstack.flinkx.restore.FormatState;
@@ -65,7 +69,15 @@ public class OracleLogMinerInputFormat extends BaseRichInputFormat {
 
     private void initPosition() {
         if (null != formatState && formatState.getState() != null) {
-            positionManager.updatePosition((Long)formatState.getState());
+            Object state = formatState.getState();
+            if (state instanceof TransactionPosition) {
+                TransactionPosition position = (TransactionPosition) state;
+                positionManager.updatePosition(position.getScn());
+                positionManager.updateCommitScn(position.getCommitScn());
+                positionManager.updateCommittedXids(position.getCommittedXids());
+            } else {
+                positionManager.updatePosition((Long) state);
+            }
         }
     }
 
@@ -73,6 +85,10 @@ public class OracleLogMinerInputFormat extends BaseRichInputFormat {
     protected void openInternal(InputSplit inputSplit) {
         logMinerListener.init();
         logMinerListener.start();
+
+        MetricGroup metricGroup = getRuntimeContext().getMetricGroup();
+        metricGroup.gauge(Metrics.LOGMINER_SCN_LAG, (Gauge<Long>) logMinerListener::getScnLag);
+        metricGroup.gauge(Metrics.LOGMINER_SCN_WINDOW_SIZE, (Gauge<Long>) logMinerListener::getScnWindowSize);
     }
 
     @Override
@@ -80,7 +96,12 @@ public class OracleLogMinerInputFormat extends BaseRichInputFormat {
         super.getFormatState();
 
         if (formatState != null) {
-            formatState.setState(positionManager.getPosition());
+            Long commitScn = positionManager.getCommitScn();
+            if (commitScn != null) {
+                formatState.setState(new TransactionPosition(positionManager.getPosition(), commitScn, positionManager.getCommittedXids()));
+            } else {
+                formatState.setState(positionManager.getPosition());
+            }
         }
 
         return formatState;
@@ -23,6 +23,7 @@ import com.dtstack.flinkx.connector.oraclelogminer.conf.LogMinerConf;
 import com.dtstack.flinkx.connector.oraclelogminer.entity.QueueData;
 import com.dtstack.flinkx.connector.oraclelogminer.util.SqlUtil;
 import com.dtstack.flinkx.element.ColumnRowData;
+import com.dtstack.flinkx.element.column.BooleanColumn;
 import com.dtstack.flinkx.element.column.StringColumn;
 import com.dtstack.flinkx.element.column.TimestampColumn;
 import com.dtstack.flinkx.util.ClassUtil;
@@ -96,6 +97,9 @@ public class LogMinerConnection {
     public final static String KEY_SCN = "SCN";
     public final static String KEY_CURRENT_SCN = "CURRENT_SCN";
     public final static String KEY_FIRST_CHANGE = "FIRST_CHANGE#";
+    public final static String KEY_XID = "XID";
+    public final static String KEY_ROLLBACK = "ROLLBACK";
+    public final static String KEY_ROW_ID = "ROW_ID";
 
     private LogMinerConf logMinerConf;
 
@@ -111,17 +115,8 @@ public class LogMinerConnection {
 
     private List<LogFile> addedLogFiles = new ArrayList<>();
 
-    private long lastQueryTime;
-
-    private static final long QUERY_LOG_INTERVAL = 10000;
-
     private boolean logMinerStarted = false;
 
-    /**
-     * 上一次查询的scn
-     */
-    private Long preScn = null;
-
     public LogMinerConnection(LogMinerConf logMinerConf) {
         this.logMinerConf = logMinerConf;
     }
@@ -171,36 +166,29 @@ public class LogMinerConnection {
     }
 
     /**
-     * 启动LogMiner
-     * @param startScn
+     * 启动LogMiner，只解析(startScn, endScn]范围内的日志
+     * @param startScn 窗口起始scn，不包含
+     * @param endScn 窗口结束scn，包含
+     * @return 没有包含该范围的日志文件时返回false
      */
-    public void startOrUpdateLogMiner(Long startScn) {
+    public boolean startOrUpdateLogMiner(Long startScn, Long endScn) {
         String startSql = null;
         try {
-            // 防止没有数据更新的时候频繁查询数据库，限定查询的最小时间间隔 QUERY_LOG_INTERVAL
-            if (lastQueryTime > 0) {
-                long time = System.currentTimeMillis() - lastQueryTime;
-                if (time < QUERY_LOG_INTERVAL) {
-                    try {
-                        Thread.sleep(QUERY_LOG_INTERVAL-time);
-                    } catch (InterruptedException e) {
-                        LOG.warn("", e);
-                    }
-                }
-            }
-            lastQueryTime = System.currentTimeMillis();
-
             if (logMinerConf.getSupportAutoAddLog()) {
                 startSql = isOracle10 ? SqlUtil.SQL_START_LOG_MINER_AUTO_ADD_LOG_10 : SqlUtil.SQL_START_LOG_MINER_AUTO_ADD_LOG;
             } else {
-                List<LogFile> newLogFiles = queryLogFiles(preScn);
-                if (addedLogFiles.equals(newLogFiles)) {
-                    return;
-                } else {
+                // 只添加包含窗口范围的日志文件，日志组没有变化时只需要重新指定范围
+                List<LogFile> newLogFiles = queryLogFiles(startScn, endScn);
+                if (newLogFiles.isEmpty()) {
+                    LOG.warn("no log file contains scn range ({}, {}]", startScn, endScn);
+                    return false;
+                }
+                if (!addedLogFiles.equals(newLogFiles) || !logMinerStarted) {
                     LOG.info("Log group changed, new log group = {}", GsonUtil.GSON.toJson(newLogFiles));
+                    addLogFiles(newLogFiles);
                     addedLogFiles = newLogFiles;
-                    startSql = isOracle10 ? SqlUtil.SQL_START_LOG_MINER_10 : SqlUtil.SQL_START_LOG_MINER;
                 }
+                startSql = SqlUtil.SQL_START_LOG_MINER;
             }
 
             closeStmt(logMinerStartStmt);
@@ -208,21 +196,36 @@ public class LogMinerConnection {
             logMinerStartStmt = connection.prepareCall(startSql);
             configStatement(logMinerStartStmt);
 
-            logMinerStartStmt.setLong(1, preScn);
+            logMinerStartStmt.setLong(1, startScn);
+            logMinerStartStmt.setLong(2, endScn);
             logMinerStartStmt.execute();
 
             logMinerStarted = true;
-            LOG.info("start logMiner successfully, preScn:{}, startScn:{}", preScn, startScn);
-            if(startScn > preScn){
-                preScn = startScn;
-            }
+            LOG.debug("start logMiner successfully, startScn:{}, endScn:{}", startScn, endScn);
+            return true;
         } catch (SQLException e){
-            String message = String.format("start logMiner failed, offset:[%s], sql:[%s], e: %s", startScn, startSql, ExceptionUtil.getErrorMessage(e));
+            // 日志文件可能需要重新添加
+            addedLogFiles = new ArrayList<>();
+            String message = String.format("start logMiner failed, offset:[%s], endScn:[%s], sql:[%s], e: %s", startScn, endScn, startSql, ExceptionUtil.getErrorMessage(e));
             LOG.error(message);
             throw new RuntimeException(message, e);
         }
     }
 
+    /**
+     * 开始新的LogMiner会话并添加日志文件
+     */
+    private void addLogFiles(List<LogFile> logFiles) throws SQLException {
+        try (CallableStatement addLogFileStmt = connection.prepareCall(SqlUtil.SQL_ADD_LOG_FILE)) {
+            configStatement(addLogFileStmt);
+            for (int i = 0; i < logFiles.size(); i++) {
+                addLogFileStmt.setString(1, logFiles.get(i).getFileName());
+                addLogFileStmt.setInt(2, i == 0 ? SqlUtil.ADD_LOG_FILE_NEW : SqlUtil.ADD_LOG_FILE_ADDFILE);
+                addLogFileStmt.execute();
+            }
+        }
+    }
+
     /**
      * 从LogMiner视图查询数据
      * @param startScn
@@ -336,7 +339,7 @@ public class LogMinerConnection {
         }
     }
 
-    private Long getCurrentScn() {
+    public Long getCurrentScn() {
         Long currentScn = null;
         CallableStatement currentScnStmt = null;
         ResultSet currentScnResultSet = null;
@@ -419,19 +422,20 @@ public class LogMinerConnection {
     }
 
     /**
-     * 根据scn号查询在线及归档日志组
-     * @param scn
+     * 根据scn范围查询在线及归档日志组
+     * @param startScn
+     * @param endScn
      * @return
      * @throws SQLException
      */
-    private List<LogFile> queryLogFiles(Long scn) throws SQLException{
+    private List<LogFile> queryLogFiles(Long startScn, Long endScn) throws SQLException{
         List<LogFile> logFiles = new ArrayList<>();
         PreparedStatement statement = null;
         ResultSet rs = null;
         try {
             statement = connection.prepareStatement(isOracle10 ? SqlUtil.SQL_QUERY_LOG_FILE_10 : SqlUtil.SQL_QUERY_LOG_FILE);
-            statement.setLong(1, scn);
-            statement.setLong(2, scn);
+            statement.setLong(1, startScn);
+            statement.setLong(2, endScn);
             rs = statement.executeQuery();
             while (rs.next()) {
                 LogFile logFile = new LogFile();
@@ -445,7 +449,6 @@ public class LogMinerConnection {
             closeResources(rs, statement, null);
         }
 
-        lastQueryTime = System.currentTimeMillis();
         return logFiles;
     }
 
@@ -510,22 +513,19 @@ public class LogMinerConnection {
             String tableName = logMinerData.getString(KEY_TABLE_NAME);
             Timestamp timestamp = logMinerData.getTimestamp(KEY_TIMESTAMP);
 
-            ColumnRowData columnRowData = new ColumnRowData(5);
-            columnRowData.addField(new StringColumn(schema));
-            columnRowData.addHeader("schema");
-
-            columnRowData.addField(new StringColumn(tableName));
-            columnRowData.addHeader("tableName");
+            ColumnRowData columnRowData = buildLogData(schema, tableName, operation, sqlLog, timestamp);
 
-            columnRowData.addField(new StringColumn(operation));
-            columnRowData.addHeader("operation");
+            if (logMinerConf.isCommittedOnly()) {
+                //按事务缓存数据需要事务id、回滚标记和ROWID
+                columnRowData.addField(new StringColumn(logMinerData.getString(KEY_XID)));
+                columnRowData.addHeader("xid");
 
-            columnRowData.addField(new StringColumn(sqlLog));
-            columnRowData.addHeader("sqlLog");
-
-            columnRowData.addField(new TimestampColumn(timestamp));
-            columnRowData.addHeader("opTime");
+                columnRowData.addField(new BooleanColumn(logMinerData.getInt(KEY_ROLLBACK) == 1));
+                columnRowData.addHeader("rollback");
 
+                columnRowData.addField(new StringColumn(logMinerData.getString(KEY_ROW_ID)));
+                columnRowData.addHeader("rowId");
+            }
 
             result = new QueueData(scn, columnRowData);
             return true;
@@ -534,6 +534,28 @@ public class LogMinerConnection {
         return false;
     }
 
+    /**
+     * 构建一条LogMiner数据
+     */
+    public static ColumnRowData buildLogData(String schema, String tableName, String operation, String sqlLog, Timestamp timestamp) {
+        ColumnRowData columnRowData = new ColumnRowData(8);
+        columnRowData.addField(new StringColumn(schema));
+        columnRowData.addHeader("schema");
+
+        columnRowData.addField(new StringColumn(tableName));
+        columnRowData.addHeader("tableName");
+
+        columnRowData.addField(new StringColumn(operation));
+        columnRowData.addHeader("operation");
+
+        columnRowData.addField(new StringColumn(sqlLog));
+        columnRowData.addHeader("sqlLog");
+
+        columnRowData.addField(new TimestampColumn(timestamp));
+        columnRowData.addHeader("opTime");
+        return columnRowData;
+    }
+
     //判断连接是否正常
     public boolean isValid()  {
         try {
@@ -679,10 +701,6 @@ public class LogMinerConnection {
         ALL, CURRENT, TIME, SCN
     }
 
-    public void setPreScn(Long preScn) {
-        this.preScn = preScn;
-    }
-
     public Connection getConnection(){
         return connection;
     }
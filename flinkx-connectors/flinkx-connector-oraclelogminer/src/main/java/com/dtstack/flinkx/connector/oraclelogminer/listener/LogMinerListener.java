@@ -24,28 +24,52 @@ import org.apache.flink.table.data.RowData;
 import com.dtstack.flinkx.connector.oraclelogminer.conf.LogMinerConf;
 import com.dtstack.flinkx.connector.oraclelogminer.converter.LogMinerColumnConverter;
 import com.dtstack.flinkx.connector.oraclelogminer.entity.QueueData;
+import com.dtstack.flinkx.connector.oraclelogminer.entity.TransactionPosition;
 import com.dtstack.flinkx.connector.oraclelogminer.util.OraUtil;
 import com.dtstack.flinkx.connector.oraclelogminer.util.SqlUtil;
+import com.dtstack.flinkx.constants.ConstantValue;
 import com.dtstack.flinkx.converter.AbstractCDCRowConverter;
+import com.dtstack.flinkx.element.ColumnRowData;
 import com.dtstack.flinkx.element.ErrorMsgRowData;
+import com.dtstack.flinkx.source.PositionedEventQueue;
 import com.dtstack.flinkx.util.ExceptionUtil;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import net.sf.jsqlparser.JSQLParserException;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedList;
-import java.util.Objects;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 /**
+ * 读取LogMiner数据，解析后放入队列。
+ *
+ * <p>parseThreadSize大于1时，读取线程只负责把数据按顺序提交给解析线程池，SQL_REDO解析和数据转换在线程池中并行执行，
+ * 再由一个单独的线程按提交顺序取出结果放入队列，所以队列中数据仍然按scn排序。
+ *
+ * <p>committedOnly为true时，数据先按事务缓存在{@link TransactionBuffer}中，事务提交后才按提交顺序发送，回滚的事务不会发送。
+ * 队列中的位置是上一个已发送事务的提交scn，checkpoint时记录该提交scn和最早的未提交事务的起始scn。
+ *
+ * <p>每次启动LogMiner只解析一个scn范围，范围大小由{@link MiningWindow}根据读取的数据量调整。追赶历史数据时，
+ * 读取当前范围的同时用另一个连接启动下一个范围的LogMiner，读取完成后两个连接交换。
+ *
  * @author jiangbo
  * @date 2020/3/27
  */
@@ -53,7 +77,14 @@ public class LogMinerListener implements Runnable {
 
     public static Logger LOG = LoggerFactory.getLogger(LogMinerListener.class);
 
-    private BlockingQueue<QueueData> queue;
+    /** 每个解析线程最多等待按顺序输出的数据条数 */
+    private static final int PENDING_PER_THREAD = 64;
+
+    private static final String OPERATION_COMMIT = "COMMIT";
+    private static final String OPERATION_ROLLBACK = "ROLLBACK";
+
+    /** 数据的位置是scn，committedOnly模式下是事务的序号 */
+    private PositionedEventQueue<Long> queue;
 
     private ExecutorService executor;
 
@@ -61,11 +92,52 @@ public class LogMinerListener implements Runnable {
 
     private LogMinerConnection logMinerConnection;
 
+    /** 启动下一个scn范围的连接和线程，prefetchWindow为false或启动失败后为null */
+    private LogMinerConnection prefetchConnection;
+    private ExecutorService prefetchExecutor;
+    private Future<Boolean> prefetch;
+    private long prefetchStart;
+    private long prefetchEnd;
+    private long prefetchCurrentScn;
+    private volatile long prefetchStartedAt;
+
+    private MiningWindow miningWindow;
+
+    /** 正在读取的scn范围(windowStart, windowEnd]，windowActive为false时需要启动新的范围 */
+    private boolean windowActive;
+    private long windowEnd;
+    private boolean windowAtHead;
+    private long windowStartedAt;
+    private long windowRows;
+    private long windowMiningNanos;
+
+    /** 该scn之前的数据已经全部读取，下一个范围不早于这个scn */
+    private long safeScn;
+
+    /** 最近一次查询的数据库当前scn和已经发送到下游的数据的scn，用于监控延迟 */
+    private volatile long currentScn;
+    private volatile long emittedScn;
+
+    /** 已经发送到下游的数据的scn，checkpoint时记录 */
     private final PositionManager positionManager;
 
+    /** 已经放入队列（或已提交给解析线程池）的数据的scn，重新查询LogMiner时从这里开始，队列中未发送的数据不会被重复读取 */
+    private volatile Long readScn;
+
+    /** 并行解析时的线程池、按提交顺序排列的解析结果和输出线程，串行解析时为null */
+    private ExecutorService parseExecutor;
+    private BlockingQueue<Future<ParsedLog>> pending;
+    private Thread collector;
+
+    /** committedOnly模式下按事务缓存数据，其他模式为null */
+    private TransactionBuffer transactionBuffer;
+
+    /** committedOnly模式下需要发送的操作类型，为空时发送所有类型 */
+    private final Set<String> categories = new HashSet<>();
+
     private LogParser logParser;
 
-    private boolean running = false;
+    private volatile boolean running = false;
 
     private String logMinerSelectSql;
 
@@ -85,7 +157,7 @@ public class LogMinerListener implements Runnable {
     }
 
     public void init() {
-        queue = new LinkedBlockingDeque<>();
+        queue = new PositionedEventQueue<>(logMinerConf.getQueueSize());
 
         ThreadFactory namedThreadFactory = new ThreadFactoryBuilder().setNameFormat("LogMiner-pool-%d").build();
         executor = new ThreadPoolExecutor(1,
@@ -95,25 +167,86 @@ public class LogMinerListener implements Runnable {
                 namedThreadFactory,
                 new ThreadPoolExecutor.AbortPolicy());
 
+        int parseThreadSize = logMinerConf.getParseThreadSize();
+        if (parseThreadSize > 1) {
+            parseExecutor = Executors.newFixedThreadPool(
+                    parseThreadSize,
+                    new ThreadFactoryBuilder().setNameFormat("LogMiner-parse-%d").setDaemon(true).build());
+            pending = new ArrayBlockingQueue<>(parseThreadSize * PENDING_PER_THREAD);
+        }
+
         logMinerConnection = new LogMinerConnection(logMinerConf);
         logParser = new LogParser(logMinerConf);
+
+        // 一个范围最多读取fetchSize的10倍条数据，耗时不超过查询超时时间的一半
+        miningWindow = new MiningWindow(
+                logMinerConf.getScnWindowSize(),
+                logMinerConf.getMaxScnWindowSize(),
+                logMinerConf.getFetchSize() * 10L,
+                logMinerConf.getQueryTimeout() * 1000L / 2);
+        if (logMinerConf.isPrefetchWindow() && !logMinerConf.getSupportAutoAddLog()) {
+            prefetchConnection = new LogMinerConnection(logMinerConf);
+            prefetchExecutor = Executors.newSingleThreadExecutor(
+                    new ThreadFactoryBuilder().setNameFormat("LogMiner-prefetch-%d").setDaemon(true).build());
+        }
     }
 
     public void start() {
         logMinerConnection.connect();
         logMinerConnection.checkPrivileges();
 
-        Long startScn = logMinerConnection.getStartScn(positionManager.getPosition());
-        logMinerConnection.setPreScn(startScn);
+        Long restoredScn = positionManager.getPosition();
+        Long restoredCommitScn = positionManager.getCommitScn();
+        Long startScn;
+        if (logMinerConf.isCommittedOnly() && restoredCommitScn != null) {
+            // 从最早的未提交事务开始读取，不需要回退到日志文件的起始位置
+            startScn = restoredScn;
+        } else {
+            startScn = logMinerConnection.getStartScn(restoredScn);
+        }
         positionManager.updatePosition(startScn);
+        readScn = startScn;
+
+        if (logMinerConf.isCommittedOnly()) {
+            // 提交scn小于committedScn的事务和提交scn等于committedScn的committedXids已经发送过，恢复时重新读到后直接丢弃
+            long committedScn;
+            Set<String> committedXids = null;
+            if (restoredCommitScn != null) {
+                committedScn = restoredCommitScn;
+                committedXids = positionManager.getCommittedXids();
+            } else if (restoredScn != null && restoredScn != 0L) {
+                committedScn = restoredScn;
+            } else {
+                committedScn = startScn;
+            }
+            positionManager.updateCommitScn(committedScn);
+            transactionBuffer = new TransactionBuffer(
+                    logMinerConf.getTransactionBufferSize() * 1024L * 1024L,
+                    logMinerConf.getSpillPath(),
+                    committedScn,
+                    committedXids,
+                    startScn);
+            if (StringUtils.isNotEmpty(logMinerConf.getCat())) {
+                for (String operation : logMinerConf.getCat().split(ConstantValue.COMMA_SYMBOL)) {
+                    categories.add(operation.trim().toUpperCase(Locale.ENGLISH));
+                }
+            }
+            logMinerSelectSql = SqlUtil.buildTransactionSelectSql(logMinerConf.getListenerTables());
+        } else {
+            logMinerSelectSql = SqlUtil.buildSelectSql(logMinerConf.getCat(), logMinerConf.getListenerTables());
+        }
 
-        logMinerSelectSql = SqlUtil.buildSelectSql(logMinerConf.getCat(), logMinerConf.getListenerTables());
+        updateConverterConnection();
 
-        //LogMinerColumnConverter 需要connection获取元数据
-        if (rowConverter instanceof LogMinerColumnConverter) {
-            ((LogMinerColumnConverter) rowConverter).setConnection(logMinerConnection);
+        if (prefetchConnection != null) {
+            prefetchConnection.connect();
         }
 
+        if (parseExecutor != null) {
+            collector = new Thread(this::collect, "LogMiner-parse-collector");
+            collector.setDaemon(true);
+            collector.start();
+        }
 
         executor.execute(this);
         running = true;
@@ -130,14 +263,16 @@ public class LogMinerListener implements Runnable {
         while (running) {
             QueueData log = null;
             try {
-                if (logMinerConnection.hasNext()) {
+                long begin = System.nanoTime();
+                boolean hasNext = logMinerConnection.hasNext();
+                windowMiningNanos += System.nanoTime() - begin;
+                if (hasNext) {
                     log = logMinerConnection.next();
+                    windowRows++;
                     processData(log);
                 } else {
-                    logMinerConnection.closeStmt();
-                    logMinerConnection.startOrUpdateLogMiner(positionManager.getPosition());
-                    logMinerConnection.queryData(positionManager.getPosition(), logMinerSelectSql);
-                    LOG.debug("Update log and continue read:{}", positionManager.getPosition());
+                    completeWindow();
+                    startWindow();
                 }
             } catch (Exception e) {
                 StringBuilder sb = new StringBuilder(512);
@@ -164,11 +299,14 @@ public class LogMinerListener implements Runnable {
                     }
                     errorMsg.append("\nerror msg is : ").append(sb);
                     try {
-                        queue.put(new QueueData(0L,new ErrorMsgRowData(errorMsg.toString())));
+                        queue.put(new ErrorMsgRowData(errorMsg.toString()), null);
                     } catch (InterruptedException ex) {
                         LOG.warn("error to put exception message into queue, e = {}", ExceptionUtil.getErrorMessage(ex));
                     }
                 }else{
+                    // 从已读取的位置重新启动LogMiner
+                    windowActive = false;
+                    discardPrefetch();
                     try {
                         logMinerConnection.disConnect();
                     } catch (Exception e1) {
@@ -179,6 +317,11 @@ public class LogMinerListener implements Runnable {
                 }
             }
         }
+
+        if (null != transactionBuffer) {
+            // 删除未提交事务写入磁盘的文件
+            transactionBuffer.close();
+        }
     }
 
     public void stop() {
@@ -187,42 +330,339 @@ public class LogMinerListener implements Runnable {
             running = false;
         }
 
+        if (null != parseExecutor) {
+            parseExecutor.shutdownNow();
+            collector.interrupt();
+            // 唤醒阻塞在pending上的读取线程
+            pending.clear();
+        }
+
         if (null != queue) {
+            // 唤醒阻塞在队列上的解析线程
             queue.clear();
         }
 
+        if (null != prefetchExecutor) {
+            prefetchExecutor.shutdownNow();
+        }
+
         if (null != logMinerConnection) {
             logMinerConnection.disConnect();
         }
+
+        if (null != prefetchConnection) {
+            prefetchConnection.disConnect();
+        }
+    }
+
+    /**
+     * 当前scn范围读取完成，调整下一个范围的大小，已经追上且没有数据时等待一段时间再查询
+     */
+    private void completeWindow() throws InterruptedException {
+        if (!windowActive) {
+            return;
+        }
+        windowActive = false;
+        long idleMillis = miningWindow.complete(windowRows, TimeUnit.NANOSECONDS.toMillis(windowMiningNanos), windowAtHead);
+        safeScn = Math.max(safeScn, miningWindow.getSafeScn(windowEnd, windowStartedAt));
+        LOG.debug("read {} rows until scn {}, next window size {}", windowRows, windowEnd, miningWindow.getSize());
+        if (idleMillis > 0) {
+            TimeUnit.MILLISECONDS.sleep(idleMillis);
+        }
+    }
+
+    /**
+     * 启动下一个scn范围的LogMiner并查询数据，下一个范围已经由另一个连接启动时直接使用该连接
+     */
+    private void startWindow() throws InterruptedException {
+        long startScn = Math.max(readScn, safeScn);
+        logMinerConnection.closeStmt();
+        if (prefetch != null && takePrefetch(startScn)) {
+            return;
+        }
+
+        long current = logMinerConnection.getCurrentScn();
+        currentScn = current;
+        long now = System.currentTimeMillis();
+        long endScn = miningWindow.getEnd(startScn, current, now);
+        if (endScn <= startScn || !logMinerConnection.startOrUpdateLogMiner(startScn, endScn)) {
+            TimeUnit.MILLISECONDS.sleep(miningWindow.complete(0, 0, true));
+            return;
+        }
+        logMinerConnection.queryData(startScn, logMinerSelectSql);
+        beginWindow(endScn, endScn >= current, now);
+        prefetchNextWindow(current);
+    }
+
+    private void beginWindow(long endScn, boolean atHead, long startedAt) {
+        windowActive = true;
+        windowEnd = endScn;
+        windowAtHead = atHead;
+        windowStartedAt = startedAt;
+        windowRows = 0;
+        windowMiningNanos = 0;
+        LOG.debug("Update log and continue read:{}, endScn:{}", readScn, endScn);
+    }
+
+    /**
+     * 追赶历史数据时，用另一个连接启动当前范围之后的LogMiner。
+     * 只有当前范围结束前的日志已经写入日志文件时，下一个范围才能从当前范围的结束位置开始。
+     */
+    private void prefetchNextWindow(long current) {
+        if (prefetchConnection == null
+                || windowAtHead
+                || miningWindow.getSafeScn(windowEnd, windowStartedAt) < windowEnd) {
+            return;
+        }
+        long startScn = windowEnd;
+        long endScn = miningWindow.getEnd(startScn, current, System.currentTimeMillis());
+        LogMinerConnection connection = prefetchConnection;
+        prefetchStart = startScn;
+        prefetchEnd = endScn;
+        prefetchCurrentScn = current;
+        prefetch = prefetchExecutor.submit(() -> {
+            prefetchStartedAt = System.currentTimeMillis();
+            if (!connection.startOrUpdateLogMiner(startScn, endScn)) {
+                return false;
+            }
+            connection.queryData(startScn, logMinerSelectSql);
+            return true;
+        });
+    }
+
+    /**
+     * 使用另一个连接上已经启动的范围，并交换两个连接
+     * @return 预先启动的范围不是从startScn开始或启动失败时返回false
+     */
+    private boolean takePrefetch(long startScn) throws InterruptedException {
+        Future<Boolean> future = prefetch;
+        prefetch = null;
+        boolean started;
+        try {
+            started = future.get();
+        } catch (ExecutionException e) {
+            // 不再预先启动，之后只用一个连接
+            LOG.warn("prefetch LogMiner window failed, e = {}", ExceptionUtil.getErrorMessage(e.getCause()));
+            prefetchExecutor.shutdown();
+            prefetchConnection.disConnect();
+            prefetchConnection = null;
+            return false;
+        }
+        if (!started || prefetchStart != startScn) {
+            prefetchConnection.closeStmt();
+            return false;
+        }
+
+        LogMinerConnection connection = logMinerConnection;
+        logMinerConnection = prefetchConnection;
+        prefetchConnection = connection;
+        // 交换后的prefetchConnection可能因为预先启动失败被断开
+        updateConverterConnection();
+        beginWindow(prefetchEnd, prefetchEnd >= prefetchCurrentScn, prefetchStartedAt);
+        long current = logMinerConnection.getCurrentScn();
+        currentScn = current;
+        prefetchNextWindow(current);
+        return true;
+    }
+
+    /**
+     * LogMinerColumnConverter 需要connection获取元数据，始终使用当前读取数据的连接
+     */
+    private void updateConverterConnection() {
+        if (rowConverter instanceof LogMinerColumnConverter) {
+            ((LogMinerColumnConverter) rowConverter).setConnection(logMinerConnection);
+        }
+    }
+
+    /**
+     * 出错后丢弃预先启动的范围
+     */
+    private void discardPrefetch() {
+        if (prefetch == null) {
+            return;
+        }
+        try {
+            prefetch.get();
+            prefetchConnection.closeStmt();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            LOG.warn("prefetch LogMiner window failed, e = {}", ExceptionUtil.getErrorMessage(e.getCause()));
+        }
+        prefetch = null;
+    }
+
+    /** 数据库当前scn与已发送到下游的数据的scn之差 */
+    public long getScnLag() {
+        long current = currentScn;
+        long emitted = emittedScn;
+        return current > 0 && emitted > 0 ? Math.max(0, current - emitted) : 0;
+    }
+
+    /** 当前每次启动LogMiner解析的scn范围大小 */
+    public long getScnWindowSize() {
+        return miningWindow.getSize();
     }
 
     private void processData(QueueData log) throws Exception {
+        if (transactionBuffer != null) {
+            processTransactionData(log);
+            readScn = log.getScn();
+            return;
+        }
+
+        if (parseExecutor != null) {
+            emit(log, log.getScn());
+            // 已提交的数据会按顺序放入队列，重新查询时不需要再读取
+            readScn = log.getScn();
+            return;
+        }
+
         LinkedList<RowData> rowDatalist = logParser.parse(log, logMinerConnection.isOracle10, rowConverter);
         RowData rowData;
         try {
             while ((rowData = rowDatalist.poll()) != null) {
-                queue.put(new QueueData(log.getScn(), rowData));
+                queue.put(rowData, log.getScn());
             }
+            readScn = log.getScn();
+        } catch (InterruptedException e) {
+            LOG.warn("put data into queue interrupted, scn = {}", log.getScn());
+            Thread.currentThread().interrupt();
         } catch (Exception e) {
             LOG.error("{}", ExceptionUtil.getErrorMessage(e));
         }
     }
 
+    /**
+     * committedOnly模式：DML按事务缓存，事务提交时按顺序发送该事务的数据，回滚时丢弃
+     */
+    private void processTransactionData(QueueData log) throws Exception {
+        ColumnRowData logData = (ColumnRowData) log.getData();
+        String operation = logData.getField("operation").asString();
+        String xid = logData.getField("xid").asString();
+
+        if (OPERATION_COMMIT.equalsIgnoreCase(operation)) {
+            if (transactionBuffer.isCommitted(xid, log.getScn())) {
+                // 恢复任务时重新读到的已经发送过的事务
+                transactionBuffer.rollback(xid);
+                return;
+            }
+            // 事务中的数据从上一个事务之后恢复，全部发送后位置才推进到当前事务，位置是事务的序号
+            long position = transactionBuffer.getCommitSequence();
+            TransactionBuffer.Transaction transaction = transactionBuffer.commit(xid, log.getScn());
+            if (transaction != null) {
+                try {
+                    transaction.forEach(data -> {
+                        String type = ((ColumnRowData) data.getData()).getField("operation").asString();
+                        if (categories.isEmpty() || categories.contains(type)) {
+                            emit(data, position);
+                        }
+                    });
+                } catch (Exception e) {
+                    // 事务只发送了一部分，只能从checkpoint恢复
+                    queue.put(new ErrorMsgRowData("send transaction failed, xid = " + xid + ", e = " + ExceptionUtil.getErrorMessage(e)), null);
+                    throw e;
+                } finally {
+                    transaction.discard();
+                }
+            }
+            emitPosition(transactionBuffer.getCommitSequence());
+        } else if (OPERATION_ROLLBACK.equalsIgnoreCase(operation)) {
+            transactionBuffer.rollback(xid);
+        } else {
+            transactionBuffer.add(xid, log, logData.getField("rowId").asString(), logData.getField("rollback").asBoolean());
+        }
+    }
+
+    /**
+     * 解析一条数据放入队列，并行解析时提交给解析线程池
+     */
+    private void emit(QueueData log, long position) throws Exception {
+        if (parseExecutor != null) {
+            pending.put(parseExecutor.submit(() -> new ParsedLog(logParser.parse(log, logMinerConnection.isOracle10, rowConverter), position)));
+            return;
+        }
+        for (RowData rowData : logParser.parse(log, logMinerConnection.isOracle10, rowConverter)) {
+            queue.put(rowData, position);
+        }
+    }
+
+    /**
+     * 只推进位置，不发送数据
+     */
+    private void emitPosition(long position) throws InterruptedException {
+        if (parseExecutor != null) {
+            pending.put(CompletableFuture.completedFuture(new ParsedLog(Collections.emptyList(), position)));
+        } else {
+            queue.putPosition(position);
+        }
+    }
+
+    /**
+     * 并行解析时按提交顺序取出解析结果放入队列，解析失败时直接让任务失败，从checkpoint中的scn恢复
+     */
+    private void collect() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                ParsedLog parsed = pending.take().get();
+                if (parsed.rows.isEmpty()) {
+                    queue.putPosition(parsed.position);
+                    continue;
+                }
+                for (RowData rowData : parsed.rows) {
+                    queue.put(rowData, parsed.position);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            String msg = ExceptionUtil.getErrorMessage(e.getCause());
+            LOG.error("parse LogMiner data error:{}", msg);
+            try {
+                queue.put(new ErrorMsgRowData("parse LogMiner data error: " + msg), null);
+            } catch (InterruptedException ex) {
+                LOG.warn("error to put exception message into queue, e = {}", ExceptionUtil.getErrorMessage(ex));
+            }
+        }
+    }
+
     public RowData getData() {
         RowData rowData = null;
         try {
             //最多阻塞100ms
-            QueueData poll = queue.poll(100, TimeUnit.MILLISECONDS);
-            if(Objects.nonNull(poll)){
-                rowData = poll.getData();
-                if (rowData instanceof ErrorMsgRowData) {
-                    throw new RuntimeException(rowData.toString());
+            rowData = queue.poll(100, TimeUnit.MILLISECONDS);
+            if (rowData instanceof ErrorMsgRowData) {
+                throw new RuntimeException(rowData.toString());
+            }
+            Long position = queue.getEmittedPosition();
+            if (position != null) {
+                if (transactionBuffer != null) {
+                    TransactionPosition committed = transactionBuffer.getPosition(position);
+                    if (committed != null) {
+                        emittedScn = committed.getCommitScn();
+                        positionManager.updatePosition(committed.getScn());
+                        positionManager.updateCommitScn(committed.getCommitScn());
+                        positionManager.updateCommittedXids(committed.getCommittedXids());
+                    }
+                } else {
+                    emittedScn = position;
+                    positionManager.updatePosition(position);
                 }
-                positionManager.updatePosition( poll.getScn());
             }
         } catch (InterruptedException e) {
             LOG.warn("Get data from queue error:", e);
         }
         return rowData;
     }
+
+    /** 一条LogMiner数据解析后的结果和位置 */
+    private static class ParsedLog {
+        private final List<RowData> rows;
+        private final long position;
+
+        private ParsedLog(List<RowData> rows, long position) {
+            this.rows = rows;
+            this.position = position;
+        }
+    }
 }
@@ -47,7 +47,6 @@ import java.nio.charset.StandardCharsets;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
@@ -63,6 +62,9 @@ public class LogParser {
 
     public static SnowflakeIdWorker idWorker = new SnowflakeIdWorker(1, 1);
 
+    /** LogMiner固定格式的SQL_REDO由RedoSqlParser解析，每个解析线程一个实例 */
+    private static final ThreadLocal<RedoSqlParser> REDO_SQL_PARSER = ThreadLocal.withInitial(RedoSqlParser::new);
+
     private LogMinerConf config;
 
     public LogParser(LogMinerConf config) {
@@ -89,67 +91,110 @@ public class LogParser {
         return str.replace("IS NULL", "= NULL").trim();
     }
 
-    private static void parseInsertStmt(Insert insert, ArrayList<EventRowData> beforeData, ArrayList<EventRowData> afterData) {
-        ArrayList<String> columnLists = new ArrayList<>();
-        for (Column column : insert.getColumns()) {
-            columnLists.add(cleanString(column.getColumnName()));
-        }
-
-        ExpressionList eList = (ExpressionList) insert.getItemsList();
-        List<Expression> valueList = eList.getExpressions();
-        int i = 0;
-        for (String key : columnLists) {
-            String value = cleanString(valueList.get(i).toString());
+    private static void parseInsertStmt(List<String> columns, List<String> values, ArrayList<EventRowData> beforeData, ArrayList<EventRowData> afterData) {
+        for (int i = 0; i < columns.size(); i++) {
+            String key = cleanString(columns.get(i));
+            String value = cleanString(values.get(i));
             afterData.add(new EventRowData(key, value, Objects.isNull(value)));
             beforeData.add(new EventRowData(key, null, true));
-            i++;
         }
     }
 
-    private static void parseUpdateStmt(Update update, ArrayList<EventRowData> beforeData, ArrayList<EventRowData> afterData, String sqlRedo) {
-        Iterator<Expression> iterator = update.getExpressions().iterator();
-        HashSet<String> columns = new HashSet<>(32);
-        for (Column c : update.getColumns()) {
-            String value = cleanString(iterator.next().toString());
-            String columnName = cleanString(c.getColumnName());
+    private static void parseUpdateStmt(List<String> columns, List<String> values, List<String> whereColumns, List<String> whereValues,
+                                        ArrayList<EventRowData> beforeData, ArrayList<EventRowData> afterData) {
+        HashSet<String> columnSet = new HashSet<>(32);
+        for (int i = 0; i < columns.size(); i++) {
+            String value = cleanString(values.get(i));
+            String columnName = cleanString(columns.get(i));
             boolean isNull = Objects.isNull(value) || value.equalsIgnoreCase("= NULL");
 
             afterData.add(new EventRowData(columnName, isNull ? null : value, isNull));
-            columns.add(columnName);
-        }
-
-        if (update.getWhere() != null) {
-            update.getWhere().accept(new ExpressionVisitorAdapter() {
-                @Override
-                public void visit(final EqualsTo expr) {
-                    String col = cleanString(expr.getLeftExpression().toString());
-                    String value = cleanString(expr.getRightExpression().toString());
-
-                    boolean isNull = Objects.isNull(value) || value.equalsIgnoreCase("= NULL");
-                    beforeData.add(new EventRowData(col,isNull ? null : value, isNull));
-                    if (!columns.contains(col)) {
-                        afterData.add(new EventRowData(col, isNull ? null : value, isNull));
-                    }
-                }
-            });
-        } else {
-            LOG.error("where is null when LogParser parse sqlRedo, sqlRedo = {}, update = {}", sqlRedo, update.toString());
+            columnSet.add(columnName);
+        }
+
+        for (int i = 0; i < whereColumns.size(); i++) {
+            String col = cleanString(whereColumns.get(i));
+            String value = cleanString(whereValues.get(i));
+
+            boolean isNull = Objects.isNull(value) || value.equalsIgnoreCase("= NULL");
+            beforeData.add(new EventRowData(col, isNull ? null : value, isNull));
+            if (!columnSet.contains(col)) {
+                afterData.add(new EventRowData(col, isNull ? null : value, isNull));
+            }
+        }
+    }
+
+    private static void parseDeleteStmt(List<String> whereColumns, List<String> whereValues, ArrayList<EventRowData> beforeData, ArrayList<EventRowData> afterData) {
+        for (int i = 0; i < whereColumns.size(); i++) {
+            String col = cleanString(whereColumns.get(i));
+            String value = cleanString(whereValues.get(i));
+            boolean isNull = Objects.isNull(value) || value.equalsIgnoreCase("= NULL");
+            beforeData.add(new EventRowData(col, isNull ? null : value, isNull));
+            afterData.add(new EventRowData(col, null, true));
         }
     }
 
-    private static void parseDeleteStmt(Delete delete, ArrayList<EventRowData> beforeData, ArrayList<EventRowData> afterData) {
-        delete.getWhere().accept(new ExpressionVisitorAdapter() {
+    /**
+     * 收集where条件中所有等值比较的字段和值
+     */
+    private static void collectWhere(Expression where, List<String> whereColumns, List<String> whereValues) {
+        where.accept(new ExpressionVisitorAdapter() {
             @Override
             public void visit(final EqualsTo expr) {
-                String col = cleanString(expr.getLeftExpression().toString());
-                String value = cleanString(expr.getRightExpression().toString());
-                boolean isNull = Objects.isNull(value) || value.equalsIgnoreCase("= NULL");
-                beforeData.add(new EventRowData(col, isNull ? null : value, isNull));
-                afterData.add(new EventRowData(col, null, true));
+                whereColumns.add(expr.getLeftExpression().toString());
+                whereValues.add(expr.getRightExpression().toString());
             }
         });
     }
 
+    /**
+     * 使用JSqlParser解析RedoSqlParser无法识别的语句
+     */
+    private static void parseByJSqlParser(String sqlRedo, ArrayList<EventRowData> beforeData, ArrayList<EventRowData> afterData) throws JSQLParserException {
+        Statement stmt;
+        try {
+            stmt = CCJSqlParserUtil.parse(sqlRedo);
+        } catch (JSQLParserException e) {
+            LOG.info("sqlRedo = {}", sqlRedo);
+            stmt = CCJSqlParserUtil.parse(sqlRedo.replace("\\'", "\\ '"));
+        }
+
+        List<String> columns = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        List<String> whereColumns = new ArrayList<>();
+        List<String> whereValues = new ArrayList<>();
+        if (stmt instanceof Insert) {
+            Insert insert = (Insert) stmt;
+            for (Column column : insert.getColumns()) {
+                columns.add(column.getColumnName());
+            }
+            for (Expression expression : ((ExpressionList) insert.getItemsList()).getExpressions()) {
+                values.add(expression.toString());
+            }
+            parseInsertStmt(columns, values, beforeData, afterData);
+        } else if (stmt instanceof Update) {
+            Update update = (Update) stmt;
+            for (Column column : update.getColumns()) {
+                columns.add(column.getColumnName());
+            }
+            for (Expression expression : update.getExpressions()) {
+                values.add(expression.toString());
+            }
+            if (update.getWhere() != null) {
+                collectWhere(update.getWhere(), whereColumns, whereValues);
+            } else {
+                LOG.error("where is null when LogParser parse sqlRedo, sqlRedo = {}, update = {}", sqlRedo, update.toString());
+            }
+            parseUpdateStmt(columns, values, whereColumns, whereValues, beforeData, afterData);
+        } else if (stmt instanceof Delete) {
+            collectWhere(((Delete) stmt).getWhere(), whereColumns, whereValues);
+            parseDeleteStmt(whereColumns, whereValues, beforeData, afterData);
+        }
+    }
+
+    /**
+     * 解析LogMiner的一条数据，可以在多个线程中同时调用
+     */
     public LinkedList<RowData> parse(QueueData pair, boolean isOracle10, AbstractCDCRowConverter rowConverter) throws Exception {
         ColumnRowData logData = (ColumnRowData) pair.getData();
 
@@ -160,26 +205,21 @@ public class LogParser {
         String sqlRedo = sqlLog.replace("IS NULL", "= NULL");
         Timestamp timestamp = logData.getField("opTime").asTimestamp();
 
-        Statement stmt;
-        try {
-            stmt = CCJSqlParserUtil.parse(sqlRedo);
-        } catch (JSQLParserException e) {
-            LOG.info("sqlRedo = {}", sqlRedo);
-            stmt = CCJSqlParserUtil.parse(sqlRedo.replace("\\'", "\\ '"));
-        }
-
         ArrayList<EventRowData> afterEventRowDataList = new ArrayList<>();
         ArrayList<EventRowData> EventRowDataList = new ArrayList<>();
 
-        if (stmt instanceof Insert) {
-            parseInsertStmt((Insert) stmt, EventRowDataList, afterEventRowDataList);
-        } else if (stmt instanceof Update) {
-            parseUpdateStmt((Update) stmt, EventRowDataList, afterEventRowDataList, sqlRedo);
-        } else if (stmt instanceof Delete) {
-            parseDeleteStmt((Delete) stmt, EventRowDataList, afterEventRowDataList);
+        RedoSqlParser parser = REDO_SQL_PARSER.get();
+        RedoSqlParser.Type type = parser.parse(sqlRedo);
+        if (type == RedoSqlParser.Type.INSERT) {
+            parseInsertStmt(parser.getColumns(), parser.getValues(), EventRowDataList, afterEventRowDataList);
+        } else if (type == RedoSqlParser.Type.UPDATE) {
+            parseUpdateStmt(parser.getColumns(), parser.getValues(), parser.getWhereColumns(), parser.getWhereValues(), EventRowDataList, afterEventRowDataList);
+        } else if (type == RedoSqlParser.Type.DELETE) {
+            parseDeleteStmt(parser.getWhereColumns(), parser.getWhereValues(), EventRowDataList, afterEventRowDataList);
+        } else {
+            parseByJSqlParser(sqlRedo, EventRowDataList, afterEventRowDataList);
         }
 
-
         EventRow eventRow = new EventRow(EventRowDataList, afterEventRowDataList, pair.getScn(), operation, schema, tableName, idWorker.nextId(), timestamp);
 
         return rowConverter.toInternal(eventRow);
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.connector.oraclelogminer.listener;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * LogMiner每次解析的scn窗口。
+ *
+ * <p>窗口大小根据上一个窗口读取的数据条数和耗时调整：数据多或耗时长时减半，追赶历史数据且数据少时翻倍。
+ * 追上当前scn且没有数据时逐步增加下次查询前的等待时间，有数据时立即查询下一个窗口。
+ *
+ * <p>LGWR至少每3秒把日志缓冲区写入在线日志，查询时还没写入的数据会在之后的查询中出现。所以只有在某个scn成为当前scn
+ * 3秒以后解析过的窗口，才能确定该scn之前的数据都已经读到，下一个窗口才能从这里开始，见{@link #getSafeScn}。
+ */
+public class MiningWindow {
+
+    static final long MIN_SIZE = 1000L;
+    static final long MIN_IDLE_MILLIS = 200L;
+    static final long MAX_IDLE_MILLIS = 5000L;
+    static final long LOG_FLUSH_MILLIS = 3000L;
+
+    private final long maxSize;
+    /** 一个窗口期望读取的最大数据条数 */
+    private final long targetRows;
+    /** 一个窗口期望的最长耗时 */
+    private final long targetMillis;
+
+    private volatile long size;
+    private long idleMillis;
+
+    /** 观察到的当前scn和观察时间，按时间排序 */
+    private final Deque<long[]> samples = new ArrayDeque<>();
+
+    public MiningWindow(long initialSize, long maxSize, long targetRows, long targetMillis) {
+        this.maxSize = Math.max(maxSize, MIN_SIZE);
+        this.size = Math.min(Math.max(initialSize, MIN_SIZE), this.maxSize);
+        this.targetRows = targetRows;
+        this.targetMillis = targetMillis;
+    }
+
+    /**
+     * 计算窗口的结束scn
+     * @param startScn 窗口起始scn
+     * @param currentScn 数据库当前scn
+     * @param now 当前时间
+     * @return 结束scn，不超过当前scn
+     */
+    public long getEnd(long startScn, long currentScn, long now) {
+        long[] last = samples.peekLast();
+        if (last == null || last[0] < currentScn) {
+            samples.addLast(new long[]{currentScn, now});
+        }
+        return Math.min(startScn + size, currentScn);
+    }
+
+    /**
+     * 一个窗口读取完成后调整窗口大小
+     * @param rows 读取的数据条数
+     * @param elapsedMillis 读取耗时
+     * @param reachedHead 窗口是否到达当前scn
+     * @return 下次查询前需要等待的毫秒数
+     */
+    public long complete(long rows, long elapsedMillis, boolean reachedHead) {
+        if (rows > targetRows || elapsedMillis > targetMillis) {
+            size = Math.max(MIN_SIZE, size / 2);
+        } else if (!reachedHead && rows < targetRows / 4) {
+            size = Math.min(maxSize, size * 2);
+        }
+
+        if (reachedHead && rows == 0) {
+            idleMillis = idleMillis == 0 ? MIN_IDLE_MILLIS : Math.min(MAX_IDLE_MILLIS, idleMillis * 2);
+            return idleMillis;
+        }
+        idleMillis = 0;
+        return 0;
+    }
+
+    /**
+     * 返回一个可以作为下一个窗口起点的scn，该scn之前的数据在minedAt时刻开始的解析中已经全部写入日志文件
+     * @param endScn 已经解析完成的窗口的结束scn
+     * @param minedAt 该窗口开始查询的时间
+     * @return 没有满足条件的scn时返回0
+     */
+    public long getSafeScn(long endScn, long minedAt) {
+        long flushedAt = minedAt - LOG_FLUSH_MILLIS;
+        // 只保留最后一个满足条件的样本，之后的查询仍然可以使用
+        while (samples.size() > 1) {
+            long[] first = samples.pollFirst();
+            if (samples.peekFirst()[1] > flushedAt) {
+                samples.addFirst(first);
+                break;
+            }
+        }
+        long[] first = samples.peekFirst();
+        return first != null && first[1] <= flushedAt ? Math.min(first[0], endScn) : 0;
+    }
+
+    /** 当前窗口大小 */
+    public long getSize() {
+        return size;
+    }
+}
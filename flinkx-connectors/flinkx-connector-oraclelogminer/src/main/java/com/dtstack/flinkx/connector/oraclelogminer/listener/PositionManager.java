@@ -19,6 +19,8 @@
 
 package com.dtstack.flinkx.connector.oraclelogminer.listener;
 
+import java.util.Set;
+
 /**
  * @author jiangbo
  * @date 2020/3/27
@@ -27,6 +29,12 @@ public class PositionManager {
 
     private Long scn;
 
+    /** committedOnly模式下已经发送到下游的最后一个事务的提交scn，其他模式为null */
+    private Long commitScn;
+
+    /** 提交scn等于commitScn且已经发送到下游的事务 */
+    private Set<String> committedXids;
+
     public void updatePosition(Long scn) {
         this.scn = scn;
     }
@@ -34,4 +42,20 @@ public class PositionManager {
     public Long getPosition() {
         return this.scn;
     }
+
+    public void updateCommitScn(Long commitScn) {
+        this.commitScn = commitScn;
+    }
+
+    public Long getCommitScn() {
+        return commitScn;
+    }
+
+    public void updateCommittedXids(Set<String> committedXids) {
+        this.committedXids = committedXids;
+    }
+
+    public Set<String> getCommittedXids() {
+        return committedXids;
+    }
 }
@@ -0,0 +1,322 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.connector.oraclelogminer.listener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 解析LogMiner生成的SQL_REDO，只支持LogMiner输出的固定格式：
+ * <pre>
+ * insert into "SCHEMA"."TABLE"("C1","C2") values ('1',TO_DATE('2021-01-01 00:00:00', 'YYYY-MM-DD HH24:MI:SS'));
+ * update "SCHEMA"."TABLE" set "C2" = 'b' where "C1" = '1' and "C2" = 'a' and ROWID = 'AAAx';
+ * delete from "SCHEMA"."TABLE" where "C1" = '1' and "C2" = 'a' and ROWID = 'AAAx';
+ * </pre>
+ * 字段名和值按JSqlParser中toString的格式返回，无法识别的语句返回null，由调用方交给JSqlParser解析。
+ * 非线程安全，每个线程使用一个实例。
+ */
+public class RedoSqlParser {
+
+    public enum Type {
+        INSERT, UPDATE, DELETE
+    }
+
+    /** insert的字段和值，update中set的字段和值 */
+    private final List<String> columns = new ArrayList<>(32);
+    private final List<String> values = new ArrayList<>(32);
+    /** update、delete中where条件的字段和值 */
+    private final List<String> whereColumns = new ArrayList<>(32);
+    private final List<String> whereValues = new ArrayList<>(32);
+
+    private final StringBuilder builder = new StringBuilder(64);
+
+    private String sql;
+    private int pos;
+
+    /**
+     * 解析一条SQL_REDO
+     * @param sql SQL_REDO
+     * @return 语句类型，无法识别时返回null
+     */
+    public Type parse(String sql) {
+        this.sql = sql;
+        this.pos = 0;
+        columns.clear();
+        values.clear();
+        whereColumns.clear();
+        whereValues.clear();
+
+        Type type;
+        if (matchKeyword("insert")) {
+            type = parseInsert() ? Type.INSERT : null;
+        } else if (matchKeyword("update")) {
+            type = parseUpdate() ? Type.UPDATE : null;
+        } else if (matchKeyword("delete")) {
+            type = parseDelete() ? Type.DELETE : null;
+        } else {
+            return null;
+        }
+        if (type == null) {
+            return null;
+        }
+
+        skipWhitespace();
+        if (pos < sql.length() && sql.charAt(pos) == ';') {
+            pos++;
+            skipWhitespace();
+        }
+        return pos == sql.length() ? type : null;
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    public List<String> getValues() {
+        return values;
+    }
+
+    public List<String> getWhereColumns() {
+        return whereColumns;
+    }
+
+    public List<String> getWhereValues() {
+        return whereValues;
+    }
+
+    private boolean parseInsert() {
+        if (!matchKeyword("into") || !skipTableName() || !matchChar('(')) {
+            return false;
+        }
+        do {
+            String column = readIdentifier();
+            if (column == null) {
+                return false;
+            }
+            columns.add(column);
+        } while (matchChar(','));
+
+        if (!matchChar(')') || !matchKeyword("values") || !matchChar('(')) {
+            return false;
+        }
+        do {
+            String value = readValue();
+            if (value == null) {
+                return false;
+            }
+            values.add(value);
+        } while (matchChar(','));
+
+        return matchChar(')') && columns.size() == values.size();
+    }
+
+    private boolean parseUpdate() {
+        if (!skipTableName() || !matchKeyword("set")) {
+            return false;
+        }
+        do {
+            String column = readIdentifier();
+            if (column == null || !matchChar('=')) {
+                return false;
+            }
+            String value = readValue();
+            if (value == null) {
+                return false;
+            }
+            columns.add(column);
+            values.add(value);
+        } while (matchChar(','));
+
+        return !matchKeyword("where") || parseWhere();
+    }
+
+    private boolean parseDelete() {
+        return matchKeyword("from") && skipTableName() && matchKeyword("where") && parseWhere();
+    }
+
+    /**
+     * 解析 "C1" = 'a' and "C2" = NULL and ROWID = 'AAAx' 格式的where条件
+     */
+    private boolean parseWhere() {
+        do {
+            String column = readIdentifier();
+            if (column == null || !matchChar('=')) {
+                return false;
+            }
+            String value = readValue();
+            if (value == null) {
+                return false;
+            }
+            whereColumns.add(column);
+            whereValues.add(value);
+        } while (matchKeyword("and"));
+        return true;
+    }
+
+    private boolean skipTableName() {
+        do {
+            if (readIdentifier() == null) {
+                return false;
+            }
+        } while (matchChar('.'));
+        return true;
+    }
+
+    /**
+     * 读取字段名，带双引号的字段名保留双引号
+     */
+    private String readIdentifier() {
+        skipWhitespace();
+        int start = pos;
+        if (pos < sql.length() && sql.charAt(pos) == '"') {
+            int end = sql.indexOf('"', pos + 1);
+            if (end < 0) {
+                return null;
+            }
+            pos = end + 1;
+            return sql.substring(start, pos);
+        }
+        while (pos < sql.length() && isIdentifierPart(sql.charAt(pos))) {
+            pos++;
+        }
+        return pos == start ? null : sql.substring(start, pos);
+    }
+
+    /**
+     * 读取一个值：字符串、数字、NULL、TIMESTAMP '...'、TO_DATE('...', '...')等函数调用
+     * @return 无法识别时返回null
+     */
+    private String readValue() {
+        skipWhitespace();
+        if (pos >= sql.length()) {
+            return null;
+        }
+        int start = pos;
+        char c = sql.charAt(pos);
+        if (c == '\'') {
+            return skipString() ? sql.substring(start, pos) : null;
+        }
+        if (c == '-' || c == '.' || (c >= '0' && c <= '9')) {
+            pos++;
+            while (pos < sql.length() && isNumberPart(sql.charAt(pos))) {
+                pos++;
+            }
+            return sql.substring(start, pos);
+        }
+
+        String name = readIdentifier();
+        if (name == null || name.charAt(0) == '"') {
+            return null;
+        }
+        skipWhitespace();
+        if (pos < sql.length() && sql.charAt(pos) == '(') {
+            return readFunction(name);
+        }
+        if (pos < sql.length() && sql.charAt(pos) == '\'') {
+            // TIMESTAMP '2021-01-01 00:00:00'，和JSqlParser一样输出大写的类型名
+            if ("TIMESTAMP".equalsIgnoreCase(name) || "DATE".equalsIgnoreCase(name) || "TIME".equalsIgnoreCase(name)) {
+                int literalStart = pos;
+                return skipString() ? name.toUpperCase() + ' ' + sql.substring(literalStart, pos) : null;
+            }
+            return null;
+        }
+        return "NULL".equalsIgnoreCase(name) ? name : null;
+    }
+
+    /**
+     * 读取函数调用，参数之间统一使用", "分隔，和JSqlParser的输出一致
+     */
+    private String readFunction(String name) {
+        // 跳过'('
+        pos++;
+        List<String> args = new ArrayList<>(2);
+        if (!matchChar(')')) {
+            do {
+                String arg = readValue();
+                if (arg == null) {
+                    return null;
+                }
+                args.add(arg);
+            } while (matchChar(','));
+            if (!matchChar(')')) {
+                return null;
+            }
+        }
+
+        builder.setLength(0);
+        builder.append(name).append('(');
+        for (int i = 0; i < args.size(); i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(args.get(i));
+        }
+        return builder.append(')').toString();
+    }
+
+    /**
+     * 跳过单引号字符串，字符串中的单引号写作''
+     */
+    private boolean skipString() {
+        pos++;
+        while (pos < sql.length()) {
+            if (sql.charAt(pos++) == '\'') {
+                if (pos < sql.length() && sql.charAt(pos) == '\'') {
+                    pos++;
+                } else {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean matchChar(char c) {
+        skipWhitespace();
+        if (pos < sql.length() && sql.charAt(pos) == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean matchKeyword(String keyword) {
+        skipWhitespace();
+        int end = pos + keyword.length();
+        if (sql.regionMatches(true, pos, keyword, 0, keyword.length())
+                && (end == sql.length() || !isIdentifierPart(sql.charAt(end)))) {
+            pos = end;
+            return true;
+        }
+        return false;
+    }
+
+    private void skipWhitespace() {
+        while (pos < sql.length() && Character.isWhitespace(sql.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == '$' || c == '#';
+    }
+
+    private static boolean isNumberPart(char c) {
+        return (c >= '0' && c <= '9') || c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-';
+    }
+}
@@ -0,0 +1,470 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.connector.oraclelogminer.listener;
+
+import com.dtstack.flinkx.connector.oraclelogminer.entity.QueueData;
+import com.dtstack.flinkx.connector.oraclelogminer.entity.TransactionPosition;
+import com.dtstack.flinkx.element.ColumnRowData;
+import com.dtstack.flinkx.util.ExceptionUtil;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * committedOnly模式下按事务(XID)缓存LogMiner数据，事务提交后才把数据交给解析线程，回滚的事务直接丢弃。
+ *
+ * <p>内存中缓存的数据超过maxMemoryBytes时，把占用内存最多的事务写入spillPath下的临时文件，之后该事务的数据直接追加到文件中。
+ * 文件在事务提交、回滚或者buffer关闭时删除。
+ * 部分回滚(savepoint)产生的ROLLBACK=1的数据会抵消同一事务中同一ROWID最近的一条数据。
+ *
+ * <p>只有LogMiner读取线程调用，{@link #getPosition(long)}除外。
+ */
+public class TransactionBuffer implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TransactionBuffer.class);
+
+    private static final byte TYPE_DATA = 0;
+    private static final byte TYPE_TOMBSTONE = 1;
+
+    /** 一条数据除sql之外的估算内存大小 */
+    private static final int ROW_OVERHEAD_BYTES = 256;
+
+    private final long maxMemoryBytes;
+    private final File spillDir;
+
+    /** 未提交的事务，按第一条数据的scn排序 */
+    private final LinkedHashMap<String, Transaction> transactions = new LinkedHashMap<>(64);
+    private long memoryBytes;
+
+    /** 已经处理的最后一个事务的提交scn */
+    private long committedScn;
+
+    /** 提交scn等于committedScn且已经处理的事务，为null时表示提交scn等于committedScn的事务都已经发送过 */
+    private Set<String> committedXids;
+
+    /** 已经处理的事务数，作为数据在队列中的位置，同一个scn可能有多个事务提交，不能直接使用提交scn */
+    private long commitSequence;
+
+    /** 事务序号 -> 发送完该事务后checkpoint记录的位置，读取线程写入，task线程读取 */
+    private final ConcurrentSkipListMap<Long, TransactionPosition> positions = new ConcurrentSkipListMap<>();
+
+    /**
+     * @param spillPath 大事务写入磁盘的目录，为空时使用当前进程(TaskManager)的java.io.tmpdir
+     * @param committedXids 提交scn等于committedScn且已经发送过的事务，为null时认为这些事务都已经发送过
+     */
+    public TransactionBuffer(long maxMemoryBytes, String spillPath, long committedScn, Set<String> committedXids, long restartScn) {
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.spillDir = new File(StringUtils.isBlank(spillPath) ? System.getProperty("java.io.tmpdir") : spillPath);
+        this.committedScn = committedScn;
+        this.committedXids = committedXids == null ? null : new HashSet<>(committedXids);
+        positions.put(commitSequence, new TransactionPosition(restartScn, committedScn, committedXids));
+    }
+
+    /**
+     * 缓存一条DML数据
+     * @param xid 事务id
+     * @param data LogMiner数据
+     * @param rowId 数据的ROWID
+     * @param rollback 是否为回滚产生的数据
+     */
+    public void add(String xid, QueueData data, String rowId, boolean rollback) throws IOException {
+        Transaction transaction = transactions.get(xid);
+        if (rollback) {
+            if (transaction != null) {
+                memoryBytes -= transaction.undo(rowId);
+            }
+            return;
+        }
+
+        if (transaction == null) {
+            transaction = new Transaction(xid, data.getScn());
+            transactions.put(xid, transaction);
+        }
+        memoryBytes += transaction.add(data, rowId);
+
+        while (memoryBytes > maxMemoryBytes && spillLargest()) {
+            LOG.debug("transaction buffer is full, memoryBytes = {}", memoryBytes);
+        }
+    }
+
+    /**
+     * 事务提交，返回该事务缓存的数据，调用方发送完数据后需要调用{@link Transaction#discard()}
+     * @param xid 事务id
+     * @param commitScn 提交scn
+     * @return 没有缓存数据时返回null
+     */
+    public Transaction commit(String xid, long commitScn) {
+        Transaction transaction = transactions.remove(xid);
+        if (transaction != null) {
+            memoryBytes -= transaction.memoryBytes;
+        }
+        if (commitScn > committedScn) {
+            committedScn = commitScn;
+            committedXids = new HashSet<>();
+        }
+        if (committedXids != null) {
+            committedXids.add(xid);
+        }
+        positions.put(++commitSequence, new TransactionPosition(getOldestScn(commitScn), committedScn, committedXids));
+        return transaction;
+    }
+
+    /**
+     * 事务回滚，丢弃缓存的数据
+     * @param xid 事务id
+     */
+    public void rollback(String xid) {
+        Transaction transaction = transactions.remove(xid);
+        if (transaction != null) {
+            memoryBytes -= transaction.memoryBytes;
+            transaction.discard();
+        }
+    }
+
+    /** 已经处理的最后一个事务的提交scn */
+    public long getCommittedScn() {
+        return committedScn;
+    }
+
+    /**
+     * 事务是否已经处理过，恢复任务时会重新读到已经发送过的事务
+     * @param xid 事务id
+     * @param commitScn 提交scn
+     */
+    public boolean isCommitted(String xid, long commitScn) {
+        if (commitScn != committedScn) {
+            return commitScn < committedScn;
+        }
+        return committedXids == null || committedXids.contains(xid);
+    }
+
+    /** 已经处理的事务数，事务中的数据以处理该事务之前的序号作为位置，处理完成后以新的序号作为位置 */
+    public long getCommitSequence() {
+        return commitSequence;
+    }
+
+    /**
+     * 发送完序号为sequence的事务后checkpoint记录的位置，之前事务的记录会被清除
+     * @param sequence 已经发送到下游的事务的序号
+     */
+    public TransactionPosition getPosition(long sequence) {
+        TransactionPosition position = positions.get(sequence);
+        positions.headMap(sequence).clear();
+        return position;
+    }
+
+    /** 未提交的事务数 */
+    public int size() {
+        return transactions.size();
+    }
+
+    @Override
+    public void close() {
+        for (Transaction transaction : transactions.values()) {
+            transaction.discard();
+        }
+        transactions.clear();
+        memoryBytes = 0;
+    }
+
+    /**
+     * 恢复时需要重新读取最早的未提交事务，没有未提交事务时从当前位置恢复
+     */
+    private long getOldestScn(long scn) {
+        Iterator<Transaction> iterator = transactions.values().iterator();
+        if (iterator.hasNext()) {
+            return Math.min(iterator.next().firstScn - 1, scn);
+        }
+        return scn;
+    }
+
+    /**
+     * 把内存中占用最多的事务写入磁盘
+     * @return 没有可以写入磁盘的事务时返回false
+     */
+    private boolean spillLargest() throws IOException {
+        Transaction largest = null;
+        for (Transaction transaction : transactions.values()) {
+            if (transaction.memoryBytes > 0 && (largest == null || transaction.memoryBytes > largest.memoryBytes)) {
+                largest = transaction;
+            }
+        }
+        if (largest == null) {
+            return false;
+        }
+        memoryBytes -= largest.memoryBytes;
+        largest.spill(spillDir);
+        LOG.info("spill transaction [{}] to file {}, open transactions = {}", largest.xid, largest.spillFile, transactions.size());
+        return true;
+    }
+
+    private static long estimateSize(QueueData data) {
+        String sqlLog = ((ColumnRowData) data.getData()).getField("sqlLog").asString();
+        return ROW_OVERHEAD_BYTES + (sqlLog == null ? 0 : 2L * sqlLog.length());
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** 处理事务中的一条数据 */
+    public interface RowHandler {
+        void accept(QueueData data) throws Exception;
+    }
+
+    /**
+     * 一个未提交的事务，数据保存在内存或磁盘文件中
+     */
+    public static class Transaction {
+        private final String xid;
+        private final long firstScn;
+
+        private final List<QueueData> rows = new ArrayList<>();
+        private final List<String> rowIds = new ArrayList<>();
+        private long memoryBytes;
+
+        private File spillFile;
+        private DataOutputStream out;
+        private boolean hasTombstone;
+
+        private Transaction(String xid, long firstScn) {
+            this.xid = xid;
+            this.firstScn = firstScn;
+        }
+
+        /** @return 增加的内存大小 */
+        private long add(QueueData data, String rowId) throws IOException {
+            if (out != null) {
+                writeData(data, rowId);
+                return 0;
+            }
+            long size = estimateSize(data);
+            rows.add(data);
+            rowIds.add(rowId);
+            memoryBytes += size;
+            return size;
+        }
+
+        /**
+         * 抵消同一ROWID最近的一条数据
+         * @return 释放的内存大小
+         */
+        private long undo(String rowId) throws IOException {
+            if (out != null) {
+                out.writeByte(TYPE_TOMBSTONE);
+                writeString(out, rowId);
+                hasTombstone = true;
+                return 0;
+            }
+            for (int i = rowIds.size() - 1; i >= 0; i--) {
+                if (rowId != null && rowId.equals(rowIds.get(i))) {
+                    long size = estimateSize(rows.remove(i));
+                    rowIds.remove(i);
+                    memoryBytes -= size;
+                    return size;
+                }
+            }
+            return 0;
+        }
+
+        private void spill(File dir) throws IOException {
+            if (!dir.exists() && !dir.mkdirs()) {
+                throw new IOException("create spill directory failed: " + dir);
+            }
+            spillFile = File.createTempFile("logminer-" + xid + "-", ".spill", dir);
+            try {
+                out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(spillFile), 64 * 1024));
+                for (int i = 0; i < rows.size(); i++) {
+                    writeData(rows.get(i), rowIds.get(i));
+                }
+            } catch (IOException e) {
+                // 写入失败时内存中的数据还在，删除文件后事务仍然保存在内存中
+                closeAndDeleteSpillFile();
+                throw e;
+            }
+            rows.clear();
+            rowIds.clear();
+            memoryBytes = 0;
+        }
+
+        private void writeData(QueueData data, String rowId) throws IOException {
+            ColumnRowData logData = (ColumnRowData) data.getData();
+            Timestamp opTime = logData.getField("opTime").asTimestamp();
+            out.writeByte(TYPE_DATA);
+            out.writeLong(data.getScn());
+            writeString(out, logData.getField("schema").asString());
+            writeString(out, logData.getField("tableName").asString());
+            writeString(out, logData.getField("operation").asString());
+            writeString(out, logData.getField("sqlLog").asString());
+            out.writeLong(opTime.getTime());
+            out.writeInt(opTime.getNanos());
+            writeString(out, rowId);
+        }
+
+        /**
+         * 按顺序处理事务中的数据，磁盘中的数据逐条读取
+         */
+        public void forEach(RowHandler handler) throws Exception {
+            if (out == null) {
+                for (QueueData row : rows) {
+                    handler.accept(row);
+                }
+                return;
+            }
+
+            out.close();
+            out = null;
+            BitSet undone = hasTombstone ? findUndone() : new BitSet();
+            try (DataInputStream in = openSpillFile()) {
+                int index = 0;
+                while (true) {
+                    byte type;
+                    try {
+                        type = in.readByte();
+                    } catch (EOFException e) {
+                        break;
+                    }
+                    if (type == TYPE_TOMBSTONE) {
+                        readString(in);
+                        continue;
+                    }
+                    long scn = in.readLong();
+                    String schema = readString(in);
+                    String tableName = readString(in);
+                    String operation = readString(in);
+                    String sqlLog = readString(in);
+                    Timestamp opTime = new Timestamp(in.readLong());
+                    opTime.setNanos(in.readInt());
+                    readString(in);
+                    if (!undone.get(index++)) {
+                        handler.accept(new QueueData(scn, LogMinerConnection.buildLogData(schema, tableName, operation, sqlLog, opTime)));
+                    }
+                }
+            }
+        }
+
+        /**
+         * 第一遍读取文件，找出被部分回滚抵消的数据的序号
+         */
+        private BitSet findUndone() throws IOException {
+            BitSet undone = new BitSet();
+            Map<String, Deque<Integer>> indexes = new HashMap<>(64);
+            try (DataInputStream in = openSpillFile()) {
+                int index = 0;
+                while (true) {
+                    byte type;
+                    try {
+                        type = in.readByte();
+                    } catch (EOFException e) {
+                        break;
+                    }
+                    if (type == TYPE_TOMBSTONE) {
+                        Deque<Integer> deque = indexes.get(readString(in));
+                        if (deque != null && !deque.isEmpty()) {
+                            undone.set(deque.pop());
+                        }
+                        continue;
+                    }
+                    in.skipBytes(8);
+                    for (int i = 0; i < 4; i++) {
+                        readString(in);
+                    }
+                    in.skipBytes(12);
+                    String rowId = readString(in);
+                    if (rowId != null) {
+                        indexes.computeIfAbsent(rowId, k -> new ArrayDeque<>()).push(index);
+                    }
+                    index++;
+                }
+            }
+            return undone;
+        }
+
+        private DataInputStream openSpillFile() throws IOException {
+            return new DataInputStream(new BufferedInputStream(new FileInputStream(spillFile), 64 * 1024));
+        }
+
+        /**
+         * 释放事务占用的内存并删除磁盘文件
+         */
+        public void discard() {
+            rows.clear();
+            rowIds.clear();
+            memoryBytes = 0;
+            closeAndDeleteSpillFile();
+        }
+
+        private void closeAndDeleteSpillFile() {
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException e) {
+                    LOG.warn("close spill file {} error, e = {}", spillFile, ExceptionUtil.getErrorMessage(e));
+                }
+                out = null;
+            }
+            if (spillFile != null) {
+                if (spillFile.exists() && !spillFile.delete()) {
+                    LOG.warn("delete spill file {} failed", spillFile);
+                }
+                spillFile = null;
+            }
+        }
+    }
+}
@@ -52,6 +52,18 @@ public class LogminerOptions {
                     .defaultValue(1000)
                     .withDescription("Oracle LogMiner fetchSize.");
 
+    public static final ConfigOption<Integer> QUEUE_SIZE =
+            ConfigOptions.key("queueSize")
+                    .intType()
+                    .defaultValue(4096)
+                    .withDescription("Oracle LogMiner queueSize.");
+
+    public static final ConfigOption<Integer> PARSE_THREAD_SIZE =
+            ConfigOptions.key("parseThreadSize")
+                    .intType()
+                    .defaultValue(1)
+                    .withDescription("Oracle LogMiner redo sql parse thread size.");
+
     public static final ConfigOption<String> CAT =
             ConfigOptions.key("cat")
                     .stringType()
@@ -95,4 +107,40 @@ public class LogminerOptions {
                     .booleanType()
                     .defaultValue(false)
                     .withDescription("Oracle LogMiner supportAutoAddLog.");
+
+    public static final ConfigOption<Boolean> COMMITTED_ONLY =
+            ConfigOptions.key("committedOnly")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription("Oracle LogMiner only emit data of committed transactions.");
+
+    public static final ConfigOption<Integer> TRANSACTION_BUFFER_SIZE =
+            ConfigOptions.key("transactionBufferSize")
+                    .intType()
+                    .defaultValue(256)
+                    .withDescription("Oracle LogMiner max memory(MB) of uncommitted transactions.");
+
+    public static final ConfigOption<String> SPILL_PATH =
+            ConfigOptions.key("spillPath")
+                    .stringType()
+                    .noDefaultValue()
+                    .withDescription("Oracle LogMiner directory for spilled transactions.");
+
+    public static final ConfigOption<Long> SCN_WINDOW_SIZE =
+            ConfigOptions.key("scnWindowSize")
+                    .longType()
+                    .defaultValue(100000L)
+                    .withDescription("Oracle LogMiner initial scn range of each mining.");
+
+    public static final ConfigOption<Long> MAX_SCN_WINDOW_SIZE =
+            ConfigOptions.key("maxScnWindowSize")
+                    .longType()
+                    .defaultValue(10000000L)
+                    .withDescription("Oracle LogMiner max scn range of each mining.");
+
+    public static final ConfigOption<Boolean> PREFETCH_WINDOW =
+            ConfigOptions.key("prefetchWindow")
+                    .booleanType()
+                    .defaultValue(true)
+                    .withDescription("Oracle LogMiner start mining next scn range while reading current range.");
 }
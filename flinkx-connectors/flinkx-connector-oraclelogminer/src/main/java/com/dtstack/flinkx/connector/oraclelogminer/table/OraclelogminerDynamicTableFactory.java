@@ -60,6 +60,8 @@ public class OraclelogminerDynamicTableFactory implements DynamicTableSourceFact
     public Set<ConfigOption<?>> optionalOptions() {
         Set<ConfigOption<?>> options = new HashSet<>();
         options.add(LogminerOptions.FETCHSIZE);
+        options.add(LogminerOptions.QUEUE_SIZE);
+        options.add(LogminerOptions.PARSE_THREAD_SIZE);
         options.add(LogminerOptions.CAT);
         options.add(LogminerOptions.POSITION);
         options.add(LogminerOptions.START_TIME);
@@ -67,6 +69,12 @@ public class OraclelogminerDynamicTableFactory implements DynamicTableSourceFact
         options.add(LogminerOptions.TABLE);
         options.add(LogminerOptions.QUERY_TIMEOUT);
         options.add(LogminerOptions.SUPPORT_AUTO_LOG);
+        options.add(LogminerOptions.COMMITTED_ONLY);
+        options.add(LogminerOptions.TRANSACTION_BUFFER_SIZE);
+        options.add(LogminerOptions.SPILL_PATH);
+        options.add(LogminerOptions.SCN_WINDOW_SIZE);
+        options.add(LogminerOptions.MAX_SCN_WINDOW_SIZE);
+        options.add(LogminerOptions.PREFETCH_WINDOW);
         options.add(JsonOptions.TIMESTAMP_FORMAT);
         return options;
     }
@@ -111,8 +119,16 @@ public class OraclelogminerDynamicTableFactory implements DynamicTableSourceFact
         logMinerConf.setCat(config.get(LogminerOptions.CAT));
 
         logMinerConf.setFetchSize(config.get(LogminerOptions.FETCHSIZE));
+        logMinerConf.setQueueSize(config.get(LogminerOptions.QUEUE_SIZE));
+        logMinerConf.setParseThreadSize(config.get(LogminerOptions.PARSE_THREAD_SIZE));
         logMinerConf.setQueryTimeout(config.get(LogminerOptions.QUERY_TIMEOUT));
         logMinerConf.setSupportAutoAddLog(config.get(LogminerOptions.SUPPORT_AUTO_LOG));
+        logMinerConf.setCommittedOnly(config.get(LogminerOptions.COMMITTED_ONLY));
+        logMinerConf.setTransactionBufferSize(config.get(LogminerOptions.TRANSACTION_BUFFER_SIZE));
+        config.getOptional(LogminerOptions.SPILL_PATH).ifPresent(logMinerConf::setSpillPath);
+        logMinerConf.setScnWindowSize(config.get(LogminerOptions.SCN_WINDOW_SIZE));
+        logMinerConf.setMaxScnWindowSize(config.get(LogminerOptions.MAX_SCN_WINDOW_SIZE));
+        logMinerConf.setPrefetchWindow(config.get(LogminerOptions.PREFETCH_WINDOW));
 
         logMinerConf.setPavingData(true);
         logMinerConf.setSplitUpdate(true);
@@ -46,6 +46,7 @@ public class SqlUtil {
     public final static String SQL_START_LOG_MINER_AUTO_ADD_LOG = "" +
             "BEGIN SYS.DBMS_LOGMNR.START_LOGMNR(" +
             "   STARTSCN => ?," +
+            "   ENDSCN => ?," +
             "   OPTIONS => SYS.DBMS_LOGMNR.SKIP_CORRUPTION " +
             "       + SYS.DBMS_LOGMNR.NO_SQL_DELIMITER " +
             "       + SYS.DBMS_LOGMNR.NO_ROWID_IN_STMT " +
@@ -59,6 +60,7 @@ public class SqlUtil {
     public final static String SQL_START_LOG_MINER_AUTO_ADD_LOG_10 = "" +
             "BEGIN SYS.DBMS_LOGMNR.START_LOGMNR(" +
             "   STARTSCN => ?," +
+            "   ENDSCN => ?," +
             "   OPTIONS => SYS.DBMS_LOGMNR.SKIP_CORRUPTION " +
             "       + SYS.DBMS_LOGMNR.NO_SQL_DELIMITER " +
             "       + SYS.DBMS_LOGMNR.NO_ROWID_IN_STMT " +
@@ -69,122 +71,35 @@ public class SqlUtil {
             "END;";
 
     /**
-     * 启动logminer
+     * 向LogMiner会话中添加日志文件，OPTIONS: 1(DBMS_LOGMNR.NEW)开始新的会话，3(DBMS_LOGMNR.ADDFILE)追加到当前会话
+     */
+    public final static String SQL_ADD_LOG_FILE = "BEGIN SYS.DBMS_LOGMNR.ADD_LOGFILE(LOGFILENAME => ?, OPTIONS => ?); END;";
+
+    public final static int ADD_LOG_FILE_NEW = 1;
+
+    public final static int ADD_LOG_FILE_ADDFILE = 3;
+
+    /**
+     * 在已添加的日志文件上启动LogMiner，只解析[STARTSCN, ENDSCN]范围内的日志，替代Oracle 19c中不再支持的CONTINUOUS_MINE
+     */
+    public final static String SQL_START_LOG_MINER = "" +
+            "BEGIN SYS.DBMS_LOGMNR.START_LOGMNR(" +
+            "   STARTSCN => ?," +
+            "   ENDSCN => ?," +
+            "   OPTIONS => SYS.DBMS_LOGMNR.SKIP_CORRUPTION " +
+            "       + SYS.DBMS_LOGMNR.NO_SQL_DELIMITER " +
+            "       + SYS.DBMS_LOGMNR.NO_ROWID_IN_STMT " +
+            "       + SYS.DBMS_LOGMNR.DICT_FROM_ONLINE_CATALOG " +
+            ");" +
+            "END;";
+
+    /**
+     * 查询包含[start, end]范围内的scn的在线及归档日志
      * 视图说明：
      * v$log：存储未归档的日志
      * v$archived_log：存储已归档的日志文件
      * v$logfile：
      */
-    public final static String SQL_START_LOG_MINER = "" +
-            "DECLARE\n" +
-            "    st          BOOLEAN := true;\n" +
-            "    start_scn   NUMBER := ?;\n" +
-            "BEGIN\n" +
-            "    FOR l_log_rec IN (\n" +
-            "        SELECT\n" +
-            "            MIN(name) name,\n" +
-            "            first_change#\n" +
-            "        FROM\n" +
-            "            (\n" +
-            "                SELECT\n" +
-            "                    MIN(member) AS name,\n" +
-            "                    first_change#,\n" +
-            "                    281474976710655 AS next_change#\n" +
-            "                FROM\n" +
-            "                    v$log       l\n" +
-            "                    INNER JOIN v$logfile   f ON l.group# = f.group#\n" +
-            "                WHERE l.STATUS = 'CURRENT' OR l.STATUS = 'ACTIVE'\n" +
-            "                GROUP BY\n" +
-            "                    first_change#\n" +
-            "                UNION\n" +
-            "                SELECT\n" +
-            "                    name,\n" +
-            "                    first_change#,\n" +
-            "                    next_change#\n" +
-            "                FROM\n" +
-            "                    v$archived_log\n" +
-            "                WHERE\n" +
-            "                    name IS NOT NULL\n" +
-            "            )\n" +
-            "        WHERE\n" +
-            "            first_change# >= start_scn\n" +
-            "            OR start_scn < next_change#\n" +
-            "        GROUP BY\n" +
-            "            first_change#\n" +
-            "        ORDER BY\n" +
-            "            first_change#\n" +
-            "    ) LOOP IF st THEN\n" +
-            "        SYS.DBMS_LOGMNR.add_logfile(l_log_rec.name, SYS.DBMS_LOGMNR.new);\n" +
-            "        st := false;\n" +
-            "    ELSE\n" +
-            "        SYS.DBMS_LOGMNR.add_logfile(l_log_rec.name);\n" +
-            "    END IF;\n" +
-            "    END LOOP;\n" +
-            "\n" +
-            "    SYS.DBMS_LOGMNR.start_logmnr(" +
-            "       options => " +
-            "         SYS.DBMS_LOGMNR.skip_corruption " +
-            "       + SYS.DBMS_LOGMNR.no_sql_delimiter " +
-            "       + SYS.DBMS_LOGMNR.no_rowid_in_stmt\n" +
-            "       + SYS.DBMS_LOGMNR.dict_from_online_catalog " +
-            "   );\n" +
-            "END;";
-
-    public final static String SQL_START_LOG_MINER_10 = "" +
-            "DECLARE\n" +
-            "    st          BOOLEAN := true;\n" +
-            "    start_scn   NUMBER := ?;\n" +
-            "BEGIN\n" +
-            "    FOR l_log_rec IN (\n" +
-            "        SELECT\n" +
-            "            MIN(name) name,\n" +
-            "            first_change#\n" +
-            "        FROM\n" +
-            "            (\n" +
-            "                SELECT\n" +
-            "                    MIN(member) AS name,\n" +
-            "                    first_change#,\n" +
-            "                    281474976710655 AS next_change#\n" +
-            "                FROM\n" +
-            "                    v$log       l\n" +
-            "                    INNER JOIN v$logfile   f ON l.group# = f.group#\n" +
-            "                WHERE l.STATUS = 'CURRENT' OR l.STATUS = 'ACTIVE'\n" +
-            "                GROUP BY\n" +
-            "                    first_change#\n" +
-            "                UNION\n" +
-            "                SELECT\n" +
-            "                    name,\n" +
-            "                    first_change#,\n" +
-            "                    next_change#\n" +
-            "                FROM\n" +
-            "                    v$archived_log\n" +
-            "                WHERE\n" +
-            "                    name IS NOT NULL\n" +
-            "            )\n" +
-            "        WHERE\n" +
-            "            first_change# >= start_scn\n" +
-            "            OR start_scn < next_change#\n" +
-            "        GROUP BY\n" +
-            "            first_change#\n" +
-            "        ORDER BY\n" +
-            "            first_change#\n" +
-            "    ) LOOP IF st THEN\n" +
-            "        SYS.DBMS_LOGMNR.add_logfile(l_log_rec.name, SYS.DBMS_LOGMNR.new);\n" +
-            "        st := false;\n" +
-            "    ELSE\n" +
-            "        SYS.DBMS_LOGMNR.add_logfile(l_log_rec.name);\n" +
-            "    END IF;\n" +
-            "    END LOOP;\n" +
-            "\n" +
-            "    SYS.DBMS_LOGMNR.start_logmnr(" +
-            "       options => " +
-            "         SYS.DBMS_LOGMNR.skip_corruption " +
-            "       + SYS.DBMS_LOGMNR.no_sql_delimiter " +
-            "       + SYS.DBMS_LOGMNR.no_rowid_in_stmt\n" +
-            "       + SYS.DBMS_LOGMNR.dict_from_online_catalog " +
-            "   );\n" +
-            "END;";
-
     public final static String SQL_QUERY_LOG_FILE =
             "SELECT\n" +
             "    MIN(name) name,\n" +
@@ -212,8 +127,8 @@ public class SqlUtil {
             "            name IS NOT NULL\n" +
             "    )\n" +
             "WHERE\n" +
-            "    first_change# >= ?\n" +
-            "    OR ? < next_change#\n" +
+            "    ? < next_change#\n" +
+            "    AND first_change# <= ?\n" +
             "GROUP BY\n" +
             "    first_change#\n" +
             "ORDER BY\n" +
@@ -246,8 +161,8 @@ public class SqlUtil {
             "            name IS NOT NULL\n" +
             "    )\n" +
             "WHERE\n" +
-            "    first_change# >= ?\n" +
-            "    OR ? < next_change#\n" +
+            "    ? < next_change#\n" +
+            "    AND first_change# <= ?\n" +
             "GROUP BY\n" +
             "    first_change#\n" +
             "ORDER BY\n" +
@@ -270,6 +185,30 @@ public class SqlUtil {
             "WHERE\n" +
             "    scn > ?";
 
+    /** committedOnly模式下额外查询事务id和回滚标记，提交和回滚记录不按表和操作类型过滤 */
+    public final static String SQL_SELECT_DATA_WITH_XID = "" +
+            "SELECT\n" +
+            "    scn,\n" +
+            "    timestamp,\n" +
+            "    operation,\n" +
+            "    seg_owner,\n" +
+            "    table_name,\n" +
+            "    sql_redo,\n" +
+            "    row_id,\n" +
+            "    csf,\n" +
+            "    RAWTOHEX(xid) xid,\n" +
+            "    rollback\n" +
+            "FROM\n" +
+            "    v$logmnr_contents\n" +
+            "WHERE\n" +
+            "    scn > ?";
+
+    /** 1:INSERT 2:DELETE 3:UPDATE */
+    public final static String DML_FILTER = "OPERATION_CODE in (1, 2, 3)";
+
+    /** 7:COMMIT 36:ROLLBACK */
+    public final static String TRANSACTION_END_FILTER = "OPERATION_CODE in (7, 36)";
+
     public final static String SQL_STOP_LOG_MINER = "BEGIN SYS.DBMS_LOGMNR.END_LOGMNR; end;";
 
     public final static String SQL_GET_CURRENT_SCN = "select min(CURRENT_SCN) CURRENT_SCN from gv$database";
@@ -340,6 +279,26 @@ public class SqlUtil {
         return sqlBuilder.toString();
 }
 
+    /**
+     * 构建committedOnly模式下查询v$logmnr_contents视图SQL。
+     * 不按操作类型过滤：部分回滚产生的数据需要抵消同一ROWID最近的一条数据，不论它是什么操作类型，操作类型在事务提交后过滤
+     * @param listenerTables    需要采集的schema+表名 SCHEMA1.TABLE1,SCHEMA2.TABLE2
+     * @return
+     */
+    public static String buildTransactionSelectSql(String listenerTables){
+        StringBuilder sqlBuilder = new StringBuilder(SQL_SELECT_DATA_WITH_XID);
+        sqlBuilder.append(" and ((").append(DML_FILTER).append(" and ");
+
+        if (StringUtils.isNotEmpty(listenerTables)) {
+            sqlBuilder.append(buildSchemaTableFilter(listenerTables));
+        } else {
+            sqlBuilder.append(buildExcludeSchemaFilter());
+        }
+
+        sqlBuilder.append(") or ").append(TRANSACTION_END_FILTER).append(")");
+        return sqlBuilder.toString();
+    }
+
     /**
      * 构建需要采集操作类型字符串的过滤条件
      * @param listenerOptions 需要采集操作类型字符串 delete,insert,update
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.connector.oraclelogminer.listener;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MiningWindowTest {
+
+    @Test
+    public void testAdjustSize() {
+        MiningWindow window = new MiningWindow(10000, 40000, 1000, 1000);
+        Assert.assertEquals(10100, window.getEnd(100, 20000, 0));
+        Assert.assertEquals(20000, window.getEnd(15000, 20000, 0));
+
+        // 追赶历史数据且数据少时翻倍，不超过最大值
+        Assert.assertEquals(0, window.complete(10, 10, false));
+        Assert.assertEquals(20000, window.getSize());
+        window.complete(10, 10, false);
+        window.complete(10, 10, false);
+        Assert.assertEquals(40000, window.getSize());
+
+        // 数据多或耗时长时减半
+        window.complete(2000, 10, false);
+        Assert.assertEquals(20000, window.getSize());
+        window.complete(10, 2000, false);
+        Assert.assertEquals(10000, window.getSize());
+
+        // 已经追上时不调整
+        window.complete(10, 10, true);
+        Assert.assertEquals(10000, window.getSize());
+    }
+
+    @Test
+    public void testIdle() {
+        MiningWindow window = new MiningWindow(10000, 40000, 1000, 1000);
+        Assert.assertEquals(MiningWindow.MIN_IDLE_MILLIS, window.complete(0, 10, true));
+        Assert.assertEquals(MiningWindow.MIN_IDLE_MILLIS * 2, window.complete(0, 10, true));
+        for (int i = 0; i < 10; i++) {
+            window.complete(0, 10, true);
+        }
+        Assert.assertEquals(MiningWindow.MAX_IDLE_MILLIS, window.complete(0, 10, true));
+
+        // 有数据时立即查询
+        Assert.assertEquals(0, window.complete(1, 10, true));
+        Assert.assertEquals(MiningWindow.MIN_IDLE_MILLIS, window.complete(0, 10, true));
+    }
+
+    @Test
+    public void testSafeScn() {
+        MiningWindow window = new MiningWindow(10000, 40000, 1000, 1000);
+        window.getEnd(0, 100, 0);
+        window.getEnd(0, 200, 1000);
+        window.getEnd(0, 300, 5000);
+
+        // 查询开始时，所有样本都还不满3秒
+        Assert.assertEquals(0, window.getSafeScn(300, 2000));
+        // scn 200在1秒时已经是当前scn，4秒时开始的查询一定能读到200之前的数据
+        Assert.assertEquals(200, window.getSafeScn(300, 4000));
+        // 不超过已经解析的范围
+        Assert.assertEquals(150, window.getSafeScn(150, 4000));
+        Assert.assertEquals(300, window.getSafeScn(300, 8000));
+    }
+}
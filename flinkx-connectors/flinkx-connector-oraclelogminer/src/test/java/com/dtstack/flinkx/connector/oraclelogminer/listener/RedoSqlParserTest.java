@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.connector.oraclelogminer.listener;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class RedoSqlParserTest {
+
+    private RedoSqlParser parser;
+
+    @Before
+    public void setup() {
+        parser = new RedoSqlParser();
+    }
+
+    @Test
+    public void testInsert() {
+        String sql = "insert into \"SCOTT\".\"EMP\"(\"ID\",\"NAME\",\"BIRTH\",\"PHOTO\",\"NICK\",\"REMARK\") values "
+                + "('1','it''s',TO_DATE('2021-01-01 00:00:00', 'YYYY-MM-DD HH24:MI:SS'),HEXTORAW('6162'),UNISTR('\\00E4'),NULL);";
+
+        Assert.assertEquals(RedoSqlParser.Type.INSERT, parser.parse(sql));
+        Assert.assertEquals(
+                Arrays.asList("\"ID\"", "\"NAME\"", "\"BIRTH\"", "\"PHOTO\"", "\"NICK\"", "\"REMARK\""),
+                parser.getColumns());
+        Assert.assertEquals(
+                Arrays.asList("'1'", "'it''s'", "TO_DATE('2021-01-01 00:00:00', 'YYYY-MM-DD HH24:MI:SS')",
+                        "HEXTORAW('6162')", "UNISTR('\\00E4')", "NULL"),
+                parser.getValues());
+    }
+
+    @Test
+    public void testUpdate() {
+        String sql = "update \"SCOTT\".\"EMP\" set \"NAME\" = 'b', \"TS\" = TIMESTAMP ' 2021-01-01 00:00:00' "
+                + "where \"ID\" = '1' and \"NAME\" = 'a and b' and \"REMARK\" = NULL and ROWID = 'AAAx';";
+
+        Assert.assertEquals(RedoSqlParser.Type.UPDATE, parser.parse(sql));
+        Assert.assertEquals(Arrays.asList("\"NAME\"", "\"TS\""), parser.getColumns());
+        Assert.assertEquals(Arrays.asList("'b'", "TIMESTAMP ' 2021-01-01 00:00:00'"), parser.getValues());
+        Assert.assertEquals(Arrays.asList("\"ID\"", "\"NAME\"", "\"REMARK\"", "ROWID"), parser.getWhereColumns());
+        Assert.assertEquals(Arrays.asList("'1'", "'a and b'", "NULL", "'AAAx'"), parser.getWhereValues());
+    }
+
+    @Test
+    public void testDelete() {
+        String sql = "delete from \"SCOTT\".\"EMP\" where \"ID\" = '1' and \"SALARY\" = -1.5 and ROWID = 'AAAx';";
+
+        Assert.assertEquals(RedoSqlParser.Type.DELETE, parser.parse(sql));
+        Assert.assertTrue(parser.getColumns().isEmpty());
+        Assert.assertEquals(Arrays.asList("\"ID\"", "\"SALARY\"", "ROWID"), parser.getWhereColumns());
+        Assert.assertEquals(Arrays.asList("'1'", "-1.5", "'AAAx'"), parser.getWhereValues());
+    }
+
+    @Test
+    public void testUnsupported() {
+        Assert.assertNull(parser.parse("delete from \"SCOTT\".\"EMP\" where \"ID\" = '1' or \"ID\" = '2';"));
+        Assert.assertNull(parser.parse("update \"SCOTT\".\"EMP\" set \"ID\" = \"ID\" + 1;"));
+        Assert.assertNull(parser.parse("insert into \"SCOTT\".\"EMP\"(\"ID\",\"NAME\") values ('1');"));
+        Assert.assertNull(parser.parse("DECLARE loc_c CLOB; BEGIN select \"C\" into loc_c from \"SCOTT\".\"EMP\"; END;"));
+    }
+}
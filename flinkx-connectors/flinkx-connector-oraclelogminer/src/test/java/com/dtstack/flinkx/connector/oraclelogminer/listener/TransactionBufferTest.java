@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.connector.oraclelogminer.listener;
+
+import com.dtstack.flinkx.connector.oraclelogminer.entity.QueueData;
+import com.dtstack.flinkx.connector.oraclelogminer.entity.TransactionPosition;
+import com.dtstack.flinkx.element.ColumnRowData;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+public class TransactionBufferTest {
+
+    private File spillDir;
+
+    @Before
+    public void setup() throws Exception {
+        spillDir = Files.createTempDirectory("logminer-spill").toFile();
+    }
+
+    @After
+    public void cleanup() {
+        File[] files = spillDir.listFiles();
+        Assert.assertNotNull(files);
+        Assert.assertEquals("spill files should be deleted", 0, files.length);
+        Assert.assertTrue(spillDir.delete());
+    }
+
+    @Test
+    public void testCommitAndRollback() throws Exception {
+        TransactionBuffer buffer = new TransactionBuffer(1024 * 1024, spillDir.getPath(), 100, null, 100);
+        buffer.add("T1", data(101, "insert 1"), "R1", false);
+        buffer.add("T2", data(102, "insert 2"), "R2", false);
+        buffer.add("T1", data(103, "insert 3"), "R3", false);
+
+        buffer.rollback("T2");
+        Assert.assertEquals(Arrays.asList("insert 1", "insert 3"), commit(buffer, "T1", 104));
+        Assert.assertEquals(104, buffer.getCommittedScn());
+        Assert.assertEquals(0, buffer.size());
+        Assert.assertNull(buffer.commit("T3", 105));
+    }
+
+    @Test
+    public void testPosition() throws Exception {
+        TransactionBuffer buffer = new TransactionBuffer(1024 * 1024, spillDir.getPath(), 100, null, 90);
+        buffer.add("T1", data(101, "insert 1"), "R1", false);
+        buffer.add("T2", data(102, "insert 2"), "R2", false);
+
+        Assert.assertEquals(0, buffer.getCommitSequence());
+        commit(buffer, "T2", 103);
+        commit(buffer, "T1", 104);
+        Assert.assertEquals(2, buffer.getCommitSequence());
+
+        TransactionPosition position = buffer.getPosition(0);
+        Assert.assertEquals(90, position.getScn());
+        Assert.assertEquals(100, position.getCommitScn());
+        Assert.assertNull(position.getCommittedXids());
+        // T1还未提交，需要从T1的第一条数据之前恢复
+        position = buffer.getPosition(1);
+        Assert.assertEquals(100, position.getScn());
+        Assert.assertEquals(103, position.getCommitScn());
+        Assert.assertEquals(Collections.singleton("T2"), position.getCommittedXids());
+        Assert.assertEquals(104, buffer.getPosition(2).getScn());
+        // 之前的记录已经清除
+        Assert.assertNull(buffer.getPosition(1));
+    }
+
+    @Test
+    public void testSameCommitScn() throws Exception {
+        TransactionBuffer buffer = new TransactionBuffer(1024 * 1024, spillDir.getPath(), 100, null, 100);
+        buffer.add("T1", data(101, "insert 1"), "R1", false);
+        buffer.add("T2", data(102, "insert 2"), "R2", false);
+        commit(buffer, "T1", 103);
+
+        // T2和T1在同一个scn提交，T1发送完成后T2还没有发送
+        TransactionPosition position = buffer.getPosition(buffer.getCommitSequence());
+        Assert.assertEquals(Collections.singleton("T1"), position.getCommittedXids());
+        Assert.assertTrue(buffer.isCommitted("T1", 103));
+        Assert.assertFalse(buffer.isCommitted("T2", 103));
+
+        // 从这个位置恢复后只丢弃T1
+        TransactionBuffer restored = new TransactionBuffer(
+                1024 * 1024, spillDir.getPath(), position.getCommitScn(), position.getCommittedXids(), position.getScn());
+        Assert.assertTrue(restored.isCommitted("T0", 102));
+        Assert.assertTrue(restored.isCommitted("T1", 103));
+        Assert.assertFalse(restored.isCommitted("T2", 103));
+        Assert.assertFalse(restored.isCommitted("T3", 104));
+        restored.add("T2", data(102, "insert 2"), "R2", false);
+        Assert.assertEquals(Arrays.asList("insert 2"), commit(restored, "T2", 103));
+        Assert.assertEquals(new HashSet<>(Arrays.asList("T1", "T2")), restored.getPosition(1).getCommittedXids());
+        Assert.assertTrue(restored.isCommitted("T2", 103));
+
+        // 旧版本的checkpoint没有记录事务，提交scn相同的事务都认为已经发送过
+        TransactionBuffer legacy = new TransactionBuffer(1024 * 1024, spillDir.getPath(), 103, null, 100);
+        Assert.assertTrue(legacy.isCommitted("T2", 103));
+        Assert.assertFalse(legacy.isCommitted("T2", 104));
+        buffer.close();
+    }
+
+    @Test
+    public void testPartialRollback() throws Exception {
+        TransactionBuffer buffer = new TransactionBuffer(1024 * 1024, spillDir.getPath(), 100, null, 100);
+        buffer.add("T1", data(101, "insert 1"), "R1", false);
+        buffer.add("T1", data(102, "update 1"), "R1", false);
+        buffer.add("T1", data(103, "undo update 1"), "R1", true);
+
+        Assert.assertEquals(Arrays.asList("insert 1"), commit(buffer, "T1", 104));
+    }
+
+    @Test
+    public void testSpill() throws Exception {
+        // 每条数据估算256字节以上，内存中最多缓存3条
+        TransactionBuffer buffer = new TransactionBuffer(1000, spillDir.getPath(), 100, null, 100);
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            buffer.add("T1", data(101 + i, "insert " + i), "R" + i, false);
+            expected.add("insert " + i);
+        }
+        buffer.add("T2", data(120, "insert small"), "S1", false);
+        Assert.assertEquals(1, spillDir.listFiles().length);
+
+        // 写入磁盘后的部分回滚
+        buffer.add("T1", data(121, "update 3"), "R3", false);
+        buffer.add("T1", data(122, "undo update 3"), "R3", true);
+        buffer.add("T1", data(123, "undo insert 9"), "R9", true);
+        expected.remove("insert 9");
+
+        Assert.assertEquals(expected, commit(buffer, "T1", 130));
+        Assert.assertEquals(0, spillDir.listFiles().length);
+        Assert.assertEquals(Arrays.asList("insert small"), commit(buffer, "T2", 131));
+    }
+
+    @Test
+    public void testRollbackDeleteSpillFile() throws Exception {
+        TransactionBuffer buffer = new TransactionBuffer(0, spillDir.getPath(), 100, null, 100);
+        buffer.add("T1", data(101, "insert 1"), "R1", false);
+        Assert.assertEquals(1, spillDir.listFiles().length);
+        buffer.rollback("T1");
+        Assert.assertEquals(0, spillDir.listFiles().length);
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        TransactionBuffer buffer = new TransactionBuffer(0, spillDir.getPath(), 100, null, 100);
+        buffer.add("T1", data(101, "insert 1"), "R1", false);
+        Assert.assertEquals(1, spillDir.listFiles().length);
+        buffer.close();
+        Assert.assertEquals(0, buffer.size());
+        Assert.assertEquals(0, spillDir.listFiles().length);
+    }
+
+    private static List<String> commit(TransactionBuffer buffer, String xid, long commitScn) throws Exception {
+        List<String> sqls = new ArrayList<>();
+        TransactionBuffer.Transaction transaction = buffer.commit(xid, commitScn);
+        if (transaction != null) {
+            transaction.forEach(data -> sqls.add(((ColumnRowData) data.getData()).getField("sqlLog").asString()));
+            transaction.discard();
+        }
+        return sqls;
+    }
+
+    private static QueueData data(long scn, String sql) {
+        return new QueueData(scn, LogMinerConnection.buildLogData("SCOTT", "EMP", "INSERT", sql, new Timestamp(scn)));
+    }
+}
@@ -18,7 +18,7 @@
 
 package com.dtstack.flinkx.connector.redis.lookup;
 
-import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
 
 import com.dtstack.flinkx.connector.redis.conf.RedisConf;
 import com.dtstack.flinkx.connector.redis.connection.RedisSyncClient;
@@ -26,7 +26,6 @@ import com.dtstack.flinkx.connector.redis.enums.RedisConnectType;
 import com.dtstack.flinkx.converter.AbstractRowConverter;
 import com.dtstack.flinkx.lookup.AbstractAllTableFunction;
 import com.dtstack.flinkx.lookup.conf.LookupConf;
-import com.google.common.collect.Lists;
 import org.apache.commons.collections.CollectionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,13 +34,9 @@ import redis.clients.jedis.JedisCluster;
 import redis.clients.jedis.JedisCommands;
 import redis.clients.jedis.JedisPool;
 
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
-import java.util.stream.Collectors;
 
 /**
  * @author chuixue
@@ -65,25 +60,8 @@ public class RedisAllTableFunction extends AbstractAllTableFunction {
         this.redisConf = redisConf;
     }
 
-    @Override
-    public void eval(Object... keys) {
-        StringBuilder keyPattern = new StringBuilder(redisConf.getTableName());
-        keyPattern
-                .append("_")
-                .append(Arrays.stream(keys).map(String::valueOf).collect(Collectors.joining("_")));
-        List<Map<String, Object>> cacheList = cacheRef.get().get(keyPattern.toString());
-
-        // 有数据才往下发，(左/内)连接flink会做相应的处理
-        if (!CollectionUtils.isEmpty(cacheList)) {
-            cacheList.forEach(one -> collect(fillData(one)));
-        }
-    }
-
     @Override
     protected void loadData(Object cacheRef) {
-        Map<String, List<Map<String, Object>>> tmpCache =
-                (Map<String, List<Map<String, Object>>>) cacheRef;
-
         redisSyncClient = new RedisSyncClient(redisConf);
         JedisCommands jedis = redisSyncClient.getJedis();
 
@@ -100,16 +78,12 @@ public class RedisAllTableFunction extends AbstractAllTableFunction {
 
         try {
             for (String key : keys) {
-                Map<String, Object> oneRow = new HashMap<>();
                 Map<String, String> hgetAll = jedis.hgetAll(key);
                 // 防止一条数据有问题，后面数据无法加载
                 try {
-                    GenericRowData rowData = (GenericRowData) rowConverter.toInternal(hgetAll);
-                    for (int i = 0; i < fieldsName.length; i++) {
-                        Object object = rowData.getField(i);
-                        oneRow.put(fieldsName[i].trim(), object);
-                    }
-                    tmpCache.computeIfAbsent(key, k -> Lists.newArrayList()).add(oneRow);
+                    // hash中包含了join key字段，直接按字段值建立索引
+                    RowData rowData = rowConverter.toInternal(hgetAll);
+                    buildCache(rowData, cacheRef);
                 } catch (Exception e) {
                     LOG.error("error:{} \n  data:{}", e.getMessage(), hgetAll);
                 }
@@ -23,6 +23,7 @@ import com.dtstack.flinkx.connector.redis.connection.RedisAsyncClient;
 import com.dtstack.flinkx.converter.AbstractRowConverter;
 import com.dtstack.flinkx.enums.ECacheContentType;
 import com.dtstack.flinkx.lookup.AbstractLruTableFunction;
+import com.dtstack.flinkx.lookup.cache.CacheKey;
 import com.dtstack.flinkx.lookup.cache.CacheMissVal;
 import com.dtstack.flinkx.lookup.cache.CacheObj;
 import com.dtstack.flinkx.lookup.conf.LookupConf;
@@ -74,9 +75,9 @@ public class RedisLruTableFunction extends AbstractLruTableFunction {
 
     @Override
     public void handleAsyncInvoke(CompletableFuture<Collection<RowData>> future, Object... keys) {
-        String cacheKey = buildCacheKey(keys);
+        CacheKey cacheKey = buildCacheKey(keys);
         RedisFuture<Map<String, String>> resultFuture =
-                ((RedisHashAsyncCommands) redisKeyAsyncCommands).hgetall(cacheKey);
+                ((RedisHashAsyncCommands) redisKeyAsyncCommands).hgetall(buildRedisKey(keys));
         resultFuture.thenAccept(
                 resultValues -> {
                     if (MapUtils.isNotEmpty(resultValues)) {
@@ -106,10 +107,11 @@ public class RedisLruTableFunction extends AbstractLruTableFunction {
                 });
     }
 
-    @Override
-    public String buildCacheKey(Object... keys) {
+    private String buildRedisKey(Object... keys) {
         StringBuilder keyBuilder = new StringBuilder(redisConf.getTableName());
-        keyBuilder.append("_").append(super.buildCacheKey(keys));
+        for (Object key : keys) {
+            keyBuilder.append("_").append(key);
+        }
         return keyBuilder.toString();
     }
 
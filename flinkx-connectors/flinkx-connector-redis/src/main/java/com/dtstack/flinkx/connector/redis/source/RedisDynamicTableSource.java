@@ -63,7 +63,7 @@ public class RedisDynamicTableSource implements LookupTableSource, SupportsProje
         }
         final RowType rowType = (RowType) physicalSchema.toRowDataType().getLogicalType();
 
-        if (lookupConf.getCache().equalsIgnoreCase(CacheType.LRU.toString())) {
+        if (CacheType.isAsync(lookupConf.getCache())) {
             return ParallelAsyncTableFunctionProvider.of(
                     new RedisLruTableFunction(
                             redisConf,
@@ -54,7 +54,9 @@ import static com.dtstack.flinkx.connector.redis.options.RedisOptions.TIMEOUT;
 import static com.dtstack.flinkx.connector.redis.options.RedisOptions.URL;
 import static com.dtstack.flinkx.lookup.options.LookupOptions.LOOKUP_ASYNCTIMEOUT;
 import static com.dtstack.flinkx.lookup.options.LookupOptions.LOOKUP_CACHE_MAX_ROWS;
+import static com.dtstack.flinkx.lookup.options.LookupOptions.LOOKUP_CACHE_OFF_HEAP;
 import static com.dtstack.flinkx.lookup.options.LookupOptions.LOOKUP_CACHE_PERIOD;
+import static com.dtstack.flinkx.lookup.options.LookupOptions.LOOKUP_CACHE_REFRESH_AFTER_WRITE;
 import static com.dtstack.flinkx.lookup.options.LookupOptions.LOOKUP_CACHE_TTL;
 import static com.dtstack.flinkx.lookup.options.LookupOptions.LOOKUP_CACHE_TYPE;
 import static com.dtstack.flinkx.lookup.options.LookupOptions.LOOKUP_ERRORLIMIT;
@@ -138,6 +140,8 @@ public class RedisDynamicTableFactory implements DynamicTableSourceFactory, Dyna
         optionalOptions.add(LOOKUP_CACHE_PERIOD);
         optionalOptions.add(LOOKUP_CACHE_MAX_ROWS);
         optionalOptions.add(LOOKUP_CACHE_TTL);
+        optionalOptions.add(LOOKUP_CACHE_REFRESH_AFTER_WRITE);
+        optionalOptions.add(LOOKUP_CACHE_OFF_HEAP);
         optionalOptions.add(LOOKUP_CACHE_TYPE);
         optionalOptions.add(LOOKUP_MAX_RETRIES);
         optionalOptions.add(LOOKUP_ERRORLIMIT);
@@ -176,6 +180,8 @@ public class RedisDynamicTableFactory implements DynamicTableSourceFactory, Dyna
                 .setPeriod(readableConfig.get(LOOKUP_CACHE_PERIOD))
                 .setCacheSize(readableConfig.get(LOOKUP_CACHE_MAX_ROWS))
                 .setCacheTtl(readableConfig.get(LOOKUP_CACHE_TTL))
+                .setCacheRefreshAfterWrite(readableConfig.get(LOOKUP_CACHE_REFRESH_AFTER_WRITE))
+                .setCacheOffHeap(readableConfig.get(LOOKUP_CACHE_OFF_HEAP))
                 .setCache(readableConfig.get(LOOKUP_CACHE_TYPE))
                 .setMaxRetryTimes(readableConfig.get(LOOKUP_MAX_RETRIES))
                 .setErrorLimit(readableConfig.get(LOOKUP_ERRORLIMIT))
@@ -30,6 +30,7 @@ import com.dtstack.flinkx.connector.restapi.convert.RestapiRowConverter;
 import com.dtstack.flinkx.connector.restapi.inputformat.RestapiInputFormatBuilder;
 import com.dtstack.flinkx.converter.AbstractRowConverter;
 import com.dtstack.flinkx.converter.RawTypeConverter;
+import com.dtstack.flinkx.element.ColumnRowDataTypeInfo;
 import com.dtstack.flinkx.source.SourceFactory;
 import com.dtstack.flinkx.util.JsonUtil;
 
@@ -86,7 +87,7 @@ public class RestapiSourceFactory extends SourceFactory {
         }
         if (syncConf.getTransformer() == null
                 || org.apache.commons.lang3.StringUtils.isBlank(syncConf.getTransformer().getTransformSql())) {
-            typeInformation = TableUtil.getTypeInformation(Collections.emptyList(), getRawTypeConverter());
+            typeInformation = ColumnRowDataTypeInfo.INSTANCE;
         } else {
             typeInformation = TableUtil.getTypeInformation(
                     subColumns(httpRestConfig.getColumn()),
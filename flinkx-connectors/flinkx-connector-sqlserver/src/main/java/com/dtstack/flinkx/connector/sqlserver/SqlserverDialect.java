@@ -26,6 +26,7 @@ import org.apache.commons.lang3.StringUtils;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -103,6 +104,21 @@ public class SqlserverDialect implements JdbcDialect {
         return sql.toString();
     }
 
+    /**
+     * SqlServer does not support row value constructors in IN, multiple keys are matched with OR
+     */
+    @Override
+    public String getKeysInCondition(String[] conditionFields, int keyCount) {
+        if (conditionFields.length == 1) {
+            return JdbcDialect.super.getKeysInCondition(conditionFields, keyCount);
+        }
+        String oneKey =
+            Arrays.stream(conditionFields)
+                .map(f -> quoteIdentifier(f) + " = ?")
+                .collect(Collectors.joining(" AND ", "(", ")"));
+        return String.join(" OR ", Collections.nCopies(keyCount, oneKey));
+    }
+
     @Override
     public String getSplitModFilter(JdbcInputSplit split, String splitPkName) {
         StringBuilder sql = new StringBuilder(128);
@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.connector.sqlserver;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SqlserverDialectTest {
+
+    private final SqlserverDialect dialect = new SqlserverDialect();
+
+    @Test
+    public void testKeysInConditionWithSingleColumn() {
+        Assert.assertEquals(
+                "\"id\" IN (?, ?)", dialect.getKeysInCondition(new String[] {"id"}, 2));
+    }
+
+    @Test
+    public void testKeysInConditionWithCompositeKey() {
+        // SqlServer不支持(a, b) IN ((?, ?))，多个key用OR连接
+        Assert.assertEquals(
+                "(\"a\" = ? AND \"b\" = ?) OR (\"a\" = ? AND \"b\" = ?)",
+                dialect.getKeysInCondition(new String[] {"a", "b"}, 2));
+    }
+}
@@ -44,6 +44,12 @@ public class SqlServerCdcConf extends FlinkxCommonConf {
     private boolean splitUpdate;
     private String timestampFormat = "sql";
     private List<FieldConf> column;
+    /** number of threads(and connections) fetching changes of tables concurrently */
+    private int fetchThreadSize = 4;
+    /** max number of changes fetched in one query of a table */
+    private int fetchSize = 1000;
+    /** max number of transactions read in one poll, no limit if not positive */
+    private int maxTransactionsPerPoll = 10000;
 
     public String getTimestampFormat() {
         return timestampFormat;
@@ -141,6 +147,30 @@ public class SqlServerCdcConf extends FlinkxCommonConf {
         this.column = column;
     }
 
+    public int getFetchThreadSize() {
+        return fetchThreadSize;
+    }
+
+    public void setFetchThreadSize(int fetchThreadSize) {
+        this.fetchThreadSize = fetchThreadSize;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    public int getMaxTransactionsPerPoll() {
+        return maxTransactionsPerPoll;
+    }
+
+    public void setMaxTransactionsPerPoll(int maxTransactionsPerPoll) {
+        this.maxTransactionsPerPoll = maxTransactionsPerPoll;
+    }
+
     @Override
     public String toString() {
         return "SqlserverCdcConf{" +
@@ -153,6 +183,9 @@ public class SqlServerCdcConf extends FlinkxCommonConf {
                 ", tableList=" + tableList +
                 ", pollInterval=" + pollInterval +
                 ", lsn='" + lsn + '\'' +
+                ", fetchThreadSize=" + fetchThreadSize +
+                ", fetchSize=" + fetchSize +
+                ", maxTransactionsPerPoll=" + maxTransactionsPerPoll +
                 '}';
     }
 }
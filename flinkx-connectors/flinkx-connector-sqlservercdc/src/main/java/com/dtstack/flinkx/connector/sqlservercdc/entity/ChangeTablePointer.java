@@ -9,17 +9,27 @@ import com.dtstack.flinkx.connector.sqlservercdc.util.SqlServerCdcUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.sql.Connection;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
  * Date: 2019/12/03
  * Company: www.dtstack.com
  * <p>
  * this class is copied from (https://github.com/debezium/debezium).
+ * <p>
+ * changes of the table are fetched page by page in fetchExecutor, the next page is fetched while the current page is consumed,
+ * so at most two pages of each table are buffered.
  *
  * @author tudou
  */
@@ -32,15 +42,38 @@ public class ChangeTablePointer {
     private static final int COL_DATA = 5;
 
     private final ChangeTable changeTable;
-    private final Statement statement;
-    private final ResultSet resultSet;
+    private final Lsn fromLsn;
+    private final Lsn toLsn;
+    private final int pageSize;
+    private final ExecutorService fetchExecutor;
+    private final BlockingQueue<Connection> connections;
+
+    private final ArrayDeque<ChangeRow> buffer = new ArrayDeque<>();
+    private Future<Page> nextPage;
+    private List<String> types;
     private boolean completed = false;
+    private ChangeRow currentRow;
     private TxLogPosition currentChangePosition;
 
-    public ChangeTablePointer(ChangeTable changeTable, SqlServerCdcUtil.StatementResult statementResult) {
+    public ChangeTablePointer(
+            ChangeTable changeTable,
+            Lsn fromLsn,
+            Lsn toLsn,
+            int pageSize,
+            ExecutorService fetchExecutor,
+            BlockingQueue<Connection> connections) {
         this.changeTable = changeTable;
-        this.resultSet = statementResult.getResultSet();
-        this.statement = statementResult.getStatement();
+        this.fromLsn = fromLsn;
+        this.toLsn = toLsn;
+        this.pageSize = pageSize;
+        this.fetchExecutor = fetchExecutor;
+        this.connections = connections;
+        if (changeTable.getStartLsn().isAvailable() && changeTable.getStartLsn().compareTo(toLsn) > 0) {
+            // the capture instance starts after the end of this poll, fn_cdc_get_all_changes would raise error 313
+            LOG.debug("Skipping table {} as its start LSN is greater than {}", changeTable, toLsn);
+        } else {
+            fetchNextPage(null);
+        }
     }
 
     public ChangeTable getChangeTable() {
@@ -51,45 +84,35 @@ public class ChangeTablePointer {
         return currentChangePosition;
     }
 
-    public int getOperation() throws SQLException {
-        return resultSet.getInt(COL_OPERATION);
+    public int getOperation() {
+        return currentRow.operation;
     }
 
     /**
-     * get data form resultSet
+     * get data of current change
      * @return
-     * @throws SQLException
      */
-    public Object[] getData() throws SQLException {
-        final int dataColumnCount = resultSet.getMetaData().getColumnCount() - (COL_DATA - 1);
-        final Object[] data = new Object[dataColumnCount];
-        for (int i = 0; i < dataColumnCount; i++) {
-            data[i] = resultSet.getObject(COL_DATA + i);
-        }
-        return data;
+    public Object[] getData() {
+        return currentRow.data;
     }
 
     /**
      * get types from metadata
      * @return
-     * @throws SQLException
      */
-    public List<String> getTypes() throws SQLException {
-        final int dataColumnCount = resultSet.getMetaData().getColumnCount() - (COL_DATA - 1);
-        List<String> columnTypes = new ArrayList<>();
-        for (int i = 0; i < dataColumnCount; i++) {
-            columnTypes.add(resultSet.getMetaData().getColumnTypeName(COL_DATA + i));
-        }
-        return columnTypes;
+    public List<String> getTypes() {
+        return types;
     }
 
     public boolean next() throws SQLException {
-        completed = !resultSet.next();
-        currentChangePosition = completed ? TxLogPosition.NULL : TxLogPosition.valueOf(Lsn.valueOf(resultSet.getBytes(COL_COMMIT_LSN)), Lsn.valueOf(resultSet.getBytes(COL_ROW_LSN)));
+        if (buffer.isEmpty() && nextPage != null) {
+            takeNextPage();
+        }
+        currentRow = buffer.poll();
+        completed = currentRow == null;
+        currentChangePosition = completed ? TxLogPosition.NULL : currentRow.position;
         if (completed) {
-            LOG.debug("Closing result set of change tables for table {}", changeTable);
-            resultSet.close();
-            statement.close();
+            LOG.debug("All changes of table {} have been read", changeTable);
         }
         return !completed;
     }
@@ -102,9 +125,102 @@ public class ChangeTablePointer {
         return getChangePosition().compareTo(o.getChangePosition());
     }
 
+    /**
+     * wait for the page being fetched, and start fetching the page after it if it is full
+     */
+    private void takeNextPage() throws SQLException {
+        Page page;
+        try {
+            page = nextPage.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("interrupted while fetching changes of table " + changeTable, e);
+        } catch (ExecutionException e) {
+            throw new SQLException("error to fetch changes of table " + changeTable, e.getCause());
+        }
+        nextPage = null;
+        buffer.addAll(page.rows);
+        types = page.types;
+        if (page.rows.size() >= pageSize) {
+            fetchNextPage(page.rows.get(page.rows.size() - 1));
+        }
+    }
+
+    private void fetchNextPage(ChangeRow lastRow) {
+        nextPage = fetchExecutor.submit(() -> {
+            Connection conn = connections.take();
+            try {
+                return fetch(conn, lastRow);
+            } finally {
+                connections.add(conn);
+            }
+        });
+    }
+
+    private Page fetch(Connection conn, ChangeRow lastRow) throws SQLException {
+        SqlServerCdcUtil.StatementResult result = SqlServerCdcUtil.getChangesForTable(
+                conn,
+                changeTable,
+                lastRow == null ? fromLsn : lastRow.position.getCommitLsn(),
+                toLsn,
+                lastRow == null ? null : lastRow.commitLsn,
+                lastRow == null ? null : lastRow.seqval,
+                lastRow == null ? 0 : lastRow.operation,
+                pageSize);
+        try (Statement statement = result.getStatement();
+             ResultSet resultSet = result.getResultSet()) {
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            final int dataColumnCount = metaData.getColumnCount() - (COL_DATA - 1);
+            List<String> columnTypes = new ArrayList<>(dataColumnCount);
+            for (int i = 0; i < dataColumnCount; i++) {
+                columnTypes.add(metaData.getColumnTypeName(COL_DATA + i));
+            }
+
+            List<ChangeRow> rows = new ArrayList<>();
+            while (resultSet.next()) {
+                final Object[] data = new Object[dataColumnCount];
+                for (int i = 0; i < dataColumnCount; i++) {
+                    data[i] = resultSet.getObject(COL_DATA + i);
+                }
+                rows.add(new ChangeRow(
+                        resultSet.getBytes(COL_COMMIT_LSN),
+                        resultSet.getBytes(COL_ROW_LSN),
+                        resultSet.getInt(COL_OPERATION),
+                        data));
+            }
+            return new Page(rows, columnTypes);
+        }
+    }
+
     @Override
     public String toString() {
-        return "ChangeTablePointer [changeTable=" + changeTable + ", resultSet=" + resultSet + ", completed="
+        return "ChangeTablePointer [changeTable=" + changeTable + ", buffered=" + buffer.size() + ", completed="
                 + completed + ", currentChangePosition=" + currentChangePosition + "]";
     }
+
+    private static class ChangeRow {
+        private final byte[] commitLsn;
+        private final byte[] seqval;
+        private final int operation;
+        private final Object[] data;
+        private final TxLogPosition position;
+
+        private ChangeRow(byte[] commitLsn, byte[] seqval, int operation, Object[] data) {
+            this.commitLsn = commitLsn;
+            this.seqval = seqval;
+            this.operation = operation;
+            this.data = data;
+            this.position = TxLogPosition.valueOf(Lsn.valueOf(commitLsn), Lsn.valueOf(seqval));
+        }
+    }
+
+    private static class Page {
+        private final List<ChangeRow> rows;
+        private final List<String> types;
+
+        private Page(List<ChangeRow> rows, List<String> types) {
+            this.rows = rows;
+            this.types = types;
+        }
+    }
 }
@@ -33,6 +33,7 @@ import com.dtstack.flinkx.util.Clock;
 import com.dtstack.flinkx.util.ExceptionUtil;
 import com.dtstack.flinkx.util.Metronome;
 import com.dtstack.flinkx.util.SnowflakeIdWorker;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import org.apache.flink.table.data.RowData;
 
@@ -46,7 +47,12 @@ import java.time.temporal.ChronoUnit;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.PriorityQueue;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
 
 /**
  * Date: 2019/12/04
@@ -54,6 +60,9 @@ import java.util.Set;
  *
  * some code in run() are copied from (https://github.com/debezium/debezium).
  *
+ * changes of all tables are fetched concurrently by fetchThreadSize threads, each with its own connection,
+ * and merged in lsn order. At most maxTransactionsPerPoll transactions are read in one poll.
+ *
  * @author tudou
  */
 public class SqlServerCdcListener implements Runnable {
@@ -68,6 +77,10 @@ public class SqlServerCdcListener implements Runnable {
     private Duration pollInterval;
     private SnowflakeIdWorker idWorker;
     private AbstractCDCRowConverter rowConverter;
+    private ExecutorService fetchExecutor;
+    private BlockingQueue<Connection> fetchConnections;
+    private int fetchSize;
+    private int maxTransactionsPerPoll;
 
     public SqlServerCdcListener(SqlServerCdcInputFormat format) throws SQLException {
         this.format = format;
@@ -85,6 +98,27 @@ public class SqlServerCdcListener implements Runnable {
         this.pollInterval = Duration.of(format.sqlserverCdcConf.getPollInterval(), ChronoUnit.MILLIS);
         idWorker = new SnowflakeIdWorker(1, 1);
         this.rowConverter = format.getRowConverter();
+        this.fetchSize = format.sqlserverCdcConf.getFetchSize();
+        this.maxTransactionsPerPoll = format.sqlserverCdcConf.getMaxTransactionsPerPoll();
+
+        int fetchThreadSize = Math.max(1, format.sqlserverCdcConf.getFetchThreadSize());
+        this.fetchExecutor = Executors.newFixedThreadPool(
+                fetchThreadSize,
+                new ThreadFactoryBuilder().setNameFormat("cdcFetcher-pool-%d").setDaemon(true).build());
+        this.fetchConnections = new LinkedBlockingQueue<>();
+        try {
+            for (int i = 0; i < fetchThreadSize; i++) {
+                Connection fetchConn = SqlServerCdcUtil.getConnection(
+                        format.sqlserverCdcConf.getUrl(),
+                        format.sqlserverCdcConf.getUsername(),
+                        format.sqlserverCdcConf.getPassword());
+                fetchConnections.add(fetchConn);
+                SqlServerCdcUtil.changeDatabase(fetchConn, format.sqlserverCdcConf.getDatabaseName());
+            }
+        } catch (SQLException e) {
+            close();
+            throw e;
+        }
     }
 
     @Override
@@ -109,22 +143,54 @@ public class SqlServerCdcListener implements Runnable {
                     continue;
                 }
 
-                final ChangeTablePointer[] changeTables = getChangeTables(currentMaxLsn);
+                // Read a large backlog in several polls instead of one giant query,
+                // the first run has no position yet and counts the transactions from the min lsn of the tables
+                Lsn fromLsn = getFromLsn();
+                Lsn capFromLsn = fromLsn.isAvailable() ? fromLsn : SqlServerCdcUtil.getMinLsn(conn, tablesSlot);
+                Lsn toLsn = SqlServerCdcUtil.getMaxLsnOfTransactions(conn, capFromLsn, currentMaxLsn, maxTransactionsPerPoll);
+
+                final ChangeTablePointer[] changeTables = getChangeTables(fromLsn, toLsn);
                 readData(changeTables);
 
-                LOG.debug("currentMaxLsn = {}", logPosition);
-                logPosition = TxLogPosition.valueOf(currentMaxLsn);
+                LOG.debug("currentMaxLsn = {}, toLsn = {}", currentMaxLsn, toLsn);
+                logPosition = TxLogPosition.valueOf(toLsn);
                 conn.rollback();
             }
         } catch (Exception e) {
             String errorMessage = ExceptionUtil.getErrorMessage(e);
             LOG.error(errorMessage);
+        } finally {
+            close();
+        }
+    }
+
+    private void close() {
+        fetchExecutor.shutdownNow();
+        Connection fetchConn;
+        while ((fetchConn = fetchConnections.poll()) != null) {
+            try {
+                fetchConn.close();
+            } catch (SQLException e) {
+                LOG.warn("error to close fetch connection, e = {}", ExceptionUtil.getErrorMessage(e));
+            }
         }
     }
 
     private void readData(ChangeTablePointer[] changeTables) throws Exception {
+        // heap of the current change of each table, the table of the last change is added back after moving to its next change
+        PriorityQueue<ChangeTablePointer> heads = new PriorityQueue<>(Math.max(1, changeTables.length), ChangeTablePointer::compareTo);
+        for (ChangeTablePointer changeTable : changeTables) {
+            if (!changeTable.isCompleted()) {
+                heads.add(changeTable);
+            }
+        }
+
+        ChangeTablePointer tableWithSmallestLsn = null;
         for (; ; ) {
-            ChangeTablePointer tableWithSmallestLsn = getTableWithSmallestLsn(changeTables);
+            if (tableWithSmallestLsn != null && !tableWithSmallestLsn.isCompleted()) {
+                heads.add(tableWithSmallestLsn);
+            }
+            tableWithSmallestLsn = heads.poll();
             if (tableWithSmallestLsn == null) {
                 break;
             }
@@ -226,40 +292,22 @@ public class SqlServerCdcListener implements Runnable {
         }
     }
 
-    private ChangeTablePointer[] getChangeTables(Lsn currentMaxLsn) throws SQLException {
-        // Reading interval is inclusive so we need to move LSN forward but not for first
-        // run as TX might not be streamed completely
-        Lsn fromLsn = getFromLsn();
-
-        SqlServerCdcUtil.StatementResult[] resultSets = SqlServerCdcUtil.getChangesForTables(
-                conn,
-                tablesSlot,
-                fromLsn,
-                currentMaxLsn);
-        int tableCount = resultSets.length;
+    private ChangeTablePointer[] getChangeTables(Lsn fromLsn, Lsn toLsn) throws SQLException {
+        int tableCount = tablesSlot.length;
         ChangeTablePointer[] changeTables = new ChangeTablePointer[tableCount];
+        // the first page of all tables are fetched concurrently
         for (int i = 0; i < tableCount; i++) {
-            changeTables[i] = new ChangeTablePointer(tablesSlot[i], resultSets[i]);
-            changeTables[i].next();
+            changeTables[i] = new ChangeTablePointer(tablesSlot[i], fromLsn, toLsn, fetchSize, fetchExecutor, fetchConnections);
         }
-
-        return changeTables;
-    }
-
-    private ChangeTablePointer getTableWithSmallestLsn(ChangeTablePointer[] changeTables) throws SQLException {
-        ChangeTablePointer tableWithSmallestLsn = null;
         for (ChangeTablePointer changeTable : changeTables) {
-            if (changeTable.isCompleted()) {
-                continue;
-            }
-            if (tableWithSmallestLsn == null || changeTable.compareTo(tableWithSmallestLsn) < 0) {
-                tableWithSmallestLsn = changeTable;
-            }
+            changeTable.next();
         }
 
-        return tableWithSmallestLsn;
+        return changeTables;
     }
 
+    // Reading interval is inclusive so we need to move LSN forward but not for first
+    // run as TX might not be streamed completely
     private Lsn getFromLsn() throws SQLException {
         if (logPosition.getCommitLsn().isAvailable()) {
             return SqlServerCdcUtil.incrementLsn(conn, logPosition.getCommitLsn());
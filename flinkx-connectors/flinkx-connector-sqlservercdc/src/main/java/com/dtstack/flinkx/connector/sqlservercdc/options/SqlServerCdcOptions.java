@@ -80,5 +80,23 @@ public class SqlServerCdcOptions {
                     .defaultValue(1000L)
                     .withDescription("SqlServer pollInterval.");
 
+    public static final ConfigOption<Integer> FETCH_THREAD_SIZE =
+            ConfigOptions.key("fetchThreadSize")
+                    .intType()
+                    .defaultValue(4)
+                    .withDescription("SqlServer number of threads fetching changes of tables concurrently.");
+
+    public static final ConfigOption<Integer> FETCH_SIZE =
+            ConfigOptions.key("fetchSize")
+                    .intType()
+                    .defaultValue(1000)
+                    .withDescription("SqlServer max number of changes fetched in one query of a table.");
+
+    public static final ConfigOption<Integer> MAX_TRANSACTIONS_PER_POLL =
+            ConfigOptions.key("maxTransactionsPerPoll")
+                    .intType()
+                    .defaultValue(10000)
+                    .withDescription("SqlServer max number of transactions read in one poll.");
+
 
 }
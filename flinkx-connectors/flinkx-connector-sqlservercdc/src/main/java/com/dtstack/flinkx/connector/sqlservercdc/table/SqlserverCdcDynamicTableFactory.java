@@ -66,6 +66,9 @@ public class SqlservercdcDynamicTableFactory implements DynamicTableSourceFactor
         options.add(SqlServerCdcOptions.CAT);
         options.add(SqlServerCdcOptions.LSN);
         options.add(SqlServerCdcOptions.POLLINTERVAL);
+        options.add(SqlServerCdcOptions.FETCH_THREAD_SIZE);
+        options.add(SqlServerCdcOptions.FETCH_SIZE);
+        options.add(SqlServerCdcOptions.MAX_TRANSACTIONS_PER_POLL);
         options.add(JsonOptions.TIMESTAMP_FORMAT);
         return options;
     }
@@ -99,6 +102,9 @@ public class SqlservercdcDynamicTableFactory implements DynamicTableSourceFactor
         sqlServerCdcConf.setPassword(config.get(SqlServerCdcOptions.PASSWORD));
         sqlServerCdcConf.setUrl(config.get(SqlServerCdcOptions.JDBC_URL));
         sqlServerCdcConf.setPollInterval(config.get(SqlServerCdcOptions.POLLINTERVAL));
+        sqlServerCdcConf.setFetchThreadSize(config.get(SqlServerCdcOptions.FETCH_THREAD_SIZE));
+        sqlServerCdcConf.setFetchSize(config.get(SqlServerCdcOptions.FETCH_SIZE));
+        sqlServerCdcConf.setMaxTransactionsPerPoll(config.get(SqlServerCdcOptions.MAX_TRANSACTIONS_PER_POLL));
         sqlServerCdcConf.setCat(config.get(SqlServerCdcOptions.CAT));
         sqlServerCdcConf.setPavingData(true);
         sqlServerCdcConf.setDatabaseName(config.get(SqlServerCdcOptions.DATABASE));
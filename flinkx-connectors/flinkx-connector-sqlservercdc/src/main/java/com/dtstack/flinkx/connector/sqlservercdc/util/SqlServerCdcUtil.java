@@ -70,7 +70,11 @@ public class SqlServerCdcUtil {
     private static final String GET_LIST_OF_CDC_ENABLED_TABLES = "EXEC sys.sp_cdc_help_change_data_capture";
     private static final String GET_MAX_LSN = "SELECT sys.fn_cdc_get_max_lsn()";
     private static final String INCREMENT_LSN = "SELECT sys.fn_cdc_increment_lsn(?)";
-    private static final String GET_ALL_CHANGES_FOR_TABLE = "SELECT * FROM cdc.[fn_cdc_get_all_changes_#](ISNULL(?,sys.fn_cdc_get_min_lsn('#')), ?, N'all update old')";
+    private static final String GET_MIN_LSN = "SELECT sys.fn_cdc_get_min_lsn(?)";
+    private static final String GET_ALL_CHANGES_FOR_TABLE = "SELECT TOP (?) * FROM cdc.[fn_cdc_get_all_changes_#](ISNULL(?,sys.fn_cdc_get_min_lsn('#')), ?, N'all update old')";
+    private static final String AFTER_CHANGE = " WHERE __$start_lsn > ? OR (__$start_lsn = ? AND (__$seqval > ? OR (__$seqval = ? AND __$operation > ?)))";
+    private static final String ORDER_BY_CHANGE = " ORDER BY __$start_lsn, __$seqval, __$operation";
+    private static final String GET_MAX_LSN_OF_TRANSACTIONS = "SELECT MAX(start_lsn) FROM (SELECT TOP (?) start_lsn FROM cdc.lsn_time_mapping WHERE start_lsn >= ? AND start_lsn <= ? AND tran_id <> 0x00 ORDER BY start_lsn) t";
 
     public static final int RETRY_TIMES = 3;
 
@@ -253,36 +257,123 @@ public class SqlServerCdcUtil {
     }
 
     /**
-     * get changes resultSet by tables
+     * get the smallest min lsn of the capture instances, used as the start of the first poll
      * @param conn
      * @param changeTables
+     * @return Lsn.NULL if no capture instance has a min lsn
+     * @throws SQLException
+     */
+    public static Lsn getMinLsn(Connection conn, ChangeTable[] changeTables) throws SQLException {
+        Lsn ret = Lsn.NULL;
+        try (PreparedStatement ps = conn.prepareStatement(GET_MIN_LSN)) {
+            ps.setQueryTimeout(QUERY_TIME_OUT);
+            for (ChangeTable changeTable : changeTables) {
+                ps.setString(1, changeTable.getCaptureInstance());
+                try (ResultSet rs = ps.executeQuery()) {
+                    // fn_cdc_get_min_lsn returns 0x00 when the capture instance does not exist
+                    Lsn lsn = rs.next() ? Lsn.valueOf(rs.getBytes(1)) : Lsn.NULL;
+                    if (lsn.isAvailable() && !isZero(lsn) && (!ret.isAvailable() || lsn.compareTo(ret) < 0)) {
+                        ret = lsn;
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            LOG.error("error to query min lsn, e = {}", ExceptionUtil.getErrorMessage(e));
+            throw e;
+        }
+        return ret;
+    }
+
+    private static boolean isZero(Lsn lsn) {
+        for (byte b : lsn.getBinary()) {
+            if (b != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * get the max lsn of the first transactions in [fromLsn, toLsn], used to limit the changes read in one poll
+     * @param conn
+     * @param fromLsn
+     * @param toLsn
+     * @param maxTransactions
+     * @return toLsn if there are no more than maxTransactions transactions
+     * @throws SQLException
+     */
+    public static Lsn getMaxLsnOfTransactions(Connection conn, Lsn fromLsn, Lsn toLsn, int maxTransactions) throws SQLException {
+        if (!fromLsn.isAvailable() || maxTransactions <= 0) {
+            return toLsn;
+        }
+        Lsn ret = toLsn;
+        try (PreparedStatement ps = conn.prepareStatement(GET_MAX_LSN_OF_TRANSACTIONS)) {
+            ps.setInt(1, maxTransactions);
+            ps.setBytes(2, fromLsn.getBinary());
+            ps.setBytes(3, toLsn.getBinary());
+            ps.setQueryTimeout(QUERY_TIME_OUT);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next() && rs.getBytes(1) != null) {
+                    ret = Lsn.valueOf(rs.getBytes(1));
+                }
+            }
+        } catch (SQLException e) {
+            LOG.error("error to query max lsn of transactions, e = {}", ExceptionUtil.getErrorMessage(e));
+            throw e;
+        }
+        return ret;
+    }
+
+    /**
+     * get one page of changes in [intervalFromLsn, intervalToLsn] of a table, ordered by lsn, seqval and operation
+     * @param conn
+     * @param changeTable
      * @param intervalFromLsn
      * @param intervalToLsn
+     * @param lastLsn start lsn of the last change of the previous page, null for the first page
+     * @param lastSeqval seqval of the last change of the previous page
+     * @param lastOperation operation of the last change of the previous page
+     * @param pageSize
      * @return
      * @throws SQLException
      */
-    public static StatementResult[] getChangesForTables(Connection conn, ChangeTable[] changeTables, Lsn intervalFromLsn, Lsn intervalToLsn) throws SQLException {
-        StatementResult[] resultSets = new StatementResult[changeTables.length];
-        String sql;
-        int idx = 0;
+    public static StatementResult getChangesForTable(
+            Connection conn,
+            ChangeTable changeTable,
+            Lsn intervalFromLsn,
+            Lsn intervalToLsn,
+            byte[] lastLsn,
+            byte[] lastSeqval,
+            int lastOperation,
+            int pageSize) throws SQLException {
+        String sql = GET_ALL_CHANGES_FOR_TABLE.replace(STATEMENTS_PLACEHOLDER, changeTable.getCaptureInstance())
+                + (lastLsn == null ? "" : AFTER_CHANGE)
+                + ORDER_BY_CHANGE;
+        Lsn fromLsn = !intervalFromLsn.isAvailable() || changeTable.getStartLsn().compareTo(intervalFromLsn) > 0
+                ? changeTable.getStartLsn()
+                : intervalFromLsn;
+
+        PreparedStatement statement = conn.prepareStatement(sql);
         try {
-            for (ChangeTable changeTable : changeTables) {
-                sql = GET_ALL_CHANGES_FOR_TABLE.replace(STATEMENTS_PLACEHOLDER, changeTable.getCaptureInstance());
-                Lsn fromLsn = changeTable.getStartLsn().compareTo(intervalFromLsn) > 0 ? changeTable.getStartLsn() : intervalFromLsn;
-
-                PreparedStatement statement = conn.prepareStatement(sql);
-                statement.setQueryTimeout(QUERY_TIME_OUT);
-                statement.setBytes(1, fromLsn.getBinary());
-                statement.setBytes(2, intervalToLsn.getBinary());
-                ResultSet rs = statement.executeQuery();
-                resultSets[idx] = new StatementResult(statement, rs);
-                idx++;
+            statement.setQueryTimeout(QUERY_TIME_OUT);
+            statement.setFetchSize(pageSize);
+            statement.setInt(1, pageSize);
+            statement.setBytes(2, fromLsn.getBinary());
+            statement.setBytes(3, intervalToLsn.getBinary());
+            if (lastLsn != null) {
+                statement.setBytes(4, lastLsn);
+                statement.setBytes(5, lastLsn);
+                statement.setBytes(6, lastSeqval);
+                statement.setBytes(7, lastSeqval);
+                statement.setInt(8, lastOperation);
             }
-        } catch (Exception e) {
-            LOG.error("error to getChangesForTables, e = {}", ExceptionUtil.getErrorMessage(e));
+            ResultSet rs = statement.executeQuery();
+            return new StatementResult(statement, rs);
+        } catch (SQLException e) {
+            LOG.error("error to getChangesForTable {}, e = {}", changeTable, ExceptionUtil.getErrorMessage(e));
+            statement.close();
             throw e;
         }
-        return resultSets;
     }
 
     /**
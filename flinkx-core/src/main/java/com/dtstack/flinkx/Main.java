@@ -191,6 +191,7 @@ public class Main {
                     ((DataStreamSource<RowData>) dataStreamSource)
                             .setParallelism(speed.getReaderChannel());
         }
+        dataStreamSource = sourceFactory.partitionSource(dataStreamSource);
 
         DataStream<RowData> dataStream;
         boolean transformer =
@@ -39,6 +39,10 @@ public class BaseFileConf extends FlinkxCommonConf{
     private String encoding = StandardCharsets.UTF_8.name();
     private long maxFileSize = ConstantValue.STORE_SIZE_G;
     private long nextCheckRows = 5000;
+    /** 单个文件最大行数，小于等于0表示不限制 */
+    private long maxFileRows = 0;
+    /** 单个文件从写入第一条数据开始的最大时长，单位毫秒，小于等于0表示不限制 */
+    private long rolloverInterval = 0;
 
     public String getPath() {
         return path;
@@ -96,6 +100,22 @@ public class BaseFileConf extends FlinkxCommonConf{
         this.nextCheckRows = nextCheckRows;
     }
 
+    public long getMaxFileRows() {
+        return maxFileRows;
+    }
+
+    public void setMaxFileRows(long maxFileRows) {
+        this.maxFileRows = maxFileRows;
+    }
+
+    public long getRolloverInterval() {
+        return rolloverInterval;
+    }
+
+    public void setRolloverInterval(long rolloverInterval) {
+        this.rolloverInterval = rolloverInterval;
+    }
+
     @Override
     public String toString() {
         return "BaseFileConf{" +
@@ -106,6 +126,8 @@ public class BaseFileConf extends FlinkxCommonConf{
                 ", encoding='" + encoding + '\'' +
                 ", maxFileSize=" + maxFileSize +
                 ", nextCheckRows=" + nextCheckRows +
+                ", maxFileRows=" + maxFileRows +
+                ", rolloverInterval=" + rolloverInterval +
                 '}';
     }
 }
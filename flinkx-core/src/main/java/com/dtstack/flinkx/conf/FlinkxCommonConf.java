@@ -53,6 +53,16 @@ public class FlinkxCommonConf implements Serializable {
     private int batchSize = 1;
     /** Time when the timer is regularly written to the database */
     private long flushIntervalMills = 10000L;
+    /** How the size of a record is computed for the byte metrics: column, object or a class name */
+    private String rowSizeEstimator = "column";
+    /** Estimate the size of one record in every rowSizeSampleInterval records */
+    private int rowSizeSampleInterval = 1;
+    /** Write batches in a background thread while the task thread fills the next one */
+    private boolean asyncFlush = false;
+    /** Max number of batches queued or being written when asyncFlush is enabled */
+    private int maxInFlightBatches = 2;
+    /** Number of splits created for each reader subtask, splits are handed out dynamically when greater than 1 */
+    private int splitFactor = 1;
 
     public long getSpeedBytes() {
         return speedBytes;
@@ -142,6 +152,46 @@ public class FlinkxCommonConf implements Serializable {
         this.flushIntervalMills = flushIntervalMills;
     }
 
+    public String getRowSizeEstimator() {
+        return rowSizeEstimator;
+    }
+
+    public void setRowSizeEstimator(String rowSizeEstimator) {
+        this.rowSizeEstimator = rowSizeEstimator;
+    }
+
+    public int getRowSizeSampleInterval() {
+        return rowSizeSampleInterval;
+    }
+
+    public void setRowSizeSampleInterval(int rowSizeSampleInterval) {
+        this.rowSizeSampleInterval = rowSizeSampleInterval;
+    }
+
+    public boolean isAsyncFlush() {
+        return asyncFlush;
+    }
+
+    public void setAsyncFlush(boolean asyncFlush) {
+        this.asyncFlush = asyncFlush;
+    }
+
+    public int getMaxInFlightBatches() {
+        return maxInFlightBatches;
+    }
+
+    public void setMaxInFlightBatches(int maxInFlightBatches) {
+        this.maxInFlightBatches = maxInFlightBatches;
+    }
+
+    public int getSplitFactor() {
+        return splitFactor;
+    }
+
+    public void setSplitFactor(int splitFactor) {
+        this.splitFactor = splitFactor;
+    }
+
     @Override
     public String toString() {
         return "FlinkxCommonConf{" +
@@ -156,6 +206,11 @@ public class FlinkxCommonConf implements Serializable {
                 ", column=" + column +
                 ", batchSize=" + batchSize +
                 ", flushIntervalMills=" + flushIntervalMills +
+                ", rowSizeEstimator='" + rowSizeEstimator + '\'' +
+                ", rowSizeSampleInterval=" + rowSizeSampleInterval +
+                ", asyncFlush=" + asyncFlush +
+                ", maxInFlightBatches=" + maxInFlightBatches +
+                ", splitFactor=" + splitFactor +
                 '}';
     }
 }
@@ -51,6 +51,30 @@ public class Metrics {
 
     public static final String SNAPSHOT_WRITES = "snapshotWrite";
 
+    public static final String NUM_BATCH_RECOVERIES = "batchRecoveries";
+
+    public static final String NUM_RECOVERY_ROUND_TRIPS = "recoveryRoundTrips";
+
+    public static final String LOOKUP_CACHE_ROWS = "lookupCacheRows";
+
+    public static final String LOOKUP_CACHE_DATA_BYTES = "lookupCacheDataBytes";
+
+    public static final String LOOKUP_CACHE_INDEX_BYTES = "lookupCacheIndexBytes";
+
+    public static final String LOOKUP_CACHE_RELOADS = "lookupCacheReloads";
+
+    public static final String LOOKUP_CACHE_HITS = "lookupCacheHits";
+
+    public static final String LOOKUP_CACHE_MISSES = "lookupCacheMisses";
+
+    public static final String LOOKUP_CACHE_LOAD_TIME = "lookupCacheLoadTime";
+
+    public static final String LOOKUP_CACHE_EVICTIONS = "lookupCacheEvictions";
+
+    public static final String LOGMINER_SCN_LAG = "logMinerScnLag";
+
+    public static final String LOGMINER_SCN_WINDOW_SIZE = "logMinerScnWindowSize";
+
     public static final String JOB_NAME = "<job_name>";
 
     public static final String JOB_ID = "<job_id>";
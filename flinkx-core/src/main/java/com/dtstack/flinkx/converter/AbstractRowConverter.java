@@ -65,6 +65,10 @@ public abstract class AbstractRowConverter<SourceT, LookupT, SinkT, T> implement
         this.toExternalConverters = new ISerializationConverter[converterSize];
     }
 
+    public RowType getRowType() {
+        return rowType;
+    }
+
     protected IDeserializationConverter wrapIntoNullableInternalConverter(
             IDeserializationConverter IDeserializationConverter) {
         return val -> {
@@ -0,0 +1,432 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.decoder;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 只解析指定字段的json解码器。
+ *
+ * <p>字段名编译成按utf-8字节匹配的前缀树，直接扫描byte[]一次，不需要的字段（包括嵌套的对象、数组）直接跳过，
+ * 不会先把消息转成String，也不会构建完整的Map。和{@link JsonDecoder}一样，消息中没有message字段时
+ * message字段的值为原始消息。
+ *
+ * <p>解析出的值：字符串为String，整数为Integer/Long，小数及超出long范围的整数为BigDecimal，
+ * 布尔值为Boolean，对象和数组为其json文本。
+ *
+ * <p>只接受标准json，不支持Gson宽松模式下的key不加引号、单引号字符串等写法，这类消息返回false，
+ * 由调用方交给{@link JsonDecoder}处理。
+ *
+ * <p>非线程安全，每个subtask使用一个实例。
+ */
+public class ProjectedJsonDecoder implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String KEY_MESSAGE = "message";
+    /** 不超过该位数的整数可以直接按long累加 */
+    private static final int MAX_LONG_DIGITS = 18;
+
+    private final TrieNode root = new TrieNode();
+    private final int fieldCount;
+    private final int messageIndex;
+
+    private transient byte[] buf;
+    private transient int pos;
+    private transient int end;
+
+    public ProjectedJsonDecoder(List<String> fieldNames) {
+        this.fieldCount = fieldNames.size();
+        this.messageIndex = fieldNames.indexOf(KEY_MESSAGE);
+        for (int i = 0; i < fieldNames.size(); i++) {
+            TrieNode node = root;
+            for (byte b : fieldNames.get(i).getBytes(StandardCharsets.UTF_8)) {
+                node = node.getOrAddChild(b);
+            }
+            node.addFieldIndex(i);
+        }
+    }
+
+    /**
+     * 解码消息，按字段下标把值写入values，消息中不存在的字段为null
+     *
+     * @param message utf-8编码的json
+     * @param values 长度不小于字段数量
+     * @return 消息不是合法的json对象时返回false，此时只有message字段有值
+     */
+    public boolean decode(byte[] message, Object[] values) {
+        Arrays.fill(values, 0, fieldCount, null);
+        buf = message;
+        pos = 0;
+        end = message.length;
+        boolean success = true;
+        try {
+            skipWhitespace();
+            expect('{');
+            readObject(values);
+        } catch (IllegalArgumentException e) {
+            Arrays.fill(values, 0, fieldCount, null);
+            success = false;
+        } finally {
+            buf = null;
+        }
+        if (messageIndex >= 0 && values[messageIndex] == null) {
+            values[messageIndex] = new String(message, StandardCharsets.UTF_8);
+        }
+        return success;
+    }
+
+    private void readObject(Object[] values) {
+        skipWhitespace();
+        if (peek() == '}') {
+            pos++;
+            return;
+        }
+        while (true) {
+            skipWhitespace();
+            expect('"');
+            TrieNode node = matchKey();
+            skipWhitespace();
+            expect(':');
+            skipWhitespace();
+            if (node != null && node.fieldIndexes != null) {
+                Object value = readValue();
+                for (int index : node.fieldIndexes) {
+                    values[index] = value;
+                }
+            } else {
+                skipValue();
+            }
+            skipWhitespace();
+            byte c = next();
+            if (c == '}') {
+                return;
+            }
+            if (c != ',') {
+                throw error();
+            }
+        }
+    }
+
+    /**
+     * 从key的第一个字节开始沿前缀树匹配，返回匹配到的节点，不是配置的字段时返回null。
+     * key中有转义字符时先解码再匹配
+     */
+    private TrieNode matchKey() {
+        int start = pos;
+        TrieNode node = root;
+        while (pos < end) {
+            byte b = buf[pos++];
+            if (b == '"') {
+                return node;
+            }
+            if (b == '\\') {
+                pos = start;
+                return find(readString().getBytes(StandardCharsets.UTF_8));
+            }
+            if (node != null) {
+                node = node.getChild(b);
+            }
+        }
+        throw error();
+    }
+
+    private TrieNode find(byte[] key) {
+        TrieNode node = root;
+        for (int i = 0; i < key.length && node != null; i++) {
+            node = node.getChild(key[i]);
+        }
+        return node;
+    }
+
+    private Object readValue() {
+        byte c = peek();
+        switch (c) {
+            case '"':
+                pos++;
+                return readString();
+            case '{':
+            case '[':
+                int start = pos;
+                skipValue();
+                return new String(buf, start, pos - start, StandardCharsets.UTF_8);
+            case 't':
+                expectLiteral("true");
+                return Boolean.TRUE;
+            case 'f':
+                expectLiteral("false");
+                return Boolean.FALSE;
+            case 'n':
+                expectLiteral("null");
+                return null;
+            default:
+                return readNumber();
+        }
+    }
+
+    /** 从左引号之后开始读取字符串，没有转义字符时直接按utf-8解码 */
+    private String readString() {
+        int start = pos;
+        while (pos < end) {
+            byte b = buf[pos];
+            if (b == '"') {
+                pos++;
+                return new String(buf, start, pos - 1 - start, StandardCharsets.UTF_8);
+            }
+            if (b == '\\') {
+                return readEscapedString(start);
+            }
+            pos++;
+        }
+        throw error();
+    }
+
+    private String readEscapedString(int start) {
+        StringBuilder sb = new StringBuilder(pos - start + 16);
+        int segmentStart = start;
+        while (pos < end) {
+            byte b = buf[pos];
+            if (b == '"') {
+                sb.append(new String(buf, segmentStart, pos - segmentStart, StandardCharsets.UTF_8));
+                pos++;
+                return sb.toString();
+            }
+            if (b != '\\') {
+                pos++;
+                continue;
+            }
+            sb.append(new String(buf, segmentStart, pos - segmentStart, StandardCharsets.UTF_8));
+            pos++;
+            byte escaped = next();
+            switch (escaped) {
+                case '"':
+                case '\\':
+                case '/':
+                    sb.append((char) escaped);
+                    break;
+                case 'b':
+                    sb.append('\b');
+                    break;
+                case 'f':
+                    sb.append('\f');
+                    break;
+                case 'n':
+                    sb.append('\n');
+                    break;
+                case 'r':
+                    sb.append('\r');
+                    break;
+                case 't':
+                    sb.append('\t');
+                    break;
+                case 'u':
+                    if (pos + 4 > end) {
+                        throw error();
+                    }
+                    int ch = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = Character.digit(buf[pos++], 16);
+                        if (digit < 0) {
+                            throw error();
+                        }
+                        ch = (ch << 4) | digit;
+                    }
+                    sb.append((char) ch);
+                    break;
+                default:
+                    throw error();
+            }
+            segmentStart = pos;
+        }
+        throw error();
+    }
+
+    private Object readNumber() {
+        int start = pos;
+        boolean negative = false;
+        if (peek() == '-') {
+            negative = true;
+            pos++;
+        }
+        long value = 0;
+        int digits = 0;
+        while (pos < end && buf[pos] >= '0' && buf[pos] <= '9') {
+            value = value * 10 + (buf[pos] - '0');
+            digits++;
+            pos++;
+        }
+        if (digits == 0) {
+            throw error();
+        }
+        boolean integral = true;
+        while (pos < end && isNumberPart(buf[pos])) {
+            integral = false;
+            pos++;
+        }
+        if (integral && digits <= MAX_LONG_DIGITS) {
+            value = negative ? -value : value;
+            if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+                return (int) value;
+            }
+            return value;
+        }
+        char[] chars = new char[pos - start];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) buf[start + i];
+        }
+        try {
+            return new BigDecimal(chars);
+        } catch (NumberFormatException e) {
+            throw error();
+        }
+    }
+
+    private static boolean isNumberPart(byte b) {
+        return (b >= '0' && b <= '9') || b == '.' || b == 'e' || b == 'E' || b == '+' || b == '-';
+    }
+
+    /** 跳过一个值，嵌套的对象和数组只做括号匹配，不解析内容 */
+    private void skipValue() {
+        byte c = next();
+        if (c == '"') {
+            skipString();
+        } else if (c == '{' || c == '[') {
+            int depth = 1;
+            while (depth > 0) {
+                byte b = next();
+                if (b == '"') {
+                    skipString();
+                } else if (b == '{' || b == '[') {
+                    depth++;
+                } else if (b == '}' || b == ']') {
+                    depth--;
+                }
+            }
+        } else {
+            while (pos < end) {
+                byte b = buf[pos];
+                if (b == ',' || b == '}' || b == ']' || isWhitespace(b)) {
+                    break;
+                }
+                pos++;
+            }
+        }
+    }
+
+    private void skipString() {
+        while (pos < end) {
+            byte b = buf[pos++];
+            if (b == '\\') {
+                pos++;
+            } else if (b == '"') {
+                return;
+            }
+        }
+        throw error();
+    }
+
+    private void expectLiteral(String literal) {
+        if (pos + literal.length() > end) {
+            throw error();
+        }
+        for (int i = 0; i < literal.length(); i++) {
+            if (buf[pos++] != literal.charAt(i)) {
+                throw error();
+            }
+        }
+    }
+
+    private void expect(char c) {
+        if (next() != c) {
+            throw error();
+        }
+    }
+
+    private byte next() {
+        if (pos >= end) {
+            throw error();
+        }
+        return buf[pos++];
+    }
+
+    private byte peek() {
+        if (pos >= end) {
+            throw error();
+        }
+        return buf[pos];
+    }
+
+    private void skipWhitespace() {
+        while (pos < end && isWhitespace(buf[pos])) {
+            pos++;
+        }
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+
+    private IllegalArgumentException error() {
+        return new IllegalArgumentException("malformed json at position " + pos);
+    }
+
+    /** 前缀树节点，子节点数量很少，直接顺序查找 */
+    private static class TrieNode implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private byte[] labels = new byte[0];
+        private TrieNode[] children = new TrieNode[0];
+        /** 以该节点结尾的字段下标，字段名重复时有多个 */
+        private int[] fieldIndexes;
+
+        TrieNode getChild(byte b) {
+            for (int i = 0; i < labels.length; i++) {
+                if (labels[i] == b) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        TrieNode getOrAddChild(byte b) {
+            TrieNode child = getChild(b);
+            if (child == null) {
+                child = new TrieNode();
+                labels = Arrays.copyOf(labels, labels.length + 1);
+                labels[labels.length - 1] = b;
+                children = Arrays.copyOf(children, children.length + 1);
+                children[children.length - 1] = child;
+            }
+            return child;
+        }
+
+        void addFieldIndex(int index) {
+            if (fieldIndexes == null) {
+                fieldIndexes = new int[] {index};
+            } else {
+                fieldIndexes = Arrays.copyOf(fieldIndexes, fieldIndexes.length + 1);
+                fieldIndexes[fieldIndexes.length - 1] = index;
+            }
+        }
+    }
+}
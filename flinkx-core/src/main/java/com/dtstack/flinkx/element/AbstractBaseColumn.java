@@ -150,6 +150,6 @@ public abstract class AbstractBaseColumn implements Serializable {
 
     @Override
     public String toString() {
-        return this.data == null ? "" : this.asString();
+        return this.getData() == null ? "" : this.asString();
     }
 }
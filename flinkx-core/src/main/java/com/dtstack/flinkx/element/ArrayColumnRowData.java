@@ -0,0 +1,373 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.element;
+
+import org.apache.flink.table.data.DecimalData;
+import org.apache.flink.table.data.StringData;
+import org.apache.flink.table.data.TimestampData;
+import org.apache.flink.types.RowKind;
+
+import com.dtstack.flinkx.element.column.DateColumn;
+import com.dtstack.flinkx.element.column.DoubleColumn;
+import com.dtstack.flinkx.element.column.FloatColumn;
+import com.dtstack.flinkx.element.column.IntColumn;
+import com.dtstack.flinkx.element.column.LongColumn;
+import com.dtstack.flinkx.element.column.TimeColumn;
+import com.dtstack.flinkx.throwable.FlinkxRuntimeException;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * A {@link ColumnRowData} with a fixed arity whose fields live in arrays instead of a list.
+ *
+ * <p>int, long, float, double, date and time fields are kept unboxed in a long slot and read back
+ * through the {@link org.apache.flink.table.data.RowData} getters without any allocation, every
+ * other field is kept as an {@link AbstractBaseColumn}. Null fields are tracked by a bitmap. A
+ * column object for a primitive slot is only created when {@link #getField(int)} is called.
+ *
+ * <p>Like {@link ColumnRowData}, the string, decimal, timestamp and binary getters return null for
+ * a null field, callers check {@link #isNullAt(int)} before the primitive getters.
+ */
+public class ArrayColumnRowData extends ColumnRowData {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final byte SLOT_COLUMN = 0;
+    public static final byte SLOT_INT = 1;
+    public static final byte SLOT_LONG = 2;
+    public static final byte SLOT_FLOAT = 3;
+    public static final byte SLOT_DOUBLE = 4;
+    public static final byte SLOT_DATE = 5;
+    public static final byte SLOT_TIME = 6;
+
+    private final AbstractBaseColumn[] columns;
+    private final long[] values;
+    private final byte[] slotTypes;
+    private final long[] nullBits;
+    /** next position used by {@link #addField(AbstractBaseColumn)} */
+    private int writePos;
+
+    public ArrayColumnRowData(int arity) {
+        this(RowKind.INSERT, arity);
+    }
+
+    public ArrayColumnRowData(RowKind kind, int arity) {
+        super(kind);
+        this.columns = new AbstractBaseColumn[arity];
+        this.values = new long[arity];
+        this.slotTypes = new byte[arity];
+        this.nullBits = new long[(arity + 63) >>> 6];
+        // all fields are null until they are set
+        for (int i = 0; i < arity; i++) {
+            nullBits[i >>> 6] |= 1L << i;
+        }
+    }
+
+    public void setInt(int pos, int value) {
+        setPrimitive(pos, SLOT_INT, value);
+    }
+
+    public void setLong(int pos, long value) {
+        setPrimitive(pos, SLOT_LONG, value);
+    }
+
+    public void setFloat(int pos, float value) {
+        setPrimitive(pos, SLOT_FLOAT, Float.floatToRawIntBits(value));
+    }
+
+    public void setDouble(int pos, double value) {
+        setPrimitive(pos, SLOT_DOUBLE, Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * @param pos field position
+     * @param millis epoch milliseconds of the date
+     */
+    public void setDate(int pos, long millis) {
+        setPrimitive(pos, SLOT_DATE, millis);
+    }
+
+    /**
+     * @param pos field position
+     * @param millis epoch milliseconds of the time
+     */
+    public void setTime(int pos, long millis) {
+        setPrimitive(pos, SLOT_TIME, millis);
+    }
+
+    public void setNullAt(int pos) {
+        columns[pos] = null;
+        slotTypes[pos] = SLOT_COLUMN;
+        nullBits[pos >>> 6] |= 1L << pos;
+    }
+
+    private void setPrimitive(int pos, byte slotType, long value) {
+        columns[pos] = null;
+        values[pos] = value;
+        slotTypes[pos] = slotType;
+        nullBits[pos >>> 6] &= ~(1L << pos);
+    }
+
+    @Override
+    public void setField(int pos, AbstractBaseColumn value) {
+        if (value == null) {
+            setNullAt(pos);
+        } else if (value instanceof IntColumn) {
+            setInt(pos, ((IntColumn) value).intValue());
+        } else if (value instanceof LongColumn) {
+            setLong(pos, ((LongColumn) value).longValue());
+        } else if (value instanceof FloatColumn) {
+            setFloat(pos, ((FloatColumn) value).floatValue());
+        } else if (value instanceof DoubleColumn) {
+            setDouble(pos, ((DoubleColumn) value).doubleValue());
+        } else if (value instanceof DateColumn) {
+            setDate(pos, ((DateColumn) value).getMillis());
+        } else if (value instanceof TimeColumn) {
+            setTime(pos, ((TimeColumn) value).getMillis());
+        } else {
+            columns[pos] = value;
+            slotTypes[pos] = SLOT_COLUMN;
+            if (value.getData() == null) {
+                nullBits[pos >>> 6] |= 1L << pos;
+            } else {
+                nullBits[pos >>> 6] &= ~(1L << pos);
+            }
+        }
+    }
+
+    @Override
+    public void addField(AbstractBaseColumn value) {
+        if (writePos >= columns.length) {
+            throw new FlinkxRuntimeException(
+                    "can not add field to a row with fixed arity " + columns.length);
+        }
+        setField(writePos++, value);
+    }
+
+    @Override
+    public void addAllField(List<AbstractBaseColumn> list) {
+        for (AbstractBaseColumn column : list) {
+            addField(column);
+        }
+    }
+
+    @Override
+    public AbstractBaseColumn getField(int pos) {
+        AbstractBaseColumn column = columns[pos];
+        if (column != null || slotTypes[pos] == SLOT_COLUMN) {
+            return column;
+        }
+        long value = values[pos];
+        switch (slotTypes[pos]) {
+            case SLOT_INT:
+                column = new IntColumn((int) value);
+                break;
+            case SLOT_LONG:
+                column = new LongColumn(value);
+                break;
+            case SLOT_FLOAT:
+                column = new FloatColumn(Float.intBitsToFloat((int) value));
+                break;
+            case SLOT_DOUBLE:
+                column = new DoubleColumn(Double.longBitsToDouble(value));
+                break;
+            case SLOT_DATE:
+                column = new DateColumn(value);
+                break;
+            default:
+                column = new TimeColumn(value);
+        }
+        columns[pos] = column;
+        return column;
+    }
+
+    /**
+     * how the field is held, one of the {@code SLOT_} constants. The value of a primitive slot is
+     * read with the getter of its type, date and time slots with {@link #getLong(int)}
+     *
+     * @param pos field position
+     * @return {@link #SLOT_COLUMN} for null fields and fields held as column objects
+     */
+    public byte getSlotType(int pos) {
+        return slotTypes[pos];
+    }
+
+    /**
+     * byte width of the field when it is held in a primitive slot
+     *
+     * @param pos field position
+     * @return 0 for null, -1 when the field is held as a column object
+     */
+    public int getFixedSize(int pos) {
+        if (isNullAt(pos)) {
+            return 0;
+        }
+        switch (slotTypes[pos]) {
+            case SLOT_COLUMN:
+                return -1;
+            case SLOT_INT:
+            case SLOT_FLOAT:
+                return 4;
+            default:
+                return 8;
+        }
+    }
+
+    @Override
+    public ArrayColumnRowData copy() {
+        ArrayColumnRowData copy = new ArrayColumnRowData(getRowKind(), columns.length);
+        System.arraycopy(values, 0, copy.values, 0, values.length);
+        System.arraycopy(slotTypes, 0, copy.slotTypes, 0, slotTypes.length);
+        System.arraycopy(nullBits, 0, copy.nullBits, 0, nullBits.length);
+        for (int i = 0; i < columns.length; i++) {
+            // columns of primitive slots are created again on demand
+            if (slotTypes[i] == SLOT_COLUMN) {
+                copy.columns[i] = copyColumn(columns[i]);
+            }
+        }
+        copy.writePos = writePos;
+        copyHeader(copy);
+        return copy;
+    }
+
+    @Override
+    public int getArity() {
+        return columns.length;
+    }
+
+    @Override
+    public boolean isNullAt(int pos) {
+        return (nullBits[pos >>> 6] & (1L << pos)) != 0;
+    }
+
+    @Override
+    public boolean getBoolean(int pos) {
+        if (slotTypes[pos] == SLOT_COLUMN) {
+            return columns[pos].asBoolean();
+        }
+        return getDouble(pos) != 0;
+    }
+
+    @Override
+    public byte getByte(int pos) {
+        return (byte) getInt(pos);
+    }
+
+    @Override
+    public short getShort(int pos) {
+        return (short) getInt(pos);
+    }
+
+    @Override
+    public int getInt(int pos) {
+        switch (slotTypes[pos]) {
+            case SLOT_COLUMN:
+                return columns[pos].asInt();
+            case SLOT_FLOAT:
+                return (int) Float.intBitsToFloat((int) values[pos]);
+            case SLOT_DOUBLE:
+                return (int) Double.longBitsToDouble(values[pos]);
+            default:
+                return (int) values[pos];
+        }
+    }
+
+    @Override
+    public long getLong(int pos) {
+        switch (slotTypes[pos]) {
+            case SLOT_COLUMN:
+                return columns[pos].asLong();
+            case SLOT_FLOAT:
+                return (long) Float.intBitsToFloat((int) values[pos]);
+            case SLOT_DOUBLE:
+                return (long) Double.longBitsToDouble(values[pos]);
+            default:
+                return values[pos];
+        }
+    }
+
+    @Override
+    public float getFloat(int pos) {
+        switch (slotTypes[pos]) {
+            case SLOT_COLUMN:
+                return columns[pos].asFloat();
+            case SLOT_FLOAT:
+                return Float.intBitsToFloat((int) values[pos]);
+            case SLOT_DOUBLE:
+                return (float) Double.longBitsToDouble(values[pos]);
+            default:
+                return values[pos];
+        }
+    }
+
+    @Override
+    public double getDouble(int pos) {
+        switch (slotTypes[pos]) {
+            case SLOT_COLUMN:
+                return columns[pos].asDouble();
+            case SLOT_FLOAT:
+                return Float.intBitsToFloat((int) values[pos]);
+            case SLOT_DOUBLE:
+                return Double.longBitsToDouble(values[pos]);
+            default:
+                return values[pos];
+        }
+    }
+
+    @Override
+    public StringData getString(int pos) {
+        if (isNullAt(pos)) {
+            return null;
+        }
+        return StringData.fromString(getField(pos).asString());
+    }
+
+    @Override
+    public DecimalData getDecimal(int pos, int precision, int scale) {
+        if (isNullAt(pos)) {
+            return null;
+        }
+        BigDecimal bigDecimal = getField(pos).asBigDecimal();
+        return DecimalData.fromBigDecimal(bigDecimal, bigDecimal.precision(), bigDecimal.scale());
+    }
+
+    @Override
+    public TimestampData getTimestamp(int pos, int precision) {
+        if (isNullAt(pos)) {
+            return null;
+        }
+        switch (slotTypes[pos]) {
+            case SLOT_COLUMN:
+                return TimestampData.fromTimestamp(columns[pos].asTimestamp());
+            case SLOT_FLOAT:
+            case SLOT_DOUBLE:
+                return TimestampData.fromEpochMillis(getLong(pos));
+            default:
+                return TimestampData.fromEpochMillis(values[pos]);
+        }
+    }
+
+    @Override
+    public byte[] getBinary(int pos) {
+        if (isNullAt(pos)) {
+            return null;
+        }
+        return getField(pos).asBinary();
+    }
+}
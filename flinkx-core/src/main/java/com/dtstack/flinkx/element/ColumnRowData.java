@@ -29,12 +29,27 @@ import org.apache.flink.util.InstantiationUtil;
 import org.apache.flink.util.Preconditions;
 import org.apache.flink.util.StringUtils;
 
+import com.dtstack.flinkx.element.column.BigDecimalColumn;
+import com.dtstack.flinkx.element.column.BooleanColumn;
+import com.dtstack.flinkx.element.column.BytesColumn;
+import com.dtstack.flinkx.element.column.DateColumn;
+import com.dtstack.flinkx.element.column.DoubleColumn;
+import com.dtstack.flinkx.element.column.FloatColumn;
+import com.dtstack.flinkx.element.column.IntColumn;
+import com.dtstack.flinkx.element.column.LongColumn;
+import com.dtstack.flinkx.element.column.NullColumn;
+import com.dtstack.flinkx.element.column.StringColumn;
+import com.dtstack.flinkx.element.column.TimeColumn;
+import com.dtstack.flinkx.element.column.TimestampColumn;
 import com.dtstack.flinkx.throwable.FlinkxRuntimeException;
 import com.google.common.collect.Maps;
 
 import java.io.Serializable;
 import java.math.BigDecimal;
+import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -44,7 +59,7 @@ import java.util.Map;
  *
  * @author tudou
  */
-public final class ColumnRowData implements RowData, Serializable {
+public class ColumnRowData implements RowData, Serializable {
 
     private static final long serialVersionUID = 1L;
     private final List<AbstractBaseColumn> columnList;
@@ -63,9 +78,19 @@ public final class ColumnRowData implements RowData, Serializable {
         this.kind = RowKind.INSERT;
     }
 
+    /**
+     * for subclasses that keep their fields in their own storage
+     *
+     * @param kind row kind
+     */
+    protected ColumnRowData(RowKind kind) {
+        this.columnList = Collections.emptyList();
+        this.kind = kind;
+    }
+
     public void addHeader(String name){
         if(this.header == null){
-            this.header = Maps.newHashMapWithExpectedSize(this.columnList.size());
+            this.header = Maps.newHashMapWithExpectedSize(this.getArity());
         }
         this.header.put(name, this.header.size());
     }
@@ -108,12 +133,62 @@ public final class ColumnRowData implements RowData, Serializable {
             return null;
         }
         Integer pos = header.getOrDefault(name, -1);
-        return pos == -1 ? null : this.columnList.get(pos);
+        return pos == -1 ? null : this.getField(pos);
     }
 
     public ColumnRowData copy(){
+        ColumnRowData copy = new ColumnRowData(kind, getArity());
+        for (AbstractBaseColumn column : columnList) {
+            copy.addField(copyColumn(column));
+        }
+        copyHeader(copy);
+        return copy;
+    }
+
+    protected void copyHeader(ColumnRowData copy) {
+        if (header != null) {
+            copy.header = new HashMap<>(header);
+        }
+    }
+
+    /**
+     * 深拷贝字段，不可变的数据直接复用，未知的字段类型使用java序列化拷贝
+     *
+     * @param column 字段
+     * @return 拷贝后的字段
+     */
+    protected static AbstractBaseColumn copyColumn(AbstractBaseColumn column) {
+        if (column == null) {
+            return null;
+        }
+        Object data = column.getData();
+        if (column.getClass() == StringColumn.class) {
+            return new StringColumn((String) data, ((StringColumn) column).getFormat());
+        } else if (column.getClass() == IntColumn.class) {
+            return new IntColumn(((IntColumn) column).intValue());
+        } else if (column.getClass() == LongColumn.class) {
+            return new LongColumn(((LongColumn) column).longValue());
+        } else if (column.getClass() == DoubleColumn.class) {
+            return new DoubleColumn(((DoubleColumn) column).doubleValue());
+        } else if (column.getClass() == FloatColumn.class) {
+            return new FloatColumn(((FloatColumn) column).floatValue());
+        } else if (column.getClass() == BigDecimalColumn.class) {
+            return new BigDecimalColumn((BigDecimal) data);
+        } else if (column.getClass() == BooleanColumn.class) {
+            return new BooleanColumn((Boolean) data);
+        } else if (column.getClass() == TimestampColumn.class) {
+            return new TimestampColumn(data == null ? null : (Timestamp) ((Timestamp) data).clone());
+        } else if (column.getClass() == DateColumn.class) {
+            return new DateColumn(((DateColumn) column).getMillis());
+        } else if (column.getClass() == TimeColumn.class) {
+            return new TimeColumn(((TimeColumn) column).getMillis());
+        } else if (column.getClass() == BytesColumn.class) {
+            return new BytesColumn(data == null ? null : ((byte[]) data).clone(), ((BytesColumn) column).getEncoding());
+        } else if (column.getClass() == NullColumn.class) {
+            return new NullColumn();
+        }
         try {
-            return InstantiationUtil.clone(this, Thread.currentThread().getContextClassLoader());
+            return InstantiationUtil.clone(column, Thread.currentThread().getContextClassLoader());
         }catch (Exception e){
             throw new FlinkxRuntimeException(e);
         }
@@ -230,11 +305,12 @@ public final class ColumnRowData implements RowData, Serializable {
 
     private String buildString(StringBuilder sb){
         sb.append("(");
-        for (int i = 0; i < columnList.size(); i++) {
+        for (int i = 0; i < getArity(); i++) {
             if (i != 0) {
                 sb.append(",");
             }
-            sb.append(StringUtils.arrayAwareToString(columnList.get(i).asString()));
+            AbstractBaseColumn column = getField(i);
+            sb.append(StringUtils.arrayAwareToString(column == null ? null : column.asString()));
         }
         sb.append(")");
         return sb.toString();
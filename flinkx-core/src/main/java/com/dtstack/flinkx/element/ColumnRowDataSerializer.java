@@ -0,0 +1,504 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.element;
+
+import org.apache.flink.api.common.typeutils.SimpleTypeSerializerSnapshot;
+import org.apache.flink.api.common.typeutils.TypeSerializerSnapshot;
+import org.apache.flink.api.common.typeutils.base.TypeSerializerSingleton;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.types.RowKind;
+import org.apache.flink.types.StringValue;
+import org.apache.flink.util.InstantiationUtil;
+
+import com.dtstack.flinkx.element.column.BigDecimalColumn;
+import com.dtstack.flinkx.element.column.BooleanColumn;
+import com.dtstack.flinkx.element.column.BytesColumn;
+import com.dtstack.flinkx.element.column.DateColumn;
+import com.dtstack.flinkx.element.column.DoubleColumn;
+import com.dtstack.flinkx.element.column.FloatColumn;
+import com.dtstack.flinkx.element.column.IntColumn;
+import com.dtstack.flinkx.element.column.LongColumn;
+import com.dtstack.flinkx.element.column.MapColumn;
+import com.dtstack.flinkx.element.column.NullColumn;
+import com.dtstack.flinkx.element.column.StringColumn;
+import com.dtstack.flinkx.element.column.TimeColumn;
+import com.dtstack.flinkx.element.column.TimestampColumn;
+import com.dtstack.flinkx.throwable.FlinkxRuntimeException;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Map;
+
+/**
+ * Serializer for {@link ColumnRowData} and {@link ArrayColumnRowData}, the records of sync jobs.
+ * A few column converters still emit a {@link GenericRowData} of columns, it is supported too.
+ *
+ * <p>A record is written as a row tag, the row kind, the arity, the header names and then every
+ * field as a column tag followed by its payload. Primitive columns and primitive slots of an
+ * {@link ArrayColumnRowData} are written as they are, strings with {@link StringValue}. Only
+ * {@link MapColumn} and unknown column classes fall back to java serialization.
+ */
+public final class ColumnRowDataSerializer extends TypeSerializerSingleton<RowData> {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final ColumnRowDataSerializer INSTANCE = new ColumnRowDataSerializer();
+
+    private static final byte ROW_LIST = 0;
+    private static final byte ROW_ARRAY = 1;
+    private static final byte ROW_GENERIC = 2;
+
+    private static final byte NULL_REFERENCE = 0;
+    private static final byte NULL_COLUMN = 1;
+    private static final byte STRING = 2;
+    private static final byte BYTES = 3;
+    private static final byte BOOLEAN = 4;
+    private static final byte BIG_DECIMAL = 5;
+    private static final byte INT = 6;
+    private static final byte LONG = 7;
+    private static final byte FLOAT = 8;
+    private static final byte DOUBLE = 9;
+    private static final byte DATE = 10;
+    private static final byte TIME = 11;
+    private static final byte TIMESTAMP = 12;
+    private static final byte MAP = 13;
+    private static final byte SERIALIZED = 14;
+    /** a field of a GenericRowData that is not a column */
+    private static final byte OBJECT = 15;
+
+    private static final String DEFAULT_STRING_FORMAT = new StringColumn(null).getFormat();
+    private static final String DEFAULT_ENCODING = StandardCharsets.UTF_8.name();
+
+    private ColumnRowDataSerializer() {}
+
+    @Override
+    public boolean isImmutableType() {
+        return false;
+    }
+
+    @Override
+    public RowData createInstance() {
+        return new ColumnRowData(0);
+    }
+
+    @Override
+    public RowData copy(RowData from) {
+        if (from instanceof GenericRowData) {
+            GenericRowData row = (GenericRowData) from;
+            GenericRowData copy = new GenericRowData(row.getRowKind(), row.getArity());
+            for (int i = 0; i < row.getArity(); i++) {
+                Object field = row.getField(i);
+                copy.setField(
+                        i,
+                        field instanceof AbstractBaseColumn
+                                ? ColumnRowData.copyColumn((AbstractBaseColumn) field)
+                                : field);
+            }
+            return copy;
+        }
+        return asColumnRowData(from).copy();
+    }
+
+    @Override
+    public RowData copy(RowData from, RowData reuse) {
+        return copy(from);
+    }
+
+    @Override
+    public int getLength() {
+        return -1;
+    }
+
+    @Override
+    public void serialize(RowData record, DataOutputView target) throws IOException {
+        if (record instanceof GenericRowData) {
+            serializeGenericRow((GenericRowData) record, target);
+            return;
+        }
+        ColumnRowData row = asColumnRowData(record);
+        int arity = row.getArity();
+        boolean array = row instanceof ArrayColumnRowData;
+        target.writeByte(array ? ROW_ARRAY : ROW_LIST);
+        target.writeByte(row.getRowKind().toByteValue());
+        target.writeInt(arity);
+
+        String[] headers = row.getHeaders();
+        if (headers == null) {
+            target.writeInt(-1);
+        } else {
+            target.writeInt(headers.length);
+            for (String header : headers) {
+                StringValue.writeString(header, target);
+            }
+        }
+
+        if (array) {
+            ArrayColumnRowData arrayRow = (ArrayColumnRowData) row;
+            for (int i = 0; i < arity; i++) {
+                serializeSlot(arrayRow, i, target);
+            }
+        } else {
+            for (int i = 0; i < arity; i++) {
+                serializeColumn(row.getField(i), target);
+            }
+        }
+    }
+
+    @Override
+    public RowData deserialize(DataInputView source) throws IOException {
+        byte rowTag = source.readByte();
+        RowKind kind = RowKind.fromByteValue(source.readByte());
+        int arity = source.readInt();
+        if (rowTag == ROW_GENERIC) {
+            return deserializeGenericRow(kind, arity, source);
+        }
+        boolean array = rowTag == ROW_ARRAY;
+
+        String[] headers = null;
+        int headerCount = source.readInt();
+        if (headerCount >= 0) {
+            headers = new String[headerCount];
+            for (int i = 0; i < headerCount; i++) {
+                headers[i] = StringValue.readString(source);
+            }
+        }
+
+        ColumnRowData row;
+        if (array) {
+            ArrayColumnRowData arrayRow = new ArrayColumnRowData(kind, arity);
+            for (int i = 0; i < arity; i++) {
+                deserializeSlot(arrayRow, i, source);
+            }
+            row = arrayRow;
+        } else {
+            row = new ColumnRowData(kind, arity);
+            for (int i = 0; i < arity; i++) {
+                row.addField(deserializeColumn(source.readByte(), source));
+            }
+        }
+
+        if (headers != null) {
+            for (String header : headers) {
+                row.addHeader(header);
+            }
+        }
+        return row;
+    }
+
+    @Override
+    public RowData deserialize(RowData reuse, DataInputView source) throws IOException {
+        return deserialize(source);
+    }
+
+    @Override
+    public void copy(DataInputView source, DataOutputView target) throws IOException {
+        serialize(deserialize(source), target);
+    }
+
+    @Override
+    public TypeSerializerSnapshot<RowData> snapshotConfiguration() {
+        return new ColumnRowDataSerializerSnapshot();
+    }
+
+    private static ColumnRowData asColumnRowData(RowData record) {
+        if (record instanceof ColumnRowData) {
+            return (ColumnRowData) record;
+        }
+        throw new FlinkxRuntimeException(
+                "ColumnRowDataSerializer can not handle " + record.getClass().getName());
+    }
+
+    private static void serializeGenericRow(GenericRowData row, DataOutputView target)
+            throws IOException {
+        target.writeByte(ROW_GENERIC);
+        target.writeByte(row.getRowKind().toByteValue());
+        target.writeInt(row.getArity());
+        for (int i = 0; i < row.getArity(); i++) {
+            Object field = row.getField(i);
+            if (field == null || field instanceof AbstractBaseColumn) {
+                serializeColumn((AbstractBaseColumn) field, target);
+            } else if (field instanceof Serializable) {
+                target.writeByte(OBJECT);
+                writeBytes(InstantiationUtil.serializeObject(field), target);
+            } else {
+                throw new FlinkxRuntimeException(
+                        "ColumnRowDataSerializer can not handle field " + field.getClass().getName());
+            }
+        }
+    }
+
+    private static GenericRowData deserializeGenericRow(
+            RowKind kind, int arity, DataInputView source) throws IOException {
+        GenericRowData row = new GenericRowData(kind, arity);
+        for (int i = 0; i < arity; i++) {
+            byte tag = source.readByte();
+            if (tag == OBJECT) {
+                row.setField(i, deserializeObject(readBytes(source)));
+            } else {
+                row.setField(i, deserializeColumn(tag, source));
+            }
+        }
+        return row;
+    }
+
+    private static void serializeSlot(ArrayColumnRowData row, int pos, DataOutputView target)
+            throws IOException {
+        switch (row.getSlotType(pos)) {
+            case ArrayColumnRowData.SLOT_INT:
+                target.writeByte(INT);
+                target.writeInt(row.getInt(pos));
+                break;
+            case ArrayColumnRowData.SLOT_LONG:
+                target.writeByte(LONG);
+                target.writeLong(row.getLong(pos));
+                break;
+            case ArrayColumnRowData.SLOT_FLOAT:
+                target.writeByte(FLOAT);
+                target.writeFloat(row.getFloat(pos));
+                break;
+            case ArrayColumnRowData.SLOT_DOUBLE:
+                target.writeByte(DOUBLE);
+                target.writeDouble(row.getDouble(pos));
+                break;
+            case ArrayColumnRowData.SLOT_DATE:
+                target.writeByte(DATE);
+                target.writeLong(row.getLong(pos));
+                break;
+            case ArrayColumnRowData.SLOT_TIME:
+                target.writeByte(TIME);
+                target.writeLong(row.getLong(pos));
+                break;
+            default:
+                serializeColumn(row.getField(pos), target);
+        }
+    }
+
+    private static void deserializeSlot(ArrayColumnRowData row, int pos, DataInputView source)
+            throws IOException {
+        byte tag = source.readByte();
+        switch (tag) {
+            case INT:
+                row.setInt(pos, source.readInt());
+                break;
+            case LONG:
+                row.setLong(pos, source.readLong());
+                break;
+            case FLOAT:
+                row.setFloat(pos, source.readFloat());
+                break;
+            case DOUBLE:
+                row.setDouble(pos, source.readDouble());
+                break;
+            case DATE:
+                row.setDate(pos, source.readLong());
+                break;
+            case TIME:
+                row.setTime(pos, source.readLong());
+                break;
+            default:
+                row.setField(pos, deserializeColumn(tag, source));
+        }
+    }
+
+    private static void serializeColumn(AbstractBaseColumn column, DataOutputView target)
+            throws IOException {
+        if (column == null) {
+            target.writeByte(NULL_REFERENCE);
+            return;
+        }
+        Class<?> clazz = column.getClass();
+        Object data = column.getData();
+        if (clazz == StringColumn.class) {
+            target.writeByte(STRING);
+            StringValue.writeString((String) data, target);
+            String format = ((StringColumn) column).getFormat();
+            boolean defaultFormat = DEFAULT_STRING_FORMAT.equals(format);
+            target.writeBoolean(defaultFormat);
+            if (!defaultFormat) {
+                StringValue.writeString(format, target);
+            }
+        } else if (clazz == IntColumn.class) {
+            target.writeByte(INT);
+            target.writeInt(((IntColumn) column).intValue());
+        } else if (clazz == LongColumn.class) {
+            target.writeByte(LONG);
+            target.writeLong(((LongColumn) column).longValue());
+        } else if (clazz == FloatColumn.class) {
+            target.writeByte(FLOAT);
+            target.writeFloat(((FloatColumn) column).floatValue());
+        } else if (clazz == DoubleColumn.class) {
+            target.writeByte(DOUBLE);
+            target.writeDouble(((DoubleColumn) column).doubleValue());
+        } else if (clazz == DateColumn.class) {
+            target.writeByte(DATE);
+            target.writeLong(((DateColumn) column).getMillis());
+        } else if (clazz == TimeColumn.class) {
+            target.writeByte(TIME);
+            target.writeLong(((TimeColumn) column).getMillis());
+        } else if (clazz == BooleanColumn.class) {
+            target.writeByte(BOOLEAN);
+            target.writeByte(data == null ? -1 : ((Boolean) data ? 1 : 0));
+        } else if (clazz == BigDecimalColumn.class) {
+            target.writeByte(BIG_DECIMAL);
+            writeBigDecimal((BigDecimal) data, target);
+        } else if (clazz == TimestampColumn.class) {
+            target.writeByte(TIMESTAMP);
+            target.writeBoolean(data != null);
+            if (data != null) {
+                Timestamp timestamp = (Timestamp) data;
+                target.writeLong(timestamp.getTime());
+                target.writeInt(timestamp.getNanos());
+            }
+        } else if (clazz == BytesColumn.class) {
+            target.writeByte(BYTES);
+            writeBytes((byte[]) data, target);
+            String encoding = ((BytesColumn) column).getEncoding();
+            boolean defaultEncoding = DEFAULT_ENCODING.equals(encoding);
+            target.writeBoolean(defaultEncoding);
+            if (!defaultEncoding) {
+                StringValue.writeString(encoding, target);
+            }
+        } else if (clazz == NullColumn.class) {
+            target.writeByte(NULL_COLUMN);
+        } else if (clazz == MapColumn.class) {
+            target.writeByte(MAP);
+            writeBytes(data == null ? null : InstantiationUtil.serializeObject(data), target);
+        } else {
+            target.writeByte(SERIALIZED);
+            writeBytes(InstantiationUtil.serializeObject(column), target);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static AbstractBaseColumn deserializeColumn(byte tag, DataInputView source)
+            throws IOException {
+        switch (tag) {
+            case NULL_REFERENCE:
+                return null;
+            case STRING:
+                String data = StringValue.readString(source);
+                if (source.readBoolean()) {
+                    return new StringColumn(data);
+                }
+                return new StringColumn(data, StringValue.readString(source));
+            case INT:
+                return new IntColumn(source.readInt());
+            case LONG:
+                return new LongColumn(source.readLong());
+            case FLOAT:
+                return new FloatColumn(source.readFloat());
+            case DOUBLE:
+                return new DoubleColumn(source.readDouble());
+            case DATE:
+                return new DateColumn(source.readLong());
+            case TIME:
+                return new TimeColumn(source.readLong());
+            case BOOLEAN:
+                byte value = source.readByte();
+                return new BooleanColumn(value == -1 ? null : value == 1);
+            case BIG_DECIMAL:
+                return new BigDecimalColumn(readBigDecimal(source));
+            case TIMESTAMP:
+                if (!source.readBoolean()) {
+                    return new TimestampColumn((Timestamp) null);
+                }
+                Timestamp timestamp = new Timestamp(source.readLong());
+                timestamp.setNanos(source.readInt());
+                return new TimestampColumn(timestamp);
+            case BYTES:
+                byte[] bytes = readBytes(source);
+                if (source.readBoolean()) {
+                    return new BytesColumn(bytes);
+                }
+                return new BytesColumn(bytes, StringValue.readString(source));
+            case NULL_COLUMN:
+                return new NullColumn();
+            case MAP:
+                byte[] map = readBytes(source);
+                return new MapColumn(map == null ? null : (Map<String, Object>) deserializeObject(map));
+            case SERIALIZED:
+                return (AbstractBaseColumn) deserializeObject(readBytes(source));
+            default:
+                throw new IOException("unknown column tag: " + tag);
+        }
+    }
+
+    private static void writeBytes(byte[] bytes, DataOutputView target) throws IOException {
+        if (bytes == null) {
+            target.writeInt(-1);
+        } else {
+            target.writeInt(bytes.length);
+            target.write(bytes);
+        }
+    }
+
+    private static byte[] readBytes(DataInputView source) throws IOException {
+        int length = source.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        source.readFully(bytes);
+        return bytes;
+    }
+
+    private static void writeBigDecimal(BigDecimal value, DataOutputView target)
+            throws IOException {
+        if (value == null) {
+            target.writeInt(-1);
+            return;
+        }
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        target.writeInt(unscaled.length);
+        target.write(unscaled);
+        target.writeInt(value.scale());
+    }
+
+    private static BigDecimal readBigDecimal(DataInputView source) throws IOException {
+        byte[] unscaled = readBytes(source);
+        if (unscaled == null) {
+            return null;
+        }
+        return new BigDecimal(new BigInteger(unscaled), source.readInt());
+    }
+
+    private static Object deserializeObject(byte[] bytes) throws IOException {
+        try {
+            return InstantiationUtil.deserializeObject(
+                    bytes, Thread.currentThread().getContextClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /** Serializer configuration snapshot for compatibility and format evolution. */
+    public static final class ColumnRowDataSerializerSnapshot
+            extends SimpleTypeSerializerSnapshot<RowData> {
+
+        public ColumnRowDataSerializerSnapshot() {
+            super(() -> INSTANCE);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.element;
+
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.table.data.RowData;
+
+/**
+ * Type information of the records exchanged by sync jobs, which are always {@link ColumnRowData}.
+ * It uses {@link ColumnRowDataSerializer} instead of converting every record to a binary row.
+ */
+public class ColumnRowDataTypeInfo extends TypeInformation<RowData> {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final ColumnRowDataTypeInfo INSTANCE = new ColumnRowDataTypeInfo();
+
+    private ColumnRowDataTypeInfo() {}
+
+    @Override
+    public boolean isBasicType() {
+        return false;
+    }
+
+    @Override
+    public boolean isTupleType() {
+        return false;
+    }
+
+    @Override
+    public int getArity() {
+        return 1;
+    }
+
+    @Override
+    public int getTotalFields() {
+        return 1;
+    }
+
+    @Override
+    public Class<RowData> getTypeClass() {
+        return RowData.class;
+    }
+
+    @Override
+    public boolean isKeyType() {
+        return false;
+    }
+
+    @Override
+    public TypeSerializer<RowData> createSerializer(ExecutionConfig config) {
+        return ColumnRowDataSerializer.INSTANCE;
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnRowData";
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof ColumnRowDataTypeInfo;
+    }
+
+    @Override
+    public int hashCode() {
+        return ColumnRowDataTypeInfo.class.hashCode();
+    }
+
+    @Override
+    public boolean canEqual(Object obj) {
+        return obj instanceof ColumnRowDataTypeInfo;
+    }
+}
@@ -43,6 +43,10 @@ public class BytesColumn extends AbstractBaseColumn {
         this.encoding = encoding;
     }
 
+    public String getEncoding() {
+        return encoding;
+    }
+
     @Override
     public Boolean asBoolean() {
         if (null == data) {
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.element.column;
+
+import com.dtstack.flinkx.element.AbstractBaseColumn;
+import com.dtstack.flinkx.throwable.CastException;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Date;
+
+/**
+ * Column holding a sql date as unboxed epoch milliseconds.
+ *
+ * <p>{@link #getData()} and {@link #asString()} keep the output of the {@link TimestampColumn}
+ * these values were read into before, so existing sinks write the same text.
+ */
+public class DateColumn extends AbstractBaseColumn {
+
+    private long millis;
+
+    public DateColumn(long millis) {
+        super(null);
+        this.millis = millis;
+    }
+
+    public DateColumn(Date data) {
+        this(data.getTime());
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    @Override
+    public Object getData() {
+        return new Timestamp(millis);
+    }
+
+    @Override
+    public void setData(Object data) {
+        this.millis = ((Date) data).getTime();
+    }
+
+    @Override
+    public Boolean asBoolean() {
+        throw new CastException("Date", "Boolean", this.asString());
+    }
+
+    @Override
+    public byte[] asBytes() {
+        throw new CastException("Date", "Bytes", this.asString());
+    }
+
+    @Override
+    public String asString() {
+        return new Timestamp(millis).toString();
+    }
+
+    /** epoch milliseconds, the same value as {@link #asLong()} */
+    @Override
+    public BigDecimal asBigDecimal() {
+        return BigDecimal.valueOf(millis);
+    }
+
+    @Override
+    public Timestamp asTimestamp() {
+        return new Timestamp(millis);
+    }
+
+    @Override
+    public Date asDate() {
+        return new Date(millis);
+    }
+
+    @Override
+    public Short asShort() {
+        return (short) millis;
+    }
+
+    @Override
+    public Integer asInt() {
+        return (int) millis;
+    }
+
+    @Override
+    public Long asLong() {
+        return millis;
+    }
+
+    @Override
+    public Float asFloat() {
+        return (float) millis;
+    }
+
+    @Override
+    public Double asDouble() {
+        return (double) millis;
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.element.column;
+
+import com.dtstack.flinkx.element.AbstractBaseColumn;
+import com.dtstack.flinkx.throwable.CastException;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Date;
+
+/**
+ * Column holding an unboxed float, numeric getters never go through BigDecimal.
+ */
+public class FloatColumn extends AbstractBaseColumn {
+
+    private float value;
+
+    public FloatColumn(float value) {
+        super(null);
+        this.value = value;
+    }
+
+    public float floatValue() {
+        return value;
+    }
+
+    @Override
+    public Object getData() {
+        return value;
+    }
+
+    @Override
+    public void setData(Object data) {
+        this.value = ((Number) data).floatValue();
+    }
+
+    @Override
+    public Boolean asBoolean() {
+        return value != 0;
+    }
+
+    @Override
+    public byte[] asBytes() {
+        throw new CastException("Float", "Bytes", this.asString());
+    }
+
+    @Override
+    public String asString() {
+        return String.valueOf(value);
+    }
+
+    @Override
+    public BigDecimal asBigDecimal() {
+        return new BigDecimal(String.valueOf(value));
+    }
+
+    @Override
+    public Timestamp asTimestamp() {
+        return new Timestamp((long) value);
+    }
+
+    @Override
+    public Date asDate() {
+        return new Date((long) value);
+    }
+
+    @Override
+    public Short asShort() {
+        return (short) value;
+    }
+
+    @Override
+    public Integer asInt() {
+        return (int) value;
+    }
+
+    @Override
+    public Long asLong() {
+        return (long) value;
+    }
+
+    @Override
+    public Float asFloat() {
+        return value;
+    }
+
+    @Override
+    public Double asDouble() {
+        return (double) value;
+    }
+}
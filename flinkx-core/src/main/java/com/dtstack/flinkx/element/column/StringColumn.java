@@ -48,6 +48,10 @@ public class StringColumn extends AbstractBaseColumn {
         this.format = format;
     }
 
+    public String getFormat() {
+        return format;
+    }
+
     @Override
     public String asString() {
         if (null == data) {
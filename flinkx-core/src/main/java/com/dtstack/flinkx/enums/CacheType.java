@@ -32,11 +32,25 @@ public enum CacheType {
      * lru
      */
     LRU,
+    /**
+     * W-TinyLFU
+     */
+    LFU,
     /**
      * all
      */
     ALL;
 
+    /**
+     * 是否是按需异步查询的缓存类型
+     *
+     * @param type 缓存类型
+     * @return LRU或LFU时返回true
+     */
+    public static boolean isAsync(String type) {
+        return LRU.name().equalsIgnoreCase(type) || LFU.name().equalsIgnoreCase(type);
+    }
+
     public static boolean isValid(String type){
         for(CacheType tmpType : CacheType.values()){
             if(tmpType.name().equalsIgnoreCase(type)){
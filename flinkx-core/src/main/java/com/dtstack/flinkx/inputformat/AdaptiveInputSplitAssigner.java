@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.inputformat;
+
+import org.apache.flink.core.io.InputSplit;
+import org.apache.flink.core.io.InputSplitAssigner;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * 动态分配数据分片，总是先分配预估大小最大的分片。
+ *
+ * <p>JobMaster无法切分已经分配出去的分片，所以当一个子任务读完分片回来请求、而剩余分片已经不够每个子任务一个时，
+ * 把剩余最大的{@link SplittableInputSplit}一分为二，一半分给当前子任务，另一半放回队列，
+ * 避免数据倾斜时一个子任务读一个大分片而其余子任务空闲。
+ */
+public class AdaptiveInputSplitAssigner implements InputSplitAssigner {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AdaptiveInputSplitAssigner.class);
+
+    /** 分片最小不小于初始平均大小的1/MIN_SPLIT_SIZE_RATIO，防止切出大量过小的分片 */
+    private static final int MIN_SPLIT_SIZE_RATIO = 8;
+
+    private static final Comparator<InputSplit> LARGEST_FIRST =
+            Comparator.comparingLong(AdaptiveInputSplitAssigner::estimatedSize).reversed();
+
+    private final PriorityQueue<InputSplit> pendingSplits;
+
+    /** 已经分配过分片的子任务，再次请求说明它读完了上一个分片 */
+    private final Set<Integer> servedTasks = new HashSet<>();
+
+    private final int parallelism;
+
+    private final long minSplitSize;
+
+    public AdaptiveInputSplitAssigner(InputSplit[] splits, int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        this.pendingSplits = new PriorityQueue<>(Math.max(1, splits.length), LARGEST_FIRST);
+
+        double totalSize = 0;
+        for (InputSplit split : splits) {
+            if (split != null) {
+                pendingSplits.add(split);
+                totalSize += estimatedSize(split);
+            }
+        }
+        this.minSplitSize =
+                Math.max(1L, (long) (totalSize / Math.max(1, pendingSplits.size()) / MIN_SPLIT_SIZE_RATIO));
+        LOG.info(
+                "create AdaptiveInputSplitAssigner, splits = {}, parallelism = {}, minSplitSize = {}",
+                pendingSplits.size(),
+                this.parallelism,
+                minSplitSize);
+    }
+
+    @Override
+    public synchronized InputSplit getNextInputSplit(String host, int taskId) {
+        InputSplit next = pendingSplits.poll();
+        if (next == null) {
+            return null;
+        }
+
+        boolean idle = !servedTasks.add(taskId);
+        if (idle && pendingSplits.size() < parallelism && next instanceof SplittableInputSplit) {
+            SplittableInputSplit splittable = (SplittableInputSplit) next;
+            if (splittable.getEstimatedSize() >= 2 * minSplitSize) {
+                SplittableInputSplit[] halves = splittable.split();
+                if (halves != null && halves.length == 2) {
+                    LOG.info(
+                            "split [{}] into [{}] and [{}] for idle task {}",
+                            splittable.getSplitId(),
+                            halves[0].getSplitId(),
+                            halves[1].getSplitId(),
+                            taskId);
+                    pendingSplits.add(halves[1]);
+                    next = halves[0];
+                }
+            }
+        }
+
+        LOG.info("assign split {} to task {}", next, taskId);
+        return next;
+    }
+
+    @Override
+    public synchronized void returnInputSplit(List<InputSplit> splits, int taskId) {
+        pendingSplits.addAll(splits);
+        servedTasks.remove(taskId);
+    }
+
+    private static long estimatedSize(InputSplit split) {
+        if (split instanceof SplittableInputSplit) {
+            return ((SplittableInputSplit) split).getEstimatedSize();
+        }
+        return 0L;
+    }
+}
@@ -38,19 +38,25 @@ import com.dtstack.flinkx.exception.ReadRecordException;
 import com.dtstack.flinkx.metrics.AccumulatorCollector;
 import com.dtstack.flinkx.metrics.BaseMetric;
 import com.dtstack.flinkx.metrics.CustomPrometheusReporter;
+import com.dtstack.flinkx.metrics.RowSizeEstimator;
+import com.dtstack.flinkx.metrics.RowSizeEstimatorFactory;
 import com.dtstack.flinkx.restore.FormatState;
 import com.dtstack.flinkx.source.ByteRateLimiter;
 import com.dtstack.flinkx.util.ExceptionUtil;
 import com.dtstack.flinkx.util.JsonUtil;
-import jdk.nashorn.internal.ir.debug.ObjectSizeCalculator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -95,8 +101,14 @@ public abstract class BaseRichInputFormat extends RichInputFormat<RowData, Input
     protected LongCounter bytesReadCounter;
     protected LongCounter durationCounter;
     protected ByteRateLimiter byteRateLimiter;
+    /** 估算每条数据的字节数，用于readBytes指标和限速 */
+    protected transient RowSizeEstimator rowSizeEstimator;
     /** BaseRichInputFormat是否已经初始化 */
     private boolean initialized = false;
+    /** 已经读取完成的分片id，续跑时跳过这些分片 */
+    private final Set<String> completedSplitIds = new LinkedHashSet<>();
+    /** 续跑时还没有被重新分配的分片读取位置，key为分片id */
+    private final Map<String, Object> restoredSplitStates = new HashMap<>();
 
     /** A collection of field names filled in user scripts with constants removed */
     protected List<String> columnNameList = new ArrayList<>();
@@ -127,6 +139,9 @@ public abstract class BaseRichInputFormat extends RichInputFormat<RowData, Input
 
     @Override
     public final InputSplitAssigner getInputSplitAssigner(InputSplit[] inputSplits) {
+        if (getSplitFactor() > 1) {
+            return new AdaptiveInputSplitAssigner(inputSplits, config.getParallelism());
+        }
         return new DefaultInputSplitAssigner(inputSplits);
     }
 
@@ -141,11 +156,16 @@ public abstract class BaseRichInputFormat extends RichInputFormat<RowData, Input
         if(!initialized){
             initAccumulatorCollector();
             initStatisticsAccumulator();
+            initRowSizeEstimator();
             initByteRateLimiter();
             initRestoreInfo();
             initialized = true;
         }
 
+        if (inputSplit instanceof SplittableInputSplit) {
+            switchSplitState(((SplittableInputSplit) inputSplit).getSplitId());
+        }
+
         openInternal(inputSplit);
 
         LOG.info(
@@ -191,7 +211,7 @@ public abstract class BaseRichInputFormat extends RichInputFormat<RowData, Input
                 numReadCounter.add(1);
             }
             if (bytesReadCounter != null) {
-                bytesReadCounter.add(ObjectSizeCalculator.getObjectSize(internalRow));
+                bytesReadCounter.add(rowSizeEstimator.estimate(internalRow));
             }
         }
 
@@ -265,6 +285,13 @@ public abstract class BaseRichInputFormat extends RichInputFormat<RowData, Input
         accumulatorCollector.start();
     }
 
+    /**
+     * 初始化数据大小估算器
+     */
+    private void initRowSizeEstimator() {
+        rowSizeEstimator = RowSizeEstimatorFactory.create(config);
+    }
+
     /**
      * 初始化速率限制器
      */
@@ -299,7 +326,122 @@ public abstract class BaseRichInputFormat extends RichInputFormat<RowData, Input
             numReadCounter.add(formatState.getMetricValue(Metrics.NUM_READS));
             bytesReadCounter.add(formatState.getMetricValue(Metrics.READ_BYTES));
             durationCounter.add(formatState.getMetricValue(Metrics.READ_DURATION));
+            // 分片的读取位置已经汇总到restoredSplitStates中，等分片被重新分配时再取出
+            if (formatState.getSplitId() != null) {
+                formatState.setSplitId(null);
+                formatState.setState(null);
+            }
+        }
+        formatState.setCompletedSplitIds(new ArrayList<>(completedSplitIds));
+        formatState.setSplitStates(new HashMap<>(restoredSplitStates));
+    }
+
+    /**
+     * 开始读取一个SplittableInputSplit，从续跑状态中取出该分片的读取位置。
+     * 先设置state再设置splitId，并且最后才从splitStates中移除，保证任意时刻做checkpoint都不会丢失该分片的读取位置
+     *
+     * @param splitId 分片id
+     */
+    private void switchSplitState(String splitId) {
+        Object state = restoredSplitStates.get(splitId);
+        formatState.setState(state);
+        formatState.setSplitId(splitId);
+        if (restoredSplitStates.remove(splitId) != null) {
+            formatState.setSplitStates(new HashMap<>(restoredSplitStates));
+            LOG.info("restore split [{}] from state {}", splitId, state);
+        }
+    }
+
+    /**
+     * 汇总所有子任务checkpoint中的分片状态，动态分配时分片可能被任意子任务读取
+     *
+     * @param formatStates 所有子任务的状态
+     */
+    public void setRestoreSplitStates(Collection<FormatState> formatStates) {
+        completedSplitIds.clear();
+        restoredSplitStates.clear();
+        // 尚未分配的分片位置优先级低于正在读取的分片位置
+        for (FormatState state : formatStates) {
+            if (state.getSplitStates() != null) {
+                restoredSplitStates.putAll(state.getSplitStates());
+            }
+        }
+        for (FormatState state : formatStates) {
+            if (state.getSplitId() != null) {
+                restoredSplitStates.put(state.getSplitId(), state.getState());
+            }
+            if (state.getCompletedSplitIds() != null) {
+                completedSplitIds.addAll(state.getCompletedSplitIds());
+            }
+        }
+        restoredSplitStates.keySet().removeAll(completedSplitIds);
+    }
+
+    /**
+     * 续跑时过滤掉分片中已经读取完成的部分。
+     * 如果分片在上次运行时被切分过，按照同样的方式重新切分，只返回没有读取完成的子分片
+     *
+     * @param inputSplit 分配到的分片
+     * @return 需要读取的分片
+     */
+    public List<InputSplit> getUnfinishedSplits(InputSplit inputSplit) {
+        if (!(inputSplit instanceof SplittableInputSplit)
+                || (completedSplitIds.isEmpty() && restoredSplitStates.isEmpty())) {
+            return Collections.singletonList(inputSplit);
         }
+        List<InputSplit> unfinishedSplits = new ArrayList<>();
+        collectUnfinishedSplits((SplittableInputSplit) inputSplit, unfinishedSplits);
+        return unfinishedSplits;
+    }
+
+    private void collectUnfinishedSplits(SplittableInputSplit split, List<InputSplit> unfinishedSplits) {
+        String splitId = split.getSplitId();
+        if (completedSplitIds.contains(splitId)) {
+            LOG.info("skip split [{}], it has been read completely", splitId);
+            return;
+        }
+        if (restoredSplitStates.containsKey(splitId) || !hasRestoredSubSplit(splitId)) {
+            unfinishedSplits.add(split);
+            return;
+        }
+        SplittableInputSplit[] subSplits = split.split();
+        if (subSplits == null) {
+            unfinishedSplits.add(split);
+            return;
+        }
+        for (SplittableInputSplit subSplit : subSplits) {
+            collectUnfinishedSplits(subSplit, unfinishedSplits);
+        }
+    }
+
+    private boolean hasRestoredSubSplit(String splitId) {
+        String prefix = splitId + SplittableInputSplit.SUB_SPLIT_SEPARATOR;
+        for (String id : completedSplitIds) {
+            if (id.startsWith(prefix)) {
+                return true;
+            }
+        }
+        for (String id : restoredSplitStates.keySet()) {
+            if (id.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 分片读取完成，记录到checkpoint中，需要在checkpoint锁内调用
+     *
+     * @param inputSplit 读取完成的分片
+     */
+    public void markSplitCompleted(InputSplit inputSplit) {
+        if (!(inputSplit instanceof SplittableInputSplit) || formatState == null) {
+            return;
+        }
+        completedSplitIds.add(((SplittableInputSplit) inputSplit).getSplitId());
+        formatState.setCompletedSplitIds(new ArrayList<>(completedSplitIds));
+        formatState.setSplitId(null);
+        formatState.setState(null);
     }
 
     /**
@@ -313,6 +455,16 @@ public abstract class BaseRichInputFormat extends RichInputFormat<RowData, Input
         return formatState;
     }
 
+    /**
+     * 每个子任务创建的分片数量倍数，大于1时使用AdaptiveInputSplitAssigner动态分配分片。
+     * 恢复位置依赖分片归属的插件(如增量同步)应返回1
+     *
+     * @return splitFactor，最小为1
+     */
+    protected int getSplitFactor() {
+        return config == null ? 1 : Math.max(1, config.getSplitFactor());
+    }
+
     /**
      * Fill constant { "name": "raw_date", "type": "string", "value": "2014-12-12 14:24:16" }
      * @param rawRowData
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.inputformat;
+
+import org.apache.flink.core.io.InputSplit;
+
+/**
+ * 可以继续一分为二的数据分片，配合{@link AdaptiveInputSplitAssigner}在运行时切分剩余最大的分片。
+ *
+ * <p>{@link #split()}必须是确定性的：同一个分片每次切分得到的子分片范围和id都相同，
+ * 续跑时据此把已完成的子分片从父分片中重新切出来并跳过。
+ */
+public interface SplittableInputSplit extends InputSplit {
+
+    /** 子分片id与父分片id之间的分隔符 */
+    String SUB_SPLIT_SEPARATOR = ".";
+
+    /**
+     * 分片在整个任务内唯一且稳定的id，续跑时用于匹配checkpoint中的分片状态
+     *
+     * @return 分片id
+     */
+    String getSplitId();
+
+    /**
+     * 分片的预估大小，不同数据源单位不同（主键跨度、字节数、文档数），只用于同一个任务内分片之间的比较
+     *
+     * @return 预估大小
+     */
+    long getEstimatedSize();
+
+    /**
+     * 将分片一分为二，两个子分片的id分别为{@code childSplitId(getSplitId(), 0)}和{@code childSplitId(getSplitId(), 1)}
+     *
+     * @return 两个子分片，无法再切分时返回null
+     */
+    SplittableInputSplit[] split();
+
+    /**
+     * 生成子分片id
+     *
+     * @param parentSplitId 父分片id
+     * @param index 子分片序号
+     * @return 子分片id
+     */
+    static String childSplitId(String parentSplitId, int index) {
+        return parentSplitId + SUB_SPLIT_SEPARATOR + index;
+    }
+}
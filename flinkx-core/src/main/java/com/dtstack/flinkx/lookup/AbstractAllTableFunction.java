@@ -18,31 +18,28 @@
 
 package com.dtstack.flinkx.lookup;
 
-import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.Gauge;
+import org.apache.flink.metrics.MetricGroup;
 import org.apache.flink.table.data.RowData;
 import org.apache.flink.table.functions.FunctionContext;
 import org.apache.flink.table.functions.TableFunction;
-import org.apache.flink.types.RowKind;
+import org.apache.flink.table.types.logical.RowType;
 
+import com.dtstack.flinkx.constants.Metrics;
 import com.dtstack.flinkx.converter.AbstractRowConverter;
 import com.dtstack.flinkx.factory.DTThreadFactory;
+import com.dtstack.flinkx.lookup.cache.CompactAllCache;
 import com.dtstack.flinkx.lookup.conf.LookupConf;
-import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
-import org.apache.commons.collections.CollectionUtils;
+import com.dtstack.flinkx.util.ExceptionUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-import java.util.Map;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.stream.Collectors;
 
 /**
  * @author chuixue
@@ -54,7 +51,7 @@ abstract public class AbstractAllTableFunction extends TableFunction<RowData> {
     /** 和维表join字段的名称 */
     protected final String[] keyNames;
     /** 缓存 */
-    protected AtomicReference<Map<String, List<Map<String, Object>>>> cacheRef = new AtomicReference<>();
+    protected AtomicReference<CompactAllCache> cacheRef = new AtomicReference<>();
     /** 定时加载 */
     private ScheduledExecutorService es;
     /** 维表配置 */
@@ -63,6 +60,10 @@ abstract public class AbstractAllTableFunction extends TableFunction<RowData> {
     protected final String[] fieldsName;
     /** 数据类型转换器 */
     protected final AbstractRowConverter rowConverter;
+    /** join字段在fieldsName中的下标 */
+    protected final int[] keyIndexes;
+    /** 缓存重新加载次数 */
+    private transient Counter reloadCounter;
 
 
     public AbstractAllTableFunction(
@@ -75,40 +76,65 @@ abstract public class AbstractAllTableFunction extends TableFunction<RowData> {
         this.lookupConf = lookupConf;
         this.fieldsName = fieldNames;
         this.rowConverter = rowConverter;
+        this.keyIndexes = new int[keyNames.length];
+        for (int i = 0; i < keyNames.length; i++) {
+            keyIndexes[i] = indexOfField(keyNames[i]);
+        }
+    }
+
+    private int indexOfField(String keyName) {
+        for (int i = 0; i < fieldsName.length; i++) {
+            if (fieldsName[i].trim().equals(keyName.trim())) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("can not find join key [" + keyName + "] in fields of " + lookupConf.getTableName());
     }
 
     /**
      * 初始化加载数据库中数据
      */
     protected void initCache() {
-        Map<String, List<Map<String, Object>>> newCache = Maps.newConcurrentMap();
-        cacheRef.set(newCache);
-        loadData(newCache);
+        cacheRef.set(createCache());
     }
 
     /**
-     * 定时加载数据库中数据
+     * 定时加载数据库中数据，新缓存构建完成后整体替换，构建失败时继续使用旧缓存
      */
     protected void reloadCache() {
         //reload cacheRef and replace to old cacheRef
-        Map<String, List<Map<String, Object>>> newCache = Maps.newConcurrentMap();
+        CompactAllCache newCache;
         try {
-            loadData(newCache);
+            newCache = createCache();
         } catch (Exception e) {
-            throw new RuntimeException(e);
+            LOG.error("----- " + lookupConf.getTableName() + ": all cacheRef reload failed, keep the old cache, e = {}", ExceptionUtil.getErrorMessage(e));
+            return;
         }
 
         cacheRef.set(newCache);
+        if (reloadCounter != null) {
+            reloadCounter.inc();
+        }
         LOG.info(
-                "----- " + lookupConf.getTableName() + ": all cacheRef reload end:{}",
+                "----- " + lookupConf.getTableName() + ": all cacheRef reload end:{}, rows = {}, dataBytes = {}, indexBytes = {}",
                 LocalDateTime
-                        .now());
+                        .now(),
+                newCache.getRowCount(),
+                newCache.getDataBytes(),
+                newCache.getIndexBytes());
+    }
+
+    private CompactAllCache createCache() {
+        RowType rowType = rowConverter.getRowType();
+        CompactAllCache.Builder builder = new CompactAllCache.Builder(rowType, keyIndexes, lookupConf.isCacheOffHeap());
+        loadData(builder);
+        return builder.build();
     }
 
     /**
      * 加载数据到缓存
      *
-     * @param cacheRef
+     * @param cacheRef {@link CompactAllCache.Builder}
      */
     protected abstract void loadData(Object cacheRef);
 
@@ -116,6 +142,7 @@ abstract public class AbstractAllTableFunction extends TableFunction<RowData> {
     public void open(FunctionContext context) throws Exception {
         super.open(context);
         initCache();
+        initMetric(context.getMetricGroup());
         LOG.info("----- all cacheRef init end-----");
 
         //start reload cache thread
@@ -127,24 +154,24 @@ abstract public class AbstractAllTableFunction extends TableFunction<RowData> {
                 TimeUnit.MILLISECONDS);
     }
 
+    /**
+     * 缓存占用内存的指标
+     */
+    private void initMetric(MetricGroup metricGroup) {
+        metricGroup.gauge(Metrics.LOOKUP_CACHE_ROWS, (Gauge<Integer>) () -> cacheRef.get().getRowCount());
+        metricGroup.gauge(Metrics.LOOKUP_CACHE_DATA_BYTES, (Gauge<Long>) () -> cacheRef.get().getDataBytes());
+        metricGroup.gauge(Metrics.LOOKUP_CACHE_INDEX_BYTES, (Gauge<Long>) () -> cacheRef.get().getIndexBytes());
+        reloadCounter = metricGroup.counter(Metrics.LOOKUP_CACHE_RELOADS);
+    }
+
     /**
      * 缓存一行数据
      *
-     * @param oneRow 一行数据
-     * @param tmpCache 缓存的数据<key ,list<value>>
+     * @param rowData 一行数据，字段顺序与fieldsName一致
+     * @param cacheRef {@link CompactAllCache.Builder}
      */
-    protected void buildCache(
-            Map<String, Object> oneRow,
-            Map<String, List<Map<String, Object>>> tmpCache) {
-
-        String cacheKey = new ArrayList<>(Arrays.asList(keyNames))
-                .stream()
-                .map(oneRow::get)
-                .map(String::valueOf)
-                .collect(Collectors.joining("_"));
-
-        tmpCache.computeIfAbsent(cacheKey, key -> Lists.newArrayList())
-                .add(oneRow);
+    protected void buildCache(RowData rowData, Object cacheRef) {
+        ((CompactAllCache.Builder) cacheRef).add(rowData);
     }
 
     /**
@@ -153,24 +180,8 @@ abstract public class AbstractAllTableFunction extends TableFunction<RowData> {
      * @param keys 维表join key的值
      */
     public void eval(Object... keys) {
-        String cacheKey = Arrays.stream(keys)
-                .map(String::valueOf)
-                .collect(Collectors.joining("_"));
-        List<Map<String, Object>> cacheList = cacheRef.get().get(cacheKey);
         // 有数据才往下发，(左/内)连接flink会做相应的处理
-        if (!CollectionUtils.isEmpty(cacheList)) {
-            cacheList.forEach(one -> collect(fillData(one)));
-        }
-    }
-
-    public RowData fillData(Object sideInput) {
-        Map<String, Object> cacheInfo = (Map<String, Object>) sideInput;
-        GenericRowData row = new GenericRowData(fieldsName.length);
-        for (int i = 0; i < fieldsName.length; i++) {
-            row.setField(i, cacheInfo.get(fieldsName[i]));
-        }
-        row.setRowKind(RowKind.INSERT);
-        return row;
+        cacheRef.get().lookup(keys, this::collect);
     }
 
     /**
@@ -20,6 +20,10 @@ package com.dtstack.flinkx.lookup;
 
 import org.apache.flink.api.common.functions.RuntimeContext;
 import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.Gauge;
+import org.apache.flink.metrics.Histogram;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.runtime.metrics.DescriptiveStatisticsHistogram;
 import org.apache.flink.runtime.execution.SuppressRestartsException;
 import org.apache.flink.streaming.api.functions.async.RichAsyncFunction;
 import org.apache.flink.streaming.api.operators.StreamingRuntimeContext;
@@ -28,12 +32,15 @@ import org.apache.flink.table.data.RowData;
 import org.apache.flink.table.functions.AsyncTableFunction;
 import org.apache.flink.table.functions.FunctionContext;
 
+import com.dtstack.flinkx.constants.Metrics;
 import com.dtstack.flinkx.converter.AbstractRowConverter;
 import com.dtstack.flinkx.enums.CacheType;
 import com.dtstack.flinkx.enums.ECacheContentType;
 import com.dtstack.flinkx.lookup.cache.AbstractSideCache;
+import com.dtstack.flinkx.lookup.cache.CacheKey;
 import com.dtstack.flinkx.lookup.cache.CacheObj;
 import com.dtstack.flinkx.lookup.cache.LRUSideCache;
+import com.dtstack.flinkx.lookup.cache.TinyLfuSideCache;
 import com.dtstack.flinkx.lookup.conf.LookupConf;
 import com.dtstack.flinkx.metrics.MetricConstant;
 import com.dtstack.flinkx.util.ReflectionUtils;
@@ -44,13 +51,13 @@ import org.slf4j.LoggerFactory;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledFuture;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author chuixue
@@ -59,8 +66,15 @@ import java.util.stream.Collectors;
  **/
 abstract public class AbstractLruTableFunction extends AsyncTableFunction<RowData> {
     private static final Logger LOG = LoggerFactory.getLogger(AbstractLruTableFunction.class);
+    /** 加载耗时直方图保留的样本数 */
+    private static final int LOAD_TIME_WINDOW_SIZE = 1024;
     /** 指标 */
     protected transient Counter parseErrorRecords;
+    protected transient Counter cacheHits;
+    protected transient Counter cacheMisses;
+    protected transient Histogram cacheLoadTime;
+    /** 正在加载的缓存键，同一个键并发未命中时只查询一次 */
+    private transient ConcurrentHashMap<CacheKey, PendingLoad> pendingLoads;
     /** 缓存 */
     protected AbstractSideCache sideCache;
     /** 维表配置 */
@@ -107,12 +121,18 @@ abstract public class AbstractLruTableFunction extends AsyncTableFunction<RowDat
 
         if (CacheType.LRU.name().equalsIgnoreCase(lookupConf.getCache())) {
             sideCache = new LRUSideCache(lookupConf.getCacheSize(), lookupConf.getCacheTtl());
+        } else if (CacheType.LFU.name().equalsIgnoreCase(lookupConf.getCache())) {
+            sideCache = new TinyLfuSideCache(
+                    lookupConf.getCacheSize(),
+                    lookupConf.getCacheTtl(),
+                    lookupConf.getCacheRefreshAfterWrite());
         } else {
             throw new RuntimeException(
                     "not support side cache with type:" + lookupConf.getCache());
         }
 
         sideCache.initCache();
+        pendingLoads = new ConcurrentHashMap<>();
     }
 
     /**
@@ -121,9 +141,16 @@ abstract public class AbstractLruTableFunction extends AsyncTableFunction<RowDat
      * @param context 上下文
      */
     private void initMetric(FunctionContext context) {
-        parseErrorRecords = context
-                .getMetricGroup()
-                .counter(MetricConstant.DT_NUM_SIDE_PARSE_ERROR_RECORDS);
+        MetricGroup metricGroup = context.getMetricGroup();
+        parseErrorRecords = metricGroup.counter(MetricConstant.DT_NUM_SIDE_PARSE_ERROR_RECORDS);
+        cacheHits = metricGroup.counter(Metrics.LOOKUP_CACHE_HITS);
+        cacheMisses = metricGroup.counter(Metrics.LOOKUP_CACHE_MISSES);
+        cacheLoadTime = metricGroup.histogram(
+                Metrics.LOOKUP_CACHE_LOAD_TIME,
+                new DescriptiveStatisticsHistogram(LOAD_TIME_WINDOW_SIZE));
+        metricGroup.gauge(
+                Metrics.LOOKUP_CACHE_EVICTIONS,
+                (Gauge<Long>) () -> openCache() ? sideCache.getEvictionCount() : 0L);
     }
 
     /**
@@ -133,7 +160,7 @@ abstract public class AbstractLruTableFunction extends AsyncTableFunction<RowDat
      *
      * @return
      */
-    protected CacheObj getFromCache(String key) {
+    protected CacheObj getFromCache(CacheKey key) {
         return sideCache.getFromCache(key);
     }
 
@@ -143,7 +170,7 @@ abstract public class AbstractLruTableFunction extends AsyncTableFunction<RowDat
      * @param key
      * @param value
      */
-    protected void putCache(String key, CacheObj value) {
+    protected void putCache(CacheKey key, CacheObj value) {
         sideCache.putCache(key, value);
     }
 
@@ -175,7 +202,7 @@ abstract public class AbstractLruTableFunction extends AsyncTableFunction<RowDat
      * @param key
      * @param missKeyObj
      */
-    protected void dealCacheData(String key, CacheObj missKeyObj) {
+    protected void dealCacheData(CacheKey key, CacheObj missKeyObj) {
         if (openCache()) {
             putCache(key, missKeyObj);
         }
@@ -235,13 +262,25 @@ abstract public class AbstractLruTableFunction extends AsyncTableFunction<RowDat
         try {
             preInvoke(future, keys);
 
-            String cacheKey = buildCacheKey(keys);
+            if (!openCache()) {
+                handleAsyncInvoke(future, keys);
+                return;
+            }
+
+            CacheKey cacheKey = buildCacheKey(keys);
             // 缓存判断
-            if (isUseCache(cacheKey)) {
-                invokeWithCache(cacheKey, future);
+            CacheObj val = getFromCache(cacheKey);
+            if (val != null) {
+                cacheHits.inc();
+                invokeWithCache(val, future);
+                if (sideCache.needRefresh(cacheKey)) {
+                    // 先返回旧数据，再异步刷新缓存
+                    load(cacheKey, new CompletableFuture<>(), keys);
+                }
                 return;
             }
-            handleAsyncInvoke(future, keys);
+            cacheMisses.inc();
+            load(cacheKey, future, keys);
         } catch (Exception e) {
             // todo 优化
             LOG.error(e.getMessage());
@@ -249,53 +288,84 @@ abstract public class AbstractLruTableFunction extends AsyncTableFunction<RowDat
     }
 
     /**
-     * 判断缓存是否存在
+     * 查询数据库，同一个键正在加载时复用加载结果
      *
      * @param cacheKey 缓存健
-     *
-     * @return
+     * @param future 接收查询结果
+     * @param keys 关联字段数据
      */
-    protected boolean isUseCache(String cacheKey) {
-        return openCache() && getFromCache(cacheKey) != null;
+    private void load(
+            CacheKey cacheKey,
+            CompletableFuture<Collection<RowData>> future,
+            Object... keys) {
+        long now = System.nanoTime();
+        PendingLoad pendingLoad = new PendingLoad(now);
+        PendingLoad existing = pendingLoads.putIfAbsent(cacheKey, pendingLoad);
+        if (existing != null) {
+            if (!existing.isTimeout(now, lookupConf.getAsyncTimeout())) {
+                existing.result.whenComplete(
+                        (rows, throwable) -> {
+                            if (throwable != null) {
+                                future.completeExceptionally(throwable);
+                            } else {
+                                future.complete(rows);
+                            }
+                        });
+                return;
+            }
+            // 之前的查询没有返回结果，不再等待
+            pendingLoads.put(cacheKey, pendingLoad);
+        }
+
+        CompletableFuture<Collection<RowData>> result = pendingLoad.result;
+        result.whenComplete(
+                (rows, throwable) -> {
+                    pendingLoads.remove(cacheKey, pendingLoad);
+                    cacheLoadTime.update(
+                            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - now));
+                    if (throwable != null) {
+                        future.completeExceptionally(throwable);
+                    } else {
+                        future.complete(rows);
+                    }
+                });
+        try {
+            handleAsyncInvoke(result, keys);
+        } catch (Exception e) {
+            result.completeExceptionally(e);
+        }
     }
 
     /**
      * 从缓存中获取数据
      *
-     * @param cacheKey 缓存健
+     * @param val 缓存数据
      * @param future
      */
-    private void invokeWithCache(String cacheKey, CompletableFuture<Collection<RowData>> future) {
-        if (openCache()) {
-            CacheObj val = getFromCache(cacheKey);
-            if (val != null) {
-                if (ECacheContentType.MissVal == val.getType()) {
-                    dealMissKey(future);
-                    return;
-                } else if (ECacheContentType.SingleLine == val.getType()) {
-                    try {
-                        RowData row = fillData(val.getContent());
-                        future.complete(Collections.singleton(row));
-                    } catch (Exception e) {
-                        dealFillDataError(future, e);
-                    }
-                } else if (ECacheContentType.MultiLine == val.getType()) {
-                    try {
-                        List<RowData> rowList = Lists.newArrayList();
-                        for (Object one : (List) val.getContent()) {
-                            RowData row = fillData(one);
-                            rowList.add(row);
-                        }
-                        future.complete(rowList);
-                    } catch (Exception e) {
-                        dealFillDataError(future, e);
-                    }
-                } else {
-                    future.completeExceptionally(new RuntimeException(
-                            "not support cache obj type " + val.getType()));
+    private void invokeWithCache(CacheObj val, CompletableFuture<Collection<RowData>> future) {
+        if (ECacheContentType.MissVal == val.getType()) {
+            dealMissKey(future);
+        } else if (ECacheContentType.SingleLine == val.getType()) {
+            try {
+                RowData row = fillData(val.getContent());
+                future.complete(Collections.singleton(row));
+            } catch (Exception e) {
+                dealFillDataError(future, e);
+            }
+        } else if (ECacheContentType.MultiLine == val.getType()) {
+            try {
+                List<RowData> rowList = Lists.newArrayList();
+                for (Object one : (List) val.getContent()) {
+                    RowData row = fillData(one);
+                    rowList.add(row);
                 }
-                return;
+                future.complete(rowList);
+            } catch (Exception e) {
+                dealFillDataError(future, e);
             }
+        } else {
+            future.completeExceptionally(new RuntimeException(
+                    "not support cache obj type " + val.getType()));
         }
     }
 
@@ -318,10 +388,8 @@ abstract public class AbstractLruTableFunction extends AsyncTableFunction<RowDat
      *
      * @return
      */
-    public String buildCacheKey(Object... keys) {
-        return Arrays.stream(keys)
-                .map(e -> String.valueOf(e))
-                .collect(Collectors.joining("_"));
+    public CacheKey buildCacheKey(Object... keys) {
+        return CacheKey.of(keys);
     }
 
     private ProcessingTimeService getProcessingTimeService() {
@@ -409,4 +477,18 @@ abstract public class AbstractLruTableFunction extends AsyncTableFunction<RowDat
      * @return
      */
     abstract protected RowData fillData(Object sideInput) throws Exception;
+
+    /** 正在进行的一次查询 */
+    private static class PendingLoad {
+        private final CompletableFuture<Collection<RowData>> result = new CompletableFuture<>();
+        private final long startTime;
+
+        private PendingLoad(long startTime) {
+            this.startTime = startTime;
+        }
+
+        private boolean isTimeout(long now, long timeoutMillis) {
+            return now - startTime > TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        }
+    }
 }
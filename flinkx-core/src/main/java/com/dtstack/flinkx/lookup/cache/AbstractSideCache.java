@@ -31,7 +31,26 @@ public abstract class AbstractSideCache {
 
     public abstract void initCache();
 
-    public abstract CacheObj getFromCache(String key);
+    public abstract CacheObj getFromCache(Object key);
 
-    public abstract void putCache(String key, CacheObj value);
+    public abstract void putCache(Object key, CacheObj value);
+
+    /**
+     * 缓存数据是否已经过了刷新时间，需要在返回旧数据的同时异步重新加载
+     *
+     * @param key 缓存键
+     * @return 默认不刷新
+     */
+    public boolean needRefresh(Object key) {
+        return false;
+    }
+
+    /**
+     * 因容量不足或过期被淘汰的数据条数
+     *
+     * @return 淘汰条数
+     */
+    public long getEvictionCount() {
+        return 0L;
+    }
 }
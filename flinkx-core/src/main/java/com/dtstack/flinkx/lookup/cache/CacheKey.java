@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.lookup.cache;
+
+import org.apache.flink.table.data.binary.BinaryStringData;
+
+import java.util.Arrays;
+
+/**
+ * 维表缓存的组合键，按join key的值逐个比较，避免字符串拼接产生的额外开销和键冲突
+ */
+public final class CacheKey {
+
+    private final Object[] values;
+
+    private final int hash;
+
+    private CacheKey(Object[] values) {
+        this.values = values;
+        this.hash = Arrays.hashCode(values);
+    }
+
+    /**
+     * 构建缓存键
+     *
+     * @param keys join key的值
+     * @return 缓存键
+     */
+    public static CacheKey of(Object... keys) {
+        Object[] values = new Object[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            Object key = keys[i];
+            // BinaryStringData可能引用输入数据的内存，复制后再放入缓存
+            if (key instanceof BinaryStringData) {
+                key = ((BinaryStringData) key).copy();
+            }
+            values[i] = key;
+        }
+        return new CacheKey(values);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CacheKey)) {
+            return false;
+        }
+        CacheKey that = (CacheKey) o;
+        return hash == that.hash && Arrays.equals(values, that.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(values);
+    }
+}
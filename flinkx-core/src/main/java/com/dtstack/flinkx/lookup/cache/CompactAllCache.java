@@ -0,0 +1,279 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.lookup.cache;
+
+import org.apache.flink.core.memory.MemorySegment;
+import org.apache.flink.core.memory.MemorySegmentFactory;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.binary.BinaryRowData;
+import org.apache.flink.table.data.binary.BinarySegmentUtils;
+import org.apache.flink.table.runtime.typeutils.RowDataSerializer;
+import org.apache.flink.table.types.logical.RowType;
+import org.apache.flink.types.RowKind;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * ALL模式维表的紧凑缓存。
+ *
+ * <p>每行数据序列化为{@link BinaryRowData}后连续写入固定大小的内存页（可以是堆外内存），
+ * 索引是按join key的哈希值组织的链表，全部由基本类型数组构成，不再为每行数据创建HashMap和字符串key。
+ * 构建完成后只读，重新加载时构建新的实例再整体替换。
+ */
+public class CompactAllCache {
+
+    /** 默认内存页大小 */
+    public static final int DEFAULT_PAGE_SIZE = 4 * 1024 * 1024;
+
+    /** 每行数据前用一个int记录序列化后的长度 */
+    private static final int LENGTH_BYTES = 4;
+
+    private static final int NO_ENTRY = -1;
+
+    private final int arity;
+    private final RowData.FieldGetter[] fieldGetters;
+    private final int[] keyIndexes;
+    private final boolean offHeap;
+    private final MemorySegment[] pages;
+    /** 哈希桶，存储链表中第一条数据的下标 */
+    private final int[] buckets;
+    private final int mask;
+    /** 下标相同的三个数组组成一条索引：链表中下一条数据的下标、key的哈希值、数据在内存页中的地址 */
+    private final int[] entryNext;
+    private final int[] entryHash;
+    private final long[] entryAddress;
+    private final int rowCount;
+    private final long dataBytes;
+
+    private CompactAllCache(Builder builder) {
+        this.arity = builder.arity;
+        this.fieldGetters = builder.fieldGetters;
+        this.keyIndexes = builder.keyIndexes;
+        this.offHeap = builder.offHeap;
+        this.pages = builder.pages.toArray(new MemorySegment[0]);
+        this.rowCount = builder.rowCount;
+        this.dataBytes = builder.dataBytes;
+        this.entryHash = Arrays.copyOf(builder.entryHash, rowCount);
+        this.entryAddress = Arrays.copyOf(builder.entryAddress, rowCount);
+        this.entryNext = new int[rowCount];
+
+        int capacity = Integer.highestOneBit(Math.max(16, rowCount) - 1) << 1;
+        this.buckets = new int[capacity];
+        this.mask = capacity - 1;
+        Arrays.fill(buckets, NO_ENTRY);
+        // 倒序插入链表头部，使同一个key的多条数据按加载顺序输出
+        for (int i = rowCount - 1; i >= 0; i--) {
+            int bucket = entryHash[i] & mask;
+            entryNext[i] = buckets[bucket];
+            buckets[bucket] = i;
+        }
+    }
+
+    /**
+     * 查找join key对应的所有数据
+     *
+     * @param keys join key的值，顺序与构建时的keyIndexes一致
+     * @param consumer 接收解码后的数据
+     * @return 命中的数据条数
+     */
+    public int lookup(Object[] keys, Consumer<RowData> consumer) {
+        if (keys.length != keyIndexes.length || hasNull(keys)) {
+            return 0;
+        }
+        int hash = hash(keys);
+        int matched = 0;
+        BinaryRowData view = new BinaryRowData(arity);
+        for (int i = buckets[hash & mask]; i != NO_ENTRY; i = entryNext[i]) {
+            if (entryHash[i] != hash) {
+                continue;
+            }
+            long address = entryAddress[i];
+            MemorySegment page = pages[(int) (address >>> 32)];
+            int offset = (int) address;
+            int size = page.getInt(offset);
+            view.pointTo(page, offset + LENGTH_BYTES, size);
+            if (!keyEquals(view, keys)) {
+                continue;
+            }
+            consumer.accept(decode(view, page, offset + LENGTH_BYTES, size));
+            matched++;
+        }
+        return matched;
+    }
+
+    private boolean keyEquals(BinaryRowData view, Object[] keys) {
+        for (int i = 0; i < keyIndexes.length; i++) {
+            if (!keys[i].equals(fieldGetters[keyIndexes[i]].getFieldOrNull(view))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private RowData decode(BinaryRowData view, MemorySegment page, int offset, int size) {
+        BinaryRowData source = view;
+        if (offHeap) {
+            // 字符串等字段会直接引用底层内存，堆外内存页随缓存替换释放，所以先复制到堆内
+            byte[] bytes = new byte[size];
+            page.get(offset, bytes);
+            source = new BinaryRowData(arity);
+            source.pointTo(MemorySegmentFactory.wrap(bytes), 0, size);
+        }
+        GenericRowData row = new GenericRowData(RowKind.INSERT, arity);
+        for (int i = 0; i < arity; i++) {
+            row.setField(i, fieldGetters[i].getFieldOrNull(source));
+        }
+        return row;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /** 内存页占用的字节数 */
+    public long getDataBytes() {
+        return dataBytes;
+    }
+
+    /** 索引数组占用的字节数 */
+    public long getIndexBytes() {
+        return (long) buckets.length * Integer.BYTES
+                + (long) rowCount * (Integer.BYTES + Integer.BYTES + Long.BYTES);
+    }
+
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    private static boolean hasNull(Object[] keys) {
+        for (Object key : keys) {
+            if (key == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int hash(Object[] keys) {
+        int h = 1;
+        for (Object key : keys) {
+            h = 31 * h + key.hashCode();
+        }
+        return h ^ (h >>> 16);
+    }
+
+    /** 逐行构建{@link CompactAllCache}，非线程安全 */
+    public static class Builder {
+
+        private final int arity;
+        private final RowData.FieldGetter[] fieldGetters;
+        private final int[] keyIndexes;
+        private final boolean offHeap;
+        private final int pageSize;
+        private final RowDataSerializer serializer;
+        private final Object[] keyBuffer;
+
+        private final List<MemorySegment> pages = new ArrayList<>();
+        private MemorySegment currentPage;
+        private int pageOffset;
+        private int[] entryHash = new int[1024];
+        private long[] entryAddress = new long[1024];
+        private int rowCount;
+        private long dataBytes;
+
+        public Builder(RowType rowType, int[] keyIndexes, boolean offHeap) {
+            this(rowType, keyIndexes, offHeap, DEFAULT_PAGE_SIZE);
+        }
+
+        public Builder(RowType rowType, int[] keyIndexes, boolean offHeap, int pageSize) {
+            this.arity = rowType.getFieldCount();
+            this.fieldGetters = new RowData.FieldGetter[arity];
+            for (int i = 0; i < arity; i++) {
+                fieldGetters[i] = RowData.createFieldGetter(rowType.getTypeAt(i), i);
+            }
+            this.keyIndexes = keyIndexes;
+            this.offHeap = offHeap;
+            this.pageSize = pageSize;
+            this.serializer = new RowDataSerializer(rowType);
+            this.keyBuffer = new Object[keyIndexes.length];
+        }
+
+        /**
+         * 缓存一行数据，join key中有null的数据永远不会被关联上，直接丢弃
+         *
+         * @param row 一行数据
+         * @return 是否缓存
+         */
+        public boolean add(RowData row) {
+            for (int i = 0; i < keyIndexes.length; i++) {
+                keyBuffer[i] = fieldGetters[keyIndexes[i]].getFieldOrNull(row);
+            }
+            if (hasNull(keyBuffer)) {
+                return false;
+            }
+
+            BinaryRowData binaryRow = serializer.toBinaryRow(row);
+            int size = binaryRow.getSizeInBytes();
+            ensureCapacity(LENGTH_BYTES + size);
+
+            currentPage.putInt(pageOffset, size);
+            MemorySegment[] segments = binaryRow.getSegments();
+            if (segments.length == 1) {
+                segments[0].copyTo(binaryRow.getOffset(), currentPage, pageOffset + LENGTH_BYTES, size);
+            } else {
+                byte[] bytes = BinarySegmentUtils.copyToBytes(segments, binaryRow.getOffset(), size);
+                currentPage.put(pageOffset + LENGTH_BYTES, bytes);
+            }
+
+            if (rowCount == entryHash.length) {
+                entryHash = Arrays.copyOf(entryHash, rowCount * 2);
+                entryAddress = Arrays.copyOf(entryAddress, rowCount * 2);
+            }
+            entryHash[rowCount] = hash(keyBuffer);
+            entryAddress[rowCount] = ((long) (pages.size() - 1) << 32) | pageOffset;
+            rowCount++;
+            pageOffset += LENGTH_BYTES + size;
+            return true;
+        }
+
+        private void ensureCapacity(int required) {
+            if (currentPage != null && currentPage.size() - pageOffset >= required) {
+                return;
+            }
+            int size = Math.max(pageSize, required);
+            currentPage = offHeap
+                    ? MemorySegmentFactory.allocateUnpooledOffHeapMemory(size)
+                    : MemorySegmentFactory.wrap(new byte[size]);
+            pages.add(currentPage);
+            pageOffset = 0;
+            dataBytes += size;
+        }
+
+        public int getRowCount() {
+            return rowCount;
+        }
+
+        public CompactAllCache build() {
+            return new CompactAllCache(this);
+        }
+    }
+}
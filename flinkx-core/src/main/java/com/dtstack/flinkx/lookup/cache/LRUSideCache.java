@@ -34,7 +34,7 @@ import java.util.concurrent.TimeUnit;
 
 public class LRUSideCache extends AbstractSideCache {
 
-    protected transient Cache<String, CacheObj> cache;
+    protected transient Cache<Object, CacheObj> cache;
     private Long cacheSize;
     private Long timeOut;
 
@@ -49,11 +49,12 @@ public class LRUSideCache extends AbstractSideCache {
         cache = CacheBuilder.newBuilder()
                 .maximumSize(cacheSize)
                 .expireAfterWrite(timeOut, TimeUnit.MILLISECONDS)
+                .recordStats()
                 .build();
     }
 
     @Override
-    public CacheObj getFromCache(String key) {
+    public CacheObj getFromCache(Object key) {
         if(cache == null){
             return null;
         }
@@ -62,11 +63,20 @@ public class LRUSideCache extends AbstractSideCache {
     }
 
     @Override
-    public void putCache(String key, CacheObj value) {
+    public void putCache(Object key, CacheObj value) {
         if(cache == null){
             return;
         }
 
         cache.put(key, value);
     }
+
+    @Override
+    public long getEvictionCount() {
+        if(cache == null){
+            return 0L;
+        }
+
+        return cache.stats().evictionCount();
+    }
 }
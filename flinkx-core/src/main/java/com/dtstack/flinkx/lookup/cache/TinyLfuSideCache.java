@@ -0,0 +1,252 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.lookup.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * W-TinyLFU淘汰策略的维表缓存。
+ *
+ * <p>新数据先进入容量为1%的LRU窗口，窗口淘汰的数据要和主区（SLRU）中最久未访问的数据比较访问频率，
+ * 频率更高的才能留下，避免一次性扫描的冷数据把热点数据挤出缓存。数据写入超过refreshAfterWrite后
+ * 仍然返回旧值，由调用方异步重新加载；超过expireAfterWrite后视为不存在。
+ */
+public class TinyLfuSideCache extends AbstractSideCache {
+
+    private static final double WINDOW_RATIO = 0.01;
+
+    private static final double PROTECTED_RATIO = 0.8;
+
+    private static final byte WINDOW = 0;
+
+    private static final byte PROBATION = 1;
+
+    private static final byte PROTECTED = 2;
+
+    private final long cacheSize;
+    private final long timeOut;
+    private final long refreshAfterWrite;
+    private final LongSupplier clock;
+
+    private transient Map<Object, Node> data;
+    private transient FrequencySketch sketch;
+    private transient AccessOrderDeque window;
+    private transient AccessOrderDeque probation;
+    private transient AccessOrderDeque protectedDeque;
+    private long maxWindow;
+    private long maxMain;
+    private long maxProtected;
+    private long evictionCount;
+
+    public TinyLfuSideCache(long cacheSize, long timeOut, long refreshAfterWrite) {
+        this(cacheSize, timeOut, refreshAfterWrite, System::currentTimeMillis);
+    }
+
+    TinyLfuSideCache(long cacheSize, long timeOut, long refreshAfterWrite, LongSupplier clock) {
+        this.cacheSize = cacheSize;
+        this.timeOut = timeOut;
+        this.refreshAfterWrite = refreshAfterWrite;
+        this.clock = clock;
+    }
+
+    @Override
+    public synchronized void initCache() {
+        long capacity = Math.max(cacheSize, 1L);
+        maxWindow = Math.max(1L, (long) (capacity * WINDOW_RATIO));
+        maxMain = capacity - maxWindow;
+        maxProtected = (long) (maxMain * PROTECTED_RATIO);
+        data = new HashMap<>();
+        sketch = new FrequencySketch(capacity);
+        window = new AccessOrderDeque();
+        probation = new AccessOrderDeque();
+        protectedDeque = new AccessOrderDeque();
+        evictionCount = 0L;
+    }
+
+    @Override
+    public synchronized CacheObj getFromCache(Object key) {
+        if (data == null) {
+            return null;
+        }
+        sketch.increment(key);
+        Node node = data.get(key);
+        if (node == null) {
+            return null;
+        }
+        if (clock.getAsLong() - node.writeTime >= timeOut) {
+            removeNode(node);
+            evictionCount++;
+            return null;
+        }
+        onAccess(node);
+        return node.value;
+    }
+
+    @Override
+    public synchronized void putCache(Object key, CacheObj value) {
+        if (data == null) {
+            return;
+        }
+        long now = clock.getAsLong();
+        Node node = data.get(key);
+        if (node != null) {
+            node.value = value;
+            node.writeTime = now;
+            onAccess(node);
+            return;
+        }
+        node = new Node(key, value, now);
+        data.put(key, node);
+        window.addLast(node);
+        evict();
+    }
+
+    @Override
+    public synchronized boolean needRefresh(Object key) {
+        if (data == null || refreshAfterWrite <= 0) {
+            return false;
+        }
+        Node node = data.get(key);
+        return node != null && clock.getAsLong() - node.writeTime >= refreshAfterWrite;
+    }
+
+    @Override
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    synchronized int size() {
+        return data == null ? 0 : data.size();
+    }
+
+    private void onAccess(Node node) {
+        if (node.queue == WINDOW) {
+            window.moveToLast(node);
+        } else if (node.queue == PROBATION) {
+            // 试用区被再次访问的数据晋升到保护区，保护区溢出的数据降级回试用区
+            probation.remove(node);
+            node.queue = PROTECTED;
+            protectedDeque.addLast(node);
+            if (protectedDeque.size > maxProtected) {
+                Node demoted = protectedDeque.pollFirst();
+                demoted.queue = PROBATION;
+                probation.addLast(demoted);
+            }
+        } else {
+            protectedDeque.moveToLast(node);
+        }
+    }
+
+    private void evict() {
+        while (window.size > maxWindow) {
+            Node candidate = window.pollFirst();
+            candidate.queue = PROBATION;
+            if (probation.size + protectedDeque.size < maxMain) {
+                probation.addLast(candidate);
+                continue;
+            }
+            Node victim = probation.head != null ? probation.head : protectedDeque.head;
+            if (victim != null
+                    && sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+                removeNode(victim);
+                probation.addLast(candidate);
+            } else {
+                data.remove(candidate.key);
+            }
+            evictionCount++;
+        }
+    }
+
+    private void removeNode(Node node) {
+        data.remove(node.key);
+        if (node.queue == WINDOW) {
+            window.remove(node);
+        } else if (node.queue == PROBATION) {
+            probation.remove(node);
+        } else {
+            protectedDeque.remove(node);
+        }
+    }
+
+    private static final class Node {
+        private final Object key;
+        private CacheObj value;
+        private long writeTime;
+        private byte queue = WINDOW;
+        private Node prev;
+        private Node next;
+
+        private Node(Object key, CacheObj value, long writeTime) {
+            this.key = key;
+            this.value = value;
+            this.writeTime = writeTime;
+        }
+    }
+
+    /** 按访问顺序排列的双向链表，头部是最久未访问的数据 */
+    private static final class AccessOrderDeque {
+        private Node head;
+        private Node tail;
+        private long size;
+
+        private void addLast(Node node) {
+            node.prev = tail;
+            node.next = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+            size++;
+        }
+
+        private void remove(Node node) {
+            if (node.prev == null) {
+                head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            size--;
+        }
+
+        private void moveToLast(Node node) {
+            if (node != tail) {
+                remove(node);
+                addLast(node);
+            }
+        }
+
+        private Node pollFirst() {
+            Node node = head;
+            if (node != null) {
+                remove(node);
+            }
+            return node;
+        }
+    }
+}
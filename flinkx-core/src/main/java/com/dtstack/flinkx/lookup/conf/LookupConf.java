@@ -36,6 +36,8 @@ public class LookupConf implements Serializable {
     protected long cacheSize = 1000L;
     /** 缓存时间 */
     protected long cacheTtl = 60 * 1000L;
+    /** 缓存刷新时间，0表示不刷新 */
+    protected long cacheRefreshAfterWrite = 0L;
     /** 缓存类型 */
     protected String cache = CacheType.LRU.name();
     /** 失败重试次数 */
@@ -48,6 +50,8 @@ public class LookupConf implements Serializable {
     protected int asyncTimeout = 10000;
     /** 维表并行度 */
     protected Integer parallelism = 1;
+    /** ALL缓存是否使用堆外内存 */
+    protected boolean cacheOffHeap = false;
 
     public String getTableName() {
         return tableName;
@@ -103,6 +107,15 @@ public class LookupConf implements Serializable {
         return this;
     }
 
+    public long getCacheRefreshAfterWrite() {
+        return cacheRefreshAfterWrite;
+    }
+
+    public LookupConf setCacheRefreshAfterWrite(long cacheRefreshAfterWrite) {
+        this.cacheRefreshAfterWrite = cacheRefreshAfterWrite;
+        return this;
+    }
+
     public int getMaxRetryTimes() {
         return maxRetryTimes;
     }
@@ -139,6 +152,15 @@ public class LookupConf implements Serializable {
         return this;
     }
 
+    public boolean isCacheOffHeap() {
+        return cacheOffHeap;
+    }
+
+    public LookupConf setCacheOffHeap(boolean cacheOffHeap) {
+        this.cacheOffHeap = cacheOffHeap;
+        return this;
+    }
+
     public static LookupConf build() {
         return new LookupConf();
     }
@@ -150,12 +172,14 @@ public class LookupConf implements Serializable {
                 ", period=" + period +
                 ", cacheSize=" + cacheSize +
                 ", cacheTtl=" + cacheTtl +
+                ", cacheRefreshAfterWrite=" + cacheRefreshAfterWrite +
                 ", cache='" + cache + '\'' +
                 ", maxRetryTimes=" + maxRetryTimes +
                 ", errorLimit=" + errorLimit +
                 ", fetchSize=" + fetchSize +
                 ", asyncTimeout=" + asyncTimeout +
                 ", parallelism=" + parallelism +
+                ", cacheOffHeap=" + cacheOffHeap +
                 '}';
     }
 }
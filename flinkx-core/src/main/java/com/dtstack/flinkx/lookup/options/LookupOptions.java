@@ -51,6 +51,14 @@ public class LookupOptions {
                     .defaultValue(60 * 1000L)
                     .withDescription("the cache time to live.");
 
+    public static final ConfigOption<Long> LOOKUP_CACHE_REFRESH_AFTER_WRITE =
+            ConfigOptions.key("lookup.cache.refresh-after-write")
+                    .longType()
+                    .defaultValue(0L)
+                    .withDescription(
+                            "the time after which a cached row is reloaded asynchronously while the stale row is still served, "
+                                    + "only used by the LFU cache. 0 disables refreshing.");
+
     public static final ConfigOption<String> LOOKUP_CACHE_TYPE =
             ConfigOptions.key("lookup.cache-type")
                     .stringType()
@@ -81,6 +89,12 @@ public class LookupOptions {
                     .defaultValue(10000)
                     .withDescription("asyncTimeout.");
 
+    public static final ConfigOption<Boolean> LOOKUP_CACHE_OFF_HEAP =
+            ConfigOptions.key("lookup.cache.off-heap")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription("whether the ALL cache stores rows in off-heap memory pages.");
+
     public static final ConfigOption<Integer> LOOKUP_PARALLELISM =
             ConfigOptions.key("lookup.parallelism")
                     .intType()
@@ -19,25 +19,21 @@
 
 package com.dtstack.flinkx.metrics;
 
-import org.apache.flink.api.common.time.Time;
-import org.apache.flink.runtime.accumulators.StringifiedAccumulatorResult;
-import org.apache.flink.runtime.executiongraph.ArchivedExecutionGraph;
-import org.apache.flink.runtime.jobmaster.JobMasterGateway;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.runtime.taskexecutor.GlobalAggregateManager;
 import org.apache.flink.runtime.taskexecutor.TaskManagerConfiguration;
-import org.apache.flink.runtime.taskexecutor.rpc.RpcGlobalAggregateManager;
 import org.apache.flink.streaming.api.operators.StreamingRuntimeContext;
 import org.apache.flink.util.Preconditions;
 
 import com.dtstack.flinkx.util.ExceptionUtil;
-import com.dtstack.flinkx.util.ReflectionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.Field;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -45,6 +41,9 @@ import java.util.concurrent.TimeUnit;
 /**
  * 累加器收集器，周期性地更新累加器信息
  *
+ * <p>每个subtask通过GlobalAggregateManager把本地累加器的值上报给JobMaster，
+ * 并取回所有subtask汇总后的值，见{@link GlobalMetricAggregateFunction}
+ *
  * @author jiangbo
  * @date 2019/7/17
  */
@@ -54,14 +53,27 @@ public class AccumulatorCollector {
 
     private static final String THREAD_NAME = "accumulator-collector-thread";
 
+    private static final String AGGREGATE_NAME = "flinkx-accumulator-collector";
+
+    private static final GlobalMetricAggregateFunction AGGREGATE_FUNCTION = new GlobalMetricAggregateFunction();
+
     private static final int MAX_COLLECT_ERROR_TIMES = 100;
     private long collectErrorTimes = 0;
 
-    private JobMasterGateway gateway;
+    private final GlobalAggregateManager globalAggregateManager;
+    /**
+     * 上报时标识当前task的subtask。累加器属于task，chain在一起的source和sink拿到的是同一个累加器，
+     * 所以用task名而不是算子id，两个算子上报同一个累加器时不会被重复累加
+     */
+    private final String subtaskId;
 
     private final long period;
     private final ScheduledExecutorService scheduledExecutorService;
     private final Map<String, ValueAccumulator> valueAccumulatorMap;
+    /** 当前subtask发布的字符串类型的值 */
+    private final Map<String, String> localStringValueMap = new ConcurrentHashMap<>();
+    /** 所有subtask发布的字符串类型的值 */
+    private volatile Map<String, String> globalStringValueMap = new HashMap<>();
 
     public AccumulatorCollector(StreamingRuntimeContext context, List<String> metricNames){
         Preconditions.checkArgument(metricNames != null && metricNames.size() > 0);
@@ -74,15 +86,8 @@ public class AccumulatorCollector {
 
         //比task manager心跳间隔多1秒
         this.period = ((TaskManagerConfiguration) context.getTaskManagerRuntimeInfo()).getTimeout().toMilliseconds() + 1000;
-        RpcGlobalAggregateManager globalAggregateManager = ((RpcGlobalAggregateManager)(context).getGlobalAggregateManager());
-        Field field = ReflectionUtils.getDeclaredField(globalAggregateManager, "jobMasterGateway");
-        assert field != null;
-        field.setAccessible(true);
-        try {
-            gateway = (JobMasterGateway) field.get(globalAggregateManager);
-        } catch (IllegalArgumentException | IllegalAccessException e) {
-            LOG.error("failed to get field:[gateway] from RpcGlobalAggregateManager, e = {}", ExceptionUtil.getErrorMessage(e));
-        }
+        this.globalAggregateManager = context.getGlobalAggregateManager();
+        this.subtaskId = context.getTaskNameWithSubtasks();
     }
 
     /**
@@ -109,14 +114,22 @@ public class AccumulatorCollector {
     /**
      * 收集累加器信息
      */
-    public void collectAccumulator(){
-        CompletableFuture<ArchivedExecutionGraph> archivedExecutionGraphFuture = gateway.requestJob(Time.seconds(10));
-        ArchivedExecutionGraph archivedExecutionGraph;
+    public synchronized void collectAccumulator(){
+        HashMap<String, Long> localValues = new HashMap<>(valueAccumulatorMap.size());
+        for (Map.Entry<String, ValueAccumulator> entry : valueAccumulatorMap.entrySet()) {
+            localValues.put(entry.getKey(), entry.getValue().getLocal().getLocalValue());
+        }
+
+        Tuple2<HashMap<String, Long>, HashMap<String, String>> result;
         try {
-            archivedExecutionGraph = archivedExecutionGraphFuture.get();
+            result = globalAggregateManager.updateGlobalAggregate(
+                    AGGREGATE_NAME,
+                    Tuple3.of(subtaskId, localValues, new HashMap<>(localStringValueMap)),
+                    AGGREGATE_FUNCTION);
         } catch (Exception e) {
             //限制最大出错次数，超过最大次数则使任务失败，如果不失败，统计数据没有及时更新，会影响速率限制，错误控制等功能
             collectErrorTimes++;
+            LOG.warn("failed to update global accumulators, e = {}", ExceptionUtil.getErrorMessage(e));
             if (collectErrorTimes > MAX_COLLECT_ERROR_TIMES){
                 // 主动关闭线程和资源，防止异常情况下没有关闭
                 close();
@@ -124,28 +137,24 @@ public class AccumulatorCollector {
             }
            return;
         }
-        StringifiedAccumulatorResult[] accumulatorResult = archivedExecutionGraph.getAccumulatorResultsStringified();
-        for(StringifiedAccumulatorResult result : accumulatorResult){
-            ValueAccumulator valueAccumulator = valueAccumulatorMap.get(result.getName());
+        for (Map.Entry<String, Long> entry : result.f0.entrySet()) {
+            ValueAccumulator valueAccumulator = valueAccumulatorMap.get(entry.getKey());
             if(valueAccumulator != null) {
-                valueAccumulator.setGlobal(Long.parseLong(result.getValue()));
+                valueAccumulator.setGlobal(entry.getValue());
             }
         }
+        globalStringValueMap = result.f1;
     }
 
     /**
      * 获取指定累加器信息
      * @param name 累加器名称
-     * @param needWaited 是否需要等待
+     * @param needWaited 是否需要立即更新一次累加器信息
      * @return
      */
     public long getAccumulatorValue(String name, boolean needWaited) {
         if(needWaited){
-            try {
-                TimeUnit.MILLISECONDS.wait(this.period);
-            } catch (InterruptedException e) {
-                LOG.warn("Interrupted when waiting for valueAccumulatorMap, e = {}", ExceptionUtil.getErrorMessage(e));
-            }
+            collectAccumulator();
         }
         ValueAccumulator valueAccumulator = valueAccumulatorMap.get(name);
         if(valueAccumulator == null){
@@ -154,6 +163,29 @@ public class AccumulatorCollector {
         return valueAccumulator.getGlobal();
     }
 
+    /**
+     * 发布一个字符串类型的值，其他subtask可以通过{@link #getStringValue(String, boolean)}获取
+     * @param name 名称
+     * @param value 值
+     */
+    public void publishStringValue(String name, String value) {
+        localStringValueMap.put(name, value);
+        collectAccumulator();
+    }
+
+    /**
+     * 获取任意subtask发布的字符串类型的值
+     * @param name 名称
+     * @param needWaited 是否需要立即更新一次累加器信息
+     * @return 没有subtask发布时返回null
+     */
+    public String getStringValue(String name, boolean needWaited) {
+        if(needWaited){
+            collectAccumulator();
+        }
+        return globalStringValueMap.get(name);
+    }
+
     /**
      * 根据名称获取指定累加器的本地value
      * @param name 累加器指标名称
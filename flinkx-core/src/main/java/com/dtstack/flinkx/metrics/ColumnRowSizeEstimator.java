@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.metrics;
+
+import org.apache.flink.table.data.DecimalData;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.TimestampData;
+import org.apache.flink.table.data.binary.BinaryRowData;
+import org.apache.flink.table.data.binary.BinaryStringData;
+
+import com.dtstack.flinkx.element.AbstractBaseColumn;
+import com.dtstack.flinkx.element.ArrayColumnRowData;
+import com.dtstack.flinkx.element.ColumnRowData;
+import com.dtstack.flinkx.element.column.BooleanColumn;
+import com.dtstack.flinkx.element.column.DateColumn;
+import com.dtstack.flinkx.element.column.DoubleColumn;
+import com.dtstack.flinkx.element.column.FloatColumn;
+import com.dtstack.flinkx.element.column.IntColumn;
+import com.dtstack.flinkx.element.column.LongColumn;
+import com.dtstack.flinkx.element.column.TimeColumn;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Default {@link RowSizeEstimator}. The size is the sum of the payload of every field: the width
+ * of fixed size types and the length of strings and byte arrays, plus a small per record header.
+ * Strings are counted by their char length, which equals the UTF-8 size for ASCII data.
+ */
+public class ColumnRowSizeEstimator implements RowSizeEstimator {
+
+    private static final long serialVersionUID = 1L;
+
+    /** per record header, close to the row kind and null bits of a serialized row */
+    static final int ROW_HEADER_SIZE = 8;
+    /** size used for a field whose type is not known */
+    static final int DEFAULT_FIELD_SIZE = 8;
+
+    @Override
+    public long estimate(RowData rowData) {
+        if (rowData == null) {
+            return 0;
+        }
+        if (rowData instanceof BinaryRowData) {
+            return ((BinaryRowData) rowData).getSizeInBytes();
+        }
+
+        long size = ROW_HEADER_SIZE;
+        int arity = rowData.getArity();
+        if (rowData instanceof ArrayColumnRowData) {
+            ArrayColumnRowData row = (ArrayColumnRowData) rowData;
+            for (int i = 0; i < arity; i++) {
+                int fixedSize = row.getFixedSize(i);
+                size += fixedSize >= 0 ? fixedSize : sizeOf(row.getField(i));
+            }
+        } else if (rowData instanceof ColumnRowData) {
+            ColumnRowData row = (ColumnRowData) rowData;
+            for (int i = 0; i < arity; i++) {
+                size += sizeOf(row.getField(i));
+            }
+        } else if (rowData instanceof GenericRowData) {
+            GenericRowData row = (GenericRowData) rowData;
+            for (int i = 0; i < arity; i++) {
+                size += sizeOf(row.getField(i));
+            }
+        } else {
+            size += (long) arity * DEFAULT_FIELD_SIZE;
+        }
+        return size;
+    }
+
+    protected long sizeOf(AbstractBaseColumn column) {
+        if (column == null) {
+            return 0;
+        }
+        if (column instanceof IntColumn || column instanceof FloatColumn) {
+            return 4;
+        }
+        if (column instanceof LongColumn
+                || column instanceof DoubleColumn
+                || column instanceof DateColumn
+                || column instanceof TimeColumn) {
+            return 8;
+        }
+        if (column instanceof BooleanColumn) {
+            return 1;
+        }
+        return sizeOf(column.getData());
+    }
+
+    protected long sizeOf(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String) {
+            return ((String) value).length();
+        }
+        if (value instanceof BinaryStringData) {
+            return ((BinaryStringData) value).getSizeInBytes();
+        }
+        if (value instanceof byte[]) {
+            return ((byte[]) value).length;
+        }
+        if (value instanceof Integer
+                || value instanceof Float
+                || value instanceof Short
+                || value instanceof Byte) {
+            return 4;
+        }
+        if (value instanceof Long || value instanceof Double) {
+            return 8;
+        }
+        if (value instanceof Boolean) {
+            return 1;
+        }
+        if (value instanceof BigDecimal || value instanceof DecimalData) {
+            return 16;
+        }
+        if (value instanceof Date || value instanceof TimestampData) {
+            return 12;
+        }
+        if (value instanceof Map) {
+            long size = 0;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                size += sizeOf(entry.getKey()) + sizeOf(entry.getValue());
+            }
+            return size;
+        }
+        if (value instanceof Collection) {
+            long size = 0;
+            for (Object element : (Collection<?>) value) {
+                size += sizeOf(element);
+            }
+            return size;
+        }
+        if (value instanceof AbstractBaseColumn) {
+            return sizeOf((AbstractBaseColumn) value);
+        }
+        return DEFAULT_FIELD_SIZE;
+    }
+}
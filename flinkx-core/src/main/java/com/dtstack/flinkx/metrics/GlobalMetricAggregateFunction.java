@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.metrics;
+
+import org.apache.flink.api.common.functions.AggregateFunction;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.api.java.tuple.Tuple3;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sums the accumulators reported by all subtasks of a job on the JobMaster, used with {@link
+ * org.apache.flink.runtime.taskexecutor.GlobalAggregateManager}.
+ *
+ * <p>Every subtask sends the current local value of its counters, tagged with a unique id. The
+ * accumulator remembers the last value of every subtask and keeps the totals up to date with the
+ * difference, so one update costs O(metrics) no matter how large the job is. String values such
+ * as {@link com.dtstack.flinkx.constants.Metrics#MAX_VALUE} are published as they are, the last
+ * one wins.
+ *
+ * <p>The input and the result cross the RPC layer, which does not know the user code class
+ * loader, so they only use Flink and JDK types.
+ */
+public class GlobalMetricAggregateFunction
+        implements AggregateFunction<
+                Tuple3<String, HashMap<String, Long>, HashMap<String, String>>,
+                GlobalMetricAggregateFunction.Accumulator,
+                Tuple2<HashMap<String, Long>, HashMap<String, String>>> {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public Accumulator createAccumulator() {
+        return new Accumulator();
+    }
+
+    @Override
+    public Accumulator add(
+            Tuple3<String, HashMap<String, Long>, HashMap<String, String>> value,
+            Accumulator accumulator) {
+        Map<String, Long> lastValues =
+                accumulator.lastValues.computeIfAbsent(value.f0, k -> new HashMap<>());
+        for (Map.Entry<String, Long> entry : value.f1.entrySet()) {
+            Long last = lastValues.put(entry.getKey(), entry.getValue());
+            long delta = entry.getValue() - (last == null ? 0L : last);
+            if (delta != 0) {
+                accumulator.totals.merge(entry.getKey(), delta, Long::sum);
+            } else {
+                accumulator.totals.putIfAbsent(entry.getKey(), 0L);
+            }
+        }
+        accumulator.stringValues.putAll(value.f2);
+        return accumulator;
+    }
+
+    @Override
+    public Tuple2<HashMap<String, Long>, HashMap<String, String>> getResult(
+            Accumulator accumulator) {
+        return Tuple2.of(
+                new HashMap<>(accumulator.totals), new HashMap<>(accumulator.stringValues));
+    }
+
+    @Override
+    public Accumulator merge(Accumulator a, Accumulator b) {
+        for (Map.Entry<String, Map<String, Long>> entry : b.lastValues.entrySet()) {
+            HashMap<String, Long> values = new HashMap<>(entry.getValue());
+            add(Tuple3.of(entry.getKey(), values, new HashMap<>()), a);
+        }
+        a.stringValues.putAll(b.stringValues);
+        return a;
+    }
+
+    /** state kept on the JobMaster */
+    public static class Accumulator implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        /** last reported values, by subtask id */
+        private final Map<String, Map<String, Long>> lastValues = new HashMap<>();
+        /** sum of the last reported values, by metric name */
+        private final Map<String, Long> totals = new HashMap<>();
+
+        private final Map<String, String> stringValues = new HashMap<>();
+    }
+}
@@ -51,6 +51,10 @@ public class MetricConstant {
 
     public static final String DT_NUM_RECORDS_OUT_RATE = "dtNumRecordsOutRate";
 
+    public static final String DT_NUM_BYTES_OUT = "dtNumBytesOut";
+
+    public static final String DT_NUM_BYTES_OUT_RATE = "dtNumBytesOutRate";
+
     public static final String DT_EVENT_DELAY_GAUGE = "dtEventDelay";
 
     public static final String DT_TOPIC_PARTITION_LAG_GAUGE = "dtTopicPartitionLag";
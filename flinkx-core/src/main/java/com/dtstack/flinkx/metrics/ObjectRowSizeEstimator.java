@@ -0,0 +1,37 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.metrics;
+
+import org.apache.flink.table.data.RowData;
+
+import jdk.nashorn.internal.ir.debug.ObjectSizeCalculator;
+
+/**
+ * {@link RowSizeEstimator} that walks the whole object graph of the record and returns its retained
+ * heap size. This is how the byte metrics were computed before, it is exact but costs more than
+ * the I/O of narrow rows, so it is only meant to be used with sampling or for comparison.
+ */
+public class ObjectRowSizeEstimator implements RowSizeEstimator {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public long estimate(RowData rowData) {
+        return ObjectSizeCalculator.getObjectSize(rowData);
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.metrics;
+
+import org.apache.flink.table.data.RowData;
+
+import java.io.Serializable;
+
+/**
+ * Estimates how many bytes a record stands for. The result feeds the {@code readBytes} and
+ * {@code writeBytes} metrics and through them the byte rate limiter, so it is called once per
+ * record on the task thread and has to be cheap.
+ *
+ * <p>Implementations can be plugged in with the {@code rowSizeEstimator} parameter of a reader or
+ * writer, see {@link RowSizeEstimatorFactory}. They need a public no-arg constructor.
+ */
+public interface RowSizeEstimator extends Serializable {
+
+    /**
+     * estimate the size of one record
+     *
+     * @param rowData record read or written
+     * @return size in bytes
+     */
+    long estimate(RowData rowData);
+}
@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.metrics;
+
+import com.dtstack.flinkx.conf.FlinkxCommonConf;
+import com.dtstack.flinkx.throwable.FlinkxRuntimeException;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Creates the {@link RowSizeEstimator} configured for a reader or writer.
+ *
+ * <p>{@code rowSizeEstimator} is {@value #COLUMN} (default), {@value #OBJECT} or the class name of
+ * a custom implementation. When {@code rowSizeSampleInterval} is greater than 1 the estimator is
+ * only asked every that many records, see {@link SampledRowSizeEstimator}.
+ */
+public class RowSizeEstimatorFactory {
+
+    public static final String COLUMN = "column";
+    public static final String OBJECT = "object";
+
+    private RowSizeEstimatorFactory() {}
+
+    public static RowSizeEstimator create(FlinkxCommonConf conf) {
+        return create(conf.getRowSizeEstimator(), conf.getRowSizeSampleInterval());
+    }
+
+    public static RowSizeEstimator create(String type, int sampleInterval) {
+        RowSizeEstimator estimator;
+        if (StringUtils.isBlank(type) || COLUMN.equalsIgnoreCase(type)) {
+            estimator = new ColumnRowSizeEstimator();
+        } else if (OBJECT.equalsIgnoreCase(type)) {
+            estimator = new ObjectRowSizeEstimator();
+        } else {
+            try {
+                Class<?> clazz =
+                        Class.forName(type, true, Thread.currentThread().getContextClassLoader());
+                estimator = (RowSizeEstimator) clazz.newInstance();
+            } catch (Exception e) {
+                throw new FlinkxRuntimeException("can not create RowSizeEstimator: " + type, e);
+            }
+        }
+
+        if (sampleInterval > 1) {
+            return new SampledRowSizeEstimator(estimator, sampleInterval);
+        }
+        return estimator;
+    }
+}
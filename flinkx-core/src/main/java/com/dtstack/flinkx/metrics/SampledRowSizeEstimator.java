@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.metrics;
+
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.util.Preconditions;
+
+/**
+ * Asks the wrapped estimator for the size of one record every {@code sampleInterval} records and
+ * returns the average of the sampled sizes for the records in between.
+ */
+public class SampledRowSizeEstimator implements RowSizeEstimator {
+
+    private static final long serialVersionUID = 1L;
+
+    private final RowSizeEstimator delegate;
+    private final int sampleInterval;
+
+    private long count;
+    private long sampledBytes;
+    private long sampledRows;
+
+    public SampledRowSizeEstimator(RowSizeEstimator delegate, int sampleInterval) {
+        Preconditions.checkArgument(sampleInterval > 0, "sampleInterval must be positive");
+        this.delegate = Preconditions.checkNotNull(delegate);
+        this.sampleInterval = sampleInterval;
+    }
+
+    @Override
+    public long estimate(RowData rowData) {
+        if (count++ % sampleInterval == 0) {
+            long size = delegate.estimate(rowData);
+            sampledBytes += size;
+            sampledRows++;
+            return size;
+        }
+        return sampledBytes / sampledRows;
+    }
+}
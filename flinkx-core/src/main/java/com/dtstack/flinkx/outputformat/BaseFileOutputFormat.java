@@ -40,6 +40,8 @@ import java.util.List;
 public abstract class BaseFileOutputFormat extends BaseRichOutputFormat {
 
     protected static final String TMP_DIR_NAME = ".data";
+    /** 学习压缩比时新观测值的权重 */
+    private static final float DEVIATION_WEIGHT = 0.5F;
     protected BaseFileConf baseFileConf;
     /** The first half of the file name currently written */
     protected String currentFileNamePrefix;
@@ -56,12 +58,24 @@ public abstract class BaseFileOutputFormat extends BaseRichOutputFormat {
     protected List<String> preCommitFilePathList = new ArrayList<>();
     protected long nextNumForCheckDataSize;
     protected long lastWriteTime = System.currentTimeMillis();
+    /** 当前文件写入第一条数据的时间 */
+    protected long currentBlockStartTime;
+    /** 当前文件已写入数据按rowSizeEstimator估算的大小，bytesWriteCounter可能被多个writer共享，不能用来计算 */
+    protected long bytesOfCurrentBlock;
+    /** 根据已写出的文件学习到的压缩比，小于等于0时使用getDeviation() */
+    protected float deviation = -1F;
 
+    /**
+     * master上无法知道任务是否从checkpoint或savepoint恢复。临时目录中留有上次运行未提交的清单时不删除数据目录和临时目录，
+     * 只删除不在清单中的临时文件，清单由恢复后的任务重新提交，没有恢复时由子任务0丢弃
+     */
     @Override
     public void initializeGlobal(int parallelism) {
         initVariableFields();
-        if(WriteMode.OVERWRITE.name().equalsIgnoreCase(baseFileConf.getWriteMode())){
-            //Overwrite mode and not delete the data directory first when restoring from a checkpoint
+        if (hasPendingManifests()) {
+            LOG.info("found uncommitted manifests in dir:{}, keep them for restoring", tmpPath);
+            deleteUnlistedTmpDataFiles();
+        } else if(WriteMode.OVERWRITE.name().equalsIgnoreCase(baseFileConf.getWriteMode())){
             deleteDataDir();
         }else{
             deleteTmpDataDir();
@@ -117,40 +131,112 @@ public abstract class BaseFileOutputFormat extends BaseRichOutputFormat {
 
     @Override
     public void writeSingleRecordInternal(RowData rowData) throws WriteRecordException {
+        long now = System.currentTimeMillis();
+        if (rowsOfCurrentBlock == 0) {
+            currentBlockStartTime = now;
+        }
         writeSingleRecordToFile(rowData);
-        rowsOfCurrentBlock++;
-        checkCurrentFileSize();
+        bytesOfCurrentBlock += rowSizeEstimator.estimate(rowData);
         lastRow = rowData;
-        lastWriteTime = System.currentTimeMillis();
+        lastWriteTime = now;
+        checkRollover(now, false);
+    }
+
+    /**
+     * 文件按打开时长或大小滚动时开启定时检查，没有新数据写入的文件也能按时关闭
+     */
+    @Override
+    protected long getTimingInterval() {
+        if (baseFileConf.getRolloverInterval() > 0 || baseFileConf.getMaxFileSize() > 0) {
+            return flushIntervalMills;
+        }
+        return super.getTimingInterval();
+    }
+
+    @Override
+    protected void onTimer() {
+        if (rowsOfCurrentBlock > 0) {
+            checkRollover(System.currentTimeMillis(), true);
+        }
     }
 
-    private void checkCurrentFileSize() {
-        if(numWriteCounter.getLocalValue() < nextNumForCheckDataSize){
+    /**
+     * 按行数、打开时长、文件大小判断是否需要滚动到新文件。
+     * getCurrentFileSize()由writer自己统计，不访问文件系统
+     * @param now 当前时间
+     * @param checkSize 为true时不等写入行数达到nextNumForCheckDataSize，直接检查文件大小
+     */
+    private void checkRollover(long now, boolean checkSize) {
+        if (baseFileConf.getMaxFileRows() > 0 && rowsOfCurrentBlock >= baseFileConf.getMaxFileRows()) {
+            LOG.info("current file: {}, rows = {} reach maxFileRows", currentFileName, rowsOfCurrentBlock);
+            flushData();
+            return;
+        }
+        if (baseFileConf.getRolloverInterval() > 0 && now - currentBlockStartTime >= baseFileConf.getRolloverInterval()) {
+            LOG.info("current file: {}, open time = {}ms reach rolloverInterval", currentFileName, now - currentBlockStartTime);
+            flushData();
+            return;
+        }
+        boolean reachCheckRows = numWriteCounter.getLocalValue() >= nextNumForCheckDataSize;
+        if(!checkSize && !reachCheckRows){
             return;
         }
         long currentFileSize = getCurrentFileSize();
         if (currentFileSize > baseFileConf.getMaxFileSize()) {
             flushData();
         }
-        nextNumForCheckDataSize += baseFileConf.getNextCheckRows();
-        LOG.info("current file: {}, size = {}, nextNumForCheckDataSize = {}", currentFileName, SizeUnitType.readableFileSize(currentFileSize), nextNumForCheckDataSize);
+        if (reachCheckRows) {
+            nextNumForCheckDataSize += baseFileConf.getNextCheckRows();
+        }
+        LOG.debug("current file: {}, size = {}, nextNumForCheckDataSize = {}", currentFileName, SizeUnitType.readableFileSize(currentFileSize), nextNumForCheckDataSize);
+    }
+
+    /**
+     * 当前文件已写入数据按rowSizeEstimator估算的大小
+     */
+    public long getInputBytesOfCurrentBlock() {
+        return bytesOfCurrentBlock;
+    }
+
+    /**
+     * 当前使用的压缩比，还没有写完过文件时使用getDeviation()
+     */
+    protected float getCurrentDeviation() {
+        if (deviation <= 0) {
+            deviation = getDeviation();
+        }
+        return deviation;
     }
 
-    public void flushData(){
+    /**
+     * 文件写完后根据实际大小更新压缩比
+     * @param inputBytes 写入数据按rowSizeEstimator估算的大小
+     * @param fileBytes 文件实际大小
+     */
+    protected void updateDeviation(long inputBytes, long fileBytes) {
+        if (inputBytes <= 0 || fileBytes <= 0) {
+            return;
+        }
+        float observed = (float) fileBytes / inputBytes;
+        deviation = getCurrentDeviation() * (1 - DEVIATION_WEIGHT) + observed * DEVIATION_WEIGHT;
+        LOG.info("file size = {}, input size = {}, deviation = {}", fileBytes, inputBytes, deviation);
+    }
+
+    public synchronized void flushData(){
         if (rowsOfCurrentBlock != 0) {
             flushDataInternal();
             sumRowsOfBlock += rowsOfCurrentBlock;
             LOG.info("flush file:{}, rowsOfCurrentBlock = {}, sumRowsOfBlock = {}", currentFileName, rowsOfCurrentBlock, sumRowsOfBlock);
             rowsOfCurrentBlock = 0;
+            bytesOfCurrentBlock = 0;
         }
     }
 
     @Override
     protected void preCommit() {
         flushData();
-        if (sumRowsOfBlock != 0) {
-            preCommitFilePathList = copyTmpDataFileToDir();
-        }
+        // 没有新数据时也要处理，上次checkpoint失败留在临时目录中的文件需要记入本次checkpoint
+        preCommitFilePathList = copyTmpDataFileToDir();
 
         snapshotWriteCounter.add(sumRowsOfBlock);
         sumRowsOfBlock = 0;
@@ -193,6 +279,19 @@ public abstract class BaseFileOutputFormat extends BaseRichOutputFormat {
      */
     protected abstract void deleteTmpDataDir();
 
+    /**
+     * 临时目录中是否有上次运行留下的未提交的清单，不使用清单的格式返回false
+     */
+    protected boolean hasPendingManifests() {
+        return false;
+    }
+
+    /**
+     * 删除临时目录中不在任何清单中的文件，这些文件在最近一次checkpoint之后写入，恢复时不需要
+     */
+    protected void deleteUnlistedTmpDataFiles() {
+    }
+
     /**
      * Open resource
      */
@@ -206,7 +305,7 @@ public abstract class BaseFileOutputFormat extends BaseRichOutputFormat {
     protected abstract String getExtension();
 
     /**
-     * Get the actual size of the file currently written
+     * Get the size of the file currently written, tracked by the writer itself without calling the file system
      * @return
      */
     protected abstract long getCurrentFileSize();
@@ -246,7 +345,7 @@ public abstract class BaseFileOutputFormat extends BaseRichOutputFormat {
     protected abstract void closeSource();
 
     /**
-     * Get file compression ratio
+     * Get the initial file compression ratio, see {@link #getCurrentDeviation()} for the learned one
      * @return 压缩比 < 1
      */
     public abstract float getDeviation();
@@ -255,6 +354,13 @@ public abstract class BaseFileOutputFormat extends BaseRichOutputFormat {
         return lastWriteTime;
     }
 
+    /**
+     * 设置第一个文件的序号，从checkpoint恢复的状态中有序号时以状态为准
+     */
+    public void setCurrentFileIndex(int currentFileIndex) {
+        this.currentFileIndex = currentFileIndex;
+    }
+
     public void setBaseFileConf(BaseFileConf baseFileConf) {
         this.baseFileConf = baseFileConf;
     }
@@ -35,13 +35,15 @@ import com.dtstack.flinkx.exception.WriteRecordException;
 import com.dtstack.flinkx.factory.DTThreadFactory;
 import com.dtstack.flinkx.metrics.AccumulatorCollector;
 import com.dtstack.flinkx.metrics.BaseMetric;
+import com.dtstack.flinkx.metrics.RowSizeEstimator;
+import com.dtstack.flinkx.metrics.RowSizeEstimatorFactory;
 import com.dtstack.flinkx.restore.FormatState;
 import com.dtstack.flinkx.sink.DirtyDataManager;
 import com.dtstack.flinkx.sink.ErrorLimiter;
 import com.dtstack.flinkx.sink.WriteErrorTypes;
+import com.dtstack.flinkx.throwable.FlinkxRuntimeException;
 import com.dtstack.flinkx.util.ExceptionUtil;
 import com.dtstack.flinkx.util.JsonUtil;
-import jdk.nashorn.internal.ir.debug.ObjectSizeCalculator;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -50,9 +52,13 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -73,6 +79,13 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * 4).Turn on cp and in EXACTLY_ONCE model, when cp time out snapshotState、notifyCheckpointComplete may never call,
  *    Only call notifyCheckpointAborted.this maybe a problem ,should make users perceive
  *
+ * <p>NOTE When asyncFlush is enabled and batchSize > 1, the task thread only fills a buffer and a
+ *    background thread writes the full batches. At most maxInFlightBatches batches are queued or
+ *    being written, writeRecord waits on the monitor of this format when the limit is reached.
+ *    getFormatState and close wait until all batches are written. The background thread counts a
+ *    batch as written only after it is flushed, and updates the counters and dirty data while
+ *    holding the same monitor as getFormatState.
+ *
  *
  * @author huyifan.zju@163.com
  */
@@ -101,6 +114,10 @@ public abstract class BaseRichOutputFormat extends RichOutputFormat<RowData> imp
     protected String formatId;
     /** checkpoint状态缓存map */
     protected FormatState formatState;
+    /** 任务是否从checkpoint或savepoint恢复，所有子任务相同，子任务自己没有状态时也为true */
+    protected boolean restored;
+    /** 正在进行的checkpoint id，preCommit时可用 */
+    protected long snapshotCheckpointId = -1L;
 
     /**
      * 虽然开启cp，是否采用定时器和一定条数让下游数据可见。
@@ -123,8 +140,20 @@ public abstract class BaseRichOutputFormat extends RichOutputFormat<RowData> imp
     /** 最新读取的数据 */
     protected RowData lastRow = null;
 
-    /** 存储用于批量写入的数据 */
+    /** 存储用于批量写入的数据，异步刷写时只由刷写线程使用 */
     protected transient List<RowData> rows;
+    /** 是否异步刷写 */
+    protected boolean asyncFlush;
+    /** 异步刷写时task线程填充的缓存 */
+    protected transient List<RowData> pendingRows;
+    /** 异步刷写线程 */
+    protected transient ExecutorService flushExecutor;
+    /** 排队中和写出中的批次数上限 */
+    protected int maxInFlightBatches;
+    /** 排队中和写出中的批次数，由this的锁保护 */
+    protected transient int inFlightBatches;
+    /** 异步刷写时出现的异常 */
+    protected transient volatile Throwable flushException;
     /** 数据类型转换器 */
     protected AbstractRowConverter rowConverter;
     /** 是否需要初始化脏数据和累加器，目前只有hive插件该参数设置为false */
@@ -148,6 +177,8 @@ public abstract class BaseRichOutputFormat extends RichOutputFormat<RowData> imp
     /** 累加器收集器 */
     protected AccumulatorCollector accumulatorCollector;
     protected LongCounter bytesWriteCounter;
+    /** 估算每条数据的字节数，用于writeBytes指标 */
+    protected transient RowSizeEstimator rowSizeEstimator;
     protected LongCounter durationCounter;
     protected LongCounter numWriteCounter;
     protected LongCounter snapshotWriteCounter;
@@ -156,6 +187,10 @@ public abstract class BaseRichOutputFormat extends RichOutputFormat<RowData> imp
     protected LongCounter duplicateErrCounter;
     protected LongCounter conversionErrCounter;
     protected LongCounter otherErrCounter;
+    /** 批量写出失败后进行恢复的批次数 */
+    protected LongCounter batchRecoveryCounter;
+    /** 批量写出失败后恢复过程中对数据源的写出次数 */
+    protected LongCounter recoveryRoundTripCounter;
 
     @Override
     public void initializeGlobal(int parallelism) {
@@ -203,7 +238,9 @@ public abstract class BaseRichOutputFormat extends RichOutputFormat<RowData> imp
         }
 
         initStatisticsAccumulator();
+        initRowSizeEstimator();
         initRestoreInfo();
+        initAsyncFlush();
         initTimingSubmitTask();
 
         if (initAccumulatorAndDirty) {
@@ -231,6 +268,12 @@ public abstract class BaseRichOutputFormat extends RichOutputFormat<RowData> imp
         if (batchSize <= 1) {
             writeSingleRecord(rowData);
             size = 1;
+        } else if (asyncFlush) {
+            checkFlushException();
+            pendingRows.add(rowData);
+            if (pendingRows.size() >= batchSize && flushEnable.get()) {
+                submitPendingRows();
+            }
         } else {
             rows.add(rowData);
             if (rows.size() >= batchSize) {
@@ -241,7 +284,7 @@ public abstract class BaseRichOutputFormat extends RichOutputFormat<RowData> imp
 
         updateDuration();
         numWriteCounter.add(size);
-        bytesWriteCounter.add(ObjectSizeCalculator.getObjectSize(rowData));
+        bytesWriteCounter.add(rowSizeEstimator.estimate(rowData));
         if(!checkpointEnabled){
             snapshotWriteCounter.add(size);
         }
@@ -260,17 +303,25 @@ public abstract class BaseRichOutputFormat extends RichOutputFormat<RowData> imp
                 this.scheduler.shutdown();
             }
             // when exist data
-            int size = rows.size();
-            if (size != 0) {
-                writeRecordInternal();
-                numWriteCounter.add(size);
+            if (asyncFlush) {
+                drainAsyncFlush();
+            } else {
+                int size = rows.size();
+                if (size != 0) {
+                    writeRecordInternal();
+                    numWriteCounter.add(size);
+                }
             }
+            waitForPendingWrites();
 
             if (durationCounter != null) {
                 updateDuration();
             }
             this.closed = true;
         } finally {
+            if (flushExecutor != null) {
+                flushExecutor.shutdownNow();
+            }
             try {
                 closeInternal();
                 if (outputMetric != null) {
@@ -309,6 +360,8 @@ public abstract class BaseRichOutputFormat extends RichOutputFormat<RowData> imp
         snapshotWriteCounter = context.getLongCounter(Metrics.SNAPSHOT_WRITES);
         bytesWriteCounter = context.getLongCounter(Metrics.WRITE_BYTES);
         durationCounter = context.getLongCounter(Metrics.WRITE_DURATION);
+        batchRecoveryCounter = context.getLongCounter(Metrics.NUM_BATCH_RECOVERIES);
+        recoveryRoundTripCounter = context.getLongCounter(Metrics.NUM_RECOVERY_ROUND_TRIPS);
 
         outputMetric = new BaseMetric(context);
         outputMetric.addMetric(Metrics.NUM_ERRORS, errCounter);
@@ -320,6 +373,8 @@ public abstract class BaseRichOutputFormat extends RichOutputFormat<RowData> imp
         outputMetric.addMetric(Metrics.SNAPSHOT_WRITES, snapshotWriteCounter);
         outputMetric.addMetric(Metrics.WRITE_BYTES, bytesWriteCounter, true);
         outputMetric.addMetric(Metrics.WRITE_DURATION, durationCounter);
+        outputMetric.addMetric(Metrics.NUM_BATCH_RECOVERIES, batchRecoveryCounter);
+        outputMetric.addMetric(Metrics.NUM_RECOVERY_ROUND_TRIPS, recoveryRoundTripCounter);
     }
 
     /**
@@ -330,6 +385,13 @@ public abstract class BaseRichOutputFormat extends RichOutputFormat<RowData> imp
         accumulatorCollector.start();
     }
 
+    /**
+     * 初始化数据大小估算器
+     */
+    private void initRowSizeEstimator() {
+        rowSizeEstimator = RowSizeEstimatorFactory.create(config);
+    }
+
     /**
      * 初始化脏数据限制器
      */
@@ -378,6 +440,8 @@ public abstract class BaseRichOutputFormat extends RichOutputFormat<RowData> imp
             snapshotWriteCounter.add(formatState.getMetricValue(Metrics.SNAPSHOT_WRITES));
             bytesWriteCounter.add(formatState.getMetricValue(Metrics.WRITE_BYTES));
             durationCounter.add(formatState.getMetricValue(Metrics.WRITE_DURATION));
+            batchRecoveryCounter.add(formatState.getMetricValue(Metrics.NUM_BATCH_RECOVERIES));
+            recoveryRoundTripCounter.add(formatState.getMetricValue(Metrics.NUM_RECOVERY_ROUND_TRIPS));
         }
     }
 
@@ -385,8 +449,9 @@ public abstract class BaseRichOutputFormat extends RichOutputFormat<RowData> imp
      * Turn on timed submission,Each result table is opened separately
      */
     private void initTimingSubmitTask() {
-        if (batchSize > 1 && flushIntervalMills > 0) {
-            LOG.info("initTimingSubmitTask() ,initialDelay:{}, delay:{}, MILLISECONDS", flushIntervalMills, flushIntervalMills);
+        long interval = getTimingInterval();
+        if (interval > 0) {
+            LOG.info("initTimingSubmitTask() ,initialDelay:{}, delay:{}, MILLISECONDS", interval, interval);
             this.scheduler = new ScheduledThreadPoolExecutor(1, new DTThreadFactory("timer-data-write-thread"));
             this.scheduledFuture = this.scheduler.scheduleWithFixedDelay(() -> {
                 synchronized (BaseRichOutputFormat.this) {
@@ -394,16 +459,139 @@ public abstract class BaseRichOutputFormat extends RichOutputFormat<RowData> imp
                         return;
                     }
                     try {
-                        if(!rows.isEmpty()){
-                            int size = rows.size();
-                            writeRecordInternal();
-                            numWriteCounter.add(size);
-                        }
+                        onTimer();
                     } catch (Exception e) {
                         LOG.error("Writing records failed. {}", e.getMessage());
                     }
                 }
-            }, flushIntervalMills, flushIntervalMills, TimeUnit.MILLISECONDS);
+            }, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 定时任务的执行间隔，小于等于0时不开启定时任务。默认只有批量写出时按flushIntervalMills定时写出缓存的数据
+     * @return 间隔毫秒数
+     */
+    protected long getTimingInterval() {
+        return batchSize > 1 ? flushIntervalMills : 0;
+    }
+
+    /**
+     * 定时任务，调用时已持有当前对象的锁且没有关闭
+     * @throws Exception
+     */
+    protected void onTimer() throws Exception {
+        if (asyncFlush) {
+            if (!pendingRows.isEmpty() && flushEnable.get()) {
+                submitPendingRows();
+            }
+        } else if(!rows.isEmpty()){
+            int size = rows.size();
+            writeRecordInternal();
+            numWriteCounter.add(size);
+        }
+    }
+
+    /**
+     * 初始化异步刷写线程
+     */
+    private void initAsyncFlush() {
+        this.asyncFlush = config.isAsyncFlush() && batchSize > 1;
+        if (asyncFlush) {
+            this.maxInFlightBatches = Math.max(1, config.getMaxInFlightBatches());
+            this.pendingRows = new ArrayList<>(batchSize);
+            this.inFlightBatches = 0;
+            this.flushExecutor = new ThreadPoolExecutor(
+                    1,
+                    1,
+                    0L,
+                    TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(),
+                    new DTThreadFactory("async-data-write-thread"));
+            LOG.info("init async flush, maxInFlightBatches:{}", maxInFlightBatches);
+        }
+    }
+
+    /**
+     * 将缓存的数据交给刷写线程，调用时持有this的锁。
+     * 排队中和写出中的批次数达到上限时在this上等待，等待期间释放锁，不会阻塞checkpoint；
+     * 拿到名额后才从缓存中取出数据，等待期间做的checkpoint仍然能写出这些数据
+     */
+    private void submitPendingRows() {
+        awaitInFlightBatches(maxInFlightBatches - 1);
+        if (pendingRows.isEmpty() || !flushEnable.get()) {
+            return;
+        }
+        List<RowData> batch = pendingRows;
+        pendingRows = new ArrayList<>(batchSize);
+        inFlightBatches++;
+        try {
+            flushExecutor.execute(() -> flushBatch(batch));
+        } catch (RejectedExecutionException e) {
+            inFlightBatches--;
+            throw e;
+        }
+    }
+
+    /**
+     * 在刷写线程中写出一个批次，写出完成后才计入写出条数
+     * @param batch 待写出的数据
+     */
+    private void flushBatch(List<RowData> batch) {
+        Throwable error = null;
+        try {
+            rows = batch;
+            flushRows();
+        } catch (Throwable t) {
+            LOG.error("async flush failed, e = {}", ExceptionUtil.getErrorMessage(t));
+            error = t;
+        }
+        synchronized (this) {
+            if (error == null) {
+                numWriteCounter.add(batch.size());
+                if (!checkpointEnabled) {
+                    snapshotWriteCounter.add(batch.size());
+                }
+            } else {
+                flushException = error;
+            }
+            inFlightBatches--;
+            notifyAll();
+        }
+    }
+
+    /**
+     * 等待排队中和写出中的批次数不超过limit，调用时持有this的锁
+     * @param limit 批次数上限
+     */
+    private void awaitInFlightBatches(int limit) {
+        while (inFlightBatches > limit) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new FlinkxRuntimeException("interrupted while waiting for in-flight batches", e);
+            }
+        }
+    }
+
+    /**
+     * 提交缓存的数据并等待所有批次写出完成
+     */
+    protected synchronized void drainAsyncFlush() {
+        if (!pendingRows.isEmpty() && flushEnable.get()) {
+            submitPendingRows();
+        }
+        awaitInFlightBatches(0);
+        checkFlushException();
+    }
+
+    /**
+     * 刷写线程出现异常时使任务失败
+     */
+    private void checkFlushException() {
+        if (flushException != null) {
+            throw new FlinkxRuntimeException("async flush failed", flushException);
         }
     }
 
@@ -432,24 +620,96 @@ public abstract class BaseRichOutputFormat extends RichOutputFormat<RowData> imp
      */
     protected synchronized void writeRecordInternal() {
         if(flushEnable.get()){
-            try {
-                writeMultipleRecordsInternal();
-            } catch (Exception e) {
-                //批量写异常转为单条写
-                rows.forEach(this::writeSingleRecord);
-            } finally {
-                // Data is either recorded dirty data or written normally
-                rows.clear();
-            }
+            flushRows();
+        }
+    }
+
+    /**
+     * 写出rows中的数据
+     */
+    private void flushRows() {
+        List<RowData> batch = rows;
+        try {
+            writeMultipleRecordsInternal();
+        } catch (Exception e) {
+            checkBatchRecoverable(e);
+            LOG.warn("write batch of {} rows failed, start to bisect the batch, e = {}", batch.size(), ExceptionUtil.getErrorMessage(e));
+            addCounter(batchRecoveryCounter, 1);
+            bisectRows(batch);
+        } finally {
+            // Data is either recorded dirty data or written normally
+            rows = batch;
+            rows.clear();
+        }
+    }
+
+    /**
+     * 批量写出失败时将数据分成两半分别批量重试，失败的一半继续二分，直到定位到单条脏数据。
+     * k条脏数据只需要O(k log n)次写出，而不是逐条写出n次
+     * @param batch 写出失败的数据
+     */
+    private void bisectRows(List<RowData> batch) {
+        int mid = batch.size() / 2;
+        writeOrBisect(batch.subList(0, mid));
+        writeOrBisect(batch.subList(mid, batch.size()));
+    }
+
+    /**
+     * 批量写出数据，失败时继续二分；单条数据使用单条写出，异常数据交给脏数据管理器处理
+     * @param part 待写出的数据
+     */
+    private void writeOrBisect(List<RowData> part) {
+        if (part.isEmpty()) {
+            return;
+        }
+        addCounter(recoveryRoundTripCounter, 1);
+        if (part.size() == 1) {
+            writeSingleRecord(part.get(0));
+            return;
+        }
+        // 子类通过rows获取待写出的数据
+        rows = new ArrayList<>(part);
+        try {
+            writeMultipleRecordsInternal();
+        } catch (Exception e) {
+            checkBatchRecoverable(e);
+            bisectRows(part);
+        }
+    }
+
+    /**
+     * 批量写出失败后不能二分恢复时使任务失败
+     * @param e 批量写出的异常
+     */
+    private void checkBatchRecoverable(Exception e) {
+        if (!canRecoverBatch()) {
+            throw new FlinkxRuntimeException("write batch failed and the batch can not be recovered", e);
         }
     }
 
     /**
-     * 更新脏数据信息
+     * 批量写出失败后能否把数据分成小批次重新写出，子类在失败的写出会影响同一事务中其他数据时返回false
+     * @return 默认返回true
+     */
+    protected boolean canRecoverBatch() {
+        return true;
+    }
+
+    /**
+     * 累加指标，异步刷写时由刷写线程调用，与getFormatState持有同一把锁
+     * @param counter 指标
+     * @param value 增加的值
+     */
+    private synchronized void addCounter(LongCounter counter, long value) {
+        counter.add(value);
+    }
+
+    /**
+     * 更新脏数据信息，异步刷写时由刷写线程调用，与getFormatState持有同一把锁
      * @param rowData 当前读取的数据
      * @param e 异常
      */
-    private void updateDirtyDataMsg(RowData rowData, WriteRecordException e) {
+    private synchronized void updateDirtyDataMsg(RowData rowData, WriteRecordException e) {
         errCounter.add(1);
 
         String errMsg = ExceptionUtil.getErrorMessage(e);
@@ -506,18 +766,38 @@ public abstract class BaseRichOutputFormat extends RichOutputFormat<RowData> imp
         }
     }
 
+    /**
+     * 更新checkpoint状态缓存map，并记录状态所属的checkpoint
+     * @param checkpointId 当前checkpoint id
+     * @return
+     */
+    public synchronized FormatState getFormatState(long checkpointId) throws Exception {
+        snapshotCheckpointId = checkpointId;
+        FormatState state = getFormatState();
+        if (state != null) {
+            state.setCheckpointId(checkpointId);
+        }
+        return state;
+    }
+
     /**
      * 更新checkpoint状态缓存map
      * @return
      */
     public synchronized FormatState getFormatState() throws Exception {
+        if (asyncFlush) {
+            drainAsyncFlush();
+        }
+        waitForPendingWrites();
         // not EXACTLY_ONCE model,Does not interact with the db
         if (CheckpointingMode.EXACTLY_ONCE == checkpointMode) {
             try {
                 LOG.info("getFormatState:Start preCommit, rowsOfCurrentTransaction: {}", rowsOfCurrentTransaction);
                 preCommit();
             } catch (Exception e) {
+                // 预提交失败时使checkpoint失败，不能提交不完整的事务
                 LOG.error("preCommit error, e = {}", ExceptionUtil.getErrorMessage(e));
+                throw e;
             } finally {
                 flushEnable.compareAndSet(true, false);
             }
@@ -535,6 +815,11 @@ public abstract class BaseRichOutputFormat extends RichOutputFormat<RowData> imp
      */
     protected void preCommit() throws Exception{}
 
+    /**
+     * 等待子类异步发出的写请求全部完成，checkpoint和关闭时调用
+     */
+    protected void waitForPendingWrites() {}
+
     /**
      * 写出单条数据
      *
@@ -623,6 +908,10 @@ public abstract class BaseRichOutputFormat extends RichOutputFormat<RowData> imp
         this.formatState = formatState;
     }
 
+    public void setRestored(boolean restored) {
+        this.restored = restored;
+    }
+
     public String getFormatId() {
         return formatId;
     }
@@ -21,6 +21,7 @@ package com.dtstack.flinkx.restore;
 import org.apache.flink.api.common.accumulators.LongCounter;
 
 import java.io.Serializable;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -49,6 +50,18 @@ public class FormatState implements Serializable {
 
     private int fileIndex = -1;
 
+    /** state所属的checkpoint id */
+    private long checkpointId = -1L;
+
+    /** state对应的分片id，只有SplittableInputSplit才会设置 */
+    private String splitId;
+
+    /** 已经读取完成的分片id */
+    private List<String> completedSplitIds;
+
+    /** 续跑后还没有被重新分配的分片及其读取位置 */
+    private Map<String, Object> splitStates;
+
     public FormatState() {
     }
 
@@ -73,6 +86,14 @@ public class FormatState implements Serializable {
         this.fileIndex = fileIndex;
     }
 
+    public long getCheckpointId() {
+        return checkpointId;
+    }
+
+    public void setCheckpointId(long checkpointId) {
+        this.checkpointId = checkpointId;
+    }
+
     public long getNumberRead() {
         return numberRead;
     }
@@ -105,6 +126,30 @@ public class FormatState implements Serializable {
         this.state = state;
     }
 
+    public String getSplitId() {
+        return splitId;
+    }
+
+    public void setSplitId(String splitId) {
+        this.splitId = splitId;
+    }
+
+    public List<String> getCompletedSplitIds() {
+        return completedSplitIds;
+    }
+
+    public void setCompletedSplitIds(List<String> completedSplitIds) {
+        this.completedSplitIds = completedSplitIds;
+    }
+
+    public Map<String, Object> getSplitStates() {
+        return splitStates;
+    }
+
+    public void setSplitStates(Map<String, Object> splitStates) {
+        this.splitStates = splitStates;
+    }
+
     public Map<String, LongCounter> getMetric() {
         return metric;
     }
@@ -130,6 +175,10 @@ public class FormatState implements Serializable {
                 ", numberWrite=" + numberWrite +
                 ", jobId='" + jobId + '\'' +
                 ", fileIndex=" + fileIndex +
+                ", checkpointId=" + checkpointId +
+                ", splitId='" + splitId + '\'' +
+                ", completedSplitIds=" + completedSplitIds +
+                ", splitStates=" + splitStates +
                 '}';
     }
 }
@@ -0,0 +1,412 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.sink;
+
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.util.Preconditions;
+
+import com.dtstack.flinkx.throwable.FlinkxRuntimeException;
+import com.dtstack.flinkx.util.ExceptionUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 并发的批量写出管道，用于elasticsearch等支持批量请求并返回每条请求结果的sink。
+ *
+ * <p>请求按key的hash分到concurrentRequests个通道，每个通道同时只有一个批量请求在写出，
+ * 同一个key的请求始终按加入的顺序写出，不同通道的批量请求并发写出。通道中缓存的请求数达到maxActions
+ * 或字节数达到maxBytes时发出批量请求，通道上一个请求还没完成时调用线程阻塞，对上游形成反压。
+ *
+ * <p>只有被拒绝(429、503)的请求会重试，整个批量请求失败时也只有这两种状态才重试，重试间隔由{@link BackoffType}决定，
+ * 重试期间通道保持占用；超过重试次数的请求和其他失败的请求交给{@link FailureHandler}，
+ * 它只在调用{@link #add}、{@link #dispatch}、{@link #flush}的线程中调用，可以直接记录脏数据。
+ *
+ * <p>requestTimeout大于0时，批量请求超过这个时间没有回调就按失败处理，避免客户端没有回调时通道一直被占用。
+ *
+ * @param <R> 请求的类型
+ */
+public class BulkPipeline<R> implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BulkPipeline.class);
+
+    public static final int STATUS_TOO_MANY_REQUESTS = 429;
+    public static final int STATUS_SERVICE_UNAVAILABLE = 503;
+    /** 整个批量请求失败但不知道状态码，例如调用客户端时抛出异常或者请求超时 */
+    public static final int STATUS_UNKNOWN = 0;
+
+    private final BulkSender<R> sender;
+    private final FailureHandler failureHandler;
+    private final int maxActions;
+    private final long maxBytes;
+    private final int maxRetries;
+    private final BackoffType backoffType;
+    private final long backoffDelay;
+    private final long requestTimeout;
+
+    private final List<Lane> lanes;
+    private final ScheduledThreadPoolExecutor retryScheduler;
+    private final ConcurrentLinkedQueue<Failure> failures = new ConcurrentLinkedQueue<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition laneIdle = lock.newCondition();
+    /** 没有key的请求轮流分配到各个通道，只有调用线程访问 */
+    private int nextLane;
+
+    public BulkPipeline(
+            BulkSender<R> sender,
+            FailureHandler failureHandler,
+            int concurrentRequests,
+            int maxActions,
+            long maxBytes,
+            int maxRetries,
+            BackoffType backoffType,
+            long backoffDelay,
+            long requestTimeout) {
+        Preconditions.checkArgument(concurrentRequests > 0, "concurrentRequests must be positive");
+        Preconditions.checkArgument(maxActions > 0, "maxActions must be positive");
+        Preconditions.checkNotNull(backoffType, "backoffType can not be null");
+        this.sender = sender;
+        this.failureHandler = failureHandler;
+        this.maxActions = maxActions;
+        this.maxBytes = maxBytes;
+        this.maxRetries = backoffType == BackoffType.DISABLED ? 0 : Math.max(0, maxRetries);
+        this.backoffType = backoffType;
+        this.backoffDelay = Math.max(0, backoffDelay);
+        this.requestTimeout = requestTimeout;
+        this.lanes = new ArrayList<>(concurrentRequests);
+        for (int i = 0; i < concurrentRequests; i++) {
+            lanes.add(new Lane());
+        }
+        this.retryScheduler = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "bulk-retry-thread");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.retryScheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * 加入一条请求，所在通道缓存的请求达到上限时发出批量请求
+     *
+     * @param key 决定请求所在的通道，相同key的请求按顺序写出；为null时不保证顺序
+     * @param request 请求
+     * @param row 请求对应的数据，请求失败时交给failureHandler
+     * @param bytes 请求的估算字节数
+     */
+    public void add(String key, R request, RowData row, long bytes) {
+        int index = key == null ? nextLane++ : key.hashCode();
+        Lane lane = lanes.get((index & Integer.MAX_VALUE) % lanes.size());
+        lane.buffer.add(new Item<>(request, row));
+        lane.bufferBytes += bytes;
+        if (lane.buffer.size() >= maxActions || (maxBytes > 0 && lane.bufferBytes >= maxBytes)) {
+            send(lane);
+        }
+        drainFailures();
+    }
+
+    /**
+     * 发出所有通道中缓存的请求，不等待写出完成
+     */
+    public void dispatch() {
+        for (Lane lane : lanes) {
+            if (!lane.buffer.isEmpty()) {
+                send(lane);
+            }
+        }
+        drainFailures();
+    }
+
+    /**
+     * 发出所有缓存的请求并等待写出和重试全部完成
+     */
+    public void flush() {
+        dispatch();
+        lock.lock();
+        try {
+            for (Lane lane : lanes) {
+                awaitIdle(lane);
+            }
+        } finally {
+            lock.unlock();
+        }
+        drainFailures();
+    }
+
+    @Override
+    public void close() {
+        retryScheduler.shutdownNow();
+    }
+
+    /**
+     * 等待通道空闲后发出通道中缓存的请求
+     */
+    private void send(Lane lane) {
+        List<Item<R>> batch = lane.buffer;
+        lane.buffer = new ArrayList<>();
+        lane.bufferBytes = 0;
+        lock.lock();
+        try {
+            awaitIdle(lane);
+            lane.busy = true;
+        } finally {
+            lock.unlock();
+        }
+        send(lane, batch, 0);
+    }
+
+    private void awaitIdle(Lane lane) {
+        while (lane.busy) {
+            try {
+                laneIdle.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new FlinkxRuntimeException("interrupted while waiting for bulk requests", e);
+            }
+        }
+    }
+
+    private void send(Lane lane, List<Item<R>> batch, int attempt) {
+        List<R> requests = new ArrayList<>(batch.size());
+        for (Item<R> item : batch) {
+            requests.add(item.request);
+        }
+        // 超时和客户端的回调只处理先到的一个
+        AtomicBoolean completed = new AtomicBoolean();
+        ScheduledFuture<?> timeout = scheduleTimeout(lane, batch, attempt, completed);
+        BulkCallback callback = new BulkCallback() {
+            @Override
+            public void onResponse(ItemFailure[] itemFailures) {
+                if (completed.compareAndSet(false, true)) {
+                    cancel(timeout);
+                    handleResponse(lane, batch, attempt, itemFailures);
+                }
+            }
+
+            @Override
+            public void onFailure(int status, Throwable t) {
+                if (completed.compareAndSet(false, true)) {
+                    cancel(timeout);
+                    handleFailure(lane, batch, attempt, status, t);
+                }
+            }
+        };
+        try {
+            sender.send(requests, callback);
+        } catch (Throwable t) {
+            callback.onFailure(STATUS_UNKNOWN, t);
+        }
+    }
+
+    private ScheduledFuture<?> scheduleTimeout(Lane lane, List<Item<R>> batch, int attempt, AtomicBoolean completed) {
+        if (requestTimeout <= 0) {
+            return null;
+        }
+        try {
+            return retryScheduler.schedule(() -> {
+                if (completed.compareAndSet(false, true)) {
+                    handleFailure(lane, batch, attempt, STATUS_UNKNOWN,
+                            new TimeoutException("bulk request of " + batch.size() + " items timed out after " + requestTimeout + " ms"));
+                }
+            }, requestTimeout, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            // 管道已经关闭，不再等待超时
+            return null;
+        }
+    }
+
+    private static void cancel(ScheduledFuture<?> timeout) {
+        if (timeout != null) {
+            timeout.cancel(false);
+        }
+    }
+
+    private void handleResponse(Lane lane, List<Item<R>> batch, int attempt, ItemFailure[] itemFailures) {
+        List<Item<R>> rejected = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            ItemFailure failure = itemFailures == null ? null : itemFailures[i];
+            if (failure == null) {
+                continue;
+            }
+            if (isRetryable(failure.status) && attempt < maxRetries) {
+                rejected.add(batch.get(i));
+            } else {
+                failures.add(new Failure(batch.get(i).row, failure.message, failure.cause));
+            }
+        }
+        if (rejected.isEmpty()) {
+            release(lane);
+        } else {
+            LOG.debug("{} of {} bulk items are rejected, retry {}", rejected.size(), batch.size(), attempt + 1);
+            retry(lane, rejected, attempt);
+        }
+    }
+
+    private void handleFailure(Lane lane, List<Item<R>> batch, int attempt, int status, Throwable t) {
+        if (isRetryable(status) && attempt < maxRetries && !retryScheduler.isShutdown()) {
+            LOG.warn("bulk request of {} items failed with status {}, retry {}, e = {}", batch.size(), status, attempt + 1, ExceptionUtil.getErrorMessage(t));
+            retry(lane, batch, attempt);
+        } else {
+            for (Item<R> item : batch) {
+                failures.add(new Failure(item.row, t.getMessage(), t));
+            }
+            release(lane);
+        }
+    }
+
+    private void retry(Lane lane, List<Item<R>> batch, int attempt) {
+        long delay = backoffType == BackoffType.EXPONENTIAL ? backoffDelay << Math.min(attempt, 20) : backoffDelay;
+        try {
+            retryScheduler.schedule(() -> send(lane, batch, attempt + 1), delay, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            for (Item<R> item : batch) {
+                failures.add(new Failure(item.row, "bulk pipeline is closed", e));
+            }
+            release(lane);
+        }
+    }
+
+    private void release(Lane lane) {
+        lock.lock();
+        try {
+            lane.busy = false;
+            laneIdle.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void drainFailures() {
+        Failure failure;
+        while ((failure = failures.poll()) != null) {
+            failureHandler.handle(failure.row, failure.message, failure.cause);
+        }
+    }
+
+    private static boolean isRetryable(int status) {
+        return status == STATUS_TOO_MANY_REQUESTS || status == STATUS_SERVICE_UNAVAILABLE;
+    }
+
+    /**
+     * 发出批量请求的客户端
+     */
+    public interface BulkSender<R> {
+        /**
+         * 异步发出批量请求，完成后调用且只调用一次callback的一个方法
+         *
+         * @param requests 请求
+         * @param callback 回调
+         */
+        void send(List<R> requests, BulkCallback callback);
+    }
+
+    /**
+     * 批量请求的回调
+     */
+    public interface BulkCallback {
+        /**
+         * 批量请求完成
+         *
+         * @param itemFailures 与请求一一对应，成功的请求为null；没有失败的请求时可以为null
+         */
+        void onResponse(ItemFailure[] itemFailures);
+
+        /**
+         * 整个批量请求失败，只有状态码为429、503时重试
+         *
+         * @param status 服务端返回的状态码，不知道时为{@link #STATUS_UNKNOWN}
+         * @param t 异常
+         */
+        void onFailure(int status, Throwable t);
+    }
+
+    /**
+     * 重试间隔的类型
+     */
+    public enum BackoffType {
+        /** 不重试 */
+        DISABLED,
+        /** 每次重试等待backoffDelay */
+        CONSTANT,
+        /** 第一次重试等待backoffDelay，之后每次翻倍 */
+        EXPONENTIAL
+    }
+
+    /**
+     * 处理最终失败的请求
+     */
+    public interface FailureHandler {
+        void handle(RowData row, String message, Throwable cause);
+    }
+
+    /**
+     * 批量请求中单条请求的失败信息
+     */
+    public static class ItemFailure {
+        private final int status;
+        private final String message;
+        private final Throwable cause;
+
+        public ItemFailure(int status, String message, Throwable cause) {
+            this.status = status;
+            this.message = message;
+            this.cause = cause;
+        }
+    }
+
+    private static class Item<R> {
+        private final R request;
+        private final RowData row;
+
+        private Item(R request, RowData row) {
+            this.request = request;
+            this.row = row;
+        }
+    }
+
+    private static class Failure {
+        private final RowData row;
+        private final String message;
+        private final Throwable cause;
+
+        private Failure(RowData row, String message, Throwable cause) {
+            this.row = row;
+            this.message = message;
+            this.cause = cause;
+        }
+    }
+
+    private class Lane {
+        /** 以下两个字段只有调用线程访问 */
+        private List<Item<R>> buffer = new ArrayList<>();
+        private long bufferBytes;
+        /** 由lock保护 */
+        private boolean busy;
+    }
+}
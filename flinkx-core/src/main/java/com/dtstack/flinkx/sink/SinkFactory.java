@@ -30,13 +30,13 @@ import com.dtstack.flinkx.conf.FlinkxCommonConf;
 import com.dtstack.flinkx.conf.SpeedConf;
 import com.dtstack.flinkx.conf.SyncConf;
 import com.dtstack.flinkx.converter.RawTypeConvertible;
+import com.dtstack.flinkx.element.ColumnRowDataTypeInfo;
 import com.dtstack.flinkx.streaming.api.functions.sink.DtOutputFormatSinkFunction;
 import com.dtstack.flinkx.util.PropertiesUtil;
 import com.dtstack.flinkx.util.TableUtil;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 
-import java.util.Collections;
 import java.util.List;
 
 /**
@@ -63,7 +63,7 @@ public abstract class SinkFactory implements RawTypeConvertible {
 
         if (syncConf.getTransformer() == null
                 || StringUtils.isBlank(syncConf.getTransformer().getTransformSql())) {
-            typeInformation = TableUtil.getTypeInformation(Collections.emptyList(), getRawTypeConverter());
+            typeInformation = ColumnRowDataTypeInfo.INSTANCE;
         } else {
             typeInformation = TableUtil.getTypeInformation(fieldList, getRawTypeConverter());
             useAbstractBaseColumn = false;
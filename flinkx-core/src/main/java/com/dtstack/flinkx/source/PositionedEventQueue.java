@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.source;
+
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.util.Preconditions;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 实时采集解析线程和task线程之间的有界队列，每条数据都带有它的位置(binlog位点、scn等)。
+ *
+ * <p>队列满时{@link #put}阻塞解析线程，对上游形成反压。task线程调用{@link #poll}时一次加锁批量取出最多drainBatchSize条数据，
+ * 之后逐条返回不再加锁；{@link #getEmittedPosition()}是最后一条返回给task线程的数据的位置，checkpoint时记录它即可。
+ *
+ * <p>可以有多个生产者，只能有一个消费者。
+ *
+ * @param <P> 位置的类型
+ */
+public class PositionedEventQueue<P> {
+
+    public static final int DEFAULT_DRAIN_BATCH_SIZE = 256;
+
+    private final RowData[] rows;
+    private final Object[] positions;
+    private final int capacity;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    /** 以下两个字段由lock保护 */
+    private int head;
+    private int count;
+
+    /** 以下字段只有消费者线程访问 */
+    private final RowData[] batchRows;
+    private final Object[] batchPositions;
+    private int batchIndex;
+    private int batchSize;
+    private P emittedPosition;
+
+    public PositionedEventQueue(int capacity) {
+        this(capacity, DEFAULT_DRAIN_BATCH_SIZE);
+    }
+
+    public PositionedEventQueue(int capacity, int drainBatchSize) {
+        Preconditions.checkArgument(capacity > 0, "capacity must be positive");
+        Preconditions.checkArgument(drainBatchSize > 0, "drainBatchSize must be positive");
+        this.capacity = capacity;
+        this.rows = new RowData[capacity];
+        this.positions = new Object[capacity];
+        int batch = Math.min(capacity, drainBatchSize);
+        this.batchRows = new RowData[batch];
+        this.batchPositions = new Object[batch];
+    }
+
+    /**
+     * 放入一条数据，队列满时阻塞
+     *
+     * @param row 数据
+     * @param position 该数据之后恢复任务时的起始位置
+     * @throws InterruptedException 等待时被中断
+     */
+    public void put(RowData row, P position) throws InterruptedException {
+        Preconditions.checkNotNull(row);
+        enqueue(row, position);
+    }
+
+    /**
+     * 放入一个只推进位置、没有数据的标记，例如事务结束，队列满时阻塞
+     *
+     * @param position 位置
+     * @throws InterruptedException 等待时被中断
+     */
+    public void putPosition(P position) throws InterruptedException {
+        enqueue(null, position);
+    }
+
+    private void enqueue(RowData row, P position) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (count == capacity) {
+                notFull.await();
+            }
+            int tail = (head + count) % capacity;
+            rows[tail] = row;
+            positions[tail] = position;
+            if (count++ == 0) {
+                notEmpty.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 取出下一条数据，本地批次为空时从队列中批量取出，队列为空时最多等待timeout
+     *
+     * @return 超时时返回null
+     * @throws InterruptedException 等待时被中断
+     */
+    @SuppressWarnings("unchecked")
+    public RowData poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (true) {
+            while (batchIndex < batchSize) {
+                RowData row = batchRows[batchIndex];
+                emittedPosition = (P) batchPositions[batchIndex];
+                batchRows[batchIndex] = null;
+                batchPositions[batchIndex] = null;
+                batchIndex++;
+                if (row != null) {
+                    return row;
+                }
+            }
+            if (!drain(deadline - System.nanoTime())) {
+                return null;
+            }
+        }
+    }
+
+    private boolean drain(long nanos) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            int n = Math.min(count, batchRows.length);
+            for (int i = 0; i < n; i++) {
+                batchRows[i] = rows[head];
+                batchPositions[i] = positions[head];
+                rows[head] = null;
+                positions[head] = null;
+                head = (head + 1) % capacity;
+            }
+            count -= n;
+            batchIndex = 0;
+            batchSize = n;
+            notFull.signalAll();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** 最后一条返回给消费者的数据(或标记)的位置，还没有返回过数据时为null */
+    public P getEmittedPosition() {
+        return emittedPosition;
+    }
+
+    /** 队列中和消费者本地批次中还没有返回的数据条数，包括位置标记 */
+    public int size() {
+        lock.lock();
+        try {
+            return count + batchSize - batchIndex;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** 清空队列并唤醒阻塞的生产者 */
+    public void clear() {
+        lock.lock();
+        try {
+            Arrays.fill(rows, null);
+            Arrays.fill(positions, null);
+            head = 0;
+            count = 0;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        Arrays.fill(batchRows, null);
+        Arrays.fill(batchPositions, null);
+        batchIndex = 0;
+        batchSize = 0;
+    }
+}
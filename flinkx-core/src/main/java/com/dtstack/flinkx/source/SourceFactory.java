@@ -31,12 +31,12 @@ import org.apache.flink.util.Preconditions;
 import com.dtstack.flinkx.conf.FlinkxCommonConf;
 import com.dtstack.flinkx.conf.SpeedConf;
 import com.dtstack.flinkx.conf.SyncConf;
+import com.dtstack.flinkx.element.ColumnRowDataTypeInfo;
 import com.dtstack.flinkx.streaming.api.functions.source.DtInputFormatSourceFunction;
 import com.dtstack.flinkx.util.PropertiesUtil;
 import com.dtstack.flinkx.util.TableUtil;
 import org.apache.commons.lang3.StringUtils;
 
-import java.util.Collections;
 
 /**
  * Abstract specification of Reader Plugin
@@ -58,7 +58,7 @@ public abstract class SourceFactory implements RawTypeConvertible {
 
         if (syncConf.getTransformer() == null
                 || StringUtils.isBlank(syncConf.getTransformer().getTransformSql())) {
-            typeInformation = TableUtil.getTypeInformation(Collections.emptyList(), getRawTypeConverter());
+            typeInformation = ColumnRowDataTypeInfo.INSTANCE;
         } else {
             typeInformation = TableUtil.getTypeInformation(syncConf.getReader().getFieldList(), getRawTypeConverter());
             useAbstractBaseColumn = false;
@@ -72,6 +72,16 @@ public abstract class SourceFactory implements RawTypeConvertible {
      */
     public abstract DataStream<RowData> createSource();
 
+    /**
+     * 设置source的并行度之后调用，对source输出的数据重新分区，默认不分区
+     *
+     * @param dataStream createSource()返回的数据流
+     * @return 分区后的数据流
+     */
+    public DataStream<RowData> partitionSource(DataStream<RowData> dataStream) {
+        return dataStream;
+    }
+
     @SuppressWarnings("unchecked")
     protected DataStream<RowData> createInput(InputFormat inputFormat, String sourceName) {
         Preconditions.checkNotNull(sourceName);
@@ -83,8 +83,11 @@ public class DtOutputFormatSinkFunction<IN> extends OutputFormatSinkFunction<IN>
         RuntimeContext context = getRuntimeContext();
         format.configure(parameters);
 
-        if (format instanceof BaseRichOutputFormat && formatStateMap != null) {
-            ((BaseRichOutputFormat) format).setRestoreState(formatStateMap.get(context.getIndexOfThisSubtask()));
+        if (format instanceof BaseRichOutputFormat) {
+            ((BaseRichOutputFormat) format).setRestored(formatStateMap != null);
+            if (formatStateMap != null) {
+                ((BaseRichOutputFormat) format).setRestoreState(formatStateMap.get(context.getIndexOfThisSubtask()));
+            }
         }
 
         int indexInSubtaskGroup = context.getIndexOfThisSubtask();
@@ -141,7 +144,7 @@ public class DtOutputFormatSinkFunction<IN> extends OutputFormatSinkFunction<IN>
 
     @Override
     public void snapshotState(FunctionSnapshotContext context) throws Exception {
-        FormatState formatState = ((BaseRichOutputFormat) format).getFormatState();
+        FormatState formatState = ((BaseRichOutputFormat) format).getFormatState(context.getCheckpointId());
         if (formatState != null) {
             LOG.info("OutputFormat format state:{}", formatState);
             unionOffsetStates.clear();
@@ -44,8 +44,10 @@ import com.dtstack.flinkx.util.ExceptionUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 
@@ -94,6 +96,7 @@ public class DtInputFormatSourceFunction<OUT> extends InputFormatSourceFunction<
         if (format instanceof BaseRichInputFormat){
             if(formatStateMap != null){
                 ((BaseRichInputFormat) format).setRestoreState(formatStateMap.get(context.getIndexOfThisSubtask()));
+                ((BaseRichInputFormat) format).setRestoreSplitStates(formatStateMap.values());
             }
         }
 
@@ -117,20 +120,30 @@ public class DtInputFormatSourceFunction<OUT> extends InputFormatSourceFunction<
 
 			OUT nextElement = serializer.createInstance();
 			while (isRunning) {
-				format.open(splitIterator.next());
+				for (InputSplit split : getUnfinishedSplits(splitIterator.next())) {
+					if (!isRunning) {
+						break;
+					}
+					format.open(split);
 
-				// for each element we also check if cancel
-				// was called by checking the isRunning flag
+					// for each element we also check if cancel
+					// was called by checking the isRunning flag
 
-				while (isRunning && !format.reachedEnd()) {
-					synchronized (ctx.getCheckpointLock()){
-						nextElement = format.nextRecord(nextElement);
-						if (nextElement != null) {
-							ctx.collect(nextElement);
+					while (isRunning && !format.reachedEnd()) {
+						synchronized (ctx.getCheckpointLock()){
+							nextElement = format.nextRecord(nextElement);
+							if (nextElement != null) {
+								ctx.collect(nextElement);
+							}
+						}
+					}
+					format.close();
+					if (isRunning && format instanceof BaseRichInputFormat) {
+						synchronized (ctx.getCheckpointLock()) {
+							((BaseRichInputFormat) format).markSplitCompleted(split);
 						}
 					}
 				}
-				format.close();
 				completedSplitsCounter.inc();
 
 				if (isRunning) {
@@ -181,6 +194,16 @@ public class DtInputFormatSourceFunction<OUT> extends InputFormatSourceFunction<
 		return format;
 	}
 
+	/**
+	 * 续跑时跳过分片中已经读取完成的部分
+	 */
+	private List<InputSplit> getUnfinishedSplits(InputSplit split) {
+		if (format instanceof BaseRichInputFormat) {
+			return ((BaseRichInputFormat) format).getUnfinishedSplits(split);
+		}
+		return Collections.singletonList(split);
+	}
+
 	private Iterator<InputSplit> getInputSplits() {
 
 		return new Iterator<InputSplit>() {
@@ -68,4 +68,16 @@ public class BaseFileOptions {
                     .longType()
                     .defaultValue(5000L)
                     .withDescription("The number of data written in the next file size check");
+
+    public static final ConfigOption<Long> MAX_FILE_ROWS =
+            ConfigOptions.key("maxFileRows")
+                    .longType()
+                    .defaultValue(0L)
+                    .withDescription("The maximum number of rows of a single file, 0 means unlimited");
+
+    public static final ConfigOption<Long> ROLLOVER_INTERVAL =
+            ConfigOptions.key("rolloverInterval")
+                    .longType()
+                    .defaultValue(0L)
+                    .withDescription("The maximum time in milliseconds a file stays open since its first row, 0 means unlimited");
 }
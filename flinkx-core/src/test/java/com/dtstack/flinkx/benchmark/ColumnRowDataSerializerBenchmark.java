@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.benchmark;
+
+import org.apache.flink.core.memory.DataInputDeserializer;
+import org.apache.flink.core.memory.DataOutputSerializer;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.runtime.typeutils.RowDataSerializer;
+import org.apache.flink.table.types.logical.BigIntType;
+import org.apache.flink.table.types.logical.DoubleType;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.TimestampType;
+import org.apache.flink.table.types.logical.VarCharType;
+import org.apache.flink.util.InstantiationUtil;
+
+import com.dtstack.flinkx.element.ArrayColumnRowData;
+import com.dtstack.flinkx.element.ColumnRowData;
+import com.dtstack.flinkx.element.ColumnRowDataSerializer;
+import com.dtstack.flinkx.element.column.StringColumn;
+import com.dtstack.flinkx.element.column.TimestampColumn;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Record exchange cost of {@link ColumnRowDataSerializer} against the {@link RowDataSerializer}
+ * of InternalTypeInfo, and of {@link ColumnRowData#copy()} against java serialization.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColumnRowDataSerializerBenchmark {
+
+    @Param({"8", "64"})
+    private int fieldCount;
+
+    private ColumnRowData row;
+    private RowDataSerializer rowDataSerializer;
+    private final DataOutputSerializer out = new DataOutputSerializer(4096);
+    private final DataInputDeserializer in = new DataInputDeserializer();
+
+    @Setup
+    public void setup() {
+        ArrayColumnRowData arrayRow = new ArrayColumnRowData(fieldCount);
+        LogicalType[] types = new LogicalType[fieldCount];
+        for (int i = 0; i < fieldCount; i++) {
+            switch (i % 4) {
+                case 0:
+                    arrayRow.setLong(i, i);
+                    types[i] = new BigIntType();
+                    break;
+                case 1:
+                    arrayRow.setDouble(i, i * 1.5D);
+                    types[i] = new DoubleType();
+                    break;
+                case 2:
+                    arrayRow.setField(i, new StringColumn("value_" + i));
+                    types[i] = new VarCharType(VarCharType.MAX_LENGTH);
+                    break;
+                default:
+                    arrayRow.setField(i, new TimestampColumn(new Timestamp(System.currentTimeMillis())));
+                    types[i] = new TimestampType(3);
+            }
+        }
+        row = arrayRow;
+        rowDataSerializer = new RowDataSerializer(types);
+    }
+
+    @Benchmark
+    public RowData columnRowDataSerializer() throws IOException {
+        out.clear();
+        ColumnRowDataSerializer.INSTANCE.serialize(row, out);
+        in.setBuffer(out.getSharedBuffer(), 0, out.length());
+        return ColumnRowDataSerializer.INSTANCE.deserialize(in);
+    }
+
+    @Benchmark
+    public RowData rowDataSerializer() throws IOException {
+        out.clear();
+        rowDataSerializer.serialize(row, out);
+        in.setBuffer(out.getSharedBuffer(), 0, out.length());
+        return rowDataSerializer.deserialize(in);
+    }
+
+    @Benchmark
+    public RowData fieldCopy() {
+        return row.copy();
+    }
+
+    @Benchmark
+    public RowData javaSerializationCopy() throws Exception {
+        return InstantiationUtil.clone(row);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(
+                        new OptionsBuilder()
+                                .include(ColumnRowDataSerializerBenchmark.class.getSimpleName())
+                                .build())
+                .run();
+    }
+}
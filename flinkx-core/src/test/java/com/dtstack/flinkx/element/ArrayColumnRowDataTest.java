@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.flinkx.element;
+
+import com.dtstack.flinkx.element.column.DateColumn;
+import com.dtstack.flinkx.element.column.IntColumn;
+import com.dtstack.flinkx.element.column.NullColumn;
+import com.dtstack.flinkx.element.column.StringColumn;
+import com.dtstack.flinkx.element.column.TimeColumn;
+import com.dtstack.flinkx.element.column.TimestampColumn;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+
+public class ArrayColumnRowDataTest {
+
+    @Test
+    public void testPrimitiveSlots() {
+        ArrayColumnRowData row = new ArrayColumnRowData(70);
+        row.setInt(0, 7);
+        row.setLong(1, Long.MAX_VALUE);
+        row.setDouble(2, 1.5D);
+        row.setFloat(3, 2.5F);
+        row.setDate(4, 86_400_000L);
+        row.setField(5, new StringColumn("10"));
+        row.setField(69, new IntColumn(3));
+
+        Assert.assertEquals(7, row.getInt(0));
+        Assert.assertEquals(7L, row.getLong(0));
+        Assert.assertEquals(Long.MAX_VALUE, row.getLong(1));
+        Assert.assertEquals(1.5D, row.getDouble(2), 0D);
+        Assert.assertEquals(2.5F, row.getFloat(3), 0F);
+        Assert.assertEquals(86_400_000L, row.getTimestamp(4, 3).getMillisecond());
+        Assert.assertEquals(10, row.getInt(5));
+        Assert.assertEquals(3, row.getInt(69));
+        Assert.assertEquals("7", row.getField(0).asString());
+
+        Assert.assertFalse(row.isNullAt(0));
+        Assert.assertTrue(row.isNullAt(6));
+        Assert.assertTrue(row.isNullAt(68));
+        Assert.assertNull(row.getField(6));
+
+        row.setNullAt(0);
+        Assert.assertTrue(row.isNullAt(0));
+    }
+
+    @Test
+    public void testAddField() {
+        ArrayColumnRowData row = new ArrayColumnRowData(2);
+        row.addField(new IntColumn(1));
+        row.addField(new StringColumn("a"));
+        row.addHeader("id");
+        row.addHeader("name");
+
+        Assert.assertEquals(2, row.getArity());
+        Assert.assertEquals("a", row.getField("name").asString());
+        Assert.assertEquals("(1,a)", row.getString());
+    }
+
+    @Test
+    public void testDateAndTimeKeepTimestampText() {
+        long millis = 1_600_000_000_123L;
+        String expected = new TimestampColumn(millis).asString();
+        Assert.assertEquals(expected, new DateColumn(millis).asString());
+        Assert.assertEquals(expected, new TimeColumn(millis).asString());
+        Assert.assertEquals(new TimestampColumn(millis).getData(), new DateColumn(millis).getData());
+
+        ArrayColumnRowData row = new ArrayColumnRowData(1);
+        row.setDate(0, millis);
+        Assert.assertEquals(expected, row.getField(0).asString());
+    }
+
+    @Test
+    public void testNullFields() {
+        ArrayColumnRowData row = new ArrayColumnRowData(3);
+        row.setField(0, new NullColumn());
+        row.setInt(1, 1);
+        row.setNullAt(1);
+
+        for (int i = 0; i < 3; i++) {
+            Assert.assertTrue(row.isNullAt(i));
+            Assert.assertNull(row.getString(i));
+            Assert.assertNull(row.getDecimal(i, 10, 0));
+            Assert.assertNull(row.getTimestamp(i, 3));
+            Assert.assertNull(row.getBinary(i));
+        }
+    }
+
+    @Test
+    public void testDateAndTimeAsNumber() {
+        long millis = 1_600_000_000_123L;
+        Assert.assertEquals(BigDecimal.valueOf(millis), new DateColumn(millis).asBigDecimal());
+        Assert.assertEquals(Long.valueOf(millis), new TimeColumn(millis).asLong());
+        Assert.assertEquals((double) millis, new TimeColumn(millis).asDouble(), 0D);
+
+        ArrayColumnRowData row = new ArrayColumnRowData(1);
+        row.setDate(0, millis);
+        Assert.assertEquals(millis, row.getLong(0));
+        Assert.assertEquals(row.getField(0).asDouble(), row.getDouble(0), 0D);
+        Assert.assertEquals(millis, row.getDecimal(0, 20, 0).toBigDecimal().longValue());
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.element;
+
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.common.typeutils.TypeSerializerSchemaCompatibility;
+import org.apache.flink.api.common.typeutils.TypeSerializerSnapshot;
+import org.apache.flink.core.memory.DataInputDeserializer;
+import org.apache.flink.core.memory.DataOutputSerializer;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.types.RowKind;
+
+import com.dtstack.flinkx.element.column.BigDecimalColumn;
+import com.dtstack.flinkx.element.column.BooleanColumn;
+import com.dtstack.flinkx.element.column.BytesColumn;
+import com.dtstack.flinkx.element.column.MapColumn;
+import com.dtstack.flinkx.element.column.NullColumn;
+import com.dtstack.flinkx.element.column.StringColumn;
+import com.dtstack.flinkx.element.column.TimestampColumn;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class ColumnRowDataSerializerTest {
+
+    private final TypeSerializer<RowData> serializer = ColumnRowDataSerializer.INSTANCE;
+
+    @Test
+    public void testColumnRowData() throws IOException {
+        Timestamp timestamp = new Timestamp(1_600_000_000_123L);
+        timestamp.setNanos(123_456_789);
+
+        ColumnRowData row = new ColumnRowData(RowKind.UPDATE_AFTER, 9);
+        row.addField(new StringColumn("abc", "yyyy-MM-dd"));
+        row.addField(new BigDecimalColumn(new BigDecimal("-12345.678")));
+        row.addField(new BooleanColumn(true));
+        row.addField(new TimestampColumn(timestamp));
+        row.addField(new BytesColumn(new byte[] {1, 2, 3}));
+        row.addField(new MapColumn(Collections.singletonMap("k", "v")));
+        row.addField(new NullColumn());
+        row.addField(new StringColumn(null));
+        row.addField(null);
+        row.addAllHeader(Arrays.asList("a", "b"));
+
+        ColumnRowData result = (ColumnRowData) roundTrip(row);
+        Assert.assertEquals(RowKind.UPDATE_AFTER, result.getRowKind());
+        Assert.assertEquals(row.toString(), result.toString());
+        Assert.assertArrayEquals(row.getHeaders(), result.getHeaders());
+        Assert.assertEquals(timestamp, result.getField(3).getData());
+        Assert.assertTrue(result.isNullAt(7));
+        Assert.assertNull(result.getField(8));
+    }
+
+    @Test
+    public void testArrayColumnRowData() throws IOException {
+        ArrayColumnRowData row = new ArrayColumnRowData(5);
+        row.setInt(0, 7);
+        row.setDouble(1, 1.5D);
+        row.setDate(2, 86_400_000L);
+        row.setField(3, new StringColumn("x"));
+
+        RowData result = roundTrip(row);
+        Assert.assertTrue(result instanceof ArrayColumnRowData);
+        ArrayColumnRowData arrayRow = (ArrayColumnRowData) result;
+        Assert.assertEquals(ArrayColumnRowData.SLOT_INT, arrayRow.getSlotType(0));
+        Assert.assertEquals(7, arrayRow.getInt(0));
+        Assert.assertEquals(1.5D, arrayRow.getDouble(1), 0D);
+        Assert.assertEquals(ArrayColumnRowData.SLOT_DATE, arrayRow.getSlotType(2));
+        Assert.assertEquals("x", arrayRow.getString(3).toString());
+        Assert.assertTrue(arrayRow.isNullAt(4));
+    }
+
+    @Test
+    public void testGenericRowData() throws IOException {
+        GenericRowData row = GenericRowData.of(new StringColumn("a"), 1L, null);
+        GenericRowData result = (GenericRowData) roundTrip(row);
+        Assert.assertEquals("a", ((AbstractBaseColumn) result.getField(0)).asString());
+        Assert.assertEquals(1L, result.getField(1));
+        Assert.assertNull(result.getField(2));
+    }
+
+    @Test
+    public void testCopy() {
+        ArrayColumnRowData row = new ArrayColumnRowData(2);
+        row.setLong(0, 3L);
+        row.setField(1, new BytesColumn(new byte[] {1}));
+
+        ArrayColumnRowData copy = (ArrayColumnRowData) serializer.copy(row);
+        Assert.assertEquals(3L, copy.getLong(0));
+        ((byte[]) row.getField(1).getData())[0] = 2;
+        Assert.assertEquals(1, copy.getBinary(1)[0]);
+
+        ColumnRowData columnRow = new ColumnRowData(1);
+        columnRow.addField(new StringColumn("s"));
+        columnRow.addHeader("name");
+        ColumnRowData columnCopy = columnRow.copy();
+        Assert.assertNotSame(columnRow.getField(0), columnCopy.getField(0));
+        Assert.assertEquals("s", columnCopy.getField("name").asString());
+    }
+
+    @Test
+    public void testSnapshot() throws IOException {
+        TypeSerializerSnapshot<RowData> snapshot = serializer.snapshotConfiguration();
+        DataOutputSerializer out = new DataOutputSerializer(64);
+        TypeSerializerSnapshot.writeVersionedSnapshot(out, snapshot);
+
+        TypeSerializerSnapshot<RowData> restored =
+                TypeSerializerSnapshot.readVersionedSnapshot(
+                        new DataInputDeserializer(out.getCopyOfBuffer()),
+                        getClass().getClassLoader());
+        TypeSerializerSchemaCompatibility<RowData> compatibility =
+                restored.resolveSchemaCompatibility(serializer);
+        Assert.assertTrue(compatibility.isCompatibleAsIs());
+        Assert.assertSame(serializer, restored.restoreSerializer());
+    }
+
+    private RowData roundTrip(RowData row) throws IOException {
+        DataOutputSerializer out = new DataOutputSerializer(64);
+        serializer.serialize(row, out);
+        return serializer.deserialize(new DataInputDeserializer(out.getCopyOfBuffer()));
+    }
+}
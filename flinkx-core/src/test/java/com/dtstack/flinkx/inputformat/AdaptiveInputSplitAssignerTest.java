@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.inputformat;
+
+import org.apache.flink.core.io.InputSplit;
+import org.apache.flink.table.data.RowData;
+
+import com.dtstack.flinkx.restore.FormatState;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class AdaptiveInputSplitAssignerTest {
+
+    @Test
+    public void testLargestSplitFirst() {
+        InputSplit[] splits = {new RangeSplit("0", 0, 10), new RangeSplit("1", 10, 110), new RangeSplit("2", 110, 130)};
+        AdaptiveInputSplitAssigner assigner = new AdaptiveInputSplitAssigner(splits, 1);
+
+        Assert.assertEquals("1", ((RangeSplit) assigner.getNextInputSplit("", 0)).getSplitId());
+        Assert.assertEquals("2", ((RangeSplit) assigner.getNextInputSplit("", 1)).getSplitId());
+        Assert.assertEquals("0", ((RangeSplit) assigner.getNextInputSplit("", 2)).getSplitId());
+        Assert.assertNull(assigner.getNextInputSplit("", 0));
+    }
+
+    @Test
+    public void testSplitLargestWhenTaskIdle() {
+        InputSplit[] splits = {new RangeSplit("0", 0, 1000), new RangeSplit("1", 1000, 1400)};
+        AdaptiveInputSplitAssigner assigner = new AdaptiveInputSplitAssigner(splits, 2);
+
+        // 第一次请求不切分
+        Assert.assertEquals("0", ((RangeSplit) assigner.getNextInputSplit("", 0)).getSplitId());
+        // 子任务0读完后再次请求，剩余分片不够每个子任务一个，切分剩余最大的分片
+        RangeSplit half = (RangeSplit) assigner.getNextInputSplit("", 0);
+        Assert.assertEquals("1.0", half.getSplitId());
+        Assert.assertEquals(200, half.getEstimatedSize());
+        RangeSplit other = (RangeSplit) assigner.getNextInputSplit("", 1);
+        Assert.assertEquals("1.1", other.getSplitId());
+        Assert.assertEquals(1200, other.start);
+    }
+
+    @Test
+    public void testReturnInputSplit() {
+        InputSplit[] splits = {new RangeSplit("0", 0, 100)};
+        AdaptiveInputSplitAssigner assigner = new AdaptiveInputSplitAssigner(splits, 1);
+
+        InputSplit split = assigner.getNextInputSplit("", 0);
+        Assert.assertNull(assigner.getNextInputSplit("", 0));
+        assigner.returnInputSplit(Collections.singletonList(split), 0);
+        Assert.assertSame(split, assigner.getNextInputSplit("", 0));
+    }
+
+    @Test
+    public void testUnfinishedSplitsAfterRestore() {
+        FormatState first = new FormatState(0, null);
+        first.setCompletedSplitIds(Arrays.asList("0", "1.0"));
+        FormatState second = new FormatState(1, 1160L);
+        second.setSplitId("1.1.1");
+        Map<String, Object> splitStates = new HashMap<>();
+        splitStates.put("1.1.1", 1130L);
+        second.setSplitStates(splitStates);
+
+        TestInputFormat format = new TestInputFormat();
+        format.setRestoreSplitStates(Arrays.asList(first, second));
+
+        Assert.assertTrue(format.getUnfinishedSplits(new RangeSplit("0", 0, 1000)).isEmpty());
+
+        List<String> ids = new ArrayList<>();
+        for (InputSplit split : format.getUnfinishedSplits(new RangeSplit("1", 1000, 1200))) {
+            ids.add(((RangeSplit) split).getSplitId());
+        }
+        Assert.assertEquals(Arrays.asList("1.1.0", "1.1.1"), ids);
+
+        List<InputSplit> untouched = format.getUnfinishedSplits(new RangeSplit("2", 1200, 1300));
+        Assert.assertEquals(1, untouched.size());
+        Assert.assertEquals("2", ((RangeSplit) untouched.get(0)).getSplitId());
+    }
+
+    private static class RangeSplit implements SplittableInputSplit {
+        private static final long serialVersionUID = 1L;
+
+        private final String splitId;
+        private final long start;
+        private final long end;
+
+        RangeSplit(String splitId, long start, long end) {
+            this.splitId = splitId;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public String getSplitId() {
+            return splitId;
+        }
+
+        @Override
+        public long getEstimatedSize() {
+            return end - start;
+        }
+
+        @Override
+        public SplittableInputSplit[] split() {
+            if (end - start < 2) {
+                return null;
+            }
+            long mid = start + (end - start) / 2;
+            return new SplittableInputSplit[] {
+                new RangeSplit(SplittableInputSplit.childSplitId(splitId, 0), start, mid),
+                new RangeSplit(SplittableInputSplit.childSplitId(splitId, 1), mid, end)
+            };
+        }
+
+        @Override
+        public int getSplitNumber() {
+            return 0;
+        }
+    }
+
+    private static class TestInputFormat extends BaseRichInputFormat {
+
+        @Override
+        protected InputSplit[] createInputSplitsInternal(int minNumSplits) {
+            return new InputSplit[0];
+        }
+
+        @Override
+        protected void openInternal(InputSplit inputSplit) {}
+
+        @Override
+        protected RowData nextRecordInternal(RowData rowData) {
+            return null;
+        }
+
+        @Override
+        protected void closeInternal() {}
+
+        @Override
+        public boolean reachedEnd() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.lookup.cache;
+
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.StringData;
+import org.apache.flink.table.types.logical.BigIntType;
+import org.apache.flink.table.types.logical.IntType;
+import org.apache.flink.table.types.logical.RowType;
+import org.apache.flink.table.types.logical.VarCharType;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CompactAllCacheTest {
+
+    private static final RowType ROW_TYPE =
+            RowType.of(new IntType(), new VarCharType(VarCharType.MAX_LENGTH), new BigIntType());
+
+    @Test
+    public void testHeapLookup() {
+        testLookup(false);
+    }
+
+    @Test
+    public void testOffHeapLookup() {
+        testLookup(true);
+    }
+
+    private void testLookup(boolean offHeap) {
+        // 小页面保证数据跨多个页面
+        CompactAllCache.Builder builder =
+                new CompactAllCache.Builder(ROW_TYPE, new int[] {0, 1}, offHeap, 256);
+        for (int i = 0; i < 1000; i++) {
+            builder.add(GenericRowData.of(i % 100, StringData.fromString("k" + i % 100), (long) i));
+        }
+        Assert.assertFalse(builder.add(GenericRowData.of(null, StringData.fromString("k"), 1L)));
+        CompactAllCache cache = builder.build();
+
+        Assert.assertEquals(1000, cache.getRowCount());
+        Assert.assertEquals(offHeap, cache.isOffHeap());
+
+        List<RowData> result = new ArrayList<>();
+        Assert.assertEquals(
+                10, cache.lookup(new Object[] {7, StringData.fromString("k7")}, result::add));
+        long sum = 0;
+        for (RowData row : result) {
+            Assert.assertEquals(7, row.getInt(0));
+            Assert.assertEquals("k7", row.getString(1).toString());
+            sum += row.getLong(2);
+        }
+        Assert.assertEquals(10 * 7 + 100 * 45, sum);
+
+        Assert.assertEquals(0, cache.lookup(new Object[] {7, StringData.fromString("k8")}, result::add));
+        Assert.assertEquals(0, cache.lookup(new Object[] {null, StringData.fromString("k7")}, result::add));
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.lookup.cache;
+
+import org.apache.flink.table.data.StringData;
+
+import com.dtstack.flinkx.enums.ECacheContentType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TinyLfuSideCacheTest {
+
+    @Test
+    public void testCacheKeyDoesNotCollide() {
+        Assert.assertNotEquals(CacheKey.of("a_b", "c"), CacheKey.of("a", "b_c"));
+        Assert.assertEquals(
+                CacheKey.of(StringData.fromString("a"), 1),
+                CacheKey.of(StringData.fromString("a"), 1));
+        Assert.assertEquals(
+                CacheKey.of(StringData.fromString("a"), 1).hashCode(),
+                CacheKey.of(StringData.fromString("a"), 1).hashCode());
+    }
+
+    @Test
+    public void testFrequentKeysSurviveScan() {
+        TinyLfuSideCache cache = new TinyLfuSideCache(100, Long.MAX_VALUE, 0);
+        cache.initCache();
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 50; i++) {
+                if (cache.getFromCache(CacheKey.of(i)) == null) {
+                    cache.putCache(CacheKey.of(i), value(i));
+                }
+            }
+        }
+        // 只访问一次的冷数据不应把热点数据挤出缓存
+        for (int i = 1000; i < 3000; i++) {
+            cache.getFromCache(CacheKey.of(i));
+            cache.putCache(CacheKey.of(i), value(i));
+        }
+
+        int hits = 0;
+        for (int i = 0; i < 50; i++) {
+            if (cache.getFromCache(CacheKey.of(i)) != null) {
+                hits++;
+            }
+        }
+        Assert.assertTrue("hot keys retained: " + hits, hits >= 45);
+        Assert.assertTrue(cache.size() <= 100);
+        Assert.assertTrue(cache.getEvictionCount() >= 1900);
+    }
+
+    @Test
+    public void testRefreshAndExpire() {
+        AtomicLong now = new AtomicLong();
+        TinyLfuSideCache cache = new TinyLfuSideCache(10, 1000, 100, now::get);
+        cache.initCache();
+        CacheKey key = CacheKey.of(1);
+        cache.putCache(key, value(1));
+
+        Assert.assertFalse(cache.needRefresh(key));
+        now.set(100);
+        Assert.assertTrue(cache.needRefresh(key));
+        Assert.assertNotNull(cache.getFromCache(key));
+
+        cache.putCache(key, value(2));
+        Assert.assertFalse(cache.needRefresh(key));
+        Assert.assertEquals(2, cache.getFromCache(key).getContent());
+
+        now.set(1100);
+        Assert.assertNull(cache.getFromCache(key));
+        Assert.assertFalse(cache.needRefresh(key));
+    }
+
+    private static CacheObj value(int i) {
+        return CacheObj.buildCacheObj(ECacheContentType.SingleLine, i);
+    }
+}
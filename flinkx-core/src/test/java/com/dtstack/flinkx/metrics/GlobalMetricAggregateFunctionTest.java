@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.metrics;
+
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.api.java.tuple.Tuple3;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+
+public class GlobalMetricAggregateFunctionTest {
+
+    @Test
+    public void testAdd() {
+        GlobalMetricAggregateFunction function = new GlobalMetricAggregateFunction();
+        GlobalMetricAggregateFunction.Accumulator acc = function.createAccumulator();
+
+        acc = function.add(update("source_0", 10L, null), acc);
+        acc = function.add(update("source_1", 5L, "100"), acc);
+        Assert.assertEquals(15L, (long) function.getResult(acc).f0.get("numRead"));
+
+        // a subtask reports its cumulative value again, only the difference is added
+        acc = function.add(update("source_0", 12L, null), acc);
+        Tuple2<HashMap<String, Long>, HashMap<String, String>> result = function.getResult(acc);
+        Assert.assertEquals(17L, (long) result.f0.get("numRead"));
+        Assert.assertEquals("100", result.f1.get("maxValue"));
+    }
+
+    @Test
+    public void testChainedOperatorsReportSameCounter() {
+        GlobalMetricAggregateFunction function = new GlobalMetricAggregateFunction();
+        GlobalMetricAggregateFunction.Accumulator acc = function.createAccumulator();
+
+        // source and sink chained in one task share the task's accumulators and report them
+        // under the same task id, the value is counted once
+        acc = function.add(update("Source -> Sink (1/1)", 10L, null), acc);
+        acc = function.add(update("Source -> Sink (1/1)", 10L, null), acc);
+        acc = function.add(update("Source -> Sink (1/1)", 12L, null), acc);
+        Assert.assertEquals(12L, (long) function.getResult(acc).f0.get("numRead"));
+    }
+
+    private Tuple3<String, HashMap<String, Long>, HashMap<String, String>> update(
+            String subtaskId, long numRead, String maxValue) {
+        HashMap<String, Long> values = new HashMap<>();
+        values.put("numRead", numRead);
+        HashMap<String, String> stringValues = new HashMap<>();
+        if (maxValue != null) {
+            stringValues.put("maxValue", maxValue);
+        }
+        return Tuple3.of(subtaskId, values, stringValues);
+    }
+}
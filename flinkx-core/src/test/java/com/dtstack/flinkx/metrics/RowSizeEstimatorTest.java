@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.metrics;
+
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.StringData;
+
+import com.dtstack.flinkx.element.ArrayColumnRowData;
+import com.dtstack.flinkx.element.ColumnRowData;
+import com.dtstack.flinkx.element.column.BytesColumn;
+import com.dtstack.flinkx.element.column.LongColumn;
+import com.dtstack.flinkx.element.column.StringColumn;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RowSizeEstimatorTest {
+
+    @Test
+    public void testColumnEstimator() {
+        RowSizeEstimator estimator = RowSizeEstimatorFactory.create(null, 1);
+        Assert.assertTrue(estimator instanceof ColumnRowSizeEstimator);
+
+        ArrayColumnRowData arrayRow = new ArrayColumnRowData(4);
+        arrayRow.setInt(0, 1);
+        arrayRow.setLong(1, 2L);
+        arrayRow.setField(2, new StringColumn("abcde"));
+        Assert.assertEquals(ColumnRowSizeEstimator.ROW_HEADER_SIZE + 4 + 8 + 5, estimator.estimate(arrayRow));
+
+        ColumnRowData columnRow = new ColumnRowData(3);
+        columnRow.addField(new LongColumn(1L));
+        columnRow.addField(new BytesColumn(new byte[10]));
+        columnRow.addField(null);
+        Assert.assertEquals(ColumnRowSizeEstimator.ROW_HEADER_SIZE + 8 + 10, estimator.estimate(columnRow));
+
+        GenericRowData genericRow = GenericRowData.of(StringData.fromString("abc"), 1);
+        Assert.assertEquals(ColumnRowSizeEstimator.ROW_HEADER_SIZE + 3 + 4, estimator.estimate(genericRow));
+    }
+
+    @Test
+    public void testSampledEstimator() {
+        RowSizeEstimator estimator = RowSizeEstimatorFactory.create(RowSizeEstimatorFactory.COLUMN, 2);
+        Assert.assertTrue(estimator instanceof SampledRowSizeEstimator);
+
+        long small = estimator.estimate(GenericRowData.of(StringData.fromString("ab")));
+        Assert.assertEquals(ColumnRowSizeEstimator.ROW_HEADER_SIZE + 2, small);
+        // not sampled, average of the sampled rows
+        Assert.assertEquals(small, estimator.estimate(GenericRowData.of(StringData.fromString("abcdef"))));
+        long large = estimator.estimate(GenericRowData.of(StringData.fromString("abcdefghij")));
+        Assert.assertEquals(ColumnRowSizeEstimator.ROW_HEADER_SIZE + 10, large);
+        Assert.assertEquals((small + large) / 2, estimator.estimate(GenericRowData.of(StringData.fromString("a"))));
+    }
+}
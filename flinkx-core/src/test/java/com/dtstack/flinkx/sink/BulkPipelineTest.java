@@ -0,0 +1,247 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.sink;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BulkPipelineTest {
+
+    private ExecutorService executor;
+    private List<List<String>> sent;
+    private List<String> failed;
+
+    @Before
+    public void setup() {
+        executor = Executors.newCachedThreadPool();
+        sent = Collections.synchronizedList(new ArrayList<>());
+        failed = new ArrayList<>();
+    }
+
+    @After
+    public void cleanup() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testBatchLimits() {
+        BulkPipeline<String> pipeline = new BulkPipeline<>(
+                (requests, callback) -> {
+                    sent.add(requests);
+                    executor.execute(() -> callback.onResponse(null));
+                },
+                (row, message, cause) -> failed.add(message),
+                1, 3, 10, 0, BulkPipeline.BackoffType.EXPONENTIAL, 0, 0);
+        // 请求数达到上限
+        pipeline.add("k", "a", null, 1);
+        pipeline.add("k", "b", null, 1);
+        pipeline.add("k", "c", null, 1);
+        // 字节数达到上限
+        pipeline.add("k", "d", null, 6);
+        pipeline.add("k", "e", null, 6);
+        pipeline.add("k", "f", null, 1);
+        pipeline.flush();
+        pipeline.close();
+
+        Assert.assertEquals(
+                Arrays.asList(Arrays.asList("a", "b", "c"), Arrays.asList("d", "e"), Arrays.asList("f")),
+                sent);
+        Assert.assertTrue(failed.isEmpty());
+    }
+
+    @Test
+    public void testOrderOfSameKey() {
+        BulkPipeline<String> pipeline = new BulkPipeline<>(
+                (requests, callback) -> executor.execute(() -> {
+                    sleep((long) (Math.random() * 5));
+                    sent.add(requests);
+                    callback.onResponse(null);
+                }),
+                (row, message, cause) -> failed.add(message),
+                4, 2, 0, 0, BulkPipeline.BackoffType.EXPONENTIAL, 0, 0);
+        for (int i = 0; i < 100; i++) {
+            pipeline.add("key" + (i % 10), "key" + (i % 10) + ":" + i, null, 1);
+        }
+        pipeline.flush();
+        pipeline.close();
+
+        Map<String, Integer> last = new HashMap<>();
+        int count = 0;
+        synchronized (sent) {
+            for (List<String> batch : sent) {
+                for (String request : batch) {
+                    String[] parts = request.split(":");
+                    int seq = Integer.parseInt(parts[1]);
+                    Assert.assertTrue(last.getOrDefault(parts[0], -1) < seq);
+                    last.put(parts[0], seq);
+                    count++;
+                }
+            }
+        }
+        Assert.assertEquals(100, count);
+    }
+
+    @Test
+    public void testRetryRejectedItems() {
+        BulkPipeline<String> pipeline = new BulkPipeline<>(
+                (requests, callback) -> {
+                    sent.add(requests);
+                    BulkPipeline.ItemFailure[] failures = new BulkPipeline.ItemFailure[requests.size()];
+                    for (int i = 0; i < requests.size(); i++) {
+                        String request = requests.get(i);
+                        if (request.startsWith("reject")) {
+                            failures[i] = new BulkPipeline.ItemFailure(BulkPipeline.STATUS_TOO_MANY_REQUESTS, request, null);
+                        } else if (request.startsWith("bad")) {
+                            failures[i] = new BulkPipeline.ItemFailure(400, request, null);
+                        }
+                    }
+                    executor.execute(() -> callback.onResponse(failures));
+                },
+                (row, message, cause) -> failed.add(message),
+                1, 10, 0, 2, BulkPipeline.BackoffType.EXPONENTIAL, 1, 0);
+        pipeline.add("k", "ok", null, 1);
+        pipeline.add("k", "reject", null, 1);
+        pipeline.add("k", "bad", null, 1);
+        pipeline.flush();
+        pipeline.close();
+
+        // 只重试被拒绝的请求，超过重试次数后交给failureHandler
+        Assert.assertEquals(
+                Arrays.asList(
+                        Arrays.asList("ok", "reject", "bad"),
+                        Collections.singletonList("reject"),
+                        Collections.singletonList("reject")),
+                sent);
+        Assert.assertEquals(Arrays.asList("bad", "reject"), failed);
+    }
+
+    @Test
+    public void testRetryFailedRequest() {
+        AtomicInteger attempts = new AtomicInteger();
+        BulkPipeline<String> pipeline = new BulkPipeline<>(
+                (requests, callback) -> {
+                    if (attempts.incrementAndGet() < 3) {
+                        callback.onFailure(BulkPipeline.STATUS_SERVICE_UNAVAILABLE, new RuntimeException("no node available"));
+                        return;
+                    }
+                    sent.add(requests);
+                    callback.onResponse(null);
+                },
+                (row, message, cause) -> failed.add(message),
+                2, 10, 0, 3, BulkPipeline.BackoffType.CONSTANT, 1, 0);
+        pipeline.add("k", "a", null, 1);
+        pipeline.flush();
+        Assert.assertEquals(Collections.singletonList(Collections.singletonList("a")), sent);
+        Assert.assertTrue(failed.isEmpty());
+
+        attempts.set(-10);
+        pipeline.add("k", "b", null, 1);
+        pipeline.flush();
+        pipeline.close();
+        Assert.assertEquals(Collections.singletonList("no node available"), failed);
+    }
+
+    @Test
+    public void testNotRetryOtherFailures() {
+        AtomicInteger attempts = new AtomicInteger();
+        BulkPipeline<String> pipeline = new BulkPipeline<>(
+                (requests, callback) -> {
+                    attempts.incrementAndGet();
+                    if (requests.contains("large")) {
+                        callback.onFailure(413, new RuntimeException("request entity too large"));
+                    } else {
+                        throw new RuntimeException("connection refused");
+                    }
+                },
+                (row, message, cause) -> failed.add(message),
+                2, 1, 0, 3, BulkPipeline.BackoffType.EXPONENTIAL, 1, 0);
+        pipeline.add("k", "large", null, 1);
+        pipeline.add("k", "b", null, 1);
+        pipeline.flush();
+        pipeline.close();
+
+        Assert.assertEquals(2, attempts.get());
+        Assert.assertEquals(Arrays.asList("request entity too large", "connection refused"), failed);
+    }
+
+    @Test
+    public void testBackoffDisabled() {
+        BulkPipeline<String> pipeline = new BulkPipeline<>(
+                (requests, callback) -> {
+                    sent.add(requests);
+                    callback.onFailure(BulkPipeline.STATUS_TOO_MANY_REQUESTS, new RuntimeException("rejected"));
+                },
+                (row, message, cause) -> failed.add(message),
+                1, 10, 0, 3, BulkPipeline.BackoffType.DISABLED, 1, 0);
+        pipeline.add("k", "a", null, 1);
+        pipeline.flush();
+        pipeline.close();
+
+        Assert.assertEquals(1, sent.size());
+        Assert.assertEquals(Collections.singletonList("rejected"), failed);
+    }
+
+    @Test
+    public void testRequestTimeout() {
+        List<BulkPipeline.BulkCallback> callbacks = Collections.synchronizedList(new ArrayList<>());
+        BulkPipeline<String> pipeline = new BulkPipeline<>(
+                (requests, callback) -> {
+                    sent.add(requests);
+                    // 第一个请求一直没有回调
+                    if (sent.size() > 1) {
+                        callback.onResponse(null);
+                    } else {
+                        callbacks.add(callback);
+                    }
+                },
+                (row, message, cause) -> failed.add(message),
+                1, 1, 0, 3, BulkPipeline.BackoffType.EXPONENTIAL, 1, 50);
+        pipeline.add("k", "a", null, 1);
+        pipeline.add("k", "b", null, 1);
+        pipeline.flush();
+
+        // 超时后再回调不会重复处理
+        callbacks.get(0).onResponse(null);
+        pipeline.flush();
+        pipeline.close();
+
+        Assert.assertEquals(Arrays.asList(Collections.singletonList("a"), Collections.singletonList("b")), sent);
+        Assert.assertEquals(1, failed.size());
+        Assert.assertTrue(failed.get(0).contains("timed out"));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
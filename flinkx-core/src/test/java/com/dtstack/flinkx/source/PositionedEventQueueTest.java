@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.flinkx.source;
+
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class PositionedEventQueueTest {
+
+    @Test
+    public void testPollInOrderWithPosition() throws Exception {
+        PositionedEventQueue<Long> queue = new PositionedEventQueue<>(8, 3);
+        for (long i = 1; i <= 5; i++) {
+            queue.put(GenericRowData.of(i), i);
+        }
+        queue.putPosition(6L);
+        Assert.assertEquals(6, queue.size());
+        Assert.assertNull(queue.getEmittedPosition());
+
+        for (long i = 1; i <= 5; i++) {
+            RowData row = queue.poll(10, TimeUnit.MILLISECONDS);
+            Assert.assertEquals(i, row.getLong(0));
+            Assert.assertEquals(Long.valueOf(i), queue.getEmittedPosition());
+        }
+        // 只有位置标记时不返回数据，但位置前进
+        Assert.assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(Long.valueOf(6L), queue.getEmittedPosition());
+        Assert.assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testPutBlocksWhenFull() throws Exception {
+        PositionedEventQueue<Long> queue = new PositionedEventQueue<>(2, 2);
+        queue.put(GenericRowData.of(1L), 1L);
+        queue.put(GenericRowData.of(2L), 2L);
+
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean done = new AtomicBoolean();
+        Thread producer =
+                new Thread(
+                        () -> {
+                            started.countDown();
+                            try {
+                                queue.put(GenericRowData.of(3L), 3L);
+                                done.set(true);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        });
+        producer.start();
+        started.await();
+        Thread.sleep(50);
+        Assert.assertFalse(done.get());
+
+        Assert.assertEquals(1L, queue.poll(10, TimeUnit.MILLISECONDS).getLong(0));
+        producer.join(1000);
+        Assert.assertTrue(done.get());
+        Assert.assertEquals(2L, queue.poll(10, TimeUnit.MILLISECONDS).getLong(0));
+        Assert.assertEquals(3L, queue.poll(10, TimeUnit.MILLISECONDS).getLong(0));
+        Assert.assertEquals(Long.valueOf(3L), queue.getEmittedPosition());
+    }
+
+    @Test
+    public void testClearReleasesProducer() throws Exception {
+        PositionedEventQueue<Long> queue = new PositionedEventQueue<>(1);
+        queue.put(GenericRowData.of(1L), 1L);
+        Thread producer =
+                new Thread(
+                        () -> {
+                            try {
+                                queue.put(GenericRowData.of(2L), 2L);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        });
+        producer.start();
+        Thread.sleep(50);
+        queue.clear();
+        producer.join(1000);
+        Assert.assertFalse(producer.isAlive());
+        Assert.assertEquals(2L, queue.poll(10, TimeUnit.MILLISECONDS).getLong(0));
+    }
+}